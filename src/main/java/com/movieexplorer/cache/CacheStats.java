@@ -0,0 +1,31 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.cache;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Immutable snapshot of a cache's size, weight (e.g. bytes held) and
+ * hit/miss/eviction counters.
+ */
+public record CacheStats(
+    String name,
+    int size,
+    int capacity,
+    long weight,
+    long hits,
+    long misses,
+    long evictions,
+    long expirations) {
+
+    /**
+     * Fraction of lookups served from the cache (0 when there were none).
+     */
+    @JsonProperty("hitRate")
+    public double hitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
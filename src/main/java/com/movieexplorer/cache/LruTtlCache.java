@@ -0,0 +1,251 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongBiFunction;
+
+/**
+ * Bounded in-heap cache with LRU eviction and per-entry expiry.
+ * Entries are kept in access order so the least recently used one is evicted
+ * first once the size bound (and optional weight bound, e.g. bytes) is reached.
+ * A ReentrantLock is used instead of synchronized so callers running on
+ * virtual threads are never pinned.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class LruTtlCache<K, V> {
+
+    // Name reported in stats
+    private final String name;
+
+    // Maximum number of entries kept in memory
+    private final int maxEntries;
+
+    // Default time-to-live applied by put(key, value)
+    private final Duration defaultTtl;
+
+    // Computes the weight of an entry, and the total weight allowed
+    private final ToLongBiFunction<K, V> weigher;
+    private final long maxWeight;
+
+    // How long an expired entry is kept for getStale() before it is dropped
+    private final long staleGraceNanos;
+
+    // Time source in nanoseconds (overridable for tests)
+    private final LongSupplier nanoClock;
+
+    // Sum of the weights of all entries, guarded by lock
+    private long weight;
+
+    // Access-ordered map backing the cache
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    // Guards all access to the map
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+
+    public LruTtlCache(String name, int maxEntries, Duration defaultTtl) {
+        this(name, maxEntries, defaultTtl, (k, v) -> 1, Long.MAX_VALUE, System::nanoTime);
+    }
+
+    public LruTtlCache(String name, int maxEntries, Duration defaultTtl,
+                       ToLongBiFunction<K, V> weigher, long maxWeight) {
+        this(name, maxEntries, defaultTtl, weigher, maxWeight, System::nanoTime);
+    }
+
+    public LruTtlCache(String name, int maxEntries, Duration defaultTtl,
+                       ToLongBiFunction<K, V> weigher, long maxWeight, Duration staleGrace) {
+        this(name, maxEntries, defaultTtl, weigher, maxWeight, staleGrace, System::nanoTime);
+    }
+
+    public LruTtlCache(String name, int maxEntries, Duration defaultTtl,
+                       ToLongBiFunction<K, V> weigher, long maxWeight, LongSupplier nanoClock) {
+        this(name, maxEntries, defaultTtl, weigher, maxWeight, Duration.ZERO, nanoClock);
+    }
+
+    public LruTtlCache(String name, int maxEntries, Duration defaultTtl,
+                       ToLongBiFunction<K, V> weigher, long maxWeight, Duration staleGrace,
+                       LongSupplier nanoClock) {
+        if (maxEntries <= 0 || maxWeight <= 0) {
+            throw new IllegalArgumentException("maxEntries and maxWeight must be positive");
+        }
+        this.name = name;
+        this.maxEntries = maxEntries;
+        this.defaultTtl = defaultTtl;
+        this.weigher = weigher;
+        this.maxWeight = maxWeight;
+        this.staleGraceNanos = staleGrace.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Returns the cached value, or null if absent or expired.
+     */
+    public V get(K key) {
+        lock.lock();
+        try {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            long expiredFor = nanoClock.getAsLong() - entry.expiresAt;
+            if (expiredFor >= 0) {
+                if (expiredFor >= staleGraceNanos) {
+                    entries.remove(key);
+                    weight -= entry.weight;
+                    expirations.increment();
+                }
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return entry.value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the value even if it has expired, as long as it expired less
+     * than the stale grace period ago; for serving something when the
+     * source cannot be reached. Not counted as a hit or miss.
+     */
+    public V getStale(K key) {
+        lock.lock();
+        try {
+            Entry<V> entry = entries.get(key);
+            if (entry == null || nanoClock.getAsLong() - entry.expiresAt >= staleGraceNanos) {
+                return null;
+            }
+            return entry.value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stores a value with the default time-to-live.
+     */
+    public void put(K key, V value) {
+        put(key, value, defaultTtl);
+    }
+
+    /**
+     * Stores a value with a specific time-to-live, evicting the least
+     * recently used entries if the size or weight bound is exceeded.
+     */
+    public void put(K key, V value, Duration ttl) {
+        long expiresAt = nanoClock.getAsLong() + ttl.toNanos();
+        long entryWeight = weigher.applyAsLong(key, value);
+        lock.lock();
+        try {
+            Entry<V> previous = entries.put(key, new Entry<>(value, expiresAt, entryWeight));
+            weight += entryWeight - (previous == null ? 0 : previous.weight);
+            puts.increment();
+            Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+            while ((entries.size() > maxEntries || weight > maxWeight) && it.hasNext()) {
+                weight -= it.next().getValue().weight;
+                it.remove();
+                evictions.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes a key from the cache.
+     */
+    public void invalidate(K key) {
+        lock.lock();
+        try {
+            Entry<V> removed = entries.remove(key);
+            if (removed != null) weight -= removed.weight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Live (unexpired) entries with their remaining time-to-live, least
+     * recently used first. Used to persist the cache and reload it later.
+     */
+    public List<Snapshot<K, V>> snapshot() {
+        long now = nanoClock.getAsLong();
+        lock.lock();
+        try {
+            List<Snapshot<K, V>> live = new ArrayList<>(entries.size());
+            for (Map.Entry<K, Entry<V>> e : entries.entrySet()) {
+                long remaining = e.getValue().expiresAt - now;
+                if (remaining > 0) {
+                    live.add(new Snapshot<>(e.getKey(), e.getValue().value, Duration.ofNanos(remaining)));
+                }
+            }
+            return live;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Current number of entries (may include expired entries not yet read).
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Snapshot of the counters for this cache.
+     */
+    public CacheStats stats() {
+        int size;
+        long currentWeight;
+        lock.lock();
+        try {
+            size = entries.size();
+            currentWeight = weight;
+        } finally {
+            lock.unlock();
+        }
+        return new CacheStats(name, size, maxEntries, currentWeight,
+            hits.sum(), misses.sum(), evictions.sum(), expirations.sum());
+    }
+
+    /**
+     * Number of values stored since the cache was created.
+     */
+    public long puts() {
+        return puts.sum();
+    }
+
+    /**
+     * A live entry with its remaining time-to-live.
+     */
+    public record Snapshot<K, V>(K key, V value, Duration remainingTtl) { }
+
+    // Value holder with its absolute expiry time in nanoseconds and its weight
+    private record Entry<V>(V value, long expiresAt, long weight) { }
+}
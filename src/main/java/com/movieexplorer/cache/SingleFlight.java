@@ -0,0 +1,102 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicates concurrent calls that share the same key.
+ * The first caller for a key (the leader) runs the upstream call; callers that
+ * arrive while it is in flight wait on the same future instead of starting
+ * their own. The entry is removed as soon as the call completes, so neither
+ * results nor failures are cached here. Uses only per-key atomic map
+ * operations, no global lock.
+ *
+ * @param <K> key type
+ * @param <V> result type
+ */
+public class SingleFlight<K, V> {
+
+    // Name reported in stats
+    private final String name;
+
+    // Calls currently in flight, by key
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    // Calls that actually went upstream
+    private final LongAdder executions = new LongAdder();
+
+    // Calls that joined an in-flight call instead of going upstream
+    private final LongAdder collapsed = new LongAdder();
+
+    public SingleFlight(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Runs the call for this key, or joins the one already in flight.
+     * Runtime exceptions thrown by the call are rethrown to every waiter as-is.
+     */
+    public V execute(K key, Supplier<V> call) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+
+        if (existing != null) {
+            collapsed.increment();
+            return await(existing);
+        }
+
+        executions.increment();
+        try {
+            mine.complete(call.get());
+        } catch (Throwable t) {
+            mine.completeExceptionally(t);
+        } finally {
+            inFlight.remove(key, mine);
+        }
+        return await(mine);
+    }
+
+    /**
+     * Number of calls currently in flight.
+     */
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    /**
+     * Snapshot of the counters for this group.
+     */
+    public Stats stats() {
+        return new Stats(name, executions.sum(), collapsed.sum(), inFlight.size());
+    }
+
+    /**
+     * Waits for a shared future, unwrapping its failure for the caller.
+     */
+    private V await(CompletableFuture<V> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for in-flight call", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error err) throw err;
+            throw new CompletionException(cause);
+        }
+    }
+
+    /**
+     * Counters for one single-flight group.
+     */
+    public record Stats(String name, long executions, long collapsed, int inFlight) { }
+}
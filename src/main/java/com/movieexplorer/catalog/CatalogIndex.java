@@ -0,0 +1,410 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.catalog;
+
+import com.movieexplorer.model.CompactMovie;
+import com.movieexplorer.model.Movie;
+import com.movieexplorer.model.MovieDictionary;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over the movies we have fetched.
+ * Every term of the title, actors, director, genre, plot and language maps to
+ * a posting list of document ids, each tagged with the fields the term
+ * occurs in so matches can be weighted (a title match beats a plot match).
+ * Query terms match exactly, by prefix, or within one edit (typos), using a
+ * deletion-neighbourhood table so fuzzy lookup never scans the vocabulary.
+ * Documents are held as CompactMovie, so facet filters compare primitives
+ * and a genre mask instead of re-parsing strings.
+ * Reads share a read lock; indexing a movie takes the write lock.
+ */
+public class CatalogIndex {
+
+    /**
+     * Indexed fields and the score a match in each contributes.
+     */
+    enum Field {
+        TITLE(3.0), DIRECTOR(2.0), ACTORS(2.0), GENRE(2.0), PLOT(1.0), LANGUAGE(1.0);
+
+        final double weight;
+        final int bit = 1 << ordinal();
+
+        Field(double weight) {
+            this.weight = weight;
+        }
+    }
+
+    // Query-only stopwords, dropped unless the query consists of nothing else
+    private static final Set<String> STOPWORDS = Set.of("a", "an", "and", "of", "the", "in", "on", "to");
+
+    // Score multipliers for the kind of match a query term made
+    private static final double EXACT = 1.0;
+    private static final double PREFIX = 0.6;
+    private static final double FUZZY = 0.5;
+
+    // Upper bound on index terms a single prefix may expand to
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    // Shortest query term that is matched by prefix / fuzzily
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MIN_FUZZY_LENGTH = 4;
+
+    // Documents by id; null once replaced by a newer version of the same movie
+    private final List<CompactMovie> docs = new ArrayList<>();
+    private final Map<String, Integer> docIdsByImdbId = new HashMap<>();
+
+    // Term -> posting list; sorted so prefixes resolve with a range view
+    private final TreeMap<String, Postings> postings = new TreeMap<>();
+
+    // Term with one character deleted -> terms it was derived from (fuzzy matching)
+    private final Map<String, Set<String>> deletions = new HashMap<>();
+
+    private final MovieDictionary dictionary;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public CatalogIndex(MovieDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * Adds a movie, replacing any earlier version with the same imdbID.
+     */
+    public void add(Movie movie) {
+        if (movie == null || movie.getImdbID() == null) return;
+        lock.writeLock().lock();
+        try {
+            Integer previous = docIdsByImdbId.get(movie.getImdbID());
+            if (previous != null) remove(previous);
+
+            int docId = docs.size();
+            docs.add(CompactMovie.from(movie, dictionary));
+            docIdsByImdbId.put(movie.getImdbID(), docId);
+            for (Field field : Field.values()) {
+                for (String term : tokenize(text(movie, field))) {
+                    index(term, docId, field);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Number of distinct movies in the index.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docIdsByImdbId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of distinct terms in the index.
+     */
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Runs a query: every (non-stopword) term must match in some field, then
+     * facet filters are applied and hits are ranked by score, then rating.
+     * A blank query text matches every movie, so facets can be browsed alone.
+     */
+    public CatalogResult search(CatalogQuery query) {
+        long start = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            Map<Integer, Double> scores = match(queryTerms(query.text()));
+
+            int genreId = query.genre() == null ? -1 : genreId(query.genre());
+            if (query.genre() != null && genreId < 0) scores = Map.of();
+
+            List<Scored> matches = new ArrayList<>();
+            int[] genreCounts = new int[MovieDictionary.MASKED_GENRES];
+            for (Map.Entry<Integer, Double> e : scores.entrySet()) {
+                CompactMovie movie = docs.get(e.getKey());
+                if (!matchesFacets(movie, query, genreId)) continue;
+                for (long bits = movie.genreMask(); bits != 0; bits &= bits - 1) {
+                    genreCounts[Long.numberOfTrailingZeros(bits)]++;
+                }
+                matches.add(new Scored(e.getKey(), e.getValue(), movie.ratingTenths()));
+            }
+            matches.sort(Comparator.comparingDouble(Scored::score)
+                .thenComparingInt(Scored::rating).reversed());
+
+            int total = matches.size();
+            List<CatalogResult.Hit> hits = new ArrayList<>(Math.min(query.limit(), total));
+            for (Scored match : matches.subList(0, Math.min(query.limit(), total))) {
+                hits.add(new CatalogResult.Hit(docs.get(match.docId()).toMovie(), match.score()));
+            }
+            Map<String, Integer> genres = new TreeMap<>();
+            for (int id = 0; id < genreCounts.length; id++) {
+                if (genreCounts[id] > 0) genres.put(dictionary.genre(id), genreCounts[id]);
+            }
+            return new CatalogResult(hits, total, genres, (System.nanoTime() - start) / 1_000);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lowercases, strips accents and splits on anything that is not a letter or digit.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank() || "N/A".equals(text)) return List.of();
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFD)
+            .replaceAll("\\p{M}+", "")
+            .toLowerCase(Locale.ROOT);
+        List<String> terms = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                terms.add(folded.substring(start, i));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Scores every document matching all terms; with no terms, every live document scores 0.
+     */
+    private Map<Integer, Double> match(List<String> terms) {
+        if (terms.isEmpty()) {
+            Map<Integer, Double> all = new HashMap<>();
+            for (int docId : docIdsByImdbId.values()) all.put(docId, 0.0);
+            return all;
+        }
+        Map<Integer, Double> scores = null;
+        for (String term : terms) {
+            Map<Integer, Double> termScores = scoreTerm(term);
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                Map<Integer, Double> both = new HashMap<>();
+                for (Map.Entry<Integer, Double> e : scores.entrySet()) {
+                    Double s = termScores.get(e.getKey());
+                    if (s != null) both.put(e.getKey(), e.getValue() + s);
+                }
+                scores = both;
+            }
+            if (scores.isEmpty()) break;
+        }
+        return scores;
+    }
+
+    /**
+     * Best score per document for one query term across its exact, prefix and fuzzy expansions.
+     */
+    private Map<Integer, Double> scoreTerm(String term) {
+        Map<String, Double> expansions = new LinkedHashMap<>();
+        if (postings.containsKey(term)) expansions.put(term, EXACT);
+        if (term.length() >= MIN_PREFIX_LENGTH) {
+            SortedMap<String, Postings> range = postings.subMap(term, term + Character.MAX_VALUE);
+            int n = 0;
+            for (String candidate : range.keySet()) {
+                if (n++ >= MAX_PREFIX_EXPANSIONS) break;
+                expansions.putIfAbsent(candidate, PREFIX);
+            }
+        }
+        if (expansions.isEmpty() && term.length() >= MIN_FUZZY_LENGTH) {
+            for (String candidate : fuzzyCandidates(term)) expansions.putIfAbsent(candidate, FUZZY);
+        }
+
+        Map<Integer, Double> scores = new HashMap<>();
+        for (Map.Entry<String, Double> expansion : expansions.entrySet()) {
+            Postings list = postings.get(expansion.getKey());
+            for (int i = 0; i < list.size; i++) {
+                double score = fieldScore(list.fields[i]) * expansion.getValue();
+                scores.merge(list.docIds[i], score, Math::max);
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * Index terms within one insertion, deletion, substitution or adjacent
+     * transposition of the given term.
+     */
+    private Set<String> fuzzyCandidates(String term) {
+        Set<String> candidates = new HashSet<>();
+        // Term itself is a deletion of an index term (one character missing from the query)
+        candidates.addAll(deletions.getOrDefault(term, Set.of()));
+        for (String deleted : deletionsOf(term)) {
+            // One extra character in the query
+            if (postings.containsKey(deleted)) candidates.add(deleted);
+            // One substituted or two swapped characters: both sides share a deletion
+            for (String candidate : deletions.getOrDefault(deleted, Set.of())) {
+                if (candidate.length() == term.length() && oneSubstitutionOrSwap(candidate, term)) {
+                    candidates.add(candidate);
+                }
+            }
+        }
+        return candidates;
+    }
+
+    private void index(String term, int docId, Field field) {
+        Postings list = postings.get(term);
+        if (list == null) {
+            list = new Postings();
+            postings.put(term, list);
+            if (term.length() >= MIN_FUZZY_LENGTH) {
+                for (String deleted : deletionsOf(term)) {
+                    deletions.computeIfAbsent(deleted, k -> new HashSet<>(2)).add(term);
+                }
+            }
+        }
+        list.add(docId, field.bit);
+    }
+
+    /**
+     * Drops a superseded document from every posting list it appears in.
+     */
+    private void remove(int docId) {
+        Movie old = docs.get(docId).toMovie();
+        for (Field field : Field.values()) {
+            for (String term : tokenize(text(old, field))) {
+                Postings list = postings.get(term);
+                if (list == null) continue;
+                list.remove(docId);
+                if (list.size == 0) {
+                    postings.remove(term);
+                    for (String deleted : deletionsOf(term)) {
+                        Set<String> terms = deletions.get(deleted);
+                        if (terms != null && terms.remove(term) && terms.isEmpty()) deletions.remove(deleted);
+                    }
+                }
+            }
+        }
+        docs.set(docId, null);
+        docIdsByImdbId.remove(old.getImdbID());
+    }
+
+    private static boolean matchesFacets(CompactMovie movie, CatalogQuery query, int genreId) {
+        if (query.yearFrom() != null && movie.year() < query.yearFrom()) return false;
+        if (query.yearTo() != null && (movie.year() <= 0 || movie.year() > query.yearTo())) return false;
+        if (query.minRating() != null && movie.rating() < query.minRating()) return false;
+        return genreId < 0 || movie.hasGenre(genreId);
+    }
+
+    /**
+     * Dictionary id of a genre, matched case-insensitively; -1 if unknown.
+     */
+    private int genreId(String genre) {
+        String wanted = genre.trim();
+        for (int id = 0; id < dictionary.genreCount(); id++) {
+            if (dictionary.genre(id).equalsIgnoreCase(wanted)) return id;
+        }
+        return -1;
+    }
+
+    private static List<String> queryTerms(String text) {
+        List<String> terms = tokenize(text);
+        List<String> meaningful = terms.stream().filter(t -> !STOPWORDS.contains(t)).distinct().toList();
+        return meaningful.isEmpty() ? terms.stream().distinct().toList() : meaningful;
+    }
+
+    private static List<String> deletionsOf(String term) {
+        List<String> result = new ArrayList<>(term.length());
+        for (int i = 0; i < term.length(); i++) {
+            result.add(term.substring(0, i) + term.substring(i + 1));
+        }
+        return result;
+    }
+
+    private static boolean oneSubstitutionOrSwap(String a, String b) {
+        int first = -1;
+        int diffs = 0;
+        for (int i = 0; i < a.length(); i++) {
+            if (a.charAt(i) == b.charAt(i)) continue;
+            if (++diffs > 2) return false;
+            if (first < 0) first = i;
+        }
+        if (diffs == 1) return true;
+        return diffs == 2 && first + 1 < a.length()
+            && a.charAt(first) == b.charAt(first + 1) && a.charAt(first + 1) == b.charAt(first);
+    }
+
+    private static double fieldScore(int mask) {
+        double score = 0;
+        for (Field field : Field.values()) {
+            if ((mask & field.bit) != 0) score += field.weight;
+        }
+        return score;
+    }
+
+    private static String text(Movie movie, Field field) {
+        return switch (field) {
+            case TITLE -> movie.getTitle();
+            case DIRECTOR -> movie.getDirector();
+            case ACTORS -> movie.getActors();
+            case GENRE -> movie.getGenre();
+            case PLOT -> movie.getPlot();
+            case LANGUAGE -> movie.getLanguage();
+        };
+    }
+
+    /**
+     * Sorted document ids for one term with, per document, a bitmask of the
+     * fields the term appears in. Ids are appended in increasing order, so
+     * adds are O(1) amortized.
+     */
+    private static final class Postings {
+        int[] docIds = new int[2];
+        int[] fields = new int[2];
+        int size;
+
+        void add(int docId, int fieldBit) {
+            if (size > 0 && docIds[size - 1] == docId) {
+                fields[size - 1] |= fieldBit;
+                return;
+            }
+            if (size == docIds.length) {
+                docIds = Arrays.copyOf(docIds, size * 2);
+                fields = Arrays.copyOf(fields, size * 2);
+            }
+            docIds[size] = docId;
+            fields[size] = fieldBit;
+            size++;
+        }
+
+        void remove(int docId) {
+            int i = Arrays.binarySearch(docIds, 0, size, docId);
+            if (i < 0) return;
+            System.arraycopy(docIds, i + 1, docIds, i, size - i - 1);
+            System.arraycopy(fields, i + 1, fields, i, size - i - 1);
+            size--;
+        }
+    }
+
+    // A matching document with its score and rating, for ranking
+    private record Scored(int docId, double score, int rating) { }
+}
@@ -0,0 +1,18 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.catalog;
+
+/**
+ * A catalog search: free text plus optional facet filters.
+ * @param text      Words to match against title, people, genre, plot and language (may be blank).
+ * @param genre     Only movies tagged with this genre (case-insensitive), or null.
+ * @param yearFrom  Earliest release year, or null.
+ * @param yearTo    Latest release year, or null.
+ * @param minRating Lowest IMDb rating, or null.
+ * @param limit     Maximum number of hits returned.
+ */
+public record CatalogQuery(String text, String genre, Integer yearFrom, Integer yearTo,
+                           Double minRating, int limit) {
+}
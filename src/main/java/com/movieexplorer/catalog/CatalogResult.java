@@ -0,0 +1,22 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.catalog;
+
+import com.movieexplorer.model.Movie;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ranked catalog hits with the total match count, genre facet counts over
+ * all matches, and the time the index spent answering.
+ */
+public record CatalogResult(List<Hit> hits, int total, Map<String, Integer> genres, long tookMicros) {
+
+    /**
+     * A matching movie and its relevance score.
+     */
+    public record Hit(Movie movie, double score) { }
+}
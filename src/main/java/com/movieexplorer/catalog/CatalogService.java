@@ -0,0 +1,155 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.catalog;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.movieexplorer.model.CachedMovie;
+import com.movieexplorer.model.Movie;
+import com.movieexplorer.model.MovieDictionary;
+import com.movieexplorer.repository.CachedMovieRepository;
+import com.movieexplorer.service.MovieFetchedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local catalog of every movie fetched so far, searchable without OMDb.
+ * The persisted movie store (the cache's second tier) is the catalog's
+ * source of truth: it is read into the index page by page at startup, and
+ * each newly fetched movie is added as it arrives.
+ * The same movies feed a SimilarityIndex, which answers recommendations
+ * locally when its neighbours are similar enough to be trusted.
+ */
+@Service
+public class CatalogService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogService.class);
+
+    private final CachedMovieRepository movieRepo;
+    // Shared by both indexes, which hold the same movies
+    private final MovieDictionary dictionary = new MovieDictionary();
+    private final CatalogIndex index = new CatalogIndex(dictionary);
+    private final SimilarityIndex similarity = new SimilarityIndex(dictionary);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // Rows read per query while loading the index
+    private final int loadPageSize;
+
+    // Upper bound on hits a single search may return
+    private final int maxLimit;
+
+    // Local recommendations: on/off, how many, and the lowest similarity each must reach
+    private final boolean localRecommendations;
+    private final int recommendationCount;
+    private final double minSimilarity;
+
+    private final LongAdder localAnswers = new LongAdder();
+    private final LongAdder lowConfidence = new LongAdder();
+
+    public CatalogService(CachedMovieRepository movieRepo,
+                          @Value("${catalog.load-page-size:500}") int loadPageSize,
+                          @Value("${catalog.max-limit:100}") int maxLimit,
+                          @Value("${recommend.local.enabled:true}") boolean localRecommendations,
+                          @Value("${recommend.local.count:3}") int recommendationCount,
+                          @Value("${recommend.local.min-score:0.5}") double minSimilarity) {
+        this.movieRepo = movieRepo;
+        this.loadPageSize = loadPageSize;
+        this.maxLimit = maxLimit;
+        this.localRecommendations = localRecommendations;
+        this.recommendationCount = recommendationCount;
+        this.minSimilarity = minSimilarity;
+    }
+
+    /**
+     * Searches the catalog; the limit is clamped to [1, maxLimit].
+     */
+    public CatalogResult search(CatalogQuery query) {
+        int limit = Math.max(1, Math.min(query.limit(), maxLimit));
+        return index.search(new CatalogQuery(query.text(), query.genre(), query.yearFrom(),
+            query.yearTo(), query.minRating(), limit));
+    }
+
+    /**
+     * Movies similar to the given one within the genre/mood filters, if the
+     * catalog can answer confidently: the configured number of neighbours,
+     * each at least minSimilarity similar. Empty means "ask Gemini".
+     */
+    public Optional<List<Movie>> recommend(Movie movie, List<String> genres, List<String> moods) {
+        if (!localRecommendations || movie == null || movie.getImdbID() == null) return Optional.empty();
+        List<SimilarityIndex.Neighbour> neighbours =
+            similarity.similar(movie.getImdbID(), genres, moods, recommendationCount);
+        if (neighbours.size() < recommendationCount
+            || neighbours.get(neighbours.size() - 1).score() < minSimilarity) {
+            lowConfidence.increment();
+            return Optional.empty();
+        }
+        localAnswers.increment();
+        return Optional.of(neighbours.stream().map(SimilarityIndex.Neighbour::movie).toList());
+    }
+
+    /**
+     * Adds a movie fetched from OMDb to the catalog.
+     */
+    @EventListener
+    public void onMovieFetched(MovieFetchedEvent event) {
+        index.add(event.movie());
+        similarity.add(event.movie());
+    }
+
+    /**
+     * Builds the index from the persisted store once the application is up.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.nanoTime();
+        int skipped = 0;
+        try {
+            Page<CachedMovie> page = movieRepo.findAll(PageRequest.of(0, loadPageSize, Sort.by("imdbId")));
+            while (true) {
+                for (CachedMovie row : page) {
+                    try {
+                        Movie movie = objectMapper.readValue(row.getPayload(), Movie.class);
+                        index.add(movie);
+                        similarity.add(movie);
+                    } catch (Exception e) {
+                        skipped++;
+                    }
+                }
+                if (!page.hasNext()) break;
+                page = movieRepo.findAll(page.nextPageable());
+            }
+        } catch (Exception e) {
+            // The catalog still fills up from new fetches
+            log.warn("Could not load movie catalog: {}", e.getMessage());
+        }
+        log.info("Loaded {} movies ({} terms) into the catalog in {} ms, skipped {} unreadable rows",
+            index.size(), index.termCount(), (System.nanoTime() - start) / 1_000_000, skipped);
+    }
+
+    /**
+     * Movie and term counts.
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("movies", index.size());
+        stats.put("terms", index.termCount());
+        stats.put("similarityMovies", similarity.size());
+        stats.put("localRecommendations", localAnswers.sum());
+        stats.put("lowConfidenceRecommendations", lowConfidence.sum());
+        return stats;
+    }
+}
@@ -0,0 +1,389 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.catalog;
+
+import com.movieexplorer.model.CompactMovie;
+import com.movieexplorer.model.Movie;
+import com.movieexplorer.model.MovieDictionary;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Nearest-neighbour index over the movies we have fetched, for answering
+ * "movies like X" locally. Each movie is a feature vector of genres,
+ * director, actors, plot terms (TF-IDF), year and rating; the similarity of
+ * two movies is a weighted sum of per-feature similarities in [0, 1].
+ * Movies are added one at a time: plot document frequencies are kept as
+ * counts and IDF is applied at query time. Only the plot vector norms
+ * depend on IDF; each is computed when its movie is added and all are
+ * recomputed whenever the collection has doubled since the last time, so
+ * they stay close to exact at an amortized constant cost per movie.
+ * Neighbours are only scored among the movies sharing a genre, a person or
+ * one of the query's most distinctive plot terms with it, found through
+ * posting lists, rather than the whole collection.
+ * Replaced versions stay in the posting lists and are skipped.
+ * Reads share a read lock; adding a movie takes the write lock.
+ */
+public class SimilarityIndex {
+
+    /**
+     * A neighbour and its similarity to the query movie, in [0, 1].
+     */
+    public record Neighbour(Movie movie, double score) { }
+
+    // Feature weights; they sum to 1 so scores stay in [0, 1]
+    private static final double GENRE_WEIGHT = 0.30;
+    private static final double DIRECTOR_WEIGHT = 0.10;
+    private static final double ACTORS_WEIGHT = 0.15;
+    private static final double PLOT_WEIGHT = 0.25;
+    private static final double YEAR_WEIGHT = 0.10;
+    private static final double RATING_WEIGHT = 0.10;
+
+    // Share of the final score given to how well a movie fits the requested moods
+    private static final double MOOD_WEIGHT = 0.2;
+
+    // Years apart at which year similarity has dropped to 1/e
+    private static final double YEAR_SCALE = 15.0;
+
+    // Plot terms of the query movie used to find candidates, and the share of
+    // movies above which a term is too common to be worth following
+    private static final int CANDIDATE_PLOT_TERMS = 8;
+    private static final double MAX_PLOT_TERM_SHARE = 0.2;
+
+    // Movies scored per query at most (beyond this, genre postings are no longer followed)
+    private static final int MAX_CANDIDATES = 5000;
+
+    private static final Set<String> STOPWORDS = Set.of(
+        "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "from", "has", "have", "he", "her",
+        "his", "in", "into", "is", "it", "its", "of", "on", "one", "or", "she", "that", "the", "their",
+        "them", "they", "this", "to", "was", "when", "where", "who", "whose", "with", "after", "before",
+        "while", "him", "about", "must", "two", "all", "out", "up", "own", "new");
+
+    // Genres (as OMDb names them) that suit each mood the recommendation form offers
+    private static final Map<String, List<String>> MOOD_GENRES = Map.of(
+        "uplifting", List.of("Comedy", "Family", "Animation", "Musical", "Sport", "Biography"),
+        "dark", List.of("Crime", "Horror", "Thriller", "Film-Noir", "War", "Mystery"),
+        "romantic", List.of("Romance"),
+        "suspenseful", List.of("Thriller", "Mystery", "Crime", "Horror"),
+        "nostalgic", List.of("Family", "Musical", "Animation", "History", "Western"),
+        "emotional", List.of("Drama", "Romance", "Biography", "War"),
+        "funny", List.of("Comedy", "Animation"),
+        "thought-provoking", List.of("Sci-Fi", "Drama", "Documentary", "Mystery", "History"));
+
+    // Filter genres as the recommendation form spells them, where OMDb differs
+    private static final Map<String, String> GENRE_ALIASES = Map.of("romantic", "Romance");
+
+    // Features of one movie
+    private record Doc(CompactMovie movie, String[] people, int directorCount, String[] plotTerms, int[] plotCounts) { }
+
+    private final MovieDictionary dictionary;
+
+    // Documents by id; null once replaced by a newer version of the same movie
+    private final List<Doc> docs = new ArrayList<>();
+    private final Map<String, Integer> docIdsByImdbId = new HashMap<>();
+    private int liveDocs;
+
+    // Feature -> doc ids ("g:<genre id>", "p:<person>", "t:<plot term>"); may hold replaced ids
+    private final Map<String, List<Integer>> postings = new HashMap<>();
+
+    // Plot term -> number of live documents containing it
+    private final Map<String, Integer> documentFrequency = new HashMap<>();
+
+    // TF-IDF norm of each document's plot vector, and the collection size when all were last recomputed
+    private double[] plotNorms = new double[16];
+    private int normsComputedFor;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public SimilarityIndex(MovieDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * Adds a movie, replacing any earlier version with the same imdbID.
+     */
+    public void add(Movie movie) {
+        if (movie == null || movie.getImdbID() == null) return;
+        CompactMovie compact = CompactMovie.from(movie, dictionary);
+        List<String> directors = names(movie.getDirector());
+        List<String> people = new ArrayList<>(directors);
+        people.addAll(names(movie.getActors()));
+        Map<String, Integer> counts = new HashMap<>();
+        for (String term : CatalogIndex.tokenize(movie.getPlot())) {
+            if (term.length() > 2 && !STOPWORDS.contains(term)) counts.merge(term, 1, Integer::sum);
+        }
+        String[] terms = counts.keySet().toArray(String[]::new);
+        int[] termCounts = Arrays.stream(terms).mapToInt(counts::get).toArray();
+        Doc doc = new Doc(compact, people.toArray(String[]::new), directors.size(), terms, termCounts);
+
+        lock.writeLock().lock();
+        try {
+            Integer previous = docIdsByImdbId.get(movie.getImdbID());
+            if (previous != null) {
+                for (String term : docs.get(previous).plotTerms()) documentFrequency.merge(term, -1, Integer::sum);
+                docs.set(previous, null);
+                liveDocs--;
+            }
+            int docId = docs.size();
+            docs.add(doc);
+            docIdsByImdbId.put(movie.getImdbID(), docId);
+            liveDocs++;
+            for (long bits = compact.genreMask(); bits != 0; bits &= bits - 1) {
+                post("g:" + Long.numberOfTrailingZeros(bits), docId);
+            }
+            for (String person : doc.people()) post("p:" + person, docId);
+            for (String term : terms) {
+                post("t:" + term, docId);
+                documentFrequency.merge(term, 1, Integer::sum);
+            }
+            if (docId == plotNorms.length) plotNorms = Arrays.copyOf(plotNorms, docId * 2);
+            if (liveDocs >= 2 * normsComputedFor) {
+                for (int id = 0; id < docs.size(); id++) {
+                    if (docs.get(id) != null) plotNorms[id] = norm(plotWeights(docs.get(id)));
+                }
+                normsComputedFor = liveDocs;
+            } else {
+                plotNorms[docId] = norm(plotWeights(doc));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Number of distinct movies in the index.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(String imdbId) {
+        lock.readLock().lock();
+        try {
+            return docIdsByImdbId.containsKey(imdbId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The movies most similar to the given one, best first.
+     * @param genres Only movies with at least one of these genres (form spelling, any case); empty for any.
+     * @param moods  Moods from the recommendation form; movies whose genres suit them rank higher.
+     * @return Up to limit neighbours; empty if the movie is not in the index.
+     */
+    public List<Neighbour> similar(String imdbId, List<String> genres, List<String> moods, int limit) {
+        lock.readLock().lock();
+        try {
+            Integer queryId = docIdsByImdbId.get(imdbId);
+            if (queryId == null || limit <= 0) return List.of();
+            Doc query = docs.get(queryId);
+            long genreFilter = genreMask(genres.stream().map(g -> GENRE_ALIASES.getOrDefault(g.toLowerCase(Locale.ROOT), g)).toList());
+            if (!genres.isEmpty() && genreFilter == 0) return List.of();
+            long[] moodMasks = moods.stream().map(m -> MOOD_GENRES.getOrDefault(m.toLowerCase(Locale.ROOT), List.of()))
+                .mapToLong(this::genreMask).toArray();
+            Map<String, Double> queryPlot = plotWeights(query);
+            double queryPlotNorm = norm(queryPlot);
+
+            // Keeps the best limit candidates, worst on top
+            PriorityQueue<Scored> best = new PriorityQueue<>(limit + 1, Comparator.comparingDouble(Scored::score));
+            for (int docId : candidates(queryId, query, queryPlot)) {
+                Doc candidate = docs.get(docId);
+                if (genreFilter != 0 && (candidate.movie().genreMask() & genreFilter) == 0) continue;
+                double score = similarity(query, queryPlot, queryPlotNorm, docId);
+                if (moodMasks.length > 0) {
+                    score = (1 - MOOD_WEIGHT) * score + MOOD_WEIGHT * moodFit(candidate, moodMasks);
+                }
+                if (best.size() < limit) {
+                    best.add(new Scored(docId, score));
+                } else if (score > best.peek().score()) {
+                    best.poll();
+                    best.add(new Scored(docId, score));
+                }
+            }
+            List<Neighbour> neighbours = new ArrayList<>(best.size());
+            while (!best.isEmpty()) {
+                Scored scored = best.poll();
+                neighbours.add(new Neighbour(docs.get(scored.docId()).movie().toMovie(), scored.score()));
+            }
+            Collections.reverse(neighbours);
+            return neighbours;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Live documents sharing a person or a distinctive plot term with the
+     * query, then those sharing a genre (rarest genre first) until there
+     * are MAX_CANDIDATES.
+     */
+    private Set<Integer> candidates(int queryId, Doc query, Map<String, Double> queryPlot) {
+        List<String> features = new ArrayList<>();
+        for (String person : query.people()) features.add("p:" + person);
+        int maxFrequency = Math.max(1, (int) (MAX_PLOT_TERM_SHARE * liveDocs));
+        queryPlot.entrySet().stream()
+            .filter(e -> documentFrequency.getOrDefault(e.getKey(), 0) <= maxFrequency)
+            .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
+            .limit(CANDIDATE_PLOT_TERMS)
+            .forEach(e -> features.add("t:" + e.getKey()));
+
+        List<String> genres = new ArrayList<>();
+        for (long bits = query.movie().genreMask(); bits != 0; bits &= bits - 1) {
+            genres.add("g:" + Long.numberOfTrailingZeros(bits));
+        }
+        genres.sort(Comparator.comparingInt(g -> postings.getOrDefault(g, List.of()).size()));
+        features.addAll(genres);
+
+        Set<Integer> candidates = new HashSet<>();
+        for (String feature : features) {
+            List<Integer> docIds = postings.get(feature);
+            if (docIds == null) continue;
+            for (int docId : docIds) {
+                if (docId != queryId && docs.get(docId) != null) candidates.add(docId);
+            }
+            if (candidates.size() >= MAX_CANDIDATES) break;
+        }
+        return candidates;
+    }
+
+    /**
+     * Weighted sum of per-feature similarities, in [0, 1].
+     */
+    private double similarity(Doc query, Map<String, Double> queryPlot, double queryPlotNorm, int candidateId) {
+        Doc candidate = docs.get(candidateId);
+        CompactMovie a = query.movie();
+        CompactMovie b = candidate.movie();
+        double score = GENRE_WEIGHT * overlap(Long.bitCount(a.genreMask() & b.genreMask()),
+            Long.bitCount(a.genreMask()), Long.bitCount(b.genreMask()));
+        score += DIRECTOR_WEIGHT * overlap(shared(query.people(), 0, query.directorCount(),
+            candidate.people(), 0, candidate.directorCount()), query.directorCount(), candidate.directorCount());
+        int queryActors = query.people().length - query.directorCount();
+        int candidateActors = candidate.people().length - candidate.directorCount();
+        score += ACTORS_WEIGHT * overlap(shared(query.people(), query.directorCount(), query.people().length,
+            candidate.people(), candidate.directorCount(), candidate.people().length), queryActors, candidateActors);
+        score += PLOT_WEIGHT * plotCosine(queryPlot, queryPlotNorm, candidate, plotNorms[candidateId]);
+        if (a.year() > 0 && b.year() > 0) {
+            score += YEAR_WEIGHT * Math.exp(-Math.abs(a.year() - b.year()) / YEAR_SCALE);
+        }
+        if (a.ratingTenths() >= 0 && b.ratingTenths() >= 0) {
+            score += RATING_WEIGHT * (1 - Math.abs(a.ratingTenths() - b.ratingTenths()) / 100.0);
+        }
+        return score;
+    }
+
+    /**
+     * Cosine similarity of two sets given their sizes and intersection size.
+     */
+    private static double overlap(int shared, int sizeA, int sizeB) {
+        return shared == 0 ? 0 : shared / Math.sqrt((double) sizeA * sizeB);
+    }
+
+    private static int shared(String[] a, int fromA, int toA, String[] b, int fromB, int toB) {
+        int shared = 0;
+        for (int i = fromA; i < toA; i++) {
+            for (int j = fromB; j < toB; j++) {
+                if (a[i].equals(b[j])) {
+                    shared++;
+                    break;
+                }
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * TF-IDF weights of a movie's plot terms under the current document frequencies.
+     */
+    private Map<String, Double> plotWeights(Doc doc) {
+        Map<String, Double> weights = new HashMap<>(doc.plotTerms().length * 2);
+        for (int i = 0; i < doc.plotTerms().length; i++) {
+            weights.put(doc.plotTerms()[i], plotWeight(doc.plotTerms()[i], doc.plotCounts()[i]));
+        }
+        return weights;
+    }
+
+    private double plotWeight(String term, int count) {
+        double idf = Math.log((liveDocs + 1.0) / (documentFrequency.getOrDefault(term, 0) + 1.0)) + 1;
+        return (1 + Math.log(count)) * idf;
+    }
+
+    private double plotCosine(Map<String, Double> queryPlot, double queryNorm, Doc candidate, double candidateNorm) {
+        if (queryNorm == 0 || candidateNorm == 0) return 0;
+        double dot = 0;
+        for (int i = 0; i < candidate.plotTerms().length; i++) {
+            Double queryWeight = queryPlot.get(candidate.plotTerms()[i]);
+            if (queryWeight != null) dot += queryWeight * plotWeight(candidate.plotTerms()[i], candidate.plotCounts()[i]);
+        }
+        // The cached norm may lag slightly behind the current IDF
+        return Math.min(1.0, dot / (queryNorm * candidateNorm));
+    }
+
+    private static double norm(Map<String, Double> weights) {
+        double sum = 0;
+        for (double weight : weights.values()) sum += weight * weight;
+        return Math.sqrt(sum);
+    }
+
+    /**
+     * Share of the requested moods the movie's genres suit.
+     */
+    private static double moodFit(Doc doc, long[] moodMasks) {
+        int fits = 0;
+        for (long mask : moodMasks) {
+            if ((doc.movie().genreMask() & mask) != 0) fits++;
+        }
+        return (double) fits / moodMasks.length;
+    }
+
+    /**
+     * Genre bitmask of genre names, matched case-insensitively; unknown names are ignored.
+     */
+    private long genreMask(List<String> genres) {
+        long mask = 0;
+        for (String genre : genres) {
+            for (int id = 0; id < Math.min(dictionary.genreCount(), MovieDictionary.MASKED_GENRES); id++) {
+                if (dictionary.genre(id).equalsIgnoreCase(genre.trim())) mask |= 1L << id;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Lowercased names of a comma-separated OMDb people field.
+     */
+    private static List<String> names(String field) {
+        if (field == null || field.isBlank() || "N/A".equals(field)) return List.of();
+        List<String> names = new ArrayList<>();
+        for (String name : field.split(",")) {
+            String trimmed = name.trim().toLowerCase(Locale.ROOT);
+            if (!trimmed.isEmpty() && !names.contains(trimmed)) names.add(trimmed);
+        }
+        return names;
+    }
+
+    private void post(String feature, int docId) {
+        postings.computeIfAbsent(feature, f -> new ArrayList<>(4)).add(docId);
+    }
+
+    // A scored candidate, for ranking
+    private record Scored(int docId, double score) { }
+}
@@ -0,0 +1,33 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Configuration for the executor used to run upstream (OMDb / Gemini) calls.
+ * Follows the same switch as the web tier (spring.threads.virtual.enabled):
+ * in virtual mode every call gets its own virtual thread, so blocking on the
+ * network costs no platform thread; in platform mode a fixed pool is used.
+ */
+@Configuration
+public class ExecutionConfig {
+
+    @Bean(destroyMethod = "close")
+    public ExecutorService upstreamExecutor(
+        @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+        @Value("${upstream.platform-threads:64}") int platformThreads) {
+
+        if (virtualThreads) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("upstream-", 0).factory());
+        }
+        return Executors.newFixedThreadPool(platformThreads, Thread.ofPlatform().name("upstream-", 0).factory());
+    }
+}
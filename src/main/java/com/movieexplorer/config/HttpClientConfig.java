@@ -0,0 +1,82 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.config;
+
+import com.movieexplorer.http.UpstreamEventListener;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ReactorResourceFactory;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration for the single OkHttpClient shared by every outbound call.
+ * One connection pool serves both OMDb and Gemini so keep-alive and HTTP/2
+ * connections are reused across requests and services.
+ * The reactive client's event loops and connection pool come from the one
+ * ReactorResourceFactory in the context (replacing Boot's default), which
+ * starts and stops them with the application.
+ */
+@Configuration
+@EnableConfigurationProperties({HttpClientProperties.class, ResilienceProperties.class})
+public class HttpClientConfig {
+
+    @Bean
+    public ConnectionPool upstreamConnectionPool(HttpClientProperties properties) {
+        return new ConnectionPool(properties.maxIdleConnections(),
+            properties.keepAlive().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Bean(destroyMethod = "")
+    public OkHttpClient upstreamHttpClient(HttpClientProperties properties,
+                                           ConnectionPool upstreamConnectionPool,
+                                           UpstreamEventListener eventListener) {
+        List<Protocol> protocols = properties.http2()
+            ? List.of(Protocol.HTTP_2, Protocol.HTTP_1_1)
+            : List.of(Protocol.HTTP_1_1);
+
+        return new OkHttpClient.Builder()
+            .connectionPool(upstreamConnectionPool)
+            .protocols(protocols)
+            .connectTimeout(properties.connectTimeout())
+            .readTimeout(properties.readTimeout())
+            .writeTimeout(properties.readTimeout())
+            .callTimeout(properties.callTimeout())
+            .eventListener(eventListener)
+            .build();
+    }
+
+    /**
+     * Event loops and connection pool of the reactive upstream client.
+     * In-flight web requests are drained before it stops, so its loops shut
+     * down without waiting for a quiet period by default.
+     */
+    @Bean
+    public ReactorResourceFactory reactorResourceFactory(HttpClientProperties properties,
+                                                         @Value("${reactive.event-loop-threads:4}") int eventLoopThreads,
+                                                         @Value("${reactive.max-connections:1000}") int maxConnections,
+                                                         @Value("${reactive.max-pending-acquires:10000}") int maxPendingAcquires,
+                                                         @Value("${reactive.shutdown-quiet-period:0s}") Duration shutdownQuietPeriod) {
+        ReactorResourceFactory factory = new ReactorResourceFactory();
+        factory.setUseGlobalResources(false);
+        factory.setLoopResourcesSupplier(() -> LoopResources.create("reactive-upstream", eventLoopThreads, true));
+        factory.setConnectionProviderSupplier(() -> ConnectionProvider.builder("reactive-upstream")
+            .maxConnections(maxConnections)
+            .pendingAcquireMaxCount(maxPendingAcquires)
+            .maxIdleTime(properties.keepAlive())
+            .build());
+        factory.setShutdownQuietPeriod(shutdownQuietPeriod);
+        return factory;
+    }
+}
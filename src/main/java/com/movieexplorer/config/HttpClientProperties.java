@@ -0,0 +1,49 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Settings for the shared outbound HTTP client used for OMDb and Gemini,
+ * bound from the http.client.* properties.
+ *
+ * @param connectTimeout     TCP/TLS connect timeout
+ * @param readTimeout        maximum time between bytes read from a response
+ * @param callTimeout        maximum time for a whole call, including retries
+ * @param maxRequestsPerHost concurrent calls allowed to one upstream
+ * @param maxIdleConnections idle keep-alive connections kept in the pool
+ * @param keepAlive          how long an idle connection stays pooled
+ * @param http2              negotiate HTTP/2 where the server supports it
+ * @param upstreams          per-upstream overrides keyed by upstream name (omdb, gemini)
+ */
+@ConfigurationProperties("http.client")
+public record HttpClientProperties(
+    @DefaultValue("3s") Duration connectTimeout,
+    @DefaultValue("10s") Duration readTimeout,
+    @DefaultValue("30s") Duration callTimeout,
+    @DefaultValue("32") int maxRequestsPerHost,
+    @DefaultValue("20") int maxIdleConnections,
+    @DefaultValue("5m") Duration keepAlive,
+    @DefaultValue("true") boolean http2,
+    Map<String, Upstream> upstreams) {
+
+    /**
+     * Timeouts for one upstream; unset values fall back to the shared ones.
+     */
+    public record Upstream(Duration readTimeout, Duration callTimeout, Integer maxRequestsPerHost) { }
+
+    /**
+     * Overrides for an upstream, never null.
+     */
+    public Upstream upstream(String name) {
+        Upstream upstream = upstreams == null ? null : upstreams.get(name);
+        return upstream == null ? new Upstream(null, null, null) : upstream;
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Settings for the resilience layer in front of each upstream, bound from
+ * the resilience.* properties. Upstreams without an entry are called
+ * without rate limiting, bulkhead or circuit breaker.
+ *
+ * @param enabled   master switch; false calls every upstream unguarded
+ * @param upstreams per-upstream settings keyed by upstream name (omdb, gemini)
+ */
+@ConfigurationProperties("resilience")
+public record ResilienceProperties(
+    @DefaultValue("true") boolean enabled,
+    Map<String, Upstream> upstreams) {
+
+    /**
+     * Limits for one upstream.
+     *
+     * @param ratePerSecond        sustained calls per second allowed per API key (token refill rate)
+     * @param burst                calls allowed back to back after an idle period (bucket size)
+     * @param maxRateWait          longest a call waits for a token before it is rejected
+     * @param initialLimit         starting concurrency limit of the adaptive bulkhead
+     * @param minLimit             lowest the adaptive limit may fall
+     * @param maxLimit             highest the adaptive limit may grow
+     * @param maxQueueWait         longest a call waits for a bulkhead slot before it is rejected
+     * @param failureRateThreshold fraction of failed calls in the window that opens the breaker
+     * @param slidingWindow        number of most recent calls the failure rate is computed over
+     * @param minimumCalls         calls needed in the window before the breaker may open
+     * @param openDuration         how long an open breaker rejects calls before letting trial calls through
+     * @param halfOpenCalls        trial calls that must all succeed to close the breaker again
+     */
+    public record Upstream(
+        @DefaultValue("10") double ratePerSecond,
+        @DefaultValue("20") int burst,
+        @DefaultValue("250ms") Duration maxRateWait,
+        @DefaultValue("8") int initialLimit,
+        @DefaultValue("1") int minLimit,
+        @DefaultValue("32") int maxLimit,
+        @DefaultValue("500ms") Duration maxQueueWait,
+        @DefaultValue("0.5") double failureRateThreshold,
+        @DefaultValue("20") int slidingWindow,
+        @DefaultValue("10") int minimumCalls,
+        @DefaultValue("30s") Duration openDuration,
+        @DefaultValue("3") int halfOpenCalls) { }
+
+    /**
+     * Settings for an upstream, or null if it is not guarded.
+     */
+    public Upstream upstream(String name) {
+        return !enabled || upstreams == null ? null : upstreams.get(name);
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.DispatcherType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serves the stylesheets and scripts under content-hashed URLs
+ * (style-&lt;md5&gt;.css) with a long-lived, immutable Cache-Control, so
+ * browsers fetch each version once. Templates link them through @{...},
+ * which the ResourceUrlEncodingFilter rewrites to the hashed URL.
+ * At startup the assets are copied to a local directory together with a
+ * gzip copy of each, compressed once at the best level; clients that
+ * accept gzip (or brotli, for assets shipped with a .br copy) get the
+ * compressed file, so nothing is compressed per request. If the directory
+ * cannot be written, the assets are served uncompressed from the classpath.
+ */
+@Configuration
+public class StaticResourceConfig implements WebMvcConfigurer {
+
+    private static final Logger log = LoggerFactory.getLogger(StaticResourceConfig.class);
+
+    // Asset directories under static/, each served under its own path
+    private static final List<String> ASSET_DIRS = List.of("css", "js");
+
+    // Directory the assets and their compressed copies are written to
+    private final Path precompressedDir;
+
+    // Lifetime of a hashed asset in browser and proxy caches
+    private final Duration maxAge;
+
+    // Whether precompressedDir holds the assets
+    private boolean precompressed;
+
+    public StaticResourceConfig(@Value("${static.precompressed-dir:./data/static}") String precompressedDir,
+                                @Value("${static.cache.max-age-days:365}") long maxAgeDays) {
+        this.precompressedDir = Path.of(precompressedDir);
+        this.maxAge = Duration.ofDays(maxAgeDays);
+    }
+
+    /**
+     * Copies every static asset to precompressedDir, each followed by a
+     * gzip copy when that is smaller. Existing copies are overwritten.
+     */
+    @PostConstruct
+    void precompress() {
+        int files = 0;
+        long bytes = 0;
+        long gzipBytes = 0;
+        try {
+            for (Resource resource : new PathMatchingResourcePatternResolver().getResources("classpath*:static/**")) {
+                if (!resource.isReadable()) continue; // Directories
+                String url = resource.getURL().getPath();
+                String relative = url.substring(url.lastIndexOf("/static/") + "/static/".length());
+                if (relative.isEmpty()) continue;
+                byte[] content;
+                try (InputStream in = resource.getInputStream()) {
+                    content = in.readAllBytes();
+                }
+                Path target = precompressedDir.resolve(relative);
+                Files.createDirectories(target.getParent());
+                Files.write(target, content);
+                files++;
+                bytes += content.length;
+                if (relative.endsWith(".gz") || relative.endsWith(".br")) continue;
+                byte[] gzipped = gzip(content);
+                if (gzipped.length < content.length) {
+                    Files.write(precompressedDir.resolve(relative + ".gz"), gzipped);
+                    gzipBytes += gzipped.length;
+                } else {
+                    // A .gz left by an earlier build would be served in place of the new content
+                    Files.deleteIfExists(precompressedDir.resolve(relative + ".gz"));
+                    gzipBytes += content.length;
+                }
+            }
+            precompressed = true;
+            log.info("Precompressed {} static assets into {} ({} -> {} bytes gzipped)",
+                files, precompressedDir, bytes, gzipBytes);
+        } catch (IOException e) {
+            log.warn("Could not precompress static assets into {}, serving them uncompressed: {}",
+                precompressedDir, e.getMessage());
+        }
+    }
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        for (String dir : ASSET_DIRS) {
+            String[] locations = precompressed
+                ? new String[] {precompressedDir.toAbsolutePath().resolve(dir).toUri().toString(), "classpath:/static/" + dir + "/"}
+                : new String[] {"classpath:/static/" + dir + "/"};
+            registry.addResourceHandler("/" + dir + "/**")
+                .addResourceLocations(locations)
+                .setCacheControl(CacheControl.maxAge(maxAge).cachePublic().immutable())
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+        }
+    }
+
+    /**
+     * Rewrites links built in templates (@{/css/style.css}) to their hashed URLs.
+     */
+    @Bean
+    public FilterRegistrationBean<ResourceUrlEncodingFilter> resourceUrlEncodingFilter() {
+        FilterRegistrationBean<ResourceUrlEncodingFilter> registration =
+            new FilterRegistrationBean<>(new ResourceUrlEncodingFilter());
+        registration.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ERROR);
+        return registration;
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(content.length / 2 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(content);
+        }
+        return out.toByteArray();
+    }
+}
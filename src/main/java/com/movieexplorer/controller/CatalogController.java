@@ -0,0 +1,48 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.controller;
+
+import com.movieexplorer.catalog.CatalogQuery;
+import com.movieexplorer.catalog.CatalogResult;
+import com.movieexplorer.catalog.CatalogService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for searching the local movie catalog.
+ * Answers come from the in-memory index only; OMDb is never called.
+ */
+@RestController
+@RequestMapping("/api/catalog")
+public class CatalogController {
+
+    private final CatalogService catalogService;
+
+    public CatalogController(CatalogService catalogService) {
+        this.catalogService = catalogService;
+    }
+
+    /**
+     * Full-text search with optional facet filters.
+     * @param q         Search words; prefixes and one-letter typos match. Blank to browse by facets.
+     * @param genre     Genre filter.
+     * @param yearFrom  Earliest release year.
+     * @param yearTo    Latest release year.
+     * @param minRating Lowest IMDb rating.
+     * @param limit     Maximum hits to return.
+     * @return Ranked hits with total count and genre facet counts.
+     */
+    @GetMapping("/search")
+    public CatalogResult search(@RequestParam(defaultValue = "") String q,
+                                @RequestParam(required = false) String genre,
+                                @RequestParam(required = false) Integer yearFrom,
+                                @RequestParam(required = false) Integer yearTo,
+                                @RequestParam(required = false) Double minRating,
+                                @RequestParam(defaultValue = "20") int limit) {
+        return catalogService.search(new CatalogQuery(q, genre, yearFrom, yearTo, minRating, limit));
+    }
+}
@@ -4,16 +4,38 @@
 
 package com.movieexplorer.controller;
 
+import com.movieexplorer.catalog.CatalogService;
 import com.movieexplorer.model.Feedback;
 import com.movieexplorer.model.Movie;
+import com.movieexplorer.observability.ErrorMetrics;
 import com.movieexplorer.repository.FeedbackRepository;
+import com.movieexplorer.service.FanOut;
+import com.movieexplorer.service.FeedbackIngestService;
+import com.movieexplorer.service.FeedbackListingService;
+import com.movieexplorer.service.FeedbackWriteBehind;
 import com.movieexplorer.service.GeminiService;
 import com.movieexplorer.service.MovieService;
+import com.movieexplorer.service.RecommendationEnricher;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
 
 /**
  * Controller class to handle all web requests related to movies and feedback.
@@ -29,17 +51,45 @@ public class MovieController {
     // Service to interact with Gemini AI for recommendations and queries
     private final GeminiService geminiService;
 
-    // Repository to save and retrieve user feedback from the database
-    private final FeedbackRepository feedbackRepo;
+    // Stores feedback form submissions (directly, or through the write-behind queue)
+    private final FeedbackWriteBehind feedbackWriter;
+
+    // Runs independent OMDb / Gemini calls concurrently
+    private final FanOut fanOut;
+
+    // Runs streaming Gemini calls off the request thread
+    private final ExecutorService upstreamExecutor;
+
+    // Resolves recommended titles to full Movie objects
+    private final RecommendationEnricher recommendationEnricher;
+
+    // Reads feedback one page at a time
+    private final FeedbackListingService feedbackListing;
+
+    // Counts the errors turned into page messages
+    private final ErrorMetrics errorMetrics;
+
+    // Answers recommendations from fetched movies when it can
+    private final CatalogService catalogService;
+
+    // ETags and rendered detail blocks of movie pages
+    private final MoviePageCache moviePages;
+
+    // Per-call deadlines for concurrently executed upstream calls
+    @Value("${upstream.omdb.deadline-ms:5000}")
+    private long omdbDeadlineMs;
+
+    @Value("${upstream.gemini.deadline-ms:20000}")
+    private long geminiDeadlineMs;
 
     // Allowed genres for filtering movie recommendations
-    private static final Set<String> VALID_GENRES = Set.of(
+    static final Set<String> VALID_GENRES = Set.of(
         "action", "sci-fi", "drama", "comedy", "horror",
         "romantic", "thriller", "adventure"
     );
 
     // Allowed moods for filtering movie recommendations
-    private static final Set<String> VALID_MOODS = Set.of(
+    static final Set<String> VALID_MOODS = Set.of(
         "uplifting", "dark", "romantic", "suspenseful",
         "nostalgic", "emotional", "funny", "thought-provoking"
     );
@@ -47,10 +97,24 @@ public class MovieController {
     /**
      * Constructor to initialize services and repository via dependency injection.
      */
-    public MovieController(MovieService movieService, GeminiService geminiService, FeedbackRepository feedbackRepo) {
+    public MovieController(MovieService movieService, GeminiService geminiService,
+                           FeedbackWriteBehind feedbackWriter, FanOut fanOut,
+                           @Qualifier("upstreamExecutor") ExecutorService upstreamExecutor,
+                           RecommendationEnricher recommendationEnricher,
+                           FeedbackListingService feedbackListing,
+                           ErrorMetrics errorMetrics,
+                           CatalogService catalogService,
+                           MoviePageCache moviePages) {
         this.movieService = movieService;
         this.geminiService = geminiService;
-        this.feedbackRepo = feedbackRepo;
+        this.feedbackWriter = feedbackWriter;
+        this.fanOut = fanOut;
+        this.upstreamExecutor = upstreamExecutor;
+        this.recommendationEnricher = recommendationEnricher;
+        this.feedbackListing = feedbackListing;
+        this.errorMetrics = errorMetrics;
+        this.catalogService = catalogService;
+        this.moviePages = moviePages;
     }
 
     /**
@@ -63,14 +127,24 @@ public class MovieController {
 
     /**
      * Handles movie search by title.
-     * Adds the found movie or error message to the model.
+     * Adds the found movie or error message to the model. The page carries
+     * the movie's ETag; if the client already has that version, it gets a
+     * 304 and nothing is rendered.
      */
     @GetMapping("/search")
-    public String searchMovie(@RequestParam String title, Model model) {
+    public String searchMovie(@RequestParam String title, Model model,
+                              WebRequest request, HttpServletResponse response) {
         try {
             Movie movie = movieService.getMovieByTitle(title);
+            // Revalidate on every use; unchanged pages cost only the lookup
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+            String etag = moviePages.etag(movie);
+            if (etag != null && request.checkNotModified(etag)) {
+                return null;
+            }
             model.addAttribute("movie", movie);
         } catch (Exception e) {
+            errorMetrics.record("search", e);
             model.addAttribute("error", "Movie not found: " + e.getMessage());
         }
         return "index";
@@ -78,7 +152,9 @@ public class MovieController {
 
     /**
      * Provides movie recommendations based on title and optional genre/mood filters.
-     * Validates filters and sends request to Gemini service.
+     * Validates filters and answers from the local catalog when it has close
+     * enough matches; otherwise sends the request to Gemini service, then resolves
+     * the suggested titles to full movies so posters and ratings can be shown.
      */
     @GetMapping("/recommend")
     public String recommendMovies(
@@ -94,12 +170,28 @@ public class MovieController {
             List<String> validGenres = validateFilters(genres, VALID_GENRES);
             List<String> validMoods = validateFilters(moods, VALID_MOODS);
 
+            model.addAttribute("movie", movie);
+
+            // Similar movies we already hold need no Gemini call
+            Optional<List<Movie>> local = catalogService.recommend(movie, validGenres, validMoods);
+            if (local.isPresent()) {
+                Map<String, Movie> recommendedMovies = new LinkedHashMap<>();
+                local.get().forEach(m -> recommendedMovies.put(m.getTitle(), m));
+                model.addAttribute("recommendationList", List.copyOf(recommendedMovies.keySet()));
+                model.addAttribute("recommendedMovies", recommendedMovies);
+                return "index";
+            }
+
             // Get recommendations from Gemini AI service
             String recommendations = geminiService.getFilteredRecommendations(title, validGenres, validMoods);
 
-            model.addAttribute("movie", movie);
-            model.addAttribute("recommendationList", cleanRecommendations(recommendations));
+            // Resolve the suggested titles to full movies (posters, ratings) in parallel
+            List<String> recommendationList = cleanRecommendations(recommendations);
+
+            model.addAttribute("recommendationList", recommendationList);
+            model.addAttribute("recommendedMovies", recommendationEnricher.enrich(recommendationList));
         } catch (Exception e) {
+            errorMetrics.record("recommend", e);
             model.addAttribute("error", "Recommendation error: " + e.getMessage());
         }
         return "index";
@@ -116,7 +208,8 @@ public class MovieController {
 
     /**
      * Handles POST requests for natural language queries processed by Gemini AI.
-     * If a movie title is provided, fetches and adds movie data to the model.
+     * If a movie title is provided, the movie is fetched concurrently with the
+     * Gemini call and added to the model.
      */
     @PostMapping("/ask")
     public String handleNaturalLanguageQuery(
@@ -124,21 +217,47 @@ public class MovieController {
         @RequestParam(required = false) String title,
         Model model) {
 
-        try {
-            String response = geminiService.processNaturalLanguageQuery(query);
-            if (title != null && !title.isEmpty()) {
-                Movie movie = movieService.getMovieByTitle(title);
-                model.addAttribute("movie", movie);
+        try (FanOut.Scope scope = fanOut.open()) {
+            FanOut.Subtask<String> response = scope.fork("gemini",
+                () -> geminiService.processNaturalLanguageQuery(query), Duration.ofMillis(geminiDeadlineMs));
+            FanOut.Subtask<Movie> movie = (title != null && !title.isEmpty())
+                ? scope.fork("omdb", () -> movieService.getMovieByTitle(title), Duration.ofMillis(omdbDeadlineMs))
+                : null;
+            scope.join();
+
+            if (movie != null) {
+                model.addAttribute("movie", movie.get());
             }
-            model.addAttribute("aiResponse", response);
+            model.addAttribute("aiResponse", response.get());
         } catch (Exception e) {
+            errorMetrics.record("ask", e);
             model.addAttribute("error", "AI query failed: " + e.getMessage());
         }
         return "ask";
     }
 
+    /**
+     * Streams the answer to a natural language query as server-sent events:
+     * "token" events carry text as Gemini generates it, then "done" (or "error").
+     */
+    @GetMapping(path = "/ask/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamNaturalLanguageQuery(@RequestParam String query) {
+        return streamGemini(onChunk -> geminiService.streamNaturalLanguageQuery(query, onChunk));
+    }
+
+    /**
+     * Streams the Gemini comparison of two movies as server-sent events,
+     * using the same events as /ask/stream.
+     */
+    @GetMapping(path = "/compare/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamComparison(@RequestParam String movie1, @RequestParam String movie2) {
+        return streamGemini(onChunk -> geminiService.streamComparison(movie1.trim(), movie2.trim(), onChunk));
+    }
+
     /**
      * Compares two movies and returns a comparison summary from Gemini AI.
+     * Both OMDb lookups and the Gemini call run concurrently; if any of them
+     * fails or misses its deadline, the others are cancelled.
      */
     @GetMapping("/compare")
     public String compareMovies(
@@ -146,16 +265,21 @@ public class MovieController {
         @RequestParam String movie2,
         Model model) {
 
-        try {
-            Movie first = movieService.getMovieByTitle(movie1);
-            Movie second = movieService.getMovieByTitle(movie2);
+        try (FanOut.Scope scope = fanOut.open()) {
+            Duration omdbDeadline = Duration.ofMillis(omdbDeadlineMs);
+            FanOut.Subtask<Movie> first = scope.fork("omdb", () -> movieService.getMovieByTitle(movie1), omdbDeadline);
+            FanOut.Subtask<Movie> second = scope.fork("omdb", () -> movieService.getMovieByTitle(movie2), omdbDeadline);
 
-            String comparison = geminiService.compareMovies(first.getTitle(), second.getTitle());
+            // Uses the titles as entered so Gemini does not wait on OMDb
+            FanOut.Subtask<String> comparison = scope.fork("gemini",
+                () -> geminiService.compareMovies(movie1.trim(), movie2.trim()), Duration.ofMillis(geminiDeadlineMs));
+            scope.join();
 
-            model.addAttribute("movie", first);
-            model.addAttribute("comparisonMovie", second);
-            model.addAttribute("comparisonText", comparison);
+            model.addAttribute("movie", first.get());
+            model.addAttribute("comparisonMovie", second.get());
+            model.addAttribute("comparisonText", comparison.get());
         } catch (Exception e) {
+            errorMetrics.record("compare", e);
             model.addAttribute("error", "Comparison failed: " + e.getMessage());
         }
         return "index";
@@ -164,18 +288,21 @@ public class MovieController {
     // === Feedback related endpoints ===
 
     /**
-     * Shows the feedback page listing all submitted feedback from users.
+     * Shows the feedback page with one page of submitted feedback, newest first.
+     * @param before Id cursor of the page to show (from the "older" link), or absent for the newest.
      */
     @GetMapping("/feedback")
-    public String showFeedbackPage(Model model) {
-        List<Feedback> allFeedback = feedbackRepo.findAll();
-        model.addAttribute("feedbacks", allFeedback);
+    public String showFeedbackPage(@RequestParam(required = false) Long before, Model model) {
+        addFeedbackPage(model, before);
         return "feedback";  // Renders 'feedback.html' view
     }
 
     /**
      * Handles feedback form submission from users.
-     * Validates inputs and saves feedback to the database.
+     * Validates inputs and stores the feedback (queued for a background write
+     * when write-behind is enabled; turned away if that queue stays full).
+     * In write-behind mode the page is rendered without the feedback list, so
+     * the submission never waits on a database query.
      */
     @PostMapping("/feedback")
     public String submitFeedback(@RequestParam String userName,
@@ -184,7 +311,7 @@ public class MovieController {
                                  Model model) {
         if (userName.isBlank() || userEmail.isBlank() || message.isBlank()) {
             model.addAttribute("error", "All fields are required!");
-            model.addAttribute("feedbacks", feedbackRepo.findAll());
+            addSubmittedFeedbackPage(model);
             return "feedback";
         }
 
@@ -193,13 +320,24 @@ public class MovieController {
         feedback.setUserEmail(userEmail);
         feedback.setMessage(message);
 
-        feedbackRepo.save(feedback);
+        if (!feedbackWriter.submit(feedback)) {
+            model.addAttribute("error", "We are receiving a lot of feedback right now. Please try again in a moment.");
+            addSubmittedFeedbackPage(model);
+            return "feedback";
+        }
 
         model.addAttribute("success", "Thank you for your feedback!");
-        model.addAttribute("feedbacks", feedbackRepo.findAll());
+        addSubmittedFeedbackPage(model);
         return "feedback";
     }
 
+    /**
+     * The newest feedback page after a submission, unless writes are queued.
+     */
+    private void addSubmittedFeedbackPage(Model model) {
+        if (!feedbackWriter.isWriteBehind()) addFeedbackPage(model, null);
+    }
+
     /**
      * REST API controller to handle feedback CRUD operations.
      * This is separate from MVC controllers and handles JSON requests/responses.
@@ -208,10 +346,19 @@ public class MovieController {
     @RequestMapping("/api/feedback")
     public static class FeedbackApiController {
 
+        // Header carrying the cursor for the next page of GET /api/feedback
+        static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
         private final FeedbackRepository feedbackRepository;
+        private final FeedbackIngestService feedbackIngestService;
+        private final FeedbackListingService feedbackListing;
 
-        public FeedbackApiController(FeedbackRepository feedbackRepository) {
+        public FeedbackApiController(FeedbackRepository feedbackRepository,
+                                     FeedbackIngestService feedbackIngestService,
+                                     FeedbackListingService feedbackListing) {
             this.feedbackRepository = feedbackRepository;
+            this.feedbackIngestService = feedbackIngestService;
+            this.feedbackListing = feedbackListing;
         }
 
         /**
@@ -223,32 +370,111 @@ public class MovieController {
         }
 
         /**
-         * Retrieves a single feedback by its ID.
+         * Imports many feedback entries from a JSON array or an NDJSON stream
+         * (one object per line), written in JDBC batches.
+         * @return Counts and a per-item result (id, or why it was skipped).
+         */
+        @PostMapping(path = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+        public FeedbackIngestService.BulkResult submitBulkFeedback(HttpServletRequest request) throws IOException {
+            return feedbackIngestService.ingest(request.getInputStream());
+        }
+
+        /**
+         * Retrieves a single feedback by its ID, with an ETag of its ID and
+         * version. A matching If-None-Match gets a 304 without the body
+         * being serialized.
          * Throws runtime exception if not found.
          */
         @GetMapping("/{id}")
-        public Feedback getFeedback(@PathVariable Long id) {
-            return feedbackRepository.findById(id)
+        public ResponseEntity<Feedback> getFeedback(@PathVariable Long id) {
+            Feedback feedback = feedbackRepository.findById(id)
                     .orElseThrow(() -> new RuntimeException("Feedback not found"));
+            long version = feedback.getVersion() == null ? 0 : feedback.getVersion();
+            return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag("\"" + feedback.getId() + "-" + version + "\"")
+                .body(feedback);
         }
 
         /**
-         * Returns a list of all feedback entries.
+         * Returns one page of feedback entries, newest first. When more
+         * entries follow, the X-Next-Cursor header holds the value to pass
+         * as before for the next page.
+         * @param before Only entries with a smaller id (the previous page's cursor).
+         * @param limit  Page size (default and maximum are configurable).
          */
         @GetMapping
-        public List<Feedback> getAllFeedback() {
-            return feedbackRepository.findAll();
+        public ResponseEntity<List<Feedback>> getFeedbackPage(@RequestParam(required = false) Long before,
+                                                              @RequestParam(required = false) Integer limit) {
+            FeedbackListingService.FeedbackPage page = feedbackListing.page(before, limit);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.nextCursor() != null) {
+                response.header(NEXT_CURSOR_HEADER, page.nextCursor().toString());
+            }
+            return response.body(page.items());
+        }
+
+        /**
+         * Streams every feedback entry, oldest first, straight from a database cursor.
+         * @param format "json" for one JSON array, "ndjson" for one object per line.
+         */
+        @GetMapping("/export")
+        public void exportFeedback(@RequestParam(defaultValue = "json") String format,
+                                   HttpServletResponse response) throws IOException {
+            boolean ndjson = "ndjson".equalsIgnoreCase(format);
+            response.setContentType(ndjson ? MediaType.APPLICATION_NDJSON_VALUE : MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding("UTF-8");
+            feedbackListing.export(response.getOutputStream(), ndjson);
         }
-        
     }
 
     // === Helper methods ===
 
+    /**
+     * Adds one page of feedback and the cursor for the next one to the model.
+     */
+    private void addFeedbackPage(Model model, Long before) {
+        FeedbackListingService.FeedbackPage page = feedbackListing.page(before, null);
+        model.addAttribute("feedbacks", page.items());
+        model.addAttribute("nextCursor", page.nextCursor());
+        model.addAttribute("olderPage", before != null);
+    }
+
+    /**
+     * Runs a streaming Gemini call on the upstream executor, forwarding each
+     * chunk to the client as a "token" event.
+     */
+    private SseEmitter streamGemini(Consumer<Consumer<String>> call) {
+        SseEmitter emitter = new SseEmitter(geminiDeadlineMs);
+        upstreamExecutor.execute(() -> {
+            try {
+                call.accept(chunk -> {
+                    try {
+                        emitter.send(SseEmitter.event().name("token").data(chunk));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e); // Client went away; stop reading from Gemini
+                    }
+                });
+                emitter.send(SseEmitter.event().name("done").data(""));
+                emitter.complete();
+            } catch (Exception e) {
+                errorMetrics.record("stream", e);
+                try {
+                    emitter.send(SseEmitter.event().name("error").data("AI query failed: " + e.getMessage()));
+                    emitter.complete();
+                } catch (Exception sendFailed) {
+                    emitter.completeWithError(e);
+                }
+            }
+        });
+        return emitter;
+    }
+
     /**
      * Validates a list of filters by converting to lowercase and only keeping allowed values.
      * Returns an empty list if input is null.
      */
-    private List<String> validateFilters(List<String> inputs, Set<String> validValues) {
+    static List<String> validateFilters(List<String> inputs, Set<String> validValues) {
         if (inputs == null) return Collections.emptyList();
         return inputs.stream()
             .map(String::toLowerCase)
@@ -260,7 +486,7 @@ public class MovieController {
      * Cleans up recommendation text by splitting lines and removing numbering.
      * Filters out empty lines.
      */
-    private List<String> cleanRecommendations(String text) {
+    static List<String> cleanRecommendations(String text) {
         return Arrays.stream(text.split("\n"))
             .map(line -> line.replaceAll("^\\d+[\\.\\)]\\s*", "").trim())
             .filter(line -> !line.isEmpty())
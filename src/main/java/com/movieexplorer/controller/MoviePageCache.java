@@ -0,0 +1,154 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.movieexplorer.cache.LruTtlCache;
+import com.movieexplorer.model.Movie;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Caching for movie pages. A movie's content hash covers every field of
+ * the movie and the site's templates and static assets, so it changes
+ * whenever the page showing it would. It gives the strong ETag of the
+ * search page ("imdbID-hash"), so an unchanged page is answered with 304
+ * before anything is rendered, and keys the rendered detail block of each
+ * movie, which pages include as HTML instead of rendering it again.
+ */
+@Component("moviePages")
+public class MoviePageCache {
+
+    // Template holding the detail block, and the fragment in it
+    private static final String DETAILS_TEMPLATE = "fragments/movie-details";
+    private static final Set<String> DETAILS_FRAGMENT = Set.of("details");
+
+    private final ITemplateEngine templateEngine;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // Rendered detail blocks by imdbID and content hash
+    private final LruTtlCache<String, String> details;
+
+    // Digest of all templates and static assets, mixed into every content hash
+    private final byte[] siteFingerprint;
+
+    public MoviePageCache(ITemplateEngine templateEngine,
+                          @Value("${page.fragment-cache.max-entries:1000}") int maxEntries,
+                          @Value("${page.fragment-cache.ttl-minutes:360}") long ttlMinutes) throws IOException {
+        this.templateEngine = templateEngine;
+        this.details = new LruTtlCache<>("movie-fragments", maxEntries, Duration.ofMinutes(ttlMinutes));
+        this.siteFingerprint = fingerprint("classpath*:templates/**", "classpath*:static/**");
+    }
+
+    /**
+     * Strong ETag of a page showing this movie, quoted; null if it has no imdbID.
+     */
+    public String etag(Movie movie) {
+        if (movie.getImdbID() == null) return null;
+        return "\"" + movie.getImdbID() + "-" + contentHash(movie) + "\"";
+    }
+
+    /**
+     * The movie's detail block as HTML, rendered on first use.
+     */
+    public String details(Movie movie) {
+        if (movie.getImdbID() == null) return render(movie);
+        String key = movie.getImdbID() + "|" + contentHash(movie);
+        String html = details.get(key);
+        if (html == null) {
+            html = render(movie);
+            details.put(key, html);
+        }
+        return html;
+    }
+
+    /**
+     * Fragment cache hits, misses and size.
+     */
+    public Map<String, Object> stats() {
+        return Map.of("fragments", details.stats());
+    }
+
+    private String render(Movie movie) {
+        Context context = new Context();
+        context.setVariable("movie", movie);
+        return templateEngine.process(DETAILS_TEMPLATE, DETAILS_FRAGMENT, context);
+    }
+
+    /**
+     * First 64 bits of SHA-256 over the site fingerprint and the movie's JSON, in hex.
+     */
+    private String contentHash(Movie movie) {
+        MessageDigest digest = sha256();
+        digest.update(siteFingerprint);
+        try {
+            digest.update(objectMapper.writeValueAsBytes(movie));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        return HexFormat.of().formatHex(digest.digest(), 0, 8);
+    }
+
+    /**
+     * Digest of the paths and contents of every resource matching the patterns, in path order.
+     */
+    private static byte[] fingerprint(String... patterns) throws IOException {
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        MessageDigest digest = sha256();
+        for (String pattern : patterns) {
+            Resource[] resources = resolver.getResources(pattern);
+            Arrays.sort(resources, Comparator.comparing(MoviePageCache::path));
+            for (Resource resource : resources) {
+                if (!resource.isReadable()) continue; // Directories
+                digest.update(path(resource).getBytes(StandardCharsets.UTF_8));
+                try (InputStream in = resource.getInputStream()) {
+                    digest.update(in.readAllBytes());
+                }
+            }
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Path from the templates/ or static/ directory on, so the fingerprint
+     * is the same wherever the application is installed.
+     */
+    private static String path(Resource resource) {
+        String path;
+        try {
+            path = resource.getURL().getPath();
+        } catch (IOException e) {
+            path = resource.getDescription();
+        }
+        int root = Math.max(path.lastIndexOf("/templates/"), path.lastIndexOf("/static/"));
+        return root < 0 ? path : path.substring(root);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // Every JVM has SHA-256
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.controller;
+
+import com.movieexplorer.observability.ErrorMetrics;
+import com.movieexplorer.service.MovieNotFoundException;
+import com.movieexplorer.service.PosterService;
+import com.movieexplorer.service.PosterStore;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Serves movie posters from the local poster cache (see PosterService), so
+ * browsers never wait on the image host once a poster has been fetched.
+ * Responses carry a strong ETag of the image bytes and honour
+ * If-None-Match, single byte ranges and If-Range. The file is handed to
+ * Tomcat's sendfile when the connector supports it, so its bytes go from
+ * the page cache to the socket without passing through the JVM; otherwise
+ * it is copied with FileChannel.transferTo.
+ */
+@RestController
+public class PosterController {
+
+    // Request attributes through which Tomcat serves a file with sendfile once the handler returns
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    /**
+     * An inclusive byte range of a file.
+     */
+    record ByteRange(long start, long end) {
+
+        // A Range header none of whose ranges fits the file
+        static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+
+        long length() {
+            return end - start + 1;
+        }
+    }
+
+    private final PosterService posterService;
+    private final ErrorMetrics errorMetrics;
+
+    // Use sendfile when Tomcat offers it
+    private final boolean sendfile;
+
+    // How long browsers may use a poster before revalidating it
+    private final String cacheControl;
+
+    public PosterController(PosterService posterService, ErrorMetrics errorMetrics,
+                            @Value("${poster.sendfile:true}") boolean sendfile,
+                            @Value("${poster.max-age-seconds:86400}") long maxAgeSeconds) {
+        this.posterService = posterService;
+        this.errorMetrics = errorMetrics;
+        this.sendfile = sendfile;
+        this.cacheControl = CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePublic().getHeaderValue();
+    }
+
+    /**
+     * A movie's poster.
+     * @param size "thumb" for the downscaled thumbnail (the full image if there is none).
+     */
+    @GetMapping("/posters/{imdbId}")
+    public void poster(@PathVariable String imdbId, @RequestParam(defaultValue = "full") String size,
+                       HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Optional<PosterStore.Variant> poster;
+        try {
+            poster = posterService.poster(imdbId, "thumb".equals(size));
+        } catch (MovieNotFoundException e) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        } catch (RuntimeException e) {
+            errorMetrics.record("poster", e);
+            response.sendError(HttpServletResponse.SC_BAD_GATEWAY);
+            return;
+        }
+        if (poster.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        PosterStore.Variant variant = poster.get();
+        String etag = "\"" + variant.etag() + "\"";
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        // A range only applies to the version the client named in If-Range, if it named one
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        ByteRange range = ifRange == null || ifRange.equals(etag)
+            ? parseRange(request.getHeader(HttpHeaders.RANGE), variant.size())
+            : null;
+        if (range == ByteRange.UNSATISFIABLE) {
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + variant.size());
+            response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            return;
+        }
+        if (range == null) {
+            range = new ByteRange(0, variant.size() - 1);
+        } else {
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE,
+                "bytes " + range.start() + "-" + range.end() + "/" + variant.size());
+        }
+        response.setContentType(variant.contentType());
+        response.setContentLengthLong(range.length());
+        if ("HEAD".equals(request.getMethod()) || range.length() == 0) return;
+
+        if (sendfile && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, variant.path().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, range.start());
+            request.setAttribute(SENDFILE_END, range.end() + 1);
+            return;
+        }
+        try (FileChannel file = FileChannel.open(variant.path(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = range.start();
+            long remaining = range.length();
+            while (remaining > 0) {
+                long sent = file.transferTo(position, remaining, out);
+                if (sent <= 0) break;
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    /**
+     * Whether an If-None-Match header names this ETag (or is "*"); weak
+     * tags match by their value, as RFC 9110 asks for this header.
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.startsWith("W/")) candidate = candidate.substring(2);
+            if (candidate.equals("*") || candidate.equals(etag)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * The range a Range header asks for, clamped to the file. Null (serve
+     * the whole file) when there is no header, it cannot be parsed or it
+     * asks for several ranges.
+     */
+    static ByteRange parseRange(String header, long size) {
+        if (header == null || !header.startsWith("bytes=") || header.indexOf(',') >= 0) return null;
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) return null;
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                // Suffix range: the last n bytes
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || size == 0) return ByteRange.UNSATISFIABLE;
+                return new ByteRange(Math.max(0, size - suffix), size - 1);
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+            if (start >= size) return ByteRange.UNSATISFIABLE;
+            if (end < start) return null;
+            return new ByteRange(start, end);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.controller;
+
+import com.movieexplorer.catalog.CatalogService;
+import com.movieexplorer.model.Movie;
+import com.movieexplorer.observability.ErrorMetrics;
+import com.movieexplorer.service.MovieNotFoundException;
+import com.movieexplorer.service.ReactiveGeminiService;
+import com.movieexplorer.service.ReactiveMovieService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Non-blocking JSON API for search, recommend, compare and ask, next to the
+ * Thymeleaf pages of MovieController. Handlers return Monos that compose
+ * the upstream calls on the reactive client's event loops, so a request
+ * waiting on OMDb or Gemini holds no request thread. Deadlines, filters and
+ * caches are the same as for the pages.
+ */
+@RestController
+@RequestMapping("/api/reactive")
+public class ReactiveMovieController {
+
+    /**
+     * Movie with its resolved recommendations.
+     */
+    public record Recommendations(Movie movie, List<String> recommendationList, List<Movie> recommendedMovies) {}
+
+    /**
+     * Two movies with Gemini's comparison.
+     */
+    public record Comparison(Movie movie, Movie comparisonMovie, String comparisonText) {}
+
+    /**
+     * Gemini's answer, with the movie it was asked about if a title was given.
+     */
+    public record Answer(String aiResponse, Movie movie) {}
+
+    private final ReactiveMovieService movieService;
+    private final ReactiveGeminiService geminiService;
+    private final ErrorMetrics errorMetrics;
+    private final CatalogService catalogService;
+
+    // Per-call deadlines, as for the blocking pages
+    @Value("${upstream.omdb.deadline-ms:5000}")
+    private long omdbDeadlineMs;
+
+    @Value("${upstream.gemini.deadline-ms:20000}")
+    private long geminiDeadlineMs;
+
+    // Concurrent OMDb lookups and time budget when resolving recommendations
+    @Value("${recommend.enrich.max-parallel:4}")
+    private int enrichMaxParallel;
+
+    @Value("${recommend.enrich.deadline-ms:3000}")
+    private long enrichDeadlineMs;
+
+    public ReactiveMovieController(ReactiveMovieService movieService, ReactiveGeminiService geminiService,
+                                   ErrorMetrics errorMetrics, CatalogService catalogService) {
+        this.movieService = movieService;
+        this.geminiService = geminiService;
+        this.errorMetrics = errorMetrics;
+        this.catalogService = catalogService;
+    }
+
+    /**
+     * Movie by title.
+     */
+    @GetMapping("/search")
+    public Mono<Movie> searchMovie(@RequestParam String title) {
+        return movie(title);
+    }
+
+    /**
+     * Recommendations for a movie with optional genre/mood filters, from the
+     * local catalog when it has close enough matches. Otherwise Gemini is
+     * asked and the suggested titles are resolved to movies, at most
+     * enrichMaxParallel at a time, keeping whatever has resolved when the
+     * enrichment deadline passes.
+     */
+    @GetMapping("/recommend")
+    public Mono<Recommendations> recommendMovies(@RequestParam String title,
+                                                 @RequestParam(required = false) List<String> genres,
+                                                 @RequestParam(required = false) List<String> moods) {
+        List<String> validGenres = MovieController.validateFilters(genres, MovieController.VALID_GENRES);
+        List<String> validMoods = MovieController.validateFilters(moods, MovieController.VALID_MOODS);
+        return movie(title).flatMap(movie -> catalogService.recommend(movie, validGenres, validMoods)
+            .map(local -> Mono.just(new Recommendations(movie, local.stream().map(Movie::getTitle).toList(), local)))
+            .orElseGet(() -> geminiService.getFilteredRecommendations(title, validGenres, validMoods)
+                .timeout(Duration.ofMillis(geminiDeadlineMs))
+                .map(MovieController::cleanRecommendations)
+                .flatMap(titles -> Flux.fromIterable(titles)
+                    .flatMapSequential(recommended -> movie(recommended)
+                        .onErrorResume(e -> {
+                            errorMetrics.record("enrich.reactive", e);
+                            return Mono.empty();
+                        }), enrichMaxParallel)
+                    .take(Duration.ofMillis(enrichDeadlineMs))
+                    .collectList()
+                    .map(resolved -> new Recommendations(movie, titles, resolved)))));
+    }
+
+    /**
+     * Compares two movies. Both OMDb lookups and the Gemini call run
+     * concurrently; if any of them fails or misses its deadline, the others
+     * are cancelled.
+     */
+    @GetMapping("/compare")
+    public Mono<Comparison> compareMovies(@RequestParam String movie1, @RequestParam String movie2) {
+        return Mono.zip(movie(movie1), movie(movie2),
+                geminiService.compareMovies(movie1.trim(), movie2.trim()).timeout(Duration.ofMillis(geminiDeadlineMs)))
+            .map(all -> new Comparison(all.getT1(), all.getT2(), all.getT3()));
+    }
+
+    /**
+     * Answers a natural language query; if a title is given, the movie is
+     * fetched concurrently with the Gemini call.
+     */
+    @GetMapping("/ask")
+    public Mono<Answer> askQuery(@RequestParam String query, @RequestParam(required = false) String title) {
+        Mono<String> answer = geminiService.processNaturalLanguageQuery(query)
+            .timeout(Duration.ofMillis(geminiDeadlineMs));
+        if (title == null || title.isEmpty()) {
+            return answer.map(text -> new Answer(text, null));
+        }
+        return Mono.zip(answer, movie(title)).map(both -> new Answer(both.getT1(), both.getT2()));
+    }
+
+    @ExceptionHandler(MovieNotFoundException.class)
+    public ResponseEntity<Map<String, String>> handleNotFound(MovieNotFoundException e) {
+        return error(HttpStatus.NOT_FOUND, e);
+    }
+
+    @ExceptionHandler(TimeoutException.class)
+    public ResponseEntity<Map<String, String>> handleTimeout(TimeoutException e) {
+        return error(HttpStatus.GATEWAY_TIMEOUT, e);
+    }
+
+    /**
+     * Any other failure is an upstream that could not answer (and had no stale data).
+     */
+    @ExceptionHandler(RuntimeException.class)
+    public ResponseEntity<Map<String, String>> handleUpstreamFailure(RuntimeException e) {
+        return error(HttpStatus.BAD_GATEWAY, e);
+    }
+
+    private Mono<Movie> movie(String title) {
+        return movieService.getMovieByTitle(title).timeout(Duration.ofMillis(omdbDeadlineMs));
+    }
+
+    private ResponseEntity<Map<String, String>> error(HttpStatus status, Exception e) {
+        errorMetrics.record("reactive", e);
+        String message = Optional.ofNullable(e.getMessage()).orElse(e.getClass().getSimpleName());
+        return ResponseEntity.status(status).body(Map.of("error", message));
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.controller;
+
+import com.movieexplorer.cache.SingleFlight;
+import com.movieexplorer.catalog.CatalogService;
+import com.movieexplorer.http.UpstreamClient;
+import com.movieexplorer.resilience.UpstreamResilience;
+import com.movieexplorer.service.CacheWarmup;
+import com.movieexplorer.service.FeedbackWriteBehind;
+import com.movieexplorer.service.GeminiResponseCache;
+import com.movieexplorer.service.GeminiService;
+import com.movieexplorer.service.MovieCache;
+import com.movieexplorer.service.MovieService;
+import com.movieexplorer.service.PosterService;
+import com.movieexplorer.service.TitleResolver;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST controller exposing internal counters (cache hit/miss/eviction,
+ * collapsed in-flight calls, batched Gemini prompts,
+ * upstream latency and connection pool state, rate limit / bulkhead /
+ * circuit breaker state, stale fallbacks, catalog size, rendered fragments,
+ * poster cache,
+ * feedback write-behind queue)
+ * as JSON so capacity settings can be tuned.
+ */
+@RestController
+@RequestMapping("/api/stats")
+public class StatsController {
+
+    private final MovieCache movieCache;
+    private final MovieService movieService;
+    private final GeminiService geminiService;
+    private final GeminiResponseCache geminiCache;
+    private final UpstreamClient upstreamClient;
+    private final CatalogService catalogService;
+    private final FeedbackWriteBehind feedbackWriter;
+    private final UpstreamResilience resilience;
+    private final CacheWarmup cacheWarmup;
+    private final TitleResolver titleResolver;
+    private final MoviePageCache moviePages;
+    private final PosterService posterService;
+
+    public StatsController(MovieCache movieCache, MovieService movieService, GeminiService geminiService,
+                           GeminiResponseCache geminiCache, UpstreamClient upstreamClient,
+                           CatalogService catalogService, FeedbackWriteBehind feedbackWriter,
+                           UpstreamResilience resilience, CacheWarmup cacheWarmup,
+                           TitleResolver titleResolver, MoviePageCache moviePages,
+                           PosterService posterService) {
+        this.movieCache = movieCache;
+        this.movieService = movieService;
+        this.geminiService = geminiService;
+        this.geminiCache = geminiCache;
+        this.upstreamClient = upstreamClient;
+        this.catalogService = catalogService;
+        this.feedbackWriter = feedbackWriter;
+        this.resilience = resilience;
+        this.cacheWarmup = cacheWarmup;
+        this.titleResolver = titleResolver;
+        this.moviePages = moviePages;
+        this.posterService = posterService;
+    }
+
+    /**
+     * Returns all counters grouped by component.
+     */
+    @GetMapping
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("movieCache", movieCache.stats());
+        stats.put("geminiCache", geminiCache.stats());
+
+        List<SingleFlight.Stats> singleFlight = new ArrayList<>(movieService.singleFlightStats());
+        singleFlight.add(geminiService.singleFlightStats());
+        stats.put("singleFlight", singleFlight);
+        stats.put("upstreams", upstreamClient.stats());
+        stats.put("resilience", resilience.stats());
+        stats.put("staleFallbacks", Map.of(
+            "movies", movieCache.staleHits(),
+            "geminiAnswers", geminiCache.staleHits()));
+        geminiService.batcher().ifPresent(batcher -> stats.put("geminiBatching", batcher.stats()));
+        stats.put("titleResolver", titleResolver.stats());
+        stats.put("catalog", catalogService.stats());
+        stats.put("moviePages", moviePages.stats());
+        stats.put("posters", posterService.stats());
+        stats.put("feedbackWriter", feedbackWriter.stats());
+        stats.put("warmup", cacheWarmup.stats());
+        return stats;
+    }
+}
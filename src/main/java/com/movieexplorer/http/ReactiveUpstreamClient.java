@@ -0,0 +1,212 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.http;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.movieexplorer.config.HttpClientProperties;
+import com.movieexplorer.resilience.UpstreamGuard;
+import com.movieexplorer.resilience.UpstreamResilience;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.netty.channel.ChannelOption;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ReactorResourceFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.client.HttpClientRequest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Non-blocking counterpart of UpstreamClient for the reactive API.
+ * Calls run on a small set of Reactor Netty event-loop threads with their
+ * own connection pool (the context's ReactorResourceFactory, see
+ * HttpClientConfig), so thousands of calls can be in flight without a
+ * thread each. Per-upstream timeouts, the upstream metrics, the
+ * upstream.call observation and the resilience guard are shared with the
+ * blocking client. Admission through the guard may wait for a token or a
+ * bulkhead slot, so it happens on the bounded elastic scheduler, never on
+ * an event loop. Response bodies are small JSON documents and are
+ * aggregated before they are decoded.
+ */
+@Component
+public class ReactiveUpstreamClient {
+
+    /**
+     * Decodes a successful response body.
+     */
+    @FunctionalInterface
+    public interface BodyReader<T> {
+        T read(byte[] body) throws IOException;
+    }
+
+    private final WebClient webClient;
+    private final HttpClientProperties properties;
+    private final UpstreamMetricsRegistry metricsRegistry;
+    private final UpstreamResilience resilience;
+    private final ObservationRegistry observationRegistry;
+    private final ObjectMapper objectMapper;
+
+    public ReactiveUpstreamClient(WebClient.Builder webClientBuilder,
+                                  ReactorResourceFactory resourceFactory,
+                                  HttpClientProperties properties,
+                                  UpstreamMetricsRegistry metricsRegistry,
+                                  UpstreamResilience resilience,
+                                  ObservationRegistry observationRegistry,
+                                  ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.metricsRegistry = metricsRegistry;
+        this.resilience = resilience;
+        this.observationRegistry = observationRegistry;
+        this.objectMapper = objectMapper;
+        this.webClient = webClientBuilder
+            .clientConnector(new ReactorClientHttpConnector(resourceFactory, httpClient -> httpClient
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.connectTimeout().toMillis())
+                .responseTimeout(properties.readTimeout())))
+            .build();
+    }
+
+    /**
+     * GETs a JSON document and binds it to the given type.
+     * The Mono fails with UpstreamStatusException on a non-2xx status, and
+     * with UpstreamRejectedException if the resilience layer turned the call away.
+     */
+    public <T> Mono<T> getJson(String upstream, URI uri, Class<T> type) {
+        return exchange(upstream, uri, webClient.get().uri(uri).accept(MediaType.APPLICATION_JSON),
+            body -> objectMapper.readValue(body, type));
+    }
+
+    /**
+     * POSTs a JSON body and decodes the response with the given reader.
+     * Fails the same way as getJson.
+     */
+    public <T> Mono<T> postJson(String upstream, URI uri, byte[] body, BodyReader<T> reader) {
+        return exchange(upstream, uri, webClient.post().uri(uri)
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(body), reader);
+    }
+
+    private <T> Mono<T> exchange(String upstream, URI uri, WebClient.RequestHeadersSpec<?> request,
+                                 BodyReader<T> reader) {
+        UpstreamGuard guard = resilience.forUpstream(upstream);
+        if (guard == null) return call(upstream, request, reader, null);
+        // A permit admitted after the subscriber cancelled never reaches call(); Reactor
+        // discards it instead, and its bulkhead slot (or breaker trial) must be given back.
+        // hide() keeps subscribeOn from fusing with the callable, which drops such a value
+        // without discarding it.
+        return Mono.fromCallable(() -> guard.acquire(apiKey(uri)))
+            .hide()
+            .subscribeOn(Schedulers.boundedElastic())
+            .doOnDiscard(UpstreamGuard.Permit.class, UpstreamGuard.Permit::abandon)
+            .flatMap(permit -> call(upstream, request, reader, permit));
+    }
+
+    /**
+     * One attempt, with metrics, observation and the guard's permit settled
+     * exactly once however the Mono ends (value, error or cancellation).
+     */
+    private <T> Mono<T> call(String upstream, WebClient.RequestHeadersSpec<?> request,
+                             BodyReader<T> reader, UpstreamGuard.Permit permit) {
+        HttpClientProperties.Upstream overrides = properties.upstream(upstream);
+        Duration readTimeout = overrides.readTimeout() != null ? overrides.readTimeout() : properties.readTimeout();
+        Duration callTimeout = overrides.callTimeout() != null ? overrides.callTimeout() : properties.callTimeout();
+        UpstreamMetrics metrics = metricsRegistry.forUpstream(upstream);
+
+        return Mono.defer(() -> {
+            CallState state = new CallState();
+            Observation observation = Observation.createNotStarted("upstream.call", observationRegistry)
+                .contextualName(upstream + " reactive")
+                .lowCardinalityKeyValue("upstream", upstream)
+                .start();
+            metrics.callStarted();
+
+            return request
+                .httpRequest(http -> ((HttpClientRequest) http.getNativeRequest()).responseTimeout(readTimeout))
+                .exchangeToMono(response -> {
+                    state.rttNanos = System.nanoTime() - state.startNanos;
+                    state.status = response.statusCode().value();
+                    state.outcome = classify(state.status);
+                    return read(upstream, response, reader);
+                })
+                .timeout(callTimeout)
+                .doOnError(e -> {
+                    if (isTimeout(e)) state.outcome = UpstreamGuard.Outcome.DROPPED;
+                    observation.error(e);
+                })
+                .doFinally(signal -> {
+                    metrics.callFinished(System.nanoTime() - state.startNanos, state.status);
+                    if (permit != null) {
+                        if (signal == SignalType.CANCEL && state.status < 0) permit.abandon();
+                        else permit.release(state.outcome, state.rttNanos);
+                    }
+                    observation.lowCardinalityKeyValue("outcome", signal == SignalType.CANCEL && state.status < 0
+                            ? "CANCELLED" : state.outcome.name())
+                        .lowCardinalityKeyValue("status", state.status < 0 ? "none" : Integer.toString(state.status))
+                        .stop();
+                });
+        });
+    }
+
+    private static <T> Mono<T> read(String upstream, ClientResponse response, BodyReader<T> reader) {
+        if (!response.statusCode().is2xxSuccessful()) {
+            return response.releaseBody().then(Mono.error(new UpstreamStatusException(upstream, response.statusCode().value())));
+        }
+        return response.bodyToMono(byte[].class)
+            .defaultIfEmpty(new byte[0])
+            .handle((body, sink) -> {
+                try {
+                    sink.next(reader.read(body));
+                } catch (IOException e) {
+                    sink.error(e);
+                }
+            });
+    }
+
+    /**
+     * Same classification as UpstreamClient: throttling means "back off".
+     */
+    private static UpstreamGuard.Outcome classify(int status) {
+        if (status == 429 || status == 503) return UpstreamGuard.Outcome.DROPPED;
+        if (status >= 500) return UpstreamGuard.Outcome.FAILED;
+        return UpstreamGuard.Outcome.SUCCESS;
+    }
+
+    private static boolean isTimeout(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof TimeoutException || t instanceof io.netty.handler.timeout.TimeoutException) return true;
+            if (t.getCause() == t) break;
+        }
+        return false;
+    }
+
+    /**
+     * API key of a request (OMDb: apikey=, Gemini: key=), for per-key rate limits.
+     */
+    private static String apiKey(URI uri) {
+        String query = uri.getRawQuery();
+        if (query == null) return "";
+        for (String parameter : query.split("&")) {
+            if (parameter.startsWith("apikey=")) return parameter.substring(7);
+            if (parameter.startsWith("key=")) return parameter.substring(4);
+        }
+        return "";
+    }
+
+    // Per-call bookkeeping shared by the response handler and the final signal
+    private static final class CallState {
+        final long startNanos = System.nanoTime();
+        volatile long rttNanos;
+        volatile int status = -1;
+        volatile UpstreamGuard.Outcome outcome = UpstreamGuard.Outcome.FAILED;
+    }
+}
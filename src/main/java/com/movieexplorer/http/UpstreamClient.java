@@ -0,0 +1,218 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.http;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.movieexplorer.config.HttpClientProperties;
+import com.movieexplorer.resilience.UpstreamGuard;
+import com.movieexplorer.resilience.UpstreamRejectedException;
+import com.movieexplorer.resilience.UpstreamResilience;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import okhttp3.ConnectionPool;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared outbound HTTP layer for OMDb and Gemini.
+ * All calls go through one pooled, HTTP/2-capable OkHttpClient; each
+ * upstream gets its own timeouts (derived clients share the pool), a cap on
+ * concurrent calls, latency/connection metrics, and (where configured) a
+ * rate limit, adaptive bulkhead and circuit breaker. Every call is also
+ * observed as upstream.call, tagged with its outcome. Response bodies are
+ * handed to the caller as streams so JSON can be parsed without first
+ * buffering the whole body into a String.
+ */
+@Component
+public class UpstreamClient {
+
+    /**
+     * Reads the response of a call; the body stream is closed afterwards.
+     */
+    @FunctionalInterface
+    public interface ResponseHandler<T> {
+        T handle(Response response) throws IOException;
+    }
+
+    private final OkHttpClient baseClient;
+    private final ConnectionPool connectionPool;
+    private final HttpClientProperties properties;
+    private final UpstreamMetricsRegistry metricsRegistry;
+    private final ObjectMapper objectMapper;
+
+    // Rate limits, adaptive bulkheads and circuit breakers per upstream
+    private final UpstreamResilience resilience;
+
+    // Each call is observed as upstream.call (latency histogram and trace span)
+    private final ObservationRegistry observationRegistry;
+
+    // Per-upstream clients (derived from the base client) and concurrency limits
+    private final ConcurrentHashMap<String, OkHttpClient> clients = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Semaphore> permits = new ConcurrentHashMap<>();
+
+    public UpstreamClient(OkHttpClient upstreamHttpClient,
+                          ConnectionPool upstreamConnectionPool,
+                          HttpClientProperties properties,
+                          UpstreamMetricsRegistry metricsRegistry,
+                          ObjectMapper objectMapper,
+                          UpstreamResilience resilience,
+                          ObservationRegistry observationRegistry) {
+        this.baseClient = upstreamHttpClient;
+        this.connectionPool = upstreamConnectionPool;
+        this.properties = properties;
+        this.metricsRegistry = metricsRegistry;
+        this.objectMapper = objectMapper;
+        this.resilience = resilience;
+        this.observationRegistry = observationRegistry;
+    }
+
+    /**
+     * Executes a request against the named upstream and passes the response to the handler.
+     * @throws IOException on network failure or if the handler fails
+     * @throws com.movieexplorer.resilience.UpstreamRejectedException if the call was not
+     *         attempted (rate limit, bulkhead full or circuit open)
+     */
+    public <T> T execute(String upstream, Request request, ResponseHandler<T> handler) throws IOException {
+        Observation observation = Observation.createNotStarted("upstream.call", observationRegistry)
+            .contextualName(upstream + " " + request.method())
+            .lowCardinalityKeyValue("upstream", upstream)
+            .start();
+        String outcome = "REJECTED";
+        int status = -1;
+        try (Observation.Scope scope = observation.openScope()) {
+            // Wait for a connection slot before taking a guard permit, so the wait never
+            // holds a bulkhead slot; an open breaker or a wait past max-queue-wait fails fast
+            UpstreamGuard guard = resilience.forUpstream(upstream);
+            Semaphore semaphore = permits.computeIfAbsent(upstream, this::newPermits);
+            try {
+                if (guard == null) {
+                    semaphore.acquire();
+                } else {
+                    guard.rejectIfOpen();
+                    if (!semaphore.tryAcquire(guard.maxQueueWait().toNanos(), TimeUnit.NANOSECONDS)) {
+                        throw new UpstreamRejectedException(upstream, UpstreamRejectedException.Reason.BULKHEAD_FULL);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting for " + upstream + " connection slot");
+            }
+
+            UpstreamGuard.Permit permit;
+            try {
+                permit = guard == null ? null : guard.acquire(apiKey(request));
+            } catch (IOException | RuntimeException e) {
+                semaphore.release();
+                throw e;
+            }
+
+            UpstreamMetrics metrics = metricsRegistry.forUpstream(upstream);
+            Request tagged = request.newBuilder().tag(String.class, upstream).build();
+            long start = System.nanoTime();
+            long rttNanos = 0;
+            UpstreamGuard.Outcome result = UpstreamGuard.Outcome.FAILED;
+            metrics.callStarted();
+            try (Response response = clientFor(upstream).newCall(tagged).execute()) {
+                rttNanos = System.nanoTime() - start;
+                status = response.code();
+                result = classify(status);
+                return handler.handle(response);
+            } catch (InterruptedIOException e) {
+                // Read, call or connect timeout
+                result = UpstreamGuard.Outcome.DROPPED;
+                throw e;
+            } finally {
+                outcome = result.name();
+                metrics.callFinished(System.nanoTime() - start, status);
+                semaphore.release();
+                if (permit != null) permit.release(result, rttNanos);
+            }
+        } catch (IOException | RuntimeException e) {
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.lowCardinalityKeyValue("outcome", outcome)
+                .lowCardinalityKeyValue("status", status < 0 ? "none" : Integer.toString(status))
+                .stop();
+        }
+    }
+
+    /**
+     * GETs a JSON document and binds it straight from the response stream.
+     * @throws UpstreamStatusException if the upstream answers with a non-2xx status
+     */
+    public <T> T getJson(String upstream, HttpUrl url, Class<T> type) throws IOException {
+        Request request = new Request.Builder().url(url).get().build();
+        return execute(upstream, request, response -> {
+            if (!response.isSuccessful()) {
+                throw new UpstreamStatusException(upstream, response.code());
+            }
+            return objectMapper.readValue(response.body().byteStream(), type);
+        });
+    }
+
+    /**
+     * Per-upstream call metrics plus shared connection pool state.
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (UpstreamMetrics metrics : metricsRegistry.all()) {
+            stats.put(metrics.name(), metrics.snapshot());
+        }
+        stats.put("pool", Map.of(
+            "connections", connectionPool.connectionCount(),
+            "idleConnections", connectionPool.idleConnectionCount()));
+        return stats;
+    }
+
+    /**
+     * Client for an upstream with its timeout overrides applied; shares the base pool.
+     */
+    private OkHttpClient clientFor(String upstream) {
+        return clients.computeIfAbsent(upstream, name -> {
+            HttpClientProperties.Upstream overrides = properties.upstream(name);
+            OkHttpClient.Builder builder = baseClient.newBuilder();
+            if (overrides.readTimeout() != null) builder.readTimeout(overrides.readTimeout());
+            if (overrides.callTimeout() != null) builder.callTimeout(overrides.callTimeout());
+            return builder.build();
+        });
+    }
+
+    /**
+     * Throttling answers mean "back off"; other server errors only mean "unhealthy".
+     */
+    private static UpstreamGuard.Outcome classify(int status) {
+        if (status == 429 || status == 503) return UpstreamGuard.Outcome.DROPPED;
+        if (status >= 500) return UpstreamGuard.Outcome.FAILED;
+        return UpstreamGuard.Outcome.SUCCESS;
+    }
+
+    /**
+     * API key a request is made with (OMDb: apikey=, Gemini: key= or the
+     * x-goog-api-key header), so each key gets its own rate limit.
+     */
+    private static String apiKey(Request request) {
+        String key = request.url().queryParameter("apikey");
+        if (key == null) key = request.url().queryParameter("key");
+        if (key == null) key = request.header("x-goog-api-key");
+        return key == null ? "" : key;
+    }
+
+    private Semaphore newPermits(String upstream) {
+        Integer limit = properties.upstream(upstream).maxRequestsPerHost();
+        return new Semaphore(limit != null ? limit : properties.maxRequestsPerHost(), true);
+    }
+}
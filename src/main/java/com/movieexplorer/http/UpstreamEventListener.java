@@ -0,0 +1,52 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.http;
+
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.Protocol;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+
+/**
+ * OkHttp event listener attributing connection events to the upstream
+ * named in the request tag, so pool reuse can be observed per upstream.
+ */
+@Component
+public class UpstreamEventListener extends EventListener {
+
+    private final UpstreamMetricsRegistry registry;
+
+    public UpstreamEventListener(UpstreamMetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void connectStart(Call call, InetSocketAddress address, Proxy proxy) {
+        UpstreamMetrics metrics = metricsFor(call);
+        if (metrics != null) metrics.connectionOpened();
+    }
+
+    @Override
+    public void connectFailed(Call call, InetSocketAddress address, Proxy proxy, Protocol protocol, IOException e) {
+        UpstreamMetrics metrics = metricsFor(call);
+        if (metrics != null) metrics.connectFailed();
+    }
+
+    @Override
+    public void connectionAcquired(Call call, Connection connection) {
+        UpstreamMetrics metrics = metricsFor(call);
+        if (metrics != null) metrics.connectionAcquired();
+    }
+
+    private UpstreamMetrics metricsFor(Call call) {
+        String upstream = call.request().tag(String.class);
+        return upstream == null ? null : registry.forUpstream(upstream);
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.http;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Call, latency and connection counters for one upstream (OMDb or Gemini).
+ * Latencies are kept in a fixed-bucket histogram so recording is lock-free.
+ */
+public class UpstreamMetrics {
+
+    // Upper bounds (inclusive, in ms) of the latency histogram buckets; the last bucket is unbounded
+    private static final long[] BUCKET_BOUNDS_MS = {10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+
+    private final String name;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder httpErrors = new LongAdder();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_BOUNDS_MS.length + 1);
+
+    private final LongAdder connectionsOpened = new LongAdder();
+    private final LongAdder connectFailures = new LongAdder();
+    private final LongAdder connectionsAcquired = new LongAdder();
+
+    public UpstreamMetrics(String name) {
+        this.name = name;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    void callStarted() {
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * Records a finished call and its latency.
+     * @param status HTTP status, or -1 if the call failed with an I/O error
+     */
+    void callFinished(long nanos, int status) {
+        inFlight.decrementAndGet();
+        calls.increment();
+        if (status < 0) failures.increment();
+        else if (status >= 400) httpErrors.increment();
+
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+        long millis = nanos / 1_000_000;
+        int bucket = 0;
+        while (bucket < BUCKET_BOUNDS_MS.length && millis > BUCKET_BOUNDS_MS[bucket]) bucket++;
+        buckets.incrementAndGet(bucket);
+    }
+
+    void connectionOpened() {
+        connectionsOpened.increment();
+    }
+
+    void connectFailed() {
+        connectFailures.increment();
+    }
+
+    void connectionAcquired() {
+        connectionsAcquired.increment();
+    }
+
+    /**
+     * Snapshot of all counters, with the latency histogram keyed by bucket bound.
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long count = calls.sum();
+        stats.put("calls", count);
+        stats.put("failures", failures.sum());
+        stats.put("httpErrors", httpErrors.sum());
+        stats.put("inFlight", inFlight.get());
+        stats.put("meanMs", count == 0 ? 0.0 : totalNanos.sum() / 1e6 / count);
+        stats.put("maxMs", maxNanos.get() / 1e6);
+
+        Map<String, Long> histogram = new LinkedHashMap<>();
+        for (int i = 0; i < BUCKET_BOUNDS_MS.length; i++) {
+            histogram.put("le_" + BUCKET_BOUNDS_MS[i] + "ms", buckets.get(i));
+        }
+        histogram.put("le_inf", buckets.get(BUCKET_BOUNDS_MS.length));
+        stats.put("latency", histogram);
+
+        stats.put("connectionsOpened", connectionsOpened.sum());
+        stats.put("connectFailures", connectFailures.sum());
+        stats.put("connectionsAcquired", connectionsAcquired.sum());
+        return stats;
+    }
+}
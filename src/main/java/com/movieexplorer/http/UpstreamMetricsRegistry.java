@@ -0,0 +1,30 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.http;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds one UpstreamMetrics instance per upstream name.
+ */
+@Component
+public class UpstreamMetricsRegistry {
+
+    private final ConcurrentHashMap<String, UpstreamMetrics> metrics = new ConcurrentHashMap<>();
+
+    /**
+     * Metrics for an upstream, created on first use.
+     */
+    public UpstreamMetrics forUpstream(String name) {
+        return metrics.computeIfAbsent(name, UpstreamMetrics::new);
+    }
+
+    public Collection<UpstreamMetrics> all() {
+        return metrics.values();
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.http;
+
+import java.io.IOException;
+
+/**
+ * Thrown when an upstream answers with a non-2xx HTTP status.
+ */
+public class UpstreamStatusException extends IOException {
+
+    private final String upstream;
+    private final int status;
+
+    public UpstreamStatusException(String upstream, int status) {
+        super(upstream + " API Error: " + status);
+        this.upstream = upstream;
+        this.status = status;
+    }
+
+    public String getUpstream() {
+        return upstream;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+}
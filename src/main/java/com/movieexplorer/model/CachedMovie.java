@@ -0,0 +1,36 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Entity class for the persistent tier of the OMDb lookup cache.
+ * Stores the raw Movie JSON keyed by imdbID so cached lookups survive restarts.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CachedMovie {
+
+    // IMDb unique identifier, used as primary key
+    @Id
+    private String imdbId;
+
+    // Movie title as returned by OMDb
+    private String title;
+
+    // Movie serialized as OMDb-shaped JSON
+    @Lob
+    @Column(columnDefinition = "CLOB")
+    private String payload;
+
+    // When the movie was fetched from OMDb
+    private Instant fetchedAt;
+}
@@ -0,0 +1,321 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.model;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+/**
+ * Compact, immutable in-memory form of a Movie for the catalog and caches.
+ * Numbers (year, runtime, rating, release date) are parsed once into
+ * primitives; repeated strings (people, genre/language/country lists,
+ * ratings, awards) are ids into a MovieDictionary; genres
+ * are also kept as a bitmask so genre filters are a single AND.
+ * Converting back with toMovie() reproduces every field exactly: text that
+ * does not match the canonical OMDb format (e.g. a runtime of "1h 30m") is
+ * kept verbatim instead of being parsed.
+ */
+public final class CompactMovie {
+
+    // Numeric field sentinels: the source said "N/A", or held null / non-canonical text
+    public static final short NA = -1;
+    public static final short OTHER = -2;
+    private static final int NA_DATE = Integer.MIN_VALUE;
+    private static final int OTHER_DATE = Integer.MIN_VALUE + 1;
+
+    // Id sentinel for a null string field
+    private static final int NULL_ID = -1;
+
+    // OMDb writes release dates as "16 Jul 2010" and year ranges with an en dash
+    private static final DateTimeFormatter RELEASED = DateTimeFormatter.ofPattern("dd MMM yyyy", Locale.ENGLISH);
+    private static final char YEAR_DASH = '–';
+    private static final String LIST_SEPARATOR = ", ";
+    private static final String NOT_AVAILABLE = "N/A";
+
+    private final MovieDictionary dictionary;
+
+    // Unique per movie, kept as is
+    private final String imdbId;
+    private final String title;
+    private final String plot;
+    private final String poster;
+
+    // First release year; yearEnd is 0 for a single year, NA for an open range ("2019–")
+    private final short year;
+    private final short yearEnd;
+
+    // Minutes
+    private final short runtime;
+
+    // IMDb rating times ten (8.8 -> 88)
+    private final short rating;
+
+    // Epoch day of the release date
+    private final int released;
+
+    // Dictionary ids
+    private final int rated;
+    private final int awards;
+    private final int genres;
+    private final int languages;
+    private final int countries;
+    private final int[] directors;
+    private final int[] writers;
+    private final int[] actors;
+
+    // One bit per genre id below MovieDictionary.MASKED_GENRES
+    private final long genreMask;
+
+    // Label ids of non-canonical year, runtime, rating and release text (NULL_ID if null)
+    private final int[] verbatim;
+
+    private CompactMovie(Movie movie, MovieDictionary dictionary) {
+        this.dictionary = dictionary;
+        this.imdbId = movie.getImdbID();
+        this.title = movie.getTitle();
+        this.plot = movie.getPlot();
+        this.poster = movie.getPoster();
+
+        int[] rawIds = new int[4];
+        boolean anyRaw = false;
+
+        short[] years = parseYear(movie.getYear());
+        if (years == null) {
+            rawIds[0] = intern(dictionary.labels, movie.getYear());
+            anyRaw = true;
+            years = new short[] {OTHER, 0};
+        }
+        this.year = years[0];
+        this.yearEnd = years[1];
+
+        this.runtime = parseRuntime(movie.getRuntime());
+        if (runtime == OTHER) {
+            rawIds[1] = intern(dictionary.labels, movie.getRuntime());
+            anyRaw = true;
+        }
+
+        this.rating = parseRating(movie.getImdbRating());
+        if (rating == OTHER) {
+            rawIds[2] = intern(dictionary.labels, movie.getImdbRating());
+            anyRaw = true;
+        }
+
+        this.released = parseReleased(movie.getReleased());
+        if (released == OTHER_DATE) {
+            rawIds[3] = intern(dictionary.labels, movie.getReleased());
+            anyRaw = true;
+        }
+        this.verbatim = anyRaw ? rawIds : null;
+
+        this.rated = intern(dictionary.labels, movie.getRated());
+        this.awards = intern(dictionary.labels, movie.getAwards());
+        this.genres = intern(dictionary.lists, movie.getGenre());
+        this.languages = intern(dictionary.lists, movie.getLanguage());
+        this.countries = intern(dictionary.lists, movie.getCountry());
+        this.directors = internPeople(dictionary, movie.getDirector());
+        this.writers = internPeople(dictionary, movie.getWriter());
+        this.actors = internPeople(dictionary, movie.getActors());
+        this.genreMask = genreMask(dictionary, movie.getGenre());
+    }
+
+    /**
+     * Encodes a movie using the given dictionary.
+     */
+    public static CompactMovie from(Movie movie, MovieDictionary dictionary) {
+        return new CompactMovie(movie, dictionary);
+    }
+
+    /**
+     * Rebuilds the OMDb-shaped DTO; every field round-trips exactly.
+     */
+    public Movie toMovie() {
+        Movie movie = new Movie();
+        movie.setImdbID(imdbId);
+        movie.setTitle(title);
+        movie.setPlot(plot);
+        movie.setPoster(poster);
+        movie.setYear(year == OTHER ? raw(0) : formatYear());
+        movie.setRuntime(runtime == OTHER ? raw(1) : runtime == NA ? NOT_AVAILABLE : runtime + " min");
+        movie.setImdbRating(rating == OTHER ? raw(2) : rating == NA ? NOT_AVAILABLE : rating / 10 + "." + rating % 10);
+        movie.setReleased(released == OTHER_DATE ? raw(3)
+            : released == NA_DATE ? NOT_AVAILABLE : RELEASED.format(LocalDate.ofEpochDay(released)));
+        movie.setRated(lookup(dictionary.labels, rated));
+        movie.setWriter(joinPeople(writers));
+        movie.setAwards(lookup(dictionary.labels, awards));
+        movie.setGenre(lookup(dictionary.lists, genres));
+        movie.setLanguage(lookup(dictionary.lists, languages));
+        movie.setCountry(lookup(dictionary.lists, countries));
+        movie.setDirector(joinPeople(directors));
+        movie.setActors(joinPeople(actors));
+        return movie;
+    }
+
+    public String imdbId() {
+        return imdbId;
+    }
+
+    public String title() {
+        return title;
+    }
+
+    /**
+     * First release year, or a negative sentinel (NA / OTHER).
+     */
+    public int year() {
+        return year;
+    }
+
+    /**
+     * Runtime in minutes, or a negative sentinel.
+     */
+    public int runtimeMinutes() {
+        return runtime;
+    }
+
+    /**
+     * IMDb rating times ten, or a negative sentinel.
+     */
+    public int ratingTenths() {
+        return rating;
+    }
+
+    /**
+     * IMDb rating as a double, 0 when unknown.
+     */
+    public double rating() {
+        return rating < 0 ? 0.0 : rating / 10.0;
+    }
+
+    /**
+     * Bitmask of genre ids below MovieDictionary.MASKED_GENRES.
+     */
+    public long genreMask() {
+        return genreMask;
+    }
+
+    /**
+     * True if the movie is tagged with the genre id from MovieDictionary.genreId.
+     */
+    public boolean hasGenre(int genreId) {
+        if (genreId < 0) return false;
+        if (genreId < MovieDictionary.MASKED_GENRES) return (genreMask & (1L << genreId)) != 0;
+        String list = lookup(dictionary.lists, genres);
+        return list != null && (LIST_SEPARATOR + list + LIST_SEPARATOR)
+            .contains(LIST_SEPARATOR + dictionary.genre(genreId) + LIST_SEPARATOR);
+    }
+
+    private String formatYear() {
+        if (year == NA) return NOT_AVAILABLE;
+        if (yearEnd == 0) return Short.toString(year);
+        return year + String.valueOf(YEAR_DASH) + (yearEnd == NA ? "" : Short.toString(yearEnd));
+    }
+
+    private String raw(int field) {
+        return lookup(dictionary.labels, verbatim[field]);
+    }
+
+    private String joinPeople(int[] ids) {
+        if (ids == null) return null;
+        StringBuilder joined = new StringBuilder();
+        for (int i = 0; i < ids.length; i++) {
+            if (i > 0) joined.append(LIST_SEPARATOR);
+            joined.append(dictionary.people.get(ids[i]));
+        }
+        return joined.toString();
+    }
+
+    private static int intern(MovieDictionary.Pool pool, String value) {
+        return value == null ? NULL_ID : pool.intern(value);
+    }
+
+    private static String lookup(MovieDictionary.Pool pool, int id) {
+        return id == NULL_ID ? null : pool.get(id);
+    }
+
+    private static int[] internPeople(MovieDictionary dictionary, String names) {
+        if (names == null) return null;
+        String[] parts = names.split(LIST_SEPARATOR, -1);
+        if (!String.join(LIST_SEPARATOR, parts).equals(names) || names.isEmpty()) {
+            return new int[] {dictionary.people.intern(names)};
+        }
+        int[] ids = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) ids[i] = dictionary.people.intern(parts[i]);
+        return ids;
+    }
+
+    private static long genreMask(MovieDictionary dictionary, String genreList) {
+        if (genreList == null || NOT_AVAILABLE.equals(genreList)) return 0;
+        long mask = 0;
+        for (String genre : genreList.split(",")) {
+            String name = genre.trim();
+            if (name.isEmpty()) continue;
+            int id = dictionary.genres.intern(name);
+            if (id < MovieDictionary.MASKED_GENRES) mask |= 1L << id;
+        }
+        return mask;
+    }
+
+    /**
+     * "2010" -> {2010, 0}; "2010–2014" -> {2010, 2014}; "2019–" -> {2019, NA};
+     * "N/A" -> {NA, 0}; anything else -> null.
+     */
+    private static short[] parseYear(String value) {
+        if (NOT_AVAILABLE.equals(value)) return new short[] {NA, 0};
+        if (value == null || value.length() < 4) return null;
+        short start = parseDigits(value, 0, 4);
+        if (start < 1000) return null;
+        if (value.length() == 4) return new short[] {start, 0};
+        if (value.charAt(4) != YEAR_DASH) return null;
+        if (value.length() == 5) return new short[] {start, NA};
+        if (value.length() != 9) return null;
+        short end = parseDigits(value, 5, 9);
+        return end < 1000 ? null : new short[] {start, end};
+    }
+
+    // "148 min"
+    private static short parseRuntime(String value) {
+        if (NOT_AVAILABLE.equals(value)) return NA;
+        if (value == null || !value.endsWith(" min")) return OTHER;
+        short minutes = parseDigits(value, 0, value.length() - 4);
+        return minutes <= 0 || !(minutes + " min").equals(value) ? OTHER : minutes;
+    }
+
+    // "8.8"
+    private static short parseRating(String value) {
+        if (NOT_AVAILABLE.equals(value)) return NA;
+        if (value == null || value.length() < 3 || value.charAt(value.length() - 2) != '.') return OTHER;
+        short whole = parseDigits(value, 0, value.length() - 2);
+        short tenth = parseDigits(value, value.length() - 1, value.length());
+        if (whole < 0 || tenth < 0) return OTHER;
+        short tenths = (short) (whole * 10 + tenth);
+        return (tenths / 10 + "." + tenths % 10).equals(value) ? tenths : OTHER;
+    }
+
+    // "16 Jul 2010"
+    private static int parseReleased(String value) {
+        if (NOT_AVAILABLE.equals(value)) return NA_DATE;
+        if (value == null) return OTHER_DATE;
+        try {
+            LocalDate date = LocalDate.parse(value, RELEASED);
+            return RELEASED.format(date).equals(value) ? (int) date.toEpochDay() : OTHER_DATE;
+        } catch (DateTimeParseException e) {
+            return OTHER_DATE;
+        }
+    }
+
+    // Non-negative decimal in [from, to), or -1 if not all digits / too large
+    private static short parseDigits(String value, int from, int to) {
+        if (from >= to || to - from > 4) return -1;
+        int n = 0;
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            n = n * 10 + (c - '0');
+        }
+        return (short) n;
+    }
+}
@@ -4,6 +4,7 @@
 
 package com.movieexplorer.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -17,9 +18,14 @@ import lombok.*;
 @AllArgsConstructor
 public class Feedback {
 
-    // Primary key, auto-generated by the database
+    // Ids reserved per sequence call
+    public static final int ALLOCATION_SIZE = 50;
+
+    // Primary key, drawn from a database sequence in blocks of ALLOCATION_SIZE
+    // (unlike IDENTITY, this lets Hibernate batch inserts)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "feedback_seq")
+    @SequenceGenerator(name = "feedback_seq", sequenceName = "feedback_seq", allocationSize = Feedback.ALLOCATION_SIZE)
     private Long id;
 
     // Name of the user submitting feedback
@@ -31,6 +37,12 @@ public class Feedback {
     // Feedback message content
     private String message;
 
+    // Optimistic lock version, bumped by every update; with the id it forms the API's ETag.
+    // Assigned by JPA only, so it is never read from submitted JSON
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
     // Note: You can extend this class to include fields like movieTitle, comment, or rating
     // if you want to associate feedback with a particular movie.
 }
@@ -0,0 +1,105 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.model;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Shared string dictionaries used by CompactMovie.
+ * Strings that repeat across movies (people, genre/language/country lists,
+ * ratings such as "PG-13") are stored once and referenced by an int id.
+ * A dictionary only grows and its ids never change, so each owner (the
+ * catalog, the movie cache) keeps its own and decides how large it may get.
+ */
+public final class MovieDictionary {
+
+    // Genre ids below this get a bit in CompactMovie's genre mask
+    public static final int MASKED_GENRES = Long.SIZE;
+
+    // Directors, writers, actors
+    final Pool people = new Pool();
+
+    // Single genres ("Drama"), for the genre mask
+    final Pool genres = new Pool();
+
+    // Whole comma-joined lists ("Action, Adventure, Sci-Fi", "English, French")
+    final Pool lists = new Pool();
+
+    // Short repeated labels: rated, awards, unparseable field text
+    final Pool labels = new Pool();
+
+    /**
+     * Id of a genre name (case-sensitive, as OMDb spells it), or -1 if never seen.
+     */
+    public int genreId(String genre) {
+        return genres.find(genre);
+    }
+
+    /**
+     * Genre name for an id.
+     */
+    public String genre(int id) {
+        return genres.get(id);
+    }
+
+    /**
+     * Number of distinct genres seen.
+     */
+    public int genreCount() {
+        return genres.size();
+    }
+
+    /**
+     * Number of strings held across all pools.
+     */
+    public int size() {
+        return people.size() + genres.size() + lists.size() + labels.size();
+    }
+
+    /**
+     * Append-only string to id table. Lookups by string go through a
+     * concurrent map; lookups by id read a plain array that is republished
+     * through a volatile write after each append, so readers never lock.
+     */
+    static final class Pool {
+        private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+        private volatile String[] values = new String[64];
+        private int size;
+        private final ReentrantLock lock = new ReentrantLock();
+
+        int intern(String value) {
+            Integer id = ids.get(value);
+            if (id != null) return id;
+            lock.lock();
+            try {
+                id = ids.get(value);
+                if (id != null) return id;
+                String[] current = values;
+                if (size == current.length) current = Arrays.copyOf(current, size * 2);
+                current[size] = value;
+                values = current;
+                ids.put(value, size);
+                return size++;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int find(String value) {
+            Integer id = ids.get(value);
+            return id == null ? -1 : id;
+        }
+
+        String get(int id) {
+            return values[id];
+        }
+
+        int size() {
+            return ids.size();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Entity class mapping a normalized title key to the imdbID it resolved to.
+ * Several spellings of a title can point at the same CachedMovie.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovieTitleKey {
+
+    // Normalized title (lowercase, collapsed whitespace, '+' treated as space)
+    @Id
+    private String titleKey;
+
+    // IMDb identifier of the CachedMovie this title resolved to
+    private String imdbId;
+}
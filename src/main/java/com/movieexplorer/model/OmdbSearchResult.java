@@ -0,0 +1,47 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * OmdbSearchResult models the response of an OMDb search (s=) request:
+ * a page of short entries, each naming a title, its year and its imdbID.
+ * When nothing matches, Search is absent and Response is "False".
+ */
+@Data
+public class OmdbSearchResult {
+
+    @JsonProperty("Search")
+    private List<Hit> search;      // Matching entries (up to 10 per page)
+
+    @JsonProperty("totalResults")
+    private String totalResults;   // Total number of matches
+
+    @JsonProperty("Response")
+    private String response;       // "True" or "False"
+
+    /**
+     * One search entry.
+     */
+    @Data
+    public static class Hit {
+
+        @JsonProperty("Title")
+        private String title;      // Movie title
+
+        @JsonProperty("Year")
+        private String year;       // Release year (e.g. 2010, or 2008–2013 for series)
+
+        @JsonProperty("imdbID")
+        private String imdbID;     // IMDb unique identifier
+
+        @JsonProperty("Type")
+        private String type;       // movie, series or episode
+    }
+}
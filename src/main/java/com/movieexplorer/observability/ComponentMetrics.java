@@ -0,0 +1,159 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.observability;
+
+import com.movieexplorer.cache.LruTtlCache;
+import com.movieexplorer.config.ResilienceProperties;
+import com.movieexplorer.resilience.UpstreamGuard;
+import com.movieexplorer.resilience.UpstreamResilience;
+import com.movieexplorer.service.FeedbackWriteBehind;
+import com.movieexplorer.service.GeminiBatcher;
+import com.movieexplorer.service.GeminiResponseCache;
+import com.movieexplorer.service.GeminiService;
+import com.movieexplorer.service.MovieCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import okhttp3.ConnectionPool;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exports the state the application components already track as meters:
+ * the in-memory caches, the outbound connection pool, the resilience
+ * limits per upstream, the Gemini prompt batcher and the feedback
+ * write-behind queue. Everything is
+ * read when the registry is scraped, so nothing is added to the request path.
+ */
+@Component
+public class ComponentMetrics implements MeterBinder {
+
+    private final MovieCache movieCache;
+    private final GeminiResponseCache geminiCache;
+    private final ConnectionPool connectionPool;
+    private final UpstreamResilience resilience;
+    private final ResilienceProperties resilienceProperties;
+    private final FeedbackWriteBehind feedbackWriter;
+    private final GeminiService geminiService;
+
+    public ComponentMetrics(MovieCache movieCache, GeminiResponseCache geminiCache,
+                            ConnectionPool upstreamConnectionPool, UpstreamResilience resilience,
+                            ResilienceProperties resilienceProperties, FeedbackWriteBehind feedbackWriter,
+                            GeminiService geminiService) {
+        this.movieCache = movieCache;
+        this.geminiCache = geminiCache;
+        this.connectionPool = upstreamConnectionPool;
+        this.resilience = resilience;
+        this.resilienceProperties = resilienceProperties;
+        this.feedbackWriter = feedbackWriter;
+        this.geminiService = geminiService;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bindCaches(registry);
+        bindConnectionPool(registry);
+        bindResilience(registry);
+        bindFeedbackWriter(registry);
+        geminiService.batcher().ifPresent(batcher -> bindGeminiBatcher(registry, batcher));
+    }
+
+    private void bindCaches(MeterRegistry registry) {
+        for (LruTtlCache<?, ?> cache : movieCache.caches()) {
+            new LruTtlCacheMetrics(cache, Tags.empty()).bindTo(registry);
+        }
+        new LruTtlCacheMetrics(geminiCache.cache(), Tags.empty()).bindTo(registry);
+
+        FunctionCounter.builder("cache.persistent.gets", movieCache, MovieCache::persistentHits)
+            .tag("result", "hit")
+            .description("Movie lookups answered from the database tier")
+            .register(registry);
+        FunctionCounter.builder("cache.persistent.gets", movieCache, MovieCache::persistentMisses)
+            .tag("result", "miss")
+            .register(registry);
+        FunctionCounter.builder("cache.stale.served", movieCache, MovieCache::staleHits)
+            .tag("cache", "movies")
+            .description("Expired entries served because the upstream call failed")
+            .register(registry);
+        FunctionCounter.builder("cache.stale.served", geminiCache, GeminiResponseCache::staleHits)
+            .tag("cache", "gemini")
+            .register(registry);
+    }
+
+    private void bindConnectionPool(MeterRegistry registry) {
+        Gauge.builder("http.client.pool.connections", connectionPool,
+                pool -> pool.connectionCount() - pool.idleConnectionCount())
+            .tag("state", "active")
+            .description("Pooled connections to OMDb and Gemini")
+            .register(registry);
+        Gauge.builder("http.client.pool.connections", connectionPool, ConnectionPool::idleConnectionCount)
+            .tag("state", "idle")
+            .register(registry);
+    }
+
+    private void bindResilience(MeterRegistry registry) {
+        if (resilienceProperties.upstreams() == null) return;
+        for (String name : resilienceProperties.upstreams().keySet()) {
+            UpstreamGuard guard = resilience.forUpstream(name);
+            if (guard == null) continue;
+            Gauge.builder("upstream.bulkhead.limit", guard, UpstreamGuard::concurrencyLimit)
+                .tag("upstream", name)
+                .description("Current adaptive concurrency limit")
+                .register(registry);
+            Gauge.builder("upstream.bulkhead.in.flight", guard, UpstreamGuard::inFlight)
+                .tag("upstream", name)
+                .register(registry);
+            Gauge.builder("upstream.circuit.state", guard, g -> g.breakerState().ordinal())
+                .tag("upstream", name)
+                .description("0 = closed, 1 = open, 2 = half-open")
+                .register(registry);
+        }
+    }
+
+    private void bindGeminiBatcher(MeterRegistry registry, GeminiBatcher batcher) {
+        FunctionCounter.builder("gemini.batch.calls", batcher, GeminiBatcher::batchCalls)
+            .tag("kind", "batch")
+            .description("Gemini calls made for recommendation prompts")
+            .register(registry);
+        FunctionCounter.builder("gemini.batch.calls", batcher, GeminiBatcher::singleCalls)
+            .tag("kind", "single")
+            .register(registry);
+        FunctionCounter.builder("gemini.batch.calls", batcher, GeminiBatcher::fallbackCalls)
+            .tag("kind", "fallback")
+            .register(registry);
+        FunctionCounter.builder("gemini.batch.prompts", batcher, GeminiBatcher::batchedRequests)
+            .description("Prompts sent in batches; divided by batch calls, the mean batch size")
+            .register(registry);
+        Gauge.builder("gemini.batch.size.max", batcher, GeminiBatcher::maxBatchSize)
+            .register(registry);
+        FunctionTimer.builder("gemini.batch.queue.delay", batcher,
+                GeminiBatcher::requests, GeminiBatcher::queueNanos, TimeUnit.NANOSECONDS)
+            .description("Time prompts waited for their batch to be sent")
+            .register(registry);
+    }
+
+    private void bindFeedbackWriter(MeterRegistry registry) {
+        Gauge.builder("feedback.writer.queue.depth", feedbackWriter, FeedbackWriteBehind::queueDepth)
+            .description("Feedback submissions waiting to be written")
+            .register(registry);
+        FunctionCounter.builder("feedback.writer.rows", feedbackWriter, FeedbackWriteBehind::written)
+            .tag("result", "written")
+            .register(registry);
+        FunctionCounter.builder("feedback.writer.rows", feedbackWriter, FeedbackWriteBehind::dropped)
+            .tag("result", "dropped")
+            .register(registry);
+        FunctionCounter.builder("feedback.writer.rows", feedbackWriter, FeedbackWriteBehind::rejected)
+            .tag("result", "rejected")
+            .register(registry);
+        FunctionTimer.builder("feedback.writer.flush", feedbackWriter,
+                FeedbackWriteBehind::batches, FeedbackWriteBehind::flushNanos, TimeUnit.NANOSECONDS)
+            .description("Batch writes to the database")
+            .register(registry);
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.observability;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts errors by where they were handled and what they were, including
+ * the ones that never reach the user as a failure (a stale answer was
+ * served instead, or the error was turned into a page message).
+ * Exported as app.errors{source, type}.
+ */
+@Component
+public class ErrorMetrics {
+
+    private final MeterRegistry registry;
+
+    public ErrorMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Counts one handled error.
+     * @param source Where it was handled, e.g. "compare" or "gemini.stale-fallback".
+     */
+    public void record(String source, Throwable error) {
+        Counter.builder("app.errors")
+            .tag("source", source)
+            .tag("type", typeOf(error))
+            .register(registry)
+            .increment();
+    }
+
+    /**
+     * Simple class name of the root cause, so wrappers added by executors and
+     * by the services' own exceptions do not hide what actually went wrong.
+     */
+    static String typeOf(Throwable error) {
+        Throwable t = error;
+        while (t.getCause() != null && t.getCause() != t) {
+            t = t.getCause();
+        }
+        return t.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.observability;
+
+import com.movieexplorer.cache.LruTtlCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+/**
+ * Exports an LruTtlCache as the standard cache.* meters (size, gets by
+ * result, puts, evictions), plus its weight and expirations.
+ */
+class LruTtlCacheMetrics extends CacheMeterBinder<LruTtlCache<?, ?>> {
+
+    LruTtlCacheMetrics(LruTtlCache<?, ?> cache, Iterable<Tag> tags) {
+        super(cache, cache.stats().name(), tags);
+    }
+
+    @Override
+    protected Long size() {
+        LruTtlCache<?, ?> cache = getCache();
+        return cache == null ? null : (long) cache.size();
+    }
+
+    @Override
+    protected long hitCount() {
+        LruTtlCache<?, ?> cache = getCache();
+        return cache == null ? 0 : cache.stats().hits();
+    }
+
+    @Override
+    protected Long missCount() {
+        LruTtlCache<?, ?> cache = getCache();
+        return cache == null ? null : cache.stats().misses();
+    }
+
+    @Override
+    protected Long evictionCount() {
+        LruTtlCache<?, ?> cache = getCache();
+        return cache == null ? null : cache.stats().evictions();
+    }
+
+    @Override
+    protected long putCount() {
+        LruTtlCache<?, ?> cache = getCache();
+        return cache == null ? 0 : cache.puts();
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        LruTtlCache<?, ?> cache = getCache();
+        Gauge.builder("cache.weight", cache, c -> c.stats().weight())
+            .tags(getTagsWithCacheName())
+            .description("Approximate size of the cached values (bytes for weighted caches, else entries)")
+            .register(registry);
+        FunctionCounter.builder("cache.expirations", cache, c -> c.stats().expirations())
+            .tags(getTagsWithCacheName())
+            .description("Entries removed because their time-to-live ran out")
+            .register(registry);
+    }
+}
@@ -0,0 +1,28 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.observability;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registers the template render timing with Spring MVC.
+ */
+@Configuration
+public class ObservabilityConfig implements WebMvcConfigurer {
+
+    private final ObservationRegistry observationRegistry;
+
+    public ObservabilityConfig(ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ViewRenderInterceptor(observationRegistry));
+    }
+}
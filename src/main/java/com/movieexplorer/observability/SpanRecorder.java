@@ -0,0 +1,188 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.observability;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationView;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process tracer: turns observations into spans and keeps the most
+ * recent traces in memory, so a slow request can be broken down (OMDb
+ * lookups, Gemini call, rendering) without an external tracing backend.
+ * An observation without a parent starts a trace, which is sampled with
+ * the configured rate; unsampled traces cost one random number. Nested
+ * observations (same thread, or forked through FanOut) become child spans.
+ * Requests to the actuator endpoints themselves are not kept.
+ */
+@Component
+public class SpanRecorder implements ObservationHandler<Observation.Context> {
+
+    // Fraction of traces recorded (0 disables tracing)
+    private final double sampleRate;
+
+    // Number of completed traces kept
+    private final int maxTraces;
+
+    private final AtomicLong traceIds = new AtomicLong();
+
+    // Completed traces, oldest first; guarded by lock
+    private final ArrayDeque<Span> traces = new ArrayDeque<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public SpanRecorder(@Value("${observability.traces.sample-rate:0.1}") double sampleRate,
+                        @Value("${observability.traces.max-traces:100}") int maxTraces) {
+        this.sampleRate = sampleRate;
+        this.maxTraces = maxTraces;
+    }
+
+    @Override
+    public boolean supportsContext(Observation.Context context) {
+        return true;
+    }
+
+    @Override
+    public void onStart(Observation.Context context) {
+        ObservationView parent = context.getParentObservation();
+        Span span;
+        if (parent == null) {
+            if (sampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate) return;
+            span = new Span(context.getName(), null, Long.toHexString(traceIds.incrementAndGet()));
+        } else {
+            Span parentSpan = parent.getContextView().get(Span.class);
+            if (parentSpan == null) return; // Trace not sampled
+            span = new Span(context.getName(), parentSpan, parentSpan.traceId);
+            parentSpan.children.add(span);
+        }
+        context.put(Span.class, span);
+    }
+
+    @Override
+    public void onError(Observation.Context context) {
+        Span span = context.get(Span.class);
+        if (span != null && context.getError() != null) {
+            span.error = ErrorMetrics.typeOf(context.getError());
+        }
+    }
+
+    @Override
+    public void onStop(Observation.Context context) {
+        Span span = context.get(Span.class);
+        if (span == null) return;
+        Map<String, String> tags = new LinkedHashMap<>();
+        for (KeyValue keyValue : context.getLowCardinalityKeyValues()) {
+            tags.put(keyValue.getKey(), keyValue.getValue());
+        }
+        span.contextualName = context.getContextualName();
+        span.tags = tags;
+        span.endNanos = System.nanoTime();
+        if (span.parent == null && !tags.getOrDefault("uri", "").startsWith("/actuator")) {
+            keep(span);
+        }
+    }
+
+    /**
+     * Most recent traces, newest first.
+     * @param limit Maximum number of traces returned.
+     */
+    public List<TraceView> recent(int limit) {
+        List<Span> roots = new ArrayList<>(Math.min(limit, maxTraces));
+        lock.lock();
+        try {
+            Iterator<Span> it = traces.descendingIterator();
+            while (it.hasNext() && roots.size() < limit) {
+                roots.add(it.next());
+            }
+        } finally {
+            lock.unlock();
+        }
+        List<TraceView> views = new ArrayList<>(roots.size());
+        for (Span root : roots) {
+            views.add(new TraceView(root.traceId, root.displayName(), root.startedAt,
+                root.durationMs(), root.view(root.startNanos)));
+        }
+        return views;
+    }
+
+    private void keep(Span root) {
+        lock.lock();
+        try {
+            traces.addLast(root);
+            while (traces.size() > maxTraces) {
+                traces.removeFirst();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * A recorded trace: its root span and, nested below it, every sampled observation.
+     */
+    public record TraceView(String traceId, String name, Instant startedAt, Double durationMs, SpanView root) { }
+
+    /**
+     * One span with its start offset from the start of the trace.
+     * durationMs is null for a span that had not finished when the trace was read.
+     */
+    public record SpanView(String name, Map<String, String> tags, double offsetMs, Double durationMs,
+                           String error, List<SpanView> children) { }
+
+    // Mutable span state; fields other than children are written by the observing thread only
+    private static final class Span {
+        final String name;
+        final Span parent;
+        final String traceId;
+        final long startNanos = System.nanoTime();
+        final Instant startedAt = Instant.now();
+        final Queue<Span> children = new ConcurrentLinkedQueue<>();
+        volatile String contextualName;
+        volatile Map<String, String> tags = Map.of();
+        volatile String error;
+        volatile long endNanos;
+
+        Span(String name, Span parent, String traceId) {
+            this.name = name;
+            this.parent = parent;
+            this.traceId = traceId;
+        }
+
+        String displayName() {
+            String contextual = contextualName;
+            return contextual != null ? contextual : name;
+        }
+
+        Double durationMs() {
+            long end = endNanos;
+            return end == 0 ? null : (end - startNanos) / 1e6;
+        }
+
+        SpanView view(long traceStartNanos) {
+            List<SpanView> childViews = new ArrayList<>();
+            for (Span child : children) {
+                childViews.add(child.view(traceStartNanos));
+            }
+            childViews.sort((a, b) -> Double.compare(a.offsetMs(), b.offsetMs()));
+            return new SpanView(displayName(), tags, (startNanos - traceStartNanos) / 1e6, durationMs(),
+                error, childViews);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.observability;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Actuator endpoint (/actuator/traces) listing the most recent sampled
+ * traces kept by the SpanRecorder, newest first.
+ */
+@Component
+@Endpoint(id = "traces")
+public class TracesEndpoint {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final SpanRecorder recorder;
+
+    public TracesEndpoint(SpanRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    /**
+     * Recent traces with their span trees.
+     * @param limit Maximum number of traces (default 20).
+     */
+    @ReadOperation
+    public List<SpanRecorder.TraceView> traces(@Nullable Integer limit) {
+        return recorder.recent(limit == null || limit < 1 ? DEFAULT_LIMIT : limit);
+    }
+}
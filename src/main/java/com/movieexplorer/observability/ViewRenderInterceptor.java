@@ -0,0 +1,49 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.observability;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+/**
+ * Times template rendering as a view.render observation tagged with the
+ * view name. Rendering happens between postHandle and afterCompletion, so
+ * the observation is started in the first and stopped in the second.
+ */
+public class ViewRenderInterceptor implements HandlerInterceptor {
+
+    // Request attribute holding the running observation
+    private static final String ATTRIBUTE = ViewRenderInterceptor.class.getName() + ".observation";
+
+    private final ObservationRegistry registry;
+
+    public ViewRenderInterceptor(ObservationRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        if (modelAndView == null || modelAndView.getViewName() == null) return;
+        Observation observation = Observation.createNotStarted("view.render", registry)
+            .contextualName("render " + modelAndView.getViewName())
+            .lowCardinalityKeyValue("view", modelAndView.getViewName())
+            .start();
+        request.setAttribute(ATTRIBUTE, observation);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (!(request.getAttribute(ATTRIBUTE) instanceof Observation observation)) return;
+        request.removeAttribute(ATTRIBUTE);
+        if (ex != null) observation.error(ex);
+        observation.stop();
+    }
+}
@@ -0,0 +1,15 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.repository;
+
+import com.movieexplorer.model.CachedMovie;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * CachedMovieRepository provides CRUD operations for the
+ * persistent tier of the movie lookup cache.
+ */
+public interface CachedMovieRepository extends JpaRepository<CachedMovie, String> {
+}
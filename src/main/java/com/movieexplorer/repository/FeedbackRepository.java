@@ -5,14 +5,44 @@
 package com.movieexplorer.repository;
 
 import com.movieexplorer.model.Feedback;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 /**
  * FeedbackRepository interface extends JpaRepository to provide
  * CRUD operations for Feedback entity.
  * 
  * JpaRepository provides methods like save(), findById(), findAll(), delete(), etc.
+ * Listing goes through the keyset (id cursor) queries below rather than
+ * findAll(), so the cost of a page does not depend on the size of the table.
  */
 public interface FeedbackRepository extends JpaRepository<Feedback, Long> {
-    // No extra methods needed currently, but you can add custom queries here if needed
+
+    /**
+     * Newest feedback first: the first page.
+     */
+    List<Feedback> findAllByOrderByIdDesc(Limit limit);
+
+    /**
+     * Newest feedback first, starting below an id cursor: the following pages.
+     */
+    List<Feedback> findByIdLessThanOrderByIdDesc(Long id, Limit limit);
+
+    /**
+     * All feedback, oldest first, read through a database cursor.
+     * Must be consumed (and closed) inside a transaction.
+     */
+    @QueryHints({
+        @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    Stream<Feedback> streamAllByOrderByIdAsc();
 }
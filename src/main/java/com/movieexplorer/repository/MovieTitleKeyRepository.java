@@ -0,0 +1,15 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.repository;
+
+import com.movieexplorer.model.MovieTitleKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * MovieTitleKeyRepository provides CRUD operations for
+ * title-to-imdbID mappings used by the movie lookup cache.
+ */
+public interface MovieTitleKeyRepository extends JpaRepository<MovieTitleKey, String> {
+}
@@ -0,0 +1,176 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency bulkhead whose limit adapts to the upstream's latency, in the
+ * style of TCP Vegas with an AIMD backstop.
+ * Each successful call compares its latency with the lowest latency seen
+ * (the no-queueing baseline) to estimate how many calls are queued at the
+ * upstream: limit * (1 - minRtt / rtt). While that estimate is below ALPHA
+ * the limit grows by about one per round trip; above BETA it shrinks at the
+ * same pace. A call that was throttled or timed out (429, 503, timeout)
+ * cuts the limit multiplicatively. The baseline is re-measured every
+ * RTT_PROBE_SAMPLES calls so it can follow an upstream that got slower.
+ */
+public final class AdaptiveLimiter {
+
+    // Estimated queued calls below which the limit grows, and above which it shrinks
+    private static final double ALPHA = 3;
+    private static final double BETA = 6;
+
+    // Factor applied to the limit when a call is throttled or times out
+    private static final double BACKOFF = 0.7;
+
+    private static final int RTT_PROBE_SAMPLES = 500;
+
+    private final int minLimit;
+    private final int maxLimit;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotFreed = lock.newCondition();
+
+    // Guarded by lock
+    private double limit;
+    private int inFlight;
+    private long minRttNanos = Long.MAX_VALUE;
+    private int samplesSinceProbe;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder drops = new LongAdder();
+
+    public AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("need 1 <= minLimit <= maxLimit");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(initialLimit, maxLimit));
+    }
+
+    /**
+     * Takes a slot, waiting up to maxWait while the limit is reached.
+     * @return False if no slot freed up in time.
+     */
+    public boolean tryAcquire(Duration maxWait) throws InterruptedException {
+        long remaining = maxWait.toNanos();
+        lock.lock();
+        try {
+            while (inFlight >= (int) limit) {
+                if (remaining <= 0) {
+                    rejected.increment();
+                    return false;
+                }
+                remaining = slotFreed.awaitNanos(remaining);
+            }
+            inFlight++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Releases a slot after a call the upstream answered normally.
+     * @param rttNanos Time until the upstream's response arrived.
+     */
+    public void onSuccess(long rttNanos) {
+        lock.lock();
+        try {
+            int used = inFlight--;
+            if (++samplesSinceProbe >= RTT_PROBE_SAMPLES) {
+                minRttNanos = rttNanos;
+                samplesSinceProbe = 0;
+            } else {
+                minRttNanos = Math.min(minRttNanos, rttNanos);
+            }
+            double queued = limit * (1 - (double) minRttNanos / Math.max(rttNanos, 1));
+            if (queued > BETA) {
+                limit = Math.max(minLimit, limit - 1 / limit);
+            } else if (queued < ALPHA && used * 2 >= limit) {
+                // Only grow a limit that is actually being used
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+            slotFreed.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Releases a slot after the upstream throttled the call or it timed out.
+     */
+    public void onDropped() {
+        lock.lock();
+        try {
+            inFlight--;
+            drops.increment();
+            limit = Math.max(minLimit, limit * BACKOFF);
+            slotFreed.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Releases a slot without adjusting the limit (the outcome says nothing about load).
+     */
+    public void onIgnored() {
+        lock.lock();
+        try {
+            inFlight--;
+            slotFreed.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Current limit (rounded down, as enforced).
+     */
+    public int limit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Baseline latency in milliseconds, 0 before the first sample.
+     */
+    public double minRttMs() {
+        lock.lock();
+        try {
+            return minRttNanos == Long.MAX_VALUE ? 0.0 : minRttNanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    public long drops() {
+        return drops.sum();
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker.
+ * CLOSED: calls pass and their outcomes fill a ring of the last
+ * slidingWindow results; once at least minimumCalls are recorded and the
+ * failure rate reaches the threshold, the breaker opens.
+ * OPEN: calls are rejected at once for openDuration.
+ * HALF_OPEN: up to halfOpenCalls trial calls pass; if all succeed the
+ * breaker closes with a fresh window, and any failure opens it again.
+ */
+public final class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    /**
+     * Admission decision for one call.
+     */
+    public enum Call { REJECTED, NORMAL, TRIAL }
+
+    private final double failureRateThreshold;
+    private final int minimumCalls;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier nanoClock;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Guarded by lock: outcome ring (true = failure), and state
+    private final boolean[] window;
+    private int recorded;
+    private int next;
+    private int failures;
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int trialsStarted;
+    private int trialsSucceeded;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder opened = new LongAdder();
+
+    public CircuitBreaker(double failureRateThreshold, int slidingWindow, int minimumCalls,
+                          Duration openDuration, int halfOpenCalls) {
+        this(failureRateThreshold, slidingWindow, minimumCalls, openDuration, halfOpenCalls, System::nanoTime);
+    }
+
+    public CircuitBreaker(double failureRateThreshold, int slidingWindow, int minimumCalls,
+                          Duration openDuration, int halfOpenCalls, LongSupplier nanoClock) {
+        if (slidingWindow < 1 || halfOpenCalls < 1) {
+            throw new IllegalArgumentException("slidingWindow and halfOpenCalls must be positive");
+        }
+        this.failureRateThreshold = failureRateThreshold;
+        this.window = new boolean[slidingWindow];
+        this.minimumCalls = Math.min(minimumCalls, slidingWindow);
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenCalls = halfOpenCalls;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Decides whether a call may go ahead. NORMAL and TRIAL calls must
+     * report their outcome through onResult (or onNotCalled) with the same
+     * Call value.
+     */
+    public Call tryAcquire() {
+        lock.lock();
+        try {
+            if (state == State.OPEN) {
+                if (nanoClock.getAsLong() - openedAt < openNanos) {
+                    rejected.increment();
+                    return Call.REJECTED;
+                }
+                state = State.HALF_OPEN;
+                trialsStarted = 0;
+                trialsSucceeded = 0;
+            }
+            if (state == State.HALF_OPEN) {
+                if (trialsStarted >= halfOpenCalls) {
+                    rejected.increment();
+                    return Call.REJECTED;
+                }
+                trialsStarted++;
+                return Call.TRIAL;
+            }
+            return Call.NORMAL;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * True (and counted as a rejection) if tryAcquire would turn a call away
+     * outright because the breaker is open; takes no admission, so callers
+     * can fail fast before waiting for anything else.
+     */
+    public boolean rejectsNow() {
+        lock.lock();
+        try {
+            if (state != State.OPEN || nanoClock.getAsLong() - openedAt >= openNanos) return false;
+            rejected.increment();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records the outcome of an admitted call.
+     */
+    public void onResult(Call call, boolean failed) {
+        lock.lock();
+        try {
+            if (call == Call.TRIAL) {
+                if (state != State.HALF_OPEN) return;
+                if (failed) {
+                    open();
+                } else if (++trialsSucceeded >= halfOpenCalls) {
+                    state = State.CLOSED;
+                    recorded = 0;
+                    next = 0;
+                    failures = 0;
+                }
+                return;
+            }
+            if (state != State.CLOSED) return;
+            if (recorded == window.length) {
+                if (window[next]) failures--;
+            } else {
+                recorded++;
+            }
+            window[next] = failed;
+            if (failed) failures++;
+            next = (next + 1) % window.length;
+            if (recorded >= minimumCalls && failures >= failureRateThreshold * recorded) {
+                open();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns an admission whose call was never made (turned away further
+     * on), so it is not counted either way.
+     */
+    public void onNotCalled(Call call) {
+        if (call != Call.TRIAL) return;
+        lock.lock();
+        try {
+            if (state == State.HALF_OPEN && trialsStarted > 0) trialsStarted--;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = nanoClock.getAsLong();
+        opened.increment();
+    }
+
+    public State state() {
+        lock.lock();
+        try {
+            return state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Failure rate over the current window (0 while half-open or empty).
+     */
+    public double failureRate() {
+        lock.lock();
+        try {
+            return recorded == 0 ? 0.0 : (double) failures / recorded;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    public long timesOpened() {
+        return opened.sum();
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Token-bucket rate limiter: tokens refill continuously at a fixed rate up
+ * to a burst size, and each call takes one. A caller that finds the bucket
+ * empty reserves the next token and sleeps until it arrives, unless that is
+ * further away than it is willing to wait.
+ */
+public final class TokenBucket {
+
+    private final double tokensPerNano;
+    private final double capacity;
+    private final LongSupplier nanoClock;
+
+    // Guards tokens and lastRefill; never held while sleeping
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // May go negative: tokens already promised to sleeping callers
+    private double tokens;
+    private long lastRefill;
+
+    private final LongAdder granted = new LongAdder();
+    private final LongAdder delayed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public TokenBucket(double ratePerSecond, int burst) {
+        this(ratePerSecond, burst, System::nanoTime);
+    }
+
+    public TokenBucket(double ratePerSecond, int burst, LongSupplier nanoClock) {
+        if (ratePerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("ratePerSecond and burst must be positive");
+        }
+        this.tokensPerNano = ratePerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.capacity = burst;
+        this.nanoClock = nanoClock;
+        this.tokens = burst;
+        this.lastRefill = nanoClock.getAsLong();
+    }
+
+    /**
+     * Takes a token, waiting up to maxWait for one.
+     * @return False if no token would be available in time (nothing is taken).
+     */
+    public boolean tryAcquire(Duration maxWait) throws InterruptedException {
+        long waitNanos;
+        lock.lock();
+        try {
+            long now = nanoClock.getAsLong();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+            lastRefill = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                granted.increment();
+                return true;
+            }
+            waitNanos = (long) Math.ceil((1 - tokens) / tokensPerNano);
+            if (waitNanos > maxWait.toNanos()) {
+                rejected.increment();
+                return false;
+            }
+            tokens -= 1;
+        } finally {
+            lock.unlock();
+        }
+        delayed.increment();
+        granted.increment();
+        TimeUnit.NANOSECONDS.sleep(waitNanos);
+        return true;
+    }
+
+    /**
+     * Tokens currently available (negative while callers wait for reserved ones).
+     */
+    public double available() {
+        lock.lock();
+        try {
+            long now = nanoClock.getAsLong();
+            return Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long granted() {
+        return granted.sum();
+    }
+
+    public long delayed() {
+        return delayed.sum();
+    }
+
+    public long rejected() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.resilience;
+
+import com.movieexplorer.config.ResilienceProperties;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resilience policy for one upstream: a circuit breaker, then a token
+ * bucket per API key, then an adaptive concurrency bulkhead. A call must
+ * pass all three (in that order, so an open breaker costs no token) and
+ * then report how it went through the returned Permit.
+ */
+public final class UpstreamGuard {
+
+    /**
+     * How a guarded call ended, as far as the limits are concerned.
+     */
+    public enum Outcome {
+        // Answered, including client errors such as 404: healthy upstream
+        SUCCESS,
+        // Throttled (429 / 503) or timed out: back off
+        DROPPED,
+        // Server or network error unrelated to load: counts against the breaker only
+        FAILED
+    }
+
+    private final String name;
+    private final ResilienceProperties.Upstream settings;
+    private final CircuitBreaker breaker;
+    private final AdaptiveLimiter bulkhead;
+
+    // Rate limiters keyed by API key
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    public UpstreamGuard(String name, ResilienceProperties.Upstream settings) {
+        this.name = name;
+        this.settings = settings;
+        this.breaker = new CircuitBreaker(settings.failureRateThreshold(), settings.slidingWindow(),
+            settings.minimumCalls(), settings.openDuration(), settings.halfOpenCalls());
+        this.bulkhead = new AdaptiveLimiter(settings.initialLimit(), settings.minLimit(), settings.maxLimit());
+    }
+
+    /**
+     * Admits a call or throws.
+     * @param apiKey Key the call is made with; each key has its own rate limit.
+     * @throws UpstreamRejectedException if any of the limits turns the call away
+     */
+    public Permit acquire(String apiKey) throws IOException {
+        CircuitBreaker.Call call = breaker.tryAcquire();
+        if (call == CircuitBreaker.Call.REJECTED) {
+            throw new UpstreamRejectedException(name, UpstreamRejectedException.Reason.CIRCUIT_OPEN);
+        }
+        try {
+            TokenBucket bucket = buckets.computeIfAbsent(apiKey,
+                key -> new TokenBucket(settings.ratePerSecond(), settings.burst()));
+            if (!bucket.tryAcquire(settings.maxRateWait())) {
+                breaker.onNotCalled(call);
+                throw new UpstreamRejectedException(name, UpstreamRejectedException.Reason.RATE_LIMITED);
+            }
+            if (!bulkhead.tryAcquire(settings.maxQueueWait())) {
+                breaker.onNotCalled(call);
+                throw new UpstreamRejectedException(name, UpstreamRejectedException.Reason.BULKHEAD_FULL);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            breaker.onNotCalled(call);
+            throw new InterruptedIOException("Interrupted waiting to call " + name);
+        }
+        return new Permit(call);
+    }
+
+    /**
+     * Throws at once if the breaker is open, without taking an admission.
+     * @throws UpstreamRejectedException with reason CIRCUIT_OPEN
+     */
+    public void rejectIfOpen() throws UpstreamRejectedException {
+        if (breaker.rejectsNow()) {
+            throw new UpstreamRejectedException(name, UpstreamRejectedException.Reason.CIRCUIT_OPEN);
+        }
+    }
+
+    /**
+     * Longest a call may queue for a slot before it is turned away.
+     */
+    public Duration maxQueueWait() {
+        return settings.maxQueueWait();
+    }
+
+    /**
+     * Limiter, bulkhead and breaker state.
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long granted = 0;
+        long delayed = 0;
+        long rateRejected = 0;
+        for (TokenBucket bucket : buckets.values()) {
+            granted += bucket.granted();
+            delayed += bucket.delayed();
+            rateRejected += bucket.rejected();
+        }
+        stats.put("rateLimit", Map.of(
+            "ratePerSecond", settings.ratePerSecond(),
+            "burst", settings.burst(),
+            "keys", buckets.size(),
+            "granted", granted,
+            "delayed", delayed,
+            "rejected", rateRejected));
+        stats.put("bulkhead", Map.of(
+            "limit", bulkhead.limit(),
+            "inFlight", bulkhead.inFlight(),
+            "minRttMs", bulkhead.minRttMs(),
+            "drops", bulkhead.drops(),
+            "rejected", bulkhead.rejected()));
+        stats.put("circuitBreaker", Map.of(
+            "state", breaker.state().name(),
+            "failureRate", breaker.failureRate(),
+            "timesOpened", breaker.timesOpened(),
+            "rejected", breaker.rejected()));
+        return stats;
+    }
+
+    public CircuitBreaker.State breakerState() {
+        return breaker.state();
+    }
+
+    public int concurrencyLimit() {
+        return bulkhead.limit();
+    }
+
+    public int inFlight() {
+        return bulkhead.inFlight();
+    }
+
+    /**
+     * An admitted call; release it exactly once.
+     */
+    public final class Permit {
+
+        private final CircuitBreaker.Call call;
+
+        private Permit(CircuitBreaker.Call call) {
+            this.call = call;
+        }
+
+        /**
+         * Reports the outcome and frees the bulkhead slot.
+         * @param rttNanos Time until the response (headers) arrived; unused unless SUCCESS.
+         */
+        public void release(Outcome outcome, long rttNanos) {
+            switch (outcome) {
+                case SUCCESS -> bulkhead.onSuccess(rttNanos);
+                case DROPPED -> bulkhead.onDropped();
+                case FAILED -> bulkhead.onIgnored();
+            }
+            breaker.onResult(call, outcome != Outcome.SUCCESS);
+        }
+
+        /**
+         * Frees the bulkhead slot of a call abandoned before its outcome was
+         * known (e.g. cancelled by the caller); counted neither way.
+         */
+        public void abandon() {
+            bulkhead.onIgnored();
+            breaker.onNotCalled(call);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.resilience;
+
+import java.io.IOException;
+
+/**
+ * Thrown instead of calling an upstream when the resilience layer turns the
+ * call away: no rate-limit token, no bulkhead slot, or an open breaker.
+ * An IOException so callers treat it like any other failed call.
+ */
+public class UpstreamRejectedException extends IOException {
+
+    public enum Reason { RATE_LIMITED, BULKHEAD_FULL, CIRCUIT_OPEN }
+
+    private final String upstream;
+    private final Reason reason;
+
+    public UpstreamRejectedException(String upstream, Reason reason) {
+        super(upstream + " call rejected: " + reason);
+        this.upstream = upstream;
+        this.reason = reason;
+    }
+
+    public String getUpstream() {
+        return upstream;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+}
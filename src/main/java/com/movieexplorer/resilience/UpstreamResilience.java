@@ -0,0 +1,44 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.resilience;
+
+import com.movieexplorer.config.ResilienceProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds one UpstreamGuard per configured upstream.
+ */
+@Component
+public class UpstreamResilience {
+
+    private final ResilienceProperties properties;
+    private final ConcurrentHashMap<String, UpstreamGuard> guards = new ConcurrentHashMap<>();
+
+    public UpstreamResilience(ResilienceProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Guard for an upstream, created on first use, or null if the upstream is not guarded.
+     */
+    public UpstreamGuard forUpstream(String name) {
+        ResilienceProperties.Upstream settings = properties.upstream(name);
+        if (settings == null) return null;
+        return guards.computeIfAbsent(name, n -> new UpstreamGuard(n, settings));
+    }
+
+    /**
+     * State of every guard used so far, keyed by upstream name.
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        guards.forEach((name, guard) -> stats.put(name, guard.stats()));
+        return stats;
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.service;
+
+import com.movieexplorer.model.Movie;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Compact binary snapshot of the in-memory caches (movies, title mappings
+ * and Gemini answers), written at shutdown and periodically, and read at
+ * startup through a memory-mapped buffer.
+ * Layout (big-endian): magic, version, written-at millis, the three entry
+ * counts, the entries, then a CRC32 of everything before it. Every entry
+ * starts with its absolute expiry time in epoch millis; strings are a byte
+ * length (-1 for null) followed by UTF-8. A file with a bad magic, version
+ * or checksum is rejected as a whole.
+ */
+final class CacheSnapshot {
+
+    private static final int MAGIC = 0x4D585331; // "MXS1"
+    private static final int VERSION = 1;
+
+    // Largest file that fits one mapped buffer
+    private static final long MAX_BYTES = Integer.MAX_VALUE;
+
+    // Movie fields in file order
+    private static final List<Function<Movie, String>> GETTERS = List.of(
+        Movie::getTitle, Movie::getYear, Movie::getRated, Movie::getReleased, Movie::getRuntime,
+        Movie::getGenre, Movie::getDirector, Movie::getWriter, Movie::getActors, Movie::getPlot,
+        Movie::getLanguage, Movie::getCountry, Movie::getAwards, Movie::getPoster,
+        Movie::getImdbRating, Movie::getImdbID);
+    private static final List<BiConsumer<Movie, String>> SETTERS = List.of(
+        Movie::setTitle, Movie::setYear, Movie::setRated, Movie::setReleased, Movie::setRuntime,
+        Movie::setGenre, Movie::setDirector, Movie::setWriter, Movie::setActors, Movie::setPlot,
+        Movie::setLanguage, Movie::setCountry, Movie::setAwards, Movie::setPoster,
+        Movie::setImdbRating, Movie::setImdbID);
+
+    private CacheSnapshot() { }
+
+    /**
+     * An entry with its absolute expiry time.
+     */
+    record Timed<T>(T value, long expiresAtMillis) { }
+
+    /**
+     * Snapshot contents.
+     * @param titles Normalized title and imdbID pairs.
+     * @param answers Gemini cache key and answer pairs.
+     */
+    record Contents(List<Timed<Movie>> movies, List<Timed<String[]>> titles, List<Timed<String[]>> answers) { }
+
+    /**
+     * Writes a snapshot to a temporary file next to path and moves it into
+     * place, so a crash mid-write leaves the previous snapshot intact.
+     * @return Bytes written.
+     */
+    static long write(Path path, Contents contents, long nowMillis) throws IOException {
+        if (path.getParent() != null) Files.createDirectories(path.getParent());
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new CheckedOutputStream(Files.newOutputStream(tmp), crc), 64 * 1024))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(nowMillis);
+            out.writeInt(contents.movies().size());
+            out.writeInt(contents.titles().size());
+            out.writeInt(contents.answers().size());
+            for (Timed<Movie> movie : contents.movies()) {
+                out.writeLong(movie.expiresAtMillis());
+                for (Function<Movie, String> getter : GETTERS) {
+                    writeString(out, getter.apply(movie.value()));
+                }
+            }
+            for (Timed<String[]> pair : contents.titles()) {
+                writePair(out, pair);
+            }
+            for (Timed<String[]> pair : contents.answers()) {
+                writePair(out, pair);
+            }
+            out.flush();
+            // The checksum covers everything written so far, not itself
+            out.writeInt((int) crc.getValue());
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return Files.size(path);
+    }
+
+    /**
+     * Maps a snapshot file and decodes it, skipping entries that expired
+     * before nowMillis.
+     * @throws IOException if the file cannot be read or is not a valid snapshot
+     */
+    static Contents read(Path path, long nowMillis) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > MAX_BYTES) throw new IOException("Snapshot too large: " + size + " bytes");
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return decode(buffer, nowMillis);
+        }
+    }
+
+    private static Contents decode(ByteBuffer buffer, long nowMillis) throws IOException {
+        if (buffer.remaining() < 32) throw new IOException("Snapshot truncated");
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(0, buffer.limit() - 4));
+        if ((int) crc.getValue() != buffer.getInt(buffer.limit() - 4)) {
+            throw new IOException("Snapshot checksum mismatch");
+        }
+        ByteBuffer in = buffer.slice(0, buffer.limit() - 4);
+        if (in.getInt() != MAGIC) throw new IOException("Not a cache snapshot");
+        int version = in.getInt();
+        if (version != VERSION) throw new IOException("Unsupported snapshot version " + version);
+        in.getLong(); // Written-at, informational
+        int movieCount = in.getInt();
+        int titleCount = in.getInt();
+        int answerCount = in.getInt();
+
+        try {
+            List<Timed<Movie>> movies = new ArrayList<>(Math.min(movieCount, 1 << 16));
+            for (int i = 0; i < movieCount; i++) {
+                long expiresAt = in.getLong();
+                Movie movie = new Movie();
+                for (BiConsumer<Movie, String> setter : SETTERS) {
+                    setter.accept(movie, readString(in));
+                }
+                if (expiresAt > nowMillis) movies.add(new Timed<>(movie, expiresAt));
+            }
+            return new Contents(movies, readPairs(in, titleCount, nowMillis), readPairs(in, answerCount, nowMillis));
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Snapshot corrupt", e);
+        }
+    }
+
+    private static List<Timed<String[]>> readPairs(ByteBuffer in, int count, long nowMillis) {
+        List<Timed<String[]>> pairs = new ArrayList<>(Math.min(count, 1 << 16));
+        for (int i = 0; i < count; i++) {
+            long expiresAt = in.getLong();
+            String first = readString(in);
+            String second = readString(in);
+            if (expiresAt > nowMillis) pairs.add(new Timed<>(new String[] {first, second}, expiresAt));
+        }
+        return pairs;
+    }
+
+    private static void writePair(DataOutputStream out, Timed<String[]> pair) throws IOException {
+        out.writeLong(pair.expiresAtMillis());
+        writeString(out, pair.value()[0]);
+        writeString(out, pair.value()[1]);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) return null;
+        if (length > in.remaining()) throw new IllegalArgumentException("String runs past the end");
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
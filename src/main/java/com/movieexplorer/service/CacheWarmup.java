@@ -0,0 +1,279 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.service;
+
+import com.movieexplorer.cache.LruTtlCache;
+import com.movieexplorer.model.Movie;
+import com.movieexplorer.observability.ErrorMetrics;
+import com.movieexplorer.resilience.TokenBucket;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Warms the in-memory caches after a start so the first requests do not
+ * all go to OMDb and Gemini.
+ * First, movies, title mappings and Gemini answers are reloaded from the
+ * binary snapshot (see CacheSnapshot), which is written at shutdown and
+ * periodically. Then the configured hot titles are looked up through
+ * MovieService, a few at a time and under a rate limit, so titles already
+ * restored cost nothing. As a health indicator ("cacheWarmup", part of the
+ * readiness group) it reports OUT_OF_SERVICE until both steps are done or
+ * the warm-up deadline has passed.
+ */
+@Component
+public class CacheWarmup implements HealthIndicator {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheWarmup.class);
+
+    private final MovieCache movieCache;
+    private final GeminiResponseCache geminiCache;
+    private final MovieService movieService;
+    private final ExecutorService executor;
+    private final ErrorMetrics errorMetrics;
+
+    // Snapshot location (blank disables snapshots) and how often it is rewritten (0 = only at shutdown)
+    private final Path snapshotFile;
+    private final long snapshotIntervalMinutes;
+
+    // Titles fetched after the snapshot is loaded, how many at once and how fast
+    private final List<String> hotTitles;
+    private final int prefetchParallel;
+    private final double prefetchRatePerSecond;
+
+    // Readiness is reported once this much time has passed even if warm-up is unfinished
+    private final long deadlineMs;
+
+    // Serializes snapshot writes (periodic and shutdown)
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+    private ScheduledExecutorService snapshotScheduler;
+
+    // Warm-up progress, read by health()
+    private volatile boolean warm;
+    private volatile long deadlineNanos = Long.MAX_VALUE;
+    private volatile int restoredMovies;
+    private volatile int restoredAnswers;
+    private volatile double snapshotLoadMs;
+    private volatile long snapshotBytesWritten;
+    private final AtomicInteger prefetched = new AtomicInteger();
+    private final AtomicInteger prefetchFailed = new AtomicInteger();
+
+    public CacheWarmup(MovieCache movieCache,
+                       GeminiResponseCache geminiCache,
+                       MovieService movieService,
+                       @Qualifier("upstreamExecutor") ExecutorService executor,
+                       ErrorMetrics errorMetrics,
+                       @Value("${warmup.snapshot-file:}") String snapshotFile,
+                       @Value("${warmup.snapshot-interval-minutes:10}") long snapshotIntervalMinutes,
+                       @Value("${warmup.hot-titles:}") List<String> hotTitles,
+                       @Value("${warmup.prefetch-parallel:4}") int prefetchParallel,
+                       @Value("${warmup.prefetch-rate-per-second:5}") double prefetchRatePerSecond,
+                       @Value("${warmup.deadline-ms:30000}") long deadlineMs) {
+        this.movieCache = movieCache;
+        this.geminiCache = geminiCache;
+        this.movieService = movieService;
+        this.executor = executor;
+        this.errorMetrics = errorMetrics;
+        this.snapshotFile = snapshotFile.isBlank() ? null : Path.of(snapshotFile);
+        this.snapshotIntervalMinutes = snapshotIntervalMinutes;
+        this.hotTitles = hotTitles.stream().map(String::trim).filter(t -> !t.isEmpty()).distinct().toList();
+        this.prefetchParallel = Math.max(1, prefetchParallel);
+        this.prefetchRatePerSecond = prefetchRatePerSecond;
+        this.deadlineMs = deadlineMs;
+    }
+
+    /**
+     * Loads the snapshot (before the application reports ready), then
+     * starts the hot-title prefetch and the periodic snapshot writer.
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void start() {
+        deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+        loadSnapshot();
+
+        if (snapshotFile != null && snapshotIntervalMinutes > 0) {
+            snapshotScheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("cache-snapshot").daemon().factory());
+            snapshotScheduler.scheduleWithFixedDelay(this::saveSnapshot,
+                snapshotIntervalMinutes, snapshotIntervalMinutes, TimeUnit.MINUTES);
+        }
+
+        if (hotTitles.isEmpty()) {
+            warm = true;
+        } else {
+            Thread.ofPlatform().name("cache-warmup").daemon().start(this::prefetch);
+        }
+    }
+
+    /**
+     * Writes a final snapshot.
+     */
+    @PreDestroy
+    void stop() {
+        if (snapshotScheduler != null) snapshotScheduler.shutdownNow();
+        saveSnapshot();
+    }
+
+    /**
+     * OUT_OF_SERVICE while warming up, UP once done or past the deadline.
+     */
+    @Override
+    public Health health() {
+        boolean timedOut = !warm && System.nanoTime() > deadlineNanos;
+        Health.Builder health = warm || timedOut ? Health.up() : Health.outOfService();
+        return health.withDetails(stats()).build();
+    }
+
+    /**
+     * Snapshot and prefetch counters.
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("warm", warm);
+        stats.put("restoredMovies", restoredMovies);
+        stats.put("restoredAnswers", restoredAnswers);
+        stats.put("snapshotLoadMs", snapshotLoadMs);
+        stats.put("snapshotBytesWritten", snapshotBytesWritten);
+        stats.put("hotTitles", hotTitles.size());
+        stats.put("prefetched", prefetched.get());
+        stats.put("prefetchFailed", prefetchFailed.get());
+        return stats;
+    }
+
+    /**
+     * Writes the current contents of the caches to the snapshot file.
+     */
+    public void saveSnapshot() {
+        if (snapshotFile == null) return;
+        snapshotLock.lock();
+        try {
+            long now = System.currentTimeMillis();
+            List<CacheSnapshot.Timed<Movie>> movies = new ArrayList<>();
+            for (LruTtlCache.Snapshot<String, Movie> s : movieCache.movieSnapshot()) {
+                movies.add(new CacheSnapshot.Timed<>(s.value(), now + s.remainingTtl().toMillis()));
+            }
+            CacheSnapshot.Contents contents = new CacheSnapshot.Contents(movies,
+                pairs(movieCache.titleSnapshot(), now), pairs(geminiCache.snapshot(), now));
+            snapshotBytesWritten = CacheSnapshot.write(snapshotFile, contents, now);
+            log.debug("Wrote cache snapshot: {} movies, {} answers, {} bytes",
+                movies.size(), contents.answers().size(), snapshotBytesWritten);
+        } catch (IOException | RuntimeException e) {
+            errorMetrics.record("warmup.snapshot", e);
+            log.warn("Could not write cache snapshot to {}: {}", snapshotFile, e.getMessage());
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    /**
+     * Restores whatever in the snapshot has not expired yet.
+     */
+    private void loadSnapshot() {
+        if (snapshotFile == null) return;
+        long start = System.nanoTime();
+        long now = System.currentTimeMillis();
+        CacheSnapshot.Contents contents;
+        try {
+            contents = CacheSnapshot.read(snapshotFile, now);
+        } catch (NoSuchFileException e) {
+            return;
+        } catch (IOException e) {
+            errorMetrics.record("warmup.snapshot", e);
+            log.warn("Ignoring cache snapshot {}: {}", snapshotFile, e.getMessage());
+            return;
+        }
+        for (CacheSnapshot.Timed<Movie> movie : contents.movies()) {
+            movieCache.restoreMovie(movie.value(), remaining(movie, now));
+        }
+        for (CacheSnapshot.Timed<String[]> title : contents.titles()) {
+            movieCache.restoreTitle(title.value()[0], title.value()[1], remaining(title, now));
+        }
+        for (CacheSnapshot.Timed<String[]> answer : contents.answers()) {
+            geminiCache.restore(answer.value()[0], answer.value()[1], remaining(answer, now));
+        }
+        restoredMovies = contents.movies().size();
+        restoredAnswers = contents.answers().size();
+        snapshotLoadMs = (System.nanoTime() - start) / 1e6;
+        log.info("Restored {} movies and {} Gemini answers from {} in {} ms",
+            restoredMovies, restoredAnswers, snapshotFile, String.format("%.1f", snapshotLoadMs));
+    }
+
+    /**
+     * Looks up every hot title, at most prefetchParallel at once and no
+     * faster than the prefetch rate, until done or the deadline passes.
+     */
+    private void prefetch() {
+        TokenBucket rate = new TokenBucket(prefetchRatePerSecond, prefetchParallel);
+        Semaphore slots = new Semaphore(prefetchParallel);
+        List<Future<?>> lookups = new ArrayList<>(hotTitles.size());
+        try {
+            for (String title : hotTitles) {
+                Duration left = Duration.ofNanos(Math.max(0, deadlineNanos - System.nanoTime()));
+                if (!rate.tryAcquire(left) || !slots.tryAcquire(left.toNanos(), TimeUnit.NANOSECONDS)) break;
+                lookups.add(executor.submit(() -> {
+                    try {
+                        movieService.getMovieByTitle(title);
+                        prefetched.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        prefetchFailed.incrementAndGet();
+                        errorMetrics.record("warmup.prefetch", e);
+                    } finally {
+                        slots.release();
+                    }
+                }));
+            }
+            for (Future<?> lookup : lookups) {
+                lookup.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+        } catch (TimeoutException e) {
+            // Past the deadline: report ready, lookups still running may finish later
+        } catch (ExecutionException e) {
+            errorMetrics.record("warmup.prefetch", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        warm = true;
+        log.info("Cache warm-up finished: {} of {} hot titles fetched, {} failed",
+            prefetched.get(), hotTitles.size(), prefetchFailed.get());
+    }
+
+    private static List<CacheSnapshot.Timed<String[]>> pairs(List<LruTtlCache.Snapshot<String, String>> entries, long now) {
+        List<CacheSnapshot.Timed<String[]>> pairs = new ArrayList<>(entries.size());
+        for (LruTtlCache.Snapshot<String, String> s : entries) {
+            pairs.add(new CacheSnapshot.Timed<>(new String[] {s.key(), s.value()}, now + s.remainingTtl().toMillis()));
+        }
+        return pairs;
+    }
+
+    private static Duration remaining(CacheSnapshot.Timed<?> entry, long now) {
+        return Duration.ofMillis(entry.expiresAtMillis() - now);
+    }
+}
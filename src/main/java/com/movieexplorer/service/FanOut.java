@@ -0,0 +1,166 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.service;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs independent upstream calls concurrently so a request costs roughly
+ * the slowest call instead of the sum of all of them.
+ * Works like a small "shutdown on failure" structured scope: every forked
+ * call has its own deadline, and the first failure or missed deadline
+ * stops the wait for the remaining siblings. Siblings that have not started
+ * are skipped, but running ones are not interrupted: a sibling may be the
+ * SingleFlight leader other requests are waiting on, and interrupting its
+ * socket I/O would fail them too. It finishes in the background and its
+ * result is dropped (or shared with those waiters).
+ * The caller's current observation is carried into each forked call, so
+ * upstream calls made there show up under the request in traces.
+ */
+@Component
+public class FanOut {
+
+    // Executor running the forked calls (virtual threads)
+    private final ExecutorService executor;
+
+    private final ObservationRegistry observationRegistry;
+
+    public FanOut(@Qualifier("upstreamExecutor") ExecutorService executor,
+                  ObservationRegistry observationRegistry) {
+        this.executor = executor;
+        this.observationRegistry = observationRegistry;
+    }
+
+    /**
+     * Opens a new scope; use with try-with-resources.
+     */
+    public Scope open() {
+        return new Scope();
+    }
+
+    /**
+     * Result handle of a forked call, valid after Scope.join() returned.
+     */
+    public interface Subtask<T> {
+        T get();
+    }
+
+    /**
+     * A group of concurrently running calls that succeed or fail together.
+     */
+    public final class Scope implements AutoCloseable {
+
+        private final List<Forked<?>> tasks = new CopyOnWriteArrayList<>();
+
+        // First failure observed in this scope
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        /**
+         * Starts a call with its own deadline.
+         */
+        public <T> Subtask<T> fork(Callable<T> call, Duration deadline) {
+            long deadlineNanos = System.nanoTime() + deadline.toNanos();
+            Observation parent = observationRegistry.getCurrentObservation();
+            Future<T> future = executor.submit(() -> {
+                try (Observation.Scope scope = parent == null ? null : parent.openScope()) {
+                    return call.call();
+                } catch (Exception | Error t) {
+                    fail(t);
+                    throw t;
+                }
+            });
+            Forked<T> task = new Forked<>(future, deadlineNanos, deadline);
+            tasks.add(task);
+            return task;
+        }
+
+        /**
+         * Starts a call as a named phase of the request: it is timed as a
+         * request.phase observation tagged with the phase name (e.g. "omdb").
+         */
+        public <T> Subtask<T> fork(String phase, Callable<T> call, Duration deadline) {
+            return fork(() -> Observation.createNotStarted("request.phase", observationRegistry)
+                .contextualName(phase)
+                .lowCardinalityKeyValue("phase", phase)
+                .observeChecked(call::call), deadline);
+        }
+
+        /**
+         * Waits for every forked call. Rethrows the first failure (runtime
+         * exceptions as-is) after giving up on the calls still running.
+         */
+        public void join() {
+            for (Forked<?> task : tasks) {
+                try {
+                    long remaining = task.deadlineNanos - System.nanoTime();
+                    task.future.get(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    fail(new RuntimeException("Upstream call timed out after " + task.deadline.toMillis() + " ms"));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    fail(e);
+                } catch (ExecutionException | CancellationException e) {
+                    // The failing call already recorded its cause; siblings were given up on
+                }
+                if (failure.get() != null) break;
+            }
+
+            Throwable cause = failure.get();
+            if (cause == null) return;
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error err) throw err;
+            throw new RuntimeException(cause.getMessage(), cause);
+        }
+
+        /**
+         * Gives up on anything still pending when the scope is left.
+         */
+        @Override
+        public void close() {
+            cancelAll();
+        }
+
+        private void fail(Throwable t) {
+            if (failure.compareAndSet(null, t)) {
+                cancelAll();
+            }
+        }
+
+        /**
+         * Skips calls that have not started; running calls are left to finish.
+         */
+        private void cancelAll() {
+            for (Forked<?> task : tasks) {
+                task.future.cancel(false);
+            }
+        }
+    }
+
+    // A forked call with its absolute deadline
+    private record Forked<T>(Future<T> future, long deadlineNanos, Duration deadline) implements Subtask<T> {
+        @Override
+        public T get() {
+            if (!future.isDone() || future.isCancelled()) {
+                throw new IllegalStateException("Subtask has not completed");
+            }
+            return future.resultNow();
+        }
+    }
+}
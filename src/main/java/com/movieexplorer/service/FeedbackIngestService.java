@@ -0,0 +1,205 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DatabindException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.movieexplorer.model.Feedback;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Imports feedback in bulk from a JSON array or NDJSON stream.
+ * Items are bound one at a time as the request body is read, so the upload
+ * itself is never held in memory; what grows with it is the small per-item
+ * result kept for the response. Valid items are persisted in batches of
+ * batchSize, each batch in its own transaction and sent to the database as
+ * one JDBC batch; a failing batch does not undo the batches before it.
+ */
+@Service
+public class FeedbackIngestService {
+
+    private static final Logger log = LoggerFactory.getLogger(FeedbackIngestService.class);
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectReader feedbackReader;
+
+    // Items per transaction / JDBC batch
+    private final int batchSize;
+
+    public FeedbackIngestService(EntityManager entityManager,
+                                 PlatformTransactionManager transactionManager,
+                                 JdbcTemplate jdbcTemplate,
+                                 ObjectMapper objectMapper,
+                                 @Value("${feedback.bulk.batch-size:100}") int batchSize) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jdbcTemplate = jdbcTemplate;
+        this.feedbackReader = objectMapper.readerFor(Feedback.class);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Reads and stores every item of the body.
+     * @param body JSON array of feedback objects, or one object per line (NDJSON).
+     * @return One result per item, in input order. Items that fail validation
+     *         or binding are reported and skipped; a syntax error ends the import.
+     */
+    public BulkResult ingest(InputStream body) throws IOException {
+        List<ItemResult> results = new ArrayList<>();
+        List<Feedback> batch = new ArrayList<>(batchSize);
+        List<Integer> batchIndexes = new ArrayList<>(batchSize);
+
+        try (MappingIterator<Feedback> items = feedbackReader.readValues(body)) {
+            int index = 0;
+            while (true) {
+                try {
+                    if (!items.hasNextValue()) break;
+                    Feedback feedback = items.nextValue();
+                    String problem = validate(feedback);
+                    if (problem != null) {
+                        results.add(ItemResult.rejected(index, problem));
+                    } else {
+                        feedback.setId(null);
+                        batch.add(feedback);
+                        batchIndexes.add(index);
+                        results.add(null); // filled in when the batch is written
+                    }
+                } catch (DatabindException e) {
+                    results.add(ItemResult.rejected(index, e.getOriginalMessage()));
+                } catch (JsonProcessingException e) {
+                    results.add(ItemResult.rejected(index, "Malformed JSON: " + e.getOriginalMessage()));
+                    break;
+                }
+                index++;
+                if (batch.size() == batchSize) {
+                    writeBatch(batch, batchIndexes, results);
+                }
+            }
+        }
+        writeBatch(batch, batchIndexes, results);
+        return BulkResult.of(results);
+    }
+
+    /**
+     * Persists one batch in one transaction and records each item's outcome.
+     */
+    private void writeBatch(List<Feedback> batch, List<Integer> indexes, List<ItemResult> results) {
+        if (batch.isEmpty()) return;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (Feedback feedback : batch) {
+                    entityManager.persist(feedback);
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+            for (int i = 0; i < batch.size(); i++) {
+                results.set(indexes.get(i), ItemResult.created(indexes.get(i), batch.get(i).getId()));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Feedback batch of {} failed: {}", batch.size(), e.getMessage());
+            for (int index : indexes) {
+                results.set(index, ItemResult.failed(index, "Database write failed"));
+            }
+        }
+        batch.clear();
+        indexes.clear();
+    }
+
+    /**
+     * Same rule as the feedback form: every field is required.
+     */
+    private static String validate(Feedback feedback) {
+        if (feedback == null) return "Item must be a JSON object";
+        if (isBlank(feedback.getUserName()) || isBlank(feedback.getUserEmail()) || isBlank(feedback.getMessage())) {
+            return "userName, userEmail and message are required";
+        }
+        return null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    /**
+     * Feedback ids used to come from an IDENTITY column. Databases created
+     * back then already hold ids the new sequence would hand out again, so
+     * move the sequence past them before the first insert.
+     */
+    @PostConstruct
+    void alignIdSequence() {
+        try {
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM feedback", Long.class);
+            Long next = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR feedback_seq", Long.class);
+            // The pooled optimizer hands out ids below the sequence value it reads
+            long safe = maxId + Feedback.ALLOCATION_SIZE + 1;
+            if (maxId > 0 && next != null && next < safe) {
+                jdbcTemplate.execute("ALTER SEQUENCE feedback_seq RESTART WITH " + safe);
+                log.info("Moved feedback_seq past existing feedback ids (restart at {})", safe);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not check feedback id sequence: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Outcome of one input item.
+     * @param status "created", "rejected" (invalid input) or "failed" (database error).
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record ItemResult(int index, String status, Long id, String error) {
+
+        static ItemResult created(int index, Long id) {
+            return new ItemResult(index, "created", id, null);
+        }
+
+        static ItemResult rejected(int index, String error) {
+            return new ItemResult(index, "rejected", null, error);
+        }
+
+        static ItemResult failed(int index, String error) {
+            return new ItemResult(index, "failed", null, error);
+        }
+    }
+
+    /**
+     * Counts plus per-item results for a bulk import.
+     */
+    public record BulkResult(int received, int created, int rejected, int failed, List<ItemResult> items) {
+
+        static BulkResult of(List<ItemResult> items) {
+            int created = 0;
+            int rejected = 0;
+            int failed = 0;
+            for (ItemResult item : items) {
+                switch (item.status()) {
+                    case "created" -> created++;
+                    case "rejected" -> rejected++;
+                    default -> failed++;
+                }
+            }
+            return new BulkResult(items.size(), created, rejected, failed, items);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.service;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of feedback submissions that have been accepted but not
+ * yet stored in the database. Each record is
+ * [payload length:int][sequence:long][payload][crc32 of sequence and payload:int];
+ * a record cut short by a crash fails its length or checksum check and is
+ * dropped, with everything after it, when the journal is reopened.
+ * Appends and truncate() must be called under one external lock; sync() may
+ * be called from any thread and lets concurrent callers share one fsync.
+ */
+final class FeedbackJournal implements Closeable {
+
+    private static final int HEADER_BYTES = Integer.BYTES + Long.BYTES;
+
+    // Guards against reading a garbage length as a huge allocation
+    private static final int MAX_PAYLOAD_BYTES = 1 << 20;
+
+    private final FileChannel channel;
+    private final ReentrantLock syncLock = new ReentrantLock();
+
+    // Highest sequence appended, and highest known to be on disk
+    private volatile long lastSeq;
+    private volatile long syncedSeq;
+
+    private volatile long sizeBytes;
+    private volatile long syncs;
+
+    private FeedbackJournal(FileChannel channel, long lastSeq, long sizeBytes) {
+        this.channel = channel;
+        this.lastSeq = lastSeq;
+        this.syncedSeq = lastSeq;
+        this.sizeBytes = sizeBytes;
+    }
+
+    /**
+     * Opens (or creates) the journal, reads back every intact record and cuts
+     * off a torn tail.
+     * @param firstSeq Sequence numbers handed out by append() start above
+     *                 this value even if the journal is empty.
+     */
+    static FeedbackJournal open(Path file, long firstSeq, List<Record> recovered) throws IOException {
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        FileChannel channel = FileChannel.open(file,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long validBytes = 0;
+        long lastSeq = firstSeq;
+        // Not closed: closing it would close the channel
+        DataInputStream in = new DataInputStream(new BufferedInputStream(
+            Channels.newInputStream(channel.position(0)), 64 * 1024));
+        try {
+            while (true) {
+                int length = in.readInt();
+                long seq = in.readLong();
+                if (length < 0 || length > MAX_PAYLOAD_BYTES) break;
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                if (in.readInt() != checksum(seq, payload)) break;
+                recovered.add(new Record(seq, payload));
+                lastSeq = Math.max(lastSeq, seq);
+                validBytes += HEADER_BYTES + length + Integer.BYTES;
+            }
+        } catch (EOFException e) {
+            // End of the journal, possibly in the middle of a record
+        }
+        channel.truncate(validBytes);
+        channel.position(validBytes);
+        return new FeedbackJournal(channel, lastSeq, validBytes);
+    }
+
+    /**
+     * Writes one record to the OS (not yet forced to disk).
+     * @return The record's sequence number.
+     */
+    long append(byte[] payload) throws IOException {
+        long seq = lastSeq + 1;
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + payload.length + Integer.BYTES);
+        record.putInt(payload.length).putLong(seq).put(payload).putInt(checksum(seq, payload)).flip();
+        try {
+            while (record.hasRemaining()) channel.write(record);
+        } catch (IOException e) {
+            // Do not leave half a record in front of the next one
+            channel.truncate(sizeBytes);
+            channel.position(sizeBytes);
+            throw e;
+        }
+        sizeBytes += record.limit();
+        lastSeq = seq;
+        return seq;
+    }
+
+    /**
+     * Returns once the record with this sequence is on disk. A caller that
+     * finds another thread mid-fsync waits for it and is usually covered by
+     * it, so one fsync serves every record appended before it started.
+     */
+    void sync(long seq) throws IOException {
+        if (syncedSeq >= seq) return;
+        syncLock.lock();
+        try {
+            if (syncedSeq >= seq) return;
+            long upTo = lastSeq;
+            channel.force(false);
+            syncedSeq = upTo;
+            syncs++;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Empties the journal once every record in it is stored elsewhere.
+     * Sequence numbers keep counting up from where they were.
+     */
+    void truncate() throws IOException {
+        channel.truncate(0);
+        channel.position(0);
+        sizeBytes = 0;
+    }
+
+    long lastSeq() {
+        return lastSeq;
+    }
+
+    long sizeBytes() {
+        return sizeBytes;
+    }
+
+    long syncs() {
+        return syncs;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static int checksum(long seq, byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(ByteBuffer.allocate(Long.BYTES).putLong(0, seq));
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * One journaled submission.
+     */
+    record Record(long seq, byte[] payload) { }
+}
@@ -0,0 +1,100 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.movieexplorer.model.Feedback;
+import com.movieexplorer.repository.FeedbackRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Reads feedback without ever loading the whole table: pages are fetched by
+ * id cursor (newest first), and exports stream rows from a database cursor
+ * straight into the response, detaching each row once written so memory
+ * stays flat however many rows there are.
+ */
+@Service
+public class FeedbackListingService {
+
+    private final FeedbackRepository feedbackRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    // Page size used when the caller does not ask for one, and the largest allowed
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public FeedbackListingService(FeedbackRepository feedbackRepository,
+                                  EntityManager entityManager,
+                                  ObjectMapper objectMapper,
+                                  @Value("${feedback.page-size:20}") int defaultPageSize,
+                                  @Value("${feedback.max-page-size:500}") int maxPageSize) {
+        this.feedbackRepository = feedbackRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * One page of feedback, newest first.
+     * @param before Cursor from the previous page (only ids below it are returned), or null for the first page.
+     * @param size   Requested page size, or null for the default; clamped to [1, maxPageSize].
+     * @return The page and the cursor for the next one (null on the last page).
+     */
+    public FeedbackPage page(Long before, Integer size) {
+        int limit = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        // Fetch one extra row to know whether another page follows
+        Limit fetch = Limit.of(limit + 1);
+        List<Feedback> rows = before == null
+            ? feedbackRepository.findAllByOrderByIdDesc(fetch)
+            : feedbackRepository.findByIdLessThanOrderByIdDesc(before, fetch);
+        if (rows.size() <= limit) {
+            return new FeedbackPage(rows, null);
+        }
+        List<Feedback> items = rows.subList(0, limit);
+        return new FeedbackPage(items, items.get(limit - 1).getId());
+    }
+
+    /**
+     * Writes all feedback, oldest first, as a JSON array or as NDJSON.
+     */
+    @Transactional(readOnly = true)
+    public void export(OutputStream out, boolean ndjson) throws IOException {
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out);
+             Stream<Feedback> rows = feedbackRepository.streamAllByOrderByIdAsc()) {
+            if (!ndjson) json.writeStartArray();
+            rows.forEach(feedback -> {
+                try {
+                    json.writeObject(feedback);
+                    if (ndjson) json.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                // Rows already written are not needed in the persistence context
+                entityManager.detach(feedback);
+            });
+            if (!ndjson) json.writeEndArray();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * A page of feedback plus the cursor for the next page.
+     */
+    public record FeedbackPage(List<Feedback> items, Long nextCursor) { }
+}
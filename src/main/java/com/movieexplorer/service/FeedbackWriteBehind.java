@@ -0,0 +1,448 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.movieexplorer.model.Feedback;
+import com.movieexplorer.repository.FeedbackRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Optional write-behind path for feedback form submissions.
+ * When enabled, a submission is appended to a local journal (see
+ * FeedbackJournal), put on a bounded queue and acknowledged at once; a
+ * single background writer drains the queue and stores each batch in one
+ * transaction (group commit). The batch's last journal sequence number is
+ * recorded in the same transaction, so after a crash exactly the journaled
+ * submissions that never reached the database are replayed at startup.
+ * When the queue is full, submitters wait up to offerTimeout and are then
+ * turned away, so a stalled database cannot grow memory without bound.
+ * When disabled, submissions are saved synchronously as before.
+ */
+@Service
+public class FeedbackWriteBehind {
+
+    private static final Logger log = LoggerFactory.getLogger(FeedbackWriteBehind.class);
+
+    // Longest pause between retries while the database refuses every write
+    private static final long MAX_RETRY_DELAY_MS = 5_000;
+
+    private final FeedbackRepository feedbackRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    private final boolean enabled;
+    private final int maxBatch;
+    private final long lingerNanos;
+    private final long offerTimeoutMs;
+    private final Path journalFile;
+    private final boolean fsync;
+
+    // The journal is emptied once it is fully stored and at least this large
+    private final long compactBytes;
+
+    // Submissions waiting for the writer; slots bounds it, so adds never block
+    private final BlockingQueue<Pending> queue;
+    private final Semaphore slots;
+    private final int capacity;
+
+    // Keeps journal order and queue order the same
+    private final ReentrantLock appendLock = new ReentrantLock();
+
+    private FeedbackJournal journal;
+    private final List<FeedbackJournal.Record> recovered = new ArrayList<>();
+    private Thread writer;
+    private volatile boolean stopping;
+
+    // Highest journal sequence stored in the database
+    private volatile long checkpointSeq;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAccumulator maxBatchSize = new LongAccumulator(Math::max, 0);
+    private volatile int lastBatchSize;
+    private final LongAdder flushNanos = new LongAdder();
+    private final LongAccumulator maxFlushNanos = new LongAccumulator(Math::max, 0);
+    private final LongAccumulator maxQueueDelayNanos = new LongAccumulator(Math::max, 0);
+
+    public FeedbackWriteBehind(FeedbackRepository feedbackRepository,
+                               EntityManager entityManager,
+                               PlatformTransactionManager transactionManager,
+                               JdbcTemplate jdbcTemplate,
+                               ObjectMapper objectMapper,
+                               @Value("${feedback.write-behind.enabled:false}") boolean enabled,
+                               @Value("${feedback.write-behind.queue-capacity:10000}") int capacity,
+                               @Value("${feedback.write-behind.max-batch:200}") int maxBatch,
+                               @Value("${feedback.write-behind.linger-ms:20}") long lingerMs,
+                               @Value("${feedback.write-behind.offer-timeout-ms:250}") long offerTimeoutMs,
+                               @Value("${feedback.write-behind.journal-file:./data/feedback-journal.log}") String journalFile,
+                               @Value("${feedback.write-behind.fsync:true}") boolean fsync,
+                               @Value("${feedback.write-behind.compact-bytes:1048576}") long compactBytes) {
+        this.feedbackRepository = feedbackRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.maxBatch = maxBatch;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMs);
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.journalFile = Path.of(journalFile);
+        this.fsync = fsync;
+        this.compactBytes = compactBytes;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.slots = new Semaphore(capacity);
+    }
+
+    /**
+     * True if submissions are queued and written in the background.
+     */
+    public boolean isWriteBehind() {
+        return enabled && journal != null;
+    }
+
+    /**
+     * Stores a submission, either now or (in write-behind mode) shortly after
+     * it has been journaled.
+     * @return False if the queue stayed full for offerTimeout; the
+     *         submission was not accepted and should be retried later.
+     */
+    public boolean submit(Feedback feedback) {
+        if (!enabled || journal == null) {
+            feedbackRepository.save(feedback);
+            return true;
+        }
+        try {
+            if (!slots.tryAcquire(offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                rejected.increment();
+                return false;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            rejected.increment();
+            return false;
+        }
+
+        long seq;
+        try {
+            byte[] payload = objectMapper.writeValueAsBytes(feedback);
+            appendLock.lock();
+            try {
+                seq = journal.append(payload);
+                queue.add(new Pending(seq, feedback, System.nanoTime()));
+            } finally {
+                appendLock.unlock();
+            }
+        } catch (IOException e) {
+            slots.release();
+            log.warn("Feedback journal write failed, saving directly: {}", e.getMessage());
+            feedbackRepository.save(feedback);
+            return true;
+        }
+
+        if (fsync) {
+            try {
+                journal.sync(seq);
+            } catch (IOException e) {
+                // Already queued; only durability against a machine crash is lost
+                log.warn("Feedback journal fsync failed: {}", e.getMessage());
+            }
+        }
+        accepted.increment();
+        return true;
+    }
+
+    /**
+     * Creates the checkpoint table and reads back journaled submissions the
+     * database does not have yet; they are written once the application is up.
+     */
+    @PostConstruct
+    void open() throws IOException {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS feedback_journal_checkpoint (id INT PRIMARY KEY, seq BIGINT NOT NULL)");
+        jdbcTemplate.update("INSERT INTO feedback_journal_checkpoint (id, seq) "
+            + "SELECT 1, 0 WHERE NOT EXISTS (SELECT 1 FROM feedback_journal_checkpoint WHERE id = 1)");
+        checkpointSeq = jdbcTemplate.queryForObject("SELECT seq FROM feedback_journal_checkpoint WHERE id = 1", Long.class);
+        // With write-behind off, the journal is only read if an earlier run left one
+        if (!enabled && !Files.exists(journalFile)) return;
+
+        List<FeedbackJournal.Record> records = new ArrayList<>();
+        journal = FeedbackJournal.open(journalFile, checkpointSeq, records);
+        for (FeedbackJournal.Record record : records) {
+            if (record.seq() > checkpointSeq) recovered.add(record);
+        }
+    }
+
+    /**
+     * Replays recovered submissions, then starts the background writer.
+     * Submissions that arrive meanwhile wait in the queue behind them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!recovered.isEmpty()) {
+            List<Pending> replay = new ArrayList<>(recovered.size());
+            int unreadable = 0;
+            for (FeedbackJournal.Record record : recovered) {
+                try {
+                    replay.add(new Pending(record.seq(), objectMapper.readValue(record.payload(), Feedback.class), System.nanoTime()));
+                } catch (IOException e) {
+                    unreadable++;
+                }
+            }
+            for (int from = 0; from < replay.size(); from += maxBatch) {
+                write(replay.subList(from, Math.min(from + maxBatch, replay.size())));
+            }
+            log.info("Replayed {} journaled feedback submissions ({} unreadable)", replay.size(), unreadable);
+            recovered.clear();
+        }
+        compact();
+
+        if (enabled) {
+            writer = Thread.ofPlatform().name("feedback-writer").start(this::drain);
+        }
+    }
+
+    /**
+     * Stops accepting work from the queue once it is empty. Anything still
+     * queued after the timeout stays in the journal for the next start. The
+     * journal is only closed once the writer has exited; a writer still busy
+     * with a batch keeps it open, and the next start replays what it missed.
+     */
+    @PreDestroy
+    void stop() throws IOException, InterruptedException {
+        stopping = true;
+        if (writer != null) {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+            if (writer.isAlive()) {
+                log.warn("Feedback writer still busy at shutdown; leaving the journal to be replayed on the next start");
+                return;
+            }
+        }
+        if (journal != null) journal.close();
+    }
+
+    /**
+     * Writer loop: takes whatever is queued (up to maxBatch), waits up to
+     * linger for a batch to fill, then writes it in one transaction.
+     */
+    private void drain() {
+        List<Pending> batch = new ArrayList<>(maxBatch);
+        while (true) {
+            Pending first;
+            try {
+                first = queue.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                break;
+            }
+            if (first == null) {
+                if (stopping) break;
+                continue;
+            }
+            batch.add(first);
+            queue.drainTo(batch, maxBatch - batch.size());
+            long lingerUntil = System.nanoTime() + lingerNanos;
+            try {
+                while (batch.size() < maxBatch && !stopping) {
+                    Pending next = queue.poll(lingerUntil - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                    queue.drainTo(batch, maxBatch - batch.size());
+                }
+            } catch (InterruptedException e) {
+                stopping = true;
+            }
+
+            write(batch);
+            slots.release(batch.size());
+            batch.clear();
+            if (queue.isEmpty()) compact();
+        }
+    }
+
+    /**
+     * Stores a batch. If the batch fails, its items are retried one by one so
+     * a single bad row cannot hold the rest back; rows that fail alone while
+     * others succeed are logged and dropped. If nothing can be written the
+     * database is assumed down and the batch is retried with backoff.
+     */
+    private void write(List<Pending> batch) {
+        long retryDelayMs = 100;
+        List<Pending> remaining = batch;
+        while (true) {
+            long start = System.nanoTime();
+            if (store(remaining)) {
+                recordFlush(remaining, start);
+                return;
+            }
+            List<Pending> failed = new ArrayList<>();
+            for (Pending pending : remaining) {
+                long itemStart = System.nanoTime();
+                if (store(List.of(pending))) recordFlush(List.of(pending), itemStart);
+                else failed.add(pending);
+            }
+            if (failed.size() < remaining.size()) {
+                for (Pending pending : failed) {
+                    dropped.increment();
+                    log.error("Dropping feedback that cannot be stored (journal seq {})", pending.seq());
+                }
+                return;
+            }
+            if (stopping) {
+                log.warn("Database unavailable at shutdown; {} feedback submissions stay in the journal", failed.size());
+                return;
+            }
+            remaining = failed;
+            try {
+                Thread.sleep(retryDelayMs);
+            } catch (InterruptedException e) {
+                stopping = true;
+            }
+            retryDelayMs = Math.min(retryDelayMs * 2, MAX_RETRY_DELAY_MS);
+        }
+    }
+
+    /**
+     * One transaction: insert the rows, then move the checkpoint past them.
+     */
+    private boolean store(List<Pending> batch) {
+        long lastSeq = batch.get(batch.size() - 1).seq();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (Pending pending : batch) {
+                    pending.feedback().setId(null);
+                    entityManager.persist(pending.feedback());
+                }
+                entityManager.flush();
+                entityManager.clear();
+                jdbcTemplate.update("UPDATE feedback_journal_checkpoint SET seq = ? WHERE id = 1 AND seq < ?",
+                    lastSeq, lastSeq);
+            });
+            checkpointSeq = Math.max(checkpointSeq, lastSeq);
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Feedback write of {} rows failed: {}", batch.size(), e.getMessage());
+            return false;
+        }
+    }
+
+    private void recordFlush(List<Pending> batch, long startNanos) {
+        long now = System.nanoTime();
+        long elapsed = now - startNanos;
+        batches.increment();
+        written.add(batch.size());
+        lastBatchSize = batch.size();
+        maxBatchSize.accumulate(batch.size());
+        flushNanos.add(elapsed);
+        maxFlushNanos.accumulate(elapsed);
+        maxQueueDelayNanos.accumulate(now - batch.get(0).enqueuedNanos());
+    }
+
+    /**
+     * Empties the journal when everything in it has been stored.
+     */
+    private void compact() {
+        if (journal == null) return;
+        appendLock.lock();
+        try {
+            if (journal.sizeBytes() > 0 && journal.lastSeq() <= checkpointSeq
+                && (journal.sizeBytes() >= compactBytes || !enabled)) {
+                journal.truncate();
+            }
+        } catch (IOException e) {
+            log.warn("Could not compact feedback journal: {}", e.getMessage());
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    public long written() {
+        return written.sum();
+    }
+
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Number of batches flushed, and the total time spent flushing them.
+     */
+    public long batches() {
+        return batches.sum();
+    }
+
+    public long flushNanos() {
+        return flushNanos.sum();
+    }
+
+    /**
+     * Queue depth, batch sizes, flush latency and journal state.
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long batchCount = batches.sum();
+        stats.put("enabled", enabled);
+        stats.put("queueDepth", queue.size());
+        stats.put("queueCapacity", capacity);
+        stats.put("accepted", accepted.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("written", written.sum());
+        stats.put("dropped", dropped.sum());
+        stats.put("batches", batchCount);
+        stats.put("lastBatchSize", lastBatchSize);
+        stats.put("meanBatchSize", batchCount == 0 ? 0.0 : (double) written.sum() / batchCount);
+        stats.put("maxBatchSize", maxBatchSize.get());
+        stats.put("flushMeanMs", batchCount == 0 ? 0.0 : flushNanos.sum() / 1e6 / batchCount);
+        stats.put("flushMaxMs", maxFlushNanos.get() / 1e6);
+        stats.put("queueDelayMaxMs", maxQueueDelayNanos.get() / 1e6);
+        stats.put("journalBytes", journal == null ? 0 : journal.sizeBytes());
+        stats.put("journalSyncs", journal == null ? 0 : journal.syncs());
+        stats.put("checkpointSeq", checkpointSeq);
+        return stats;
+    }
+
+    /**
+     * A queued submission and its journal sequence number.
+     */
+    private record Pending(long seq, Feedback feedback, long enqueuedNanos) { }
+}
@@ -0,0 +1,293 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Micro-batcher that sends independent prompts arriving close together to
+ * Gemini as one call. The first prompt to arrive opens a batch and its
+ * caller waits up to window for others to join; the batch is sent when the
+ * window ends or, earlier, by the caller that fills it to maxBatch. The
+ * prompts go out as numbered sections ("[R1] ...", "[R2] ...") of a single
+ * prompt asking for an answer per marker, and each caller gets the section
+ * with its own marker. A caller whose section is missing or not usable
+ * makes its own call instead, so a garbled batch answer costs one extra
+ * call per caller but never a wrong answer. If the batch call itself fails,
+ * every caller in it gets the exception.
+ * There is no background thread: the caller that opened a batch sends it,
+ * even if it is interrupted while waiting (it then leaves the batch).
+ * Callers wait at most maxWait for their batch to be answered.
+ */
+public final class GeminiBatcher {
+
+    // A line starting with a section marker, e.g. "[R2]" or "**[R2]**"; text may follow on the same line
+    private static final Pattern MARKER = Pattern.compile("^[\\s*#]*\\[R(\\d+)\\][\\s*:]*(.*)$");
+
+    private final int maxBatch;
+    private final long windowNanos;
+
+    // Longest a caller waits for its batch to be answered
+    private final long maxWaitNanos;
+
+    // Sends one prompt to Gemini and returns the answer text
+    private final Function<String, String> call;
+
+    // Whether an answer section can stand in for an individual answer
+    private final Predicate<String> usable;
+
+    // The batch still open for new prompts, if any
+    private Batch open;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition sent = lock.newCondition();
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder batchCalls = new LongAdder();
+    private final LongAdder singleCalls = new LongAdder();
+    private final LongAdder fallbackCalls = new LongAdder();
+    private final LongAdder batchedRequests = new LongAdder();
+    private final LongAccumulator maxBatchSize = new LongAccumulator(Math::max, 0);
+    private final LongAdder queueNanos = new LongAdder();
+    private final LongAccumulator maxQueueNanos = new LongAccumulator(Math::max, 0);
+
+    public GeminiBatcher(int maxBatch, long windowMs, long maxWaitMs,
+                         Function<String, String> call, Predicate<String> usable) {
+        this.maxBatch = Math.max(1, maxBatch);
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        this.call = call;
+        this.usable = usable;
+    }
+
+    /**
+     * Answers a prompt, as part of a batch when others arrive within the window.
+     * @throws GeminiException if the call answering it fails
+     */
+    public String submit(String prompt) {
+        requests.increment();
+        Slot slot = new Slot(prompt, System.nanoTime());
+        Batch toSend = null;
+        InterruptedException interrupted = null;
+        lock.lock();
+        try {
+            boolean opener = open == null;
+            if (opener) open = new Batch();
+            Batch batch = open;
+            batch.slots.add(slot);
+            if (batch.slots.size() >= maxBatch) {
+                open = null;
+                toSend = batch;
+                sent.signalAll();
+            } else if (opener) {
+                try {
+                    long remaining = windowNanos;
+                    while (open == batch && remaining > 0) {
+                        remaining = sent.awaitNanos(remaining);
+                    }
+                } catch (InterruptedException e) {
+                    interrupted = e;
+                }
+                if (open == batch) {
+                    open = null;
+                    toSend = batch;
+                    // An interrupted opener leaves, but the prompts that joined its batch are still sent
+                    if (interrupted != null) batch.slots.remove(slot);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (toSend != null && !toSend.slots.isEmpty()) send(toSend.slots);
+        if (interrupted != null) {
+            Thread.currentThread().interrupt();
+            throw new GeminiException("Interrupted while batching", interrupted);
+        }
+        return answer(slot);
+    }
+
+    /**
+     * Prompt asking for an answer to each of the given prompts, under its marker.
+     */
+    static String batchPrompt(List<String> prompts) {
+        StringBuilder prompt = new StringBuilder("Answer each of the following ")
+            .append(prompts.size())
+            .append(" requests independently. Start each answer with a line holding only the request's marker")
+            .append(" ([R1], [R2], ...), then follow that request's own formatting instructions.\n");
+        for (int i = 0; i < prompts.size(); i++) {
+            prompt.append("\n[R").append(i + 1).append("] ").append(prompts.get(i)).append('\n');
+        }
+        return prompt.toString();
+    }
+
+    /**
+     * Splits a batch answer by marker. The result has one entry per request,
+     * null where the answer has no (or an empty) section for it; a repeated
+     * marker keeps its first section.
+     */
+    static String[] sections(String answer, int count) {
+        String[] sections = new String[count];
+        if (answer == null) return sections;
+        StringBuilder current = null;
+        int index = -1;
+        for (String line : answer.split("\n")) {
+            Matcher m = MARKER.matcher(line);
+            if (m.matches()) {
+                store(sections, index, current);
+                int marker = Integer.parseInt(m.group(1));
+                index = marker >= 1 && marker <= count && sections[marker - 1] == null ? marker - 1 : -1;
+                current = new StringBuilder(m.group(2).trim());
+            } else if (current != null) {
+                if (!current.isEmpty()) current.append('\n');
+                current.append(line);
+            }
+        }
+        store(sections, index, current);
+        return sections;
+    }
+
+    private static void store(String[] sections, int index, StringBuilder text) {
+        if (index < 0 || text == null) return;
+        String section = text.toString().strip();
+        if (!section.isEmpty()) sections[index] = section;
+    }
+
+    /**
+     * Sends a batch and hands each caller its section. A batch of one is
+     * sent as the plain prompt.
+     */
+    private void send(List<Slot> slots) {
+        long now = System.nanoTime();
+        for (Slot slot : slots) {
+            long waited = now - slot.enqueuedNanos;
+            queueNanos.add(waited);
+            maxQueueNanos.accumulate(waited);
+        }
+        maxBatchSize.accumulate(slots.size());
+        try {
+            if (slots.size() == 1) {
+                singleCalls.increment();
+                slots.get(0).result.complete(call.apply(slots.get(0).prompt));
+                return;
+            }
+            batchCalls.increment();
+            batchedRequests.add(slots.size());
+            String[] sections = sections(call.apply(batchPrompt(slots.stream().map(Slot::prompt).toList())), slots.size());
+            for (int i = 0; i < slots.size(); i++) {
+                // null: the caller asks on its own
+                slots.get(i).result.complete(sections[i] != null && usable.test(sections[i]) ? sections[i] : null);
+            }
+        } catch (RuntimeException e) {
+            for (Slot slot : slots) slot.result.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Waits for a caller's section, asking on its own if there is none.
+     */
+    private String answer(Slot slot) {
+        String section;
+        try {
+            section = slot.result.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new GeminiException("Batched Gemini call failed", e.getCause());
+        } catch (TimeoutException e) {
+            throw new GeminiException("No batched Gemini answer within " + TimeUnit.NANOSECONDS.toMillis(maxWaitNanos) + " ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GeminiException("Interrupted waiting for a batched answer", e);
+        }
+        if (section != null) return section;
+        fallbackCalls.increment();
+        return call.apply(slot.prompt);
+    }
+
+    public long requests() {
+        return requests.sum();
+    }
+
+    /**
+     * Gemini calls made for batches of two or more prompts; singleCalls and
+     * fallbackCalls count prompts sent alone and retried alone.
+     */
+    public long batchCalls() {
+        return batchCalls.sum();
+    }
+
+    public long singleCalls() {
+        return singleCalls.sum();
+    }
+
+    public long fallbackCalls() {
+        return fallbackCalls.sum();
+    }
+
+    /**
+     * Prompts sent as part of a batch of two or more.
+     */
+    public long batchedRequests() {
+        return batchedRequests.sum();
+    }
+
+    /**
+     * Total time prompts waited for their batch to be sent.
+     */
+    public long queueNanos() {
+        return queueNanos.sum();
+    }
+
+    public long maxBatchSize() {
+        return maxBatchSize.get();
+    }
+
+    /**
+     * Batch sizes, calls saved and the delay batching added.
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long total = requests.sum();
+        long batches = batchCalls.sum();
+        stats.put("requests", total);
+        stats.put("batchCalls", batches);
+        stats.put("singleCalls", singleCalls.sum());
+        stats.put("fallbackCalls", fallbackCalls.sum());
+        stats.put("meanBatchSize", batches == 0 ? 0.0 : (double) batchedRequests.sum() / batches);
+        stats.put("maxBatchSize", maxBatchSize.get());
+        stats.put("queueDelayMeanMs", total == 0 ? 0.0 : queueNanos.sum() / 1e6 / total);
+        stats.put("queueDelayMaxMs", maxQueueNanos.get() / 1e6);
+        return stats;
+    }
+
+    /**
+     * A prompt waiting for its answer; the result is null when the batch
+     * answer had no usable section for it.
+     */
+    private record Slot(String prompt, long enqueuedNanos, CompletableFuture<String> result) {
+
+        Slot(String prompt, long enqueuedNanos) {
+            this(prompt, enqueuedNanos, new CompletableFuture<>());
+        }
+    }
+
+    private static final class Batch {
+        final List<Slot> slots = new ArrayList<>();
+    }
+}
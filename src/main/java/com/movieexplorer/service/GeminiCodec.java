@@ -0,0 +1,168 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming encoder/decoder for the Gemini generateContent wire format.
+ * Requests are written by a Jackson generator straight into OkHttp's
+ * output buffer (so prompts are escaped correctly instead of having their
+ * quotes rewritten), and responses are read token by token only as far as
+ * candidates[0].content.parts[0].text, without building a JSON tree.
+ * The JsonFactory is thread-safe and recycles its buffers across calls.
+ */
+final class GeminiCodec {
+
+    private static final MediaType JSON = MediaType.get("application/json");
+
+    // The sink belongs to OkHttp; closing a generator must only flush it
+    private static final JsonFactory FACTORY = JsonFactory.builder()
+        .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+        .build();
+
+    private GeminiCodec() {
+    }
+
+    /**
+     * Request body for a single-turn prompt: {"contents":[{"parts":[{"text":prompt}]}]}.
+     * Encoded on demand each time OkHttp writes it, so it can be retried.
+     */
+    static RequestBody requestBody(String prompt) {
+        return new RequestBody() {
+            @Override
+            public MediaType contentType() {
+                return JSON;
+            }
+
+            @Override
+            public void writeTo(BufferedSink sink) throws IOException {
+                writeRequest(sink.outputStream(), prompt);
+            }
+        };
+    }
+
+    /**
+     * The same request as requestBody, encoded once into a byte array (for
+     * clients that take the body as bytes).
+     */
+    static byte[] requestBytes(String prompt) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(prompt.length() + 64);
+        try {
+            writeRequest(out, prompt);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // Not thrown by an in-memory stream
+        }
+        return out.toByteArray();
+    }
+
+    private static void writeRequest(OutputStream out, String prompt) throws IOException {
+        try (JsonGenerator json = FACTORY.createGenerator(out)) {
+            json.writeStartObject();
+            json.writeArrayFieldStart("contents");
+            json.writeStartObject();
+            json.writeArrayFieldStart("parts");
+            json.writeStartObject();
+            json.writeStringField("text", prompt);
+            json.writeEndObject();
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+    }
+
+    /**
+     * Reads candidates[0].content.parts[0].text from a response stream.
+     * @return The text, or null if the response has no such field.
+     */
+    static String readText(InputStream body) throws IOException {
+        try (JsonParser parser = FACTORY.createParser(body)) {
+            return firstText(parser);
+        }
+    }
+
+    /**
+     * Same as readText, for one server-sent event's JSON payload.
+     */
+    static String readText(String event) throws IOException {
+        try (JsonParser parser = FACTORY.createParser(event)) {
+            return firstText(parser);
+        }
+    }
+
+    /**
+     * Titles from a numbered list ("1. Title" lines, as asked for in the
+     * recommendation prompt), trimmed; other lines are ignored.
+     */
+    static List<String> numberedTitles(String text) {
+        List<String> titles = new ArrayList<>(4);
+        int lineStart = 0;
+        int length = text.length();
+        while (lineStart < length) {
+            int lineEnd = text.indexOf('\n', lineStart);
+            if (lineEnd < 0) lineEnd = length;
+
+            int i = lineStart;
+            while (i < lineEnd && isDigit(text.charAt(i))) i++;
+            if (i > lineStart && i + 1 < lineEnd && text.charAt(i) == '.'
+                && Character.isWhitespace(text.charAt(i + 1))) {
+                String title = text.substring(i + 2, lineEnd).trim();
+                if (!title.isEmpty()) titles.add(title);
+            }
+            lineStart = lineEnd + 1;
+        }
+        return titles;
+    }
+
+    private static String firstText(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) return null;
+        if (!enterFirst(parser, "candidates")) return null;
+        if (!seekField(parser, "content") || parser.nextToken() != JsonToken.START_OBJECT) return null;
+        if (!enterFirst(parser, "parts")) return null;
+        if (!seekField(parser, "text")) return null;
+        return parser.nextToken() == JsonToken.VALUE_STRING ? parser.getText() : null;
+    }
+
+    /**
+     * Moves to the named array field and into its first element, which must be an object.
+     */
+    private static boolean enterFirst(JsonParser parser, String field) throws IOException {
+        return seekField(parser, field)
+            && parser.nextToken() == JsonToken.START_ARRAY
+            && parser.nextToken() == JsonToken.START_OBJECT;
+    }
+
+    /**
+     * Advances within the current object to the named field, skipping the others.
+     */
+    private static boolean seekField(JsonParser parser, String field) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            if (field.equals(parser.currentName())) return true;
+            parser.nextToken();
+            parser.skipChildren();
+        }
+        return false;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
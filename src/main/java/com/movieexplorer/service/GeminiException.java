@@ -0,0 +1,20 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.service;
+
+/**
+ * Thrown internally when a Gemini call fails (HTTP error or I/O failure).
+ * Its message is the text shown to the user, e.g. "API Error: 429".
+ */
+public class GeminiException extends RuntimeException {
+
+    public GeminiException(String message) {
+        super(message);
+    }
+
+    public GeminiException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
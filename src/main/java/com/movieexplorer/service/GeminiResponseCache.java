@@ -0,0 +1,145 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.service;
+
+import com.movieexplorer.cache.CacheStats;
+import com.movieexplorer.cache.LruTtlCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Cache of Gemini answers keyed on a canonical form of the request rather
+ * than the raw prompt text: titles are normalized, genre/mood lists sorted,
+ * and compare pairs ordered so "A vs B" and "B vs A" share one entry.
+ * Bounded by entry count and by approximate bytes held (LRU eviction).
+ * Answers survive restarts through the warm-up snapshot (see CacheWarmup).
+ * Expired answers are kept for a grace period so they can still be served
+ * when Gemini cannot be reached.
+ */
+@Component
+public class GeminiResponseCache {
+
+    // Rough per-entry overhead (entry, node, string headers) added to the character data
+    private static final long ENTRY_OVERHEAD_BYTES = 96;
+
+    // Runs of whitespace folded to one space in question keys
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final LruTtlCache<String, String> responses;
+
+    // Expired answers served because Gemini failed
+    private final LongAdder staleHits = new LongAdder();
+
+    public GeminiResponseCache(
+        @Value("${gemini.cache.max-entries:500}") int maxEntries,
+        @Value("${gemini.cache.max-bytes:8388608}") long maxBytes,
+        @Value("${gemini.cache.ttl-minutes:1440}") long ttlMinutes,
+        @Value("${gemini.cache.stale-grace-minutes:10080}") long staleGraceMinutes) {
+        this.responses = new LruTtlCache<>("gemini-responses", maxEntries, Duration.ofMinutes(ttlMinutes),
+            GeminiResponseCache::approximateBytes, maxBytes, Duration.ofMinutes(staleGraceMinutes));
+    }
+
+    /**
+     * Canonical key for a recommendation request.
+     */
+    public static String recommendationKey(String title, List<String> genres, List<String> moods) {
+        return "recommend|" + MovieCache.normalizeTitle(title) + "|" + sortedKey(genres) + "|" + sortedKey(moods);
+    }
+
+    /**
+     * Canonical, order-insensitive key for comparing two movies.
+     */
+    public static String comparisonKey(String movie1, String movie2) {
+        String a = MovieCache.normalizeTitle(movie1);
+        String b = MovieCache.normalizeTitle(movie2);
+        return a.compareTo(b) <= 0 ? "compare|" + a + "|" + b : "compare|" + b + "|" + a;
+    }
+
+    /**
+     * Canonical key for a free-form question (case and whitespace folded).
+     * Unlike titles, '+' is kept: "C++ movies" and "C movies" are different questions.
+     */
+    public static String queryKey(String query) {
+        if (query == null) return "ask|";
+        return "ask|" + WHITESPACE.matcher(query.strip()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Cached answer for a canonical key, or null.
+     */
+    public String get(String key) {
+        return responses.get(key);
+    }
+
+    /**
+     * Answer for a key even if expired (within the stale grace period), or null.
+     * Only for when Gemini has just failed.
+     */
+    public String getStale(String key) {
+        String stale = responses.getStale(key);
+        if (stale != null) staleHits.increment();
+        return stale;
+    }
+
+    /**
+     * Number of times an expired answer was served in place of a failed call.
+     */
+    public long staleHits() {
+        return staleHits.sum();
+    }
+
+    /**
+     * Caches a successful answer.
+     */
+    public void put(String key, String response) {
+        responses.put(key, response);
+    }
+
+    /**
+     * Hit rate, entry count and approximate bytes held.
+     */
+    public CacheStats stats() {
+        return responses.stats();
+    }
+
+    /**
+     * Live answers with their remaining time-to-live, for the startup snapshot.
+     */
+    public List<LruTtlCache.Snapshot<String, String>> snapshot() {
+        return responses.snapshot();
+    }
+
+    /**
+     * Puts an answer from a snapshot back with its remaining time-to-live.
+     */
+    public void restore(String key, String response, Duration ttl) {
+        responses.put(key, response, ttl);
+    }
+
+    /**
+     * The underlying cache, for exporting its counters as metrics.
+     */
+    public LruTtlCache<String, String> cache() {
+        return responses;
+    }
+
+    private static String sortedKey(List<String> values) {
+        return values.stream()
+            .map(v -> v.trim().toLowerCase(Locale.ROOT))
+            .sorted()
+            .collect(Collectors.joining(","));
+    }
+
+    private static long approximateBytes(String key, String value) {
+        return ENTRY_OVERHEAD_BYTES + 2L * (key.length() + value.length());
+    }
+}
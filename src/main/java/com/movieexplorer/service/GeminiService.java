@@ -5,16 +5,19 @@
 package com.movieexplorer.service;
 
 import okhttp3.*;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import okio.BufferedSource;
+import com.movieexplorer.cache.SingleFlight;
+import com.movieexplorer.http.UpstreamClient;
+import com.movieexplorer.observability.ErrorMetrics;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * GeminiService interacts with the Gemini API for
@@ -26,28 +29,82 @@ public class GeminiService {
 
     // Gemini API endpoint URL for content generation
     private static final String GEMINI_API_URL = "https://generativelanguage.googleapis.com/v1beta/models/gemini-2.0-flash:generateContent";
-    
+
+    // Gemini API endpoint URL for server-sent-event streaming of generated content
+    private static final String GEMINI_STREAM_API_URL = "https://generativelanguage.googleapis.com/v1beta/models/gemini-2.0-flash:streamGenerateContent";
+
+    // Endpoints actually used (overridable so tests can point at a local stub)
+    @Value("${gemini.api.url:" + GEMINI_API_URL + "}")
+    private String apiUrl;
+
+    @Value("${gemini.api.stream-url:" + GEMINI_STREAM_API_URL + "}")
+    private String streamApiUrl;
+
     // API key injected from application.properties (must be set by user)
     @Value("${gemini.api.key}")
     private String apiKey;
 
-    // HTTP client for making API requests
-    private final OkHttpClient client = new OkHttpClient();
+    // Shared pooled HTTP client for making API requests
+    private final UpstreamClient upstreamClient;
+
+    // Collapses concurrent identical prompts into one Gemini call
+    private final SingleFlight<String, String> inFlight = new SingleFlight<>("gemini");
+
+    // Answers keyed on the canonical form of each request
+    private final GeminiResponseCache responseCache;
 
-    // JSON object mapper to parse Gemini API responses
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    // Counts failed calls, including those answered from the cache or with an error text
+    private final ErrorMetrics errorMetrics;
+
+    // Recommendation prompts arriving within window-ms of each other are sent as one call of up to max-size
+    @Value("${gemini.batch.enabled:false}")
+    private boolean batchEnabled;
+
+    @Value("${gemini.batch.window-ms:10}")
+    private long batchWindowMs;
+
+    @Value("${gemini.batch.max-size:8}")
+    private int batchMaxSize;
+
+    // Longest a prompt waits for its batch to be answered; covers the window and the Gemini call timeout
+    @Value("${gemini.batch.max-wait-ms:65000}")
+    private long batchMaxWaitMs;
+
+    // Null unless batching is enabled
+    private GeminiBatcher batcher;
+
+    public GeminiService(UpstreamClient upstreamClient, GeminiResponseCache responseCache,
+                         ErrorMetrics errorMetrics) {
+        this.upstreamClient = upstreamClient;
+        this.responseCache = responseCache;
+        this.errorMetrics = errorMetrics;
+    }
+
+    @PostConstruct
+    void createBatcher() {
+        if (batchEnabled) {
+            batcher = new GeminiBatcher(batchMaxSize, batchWindowMs, batchMaxWaitMs, this::processGeminiRequest,
+                answer -> !GeminiCodec.numberedTitles(answer).isEmpty());
+        }
+    }
 
     /**
      * Get movie recommendations filtered by title, genres, and moods.
+     * Cache misses are batched with concurrent ones when batching is enabled.
      * @param movieTitle The base movie title for recommendations.
      * @param genres List of genres to filter recommendations.
      * @param moods List of moods to filter recommendations.
      * @return String containing recommended movie titles.
+     * @throws GeminiException if Gemini failed and no earlier answer is cached;
+     *         unlike the free-text answers, the error is never passed off as titles.
      */
     public String getFilteredRecommendations(String movieTitle, List<String> genres, List<String> moods) {
-        String prompt = buildRecommendationPrompt(movieTitle, genres, moods);
-        String rawResponse = processGeminiRequest(prompt);
-        return extractCleanTitles(rawResponse);
+        String key = GeminiResponseCache.recommendationKey(movieTitle, genres, moods);
+        return cachedOrStale(key, () -> {
+            String prompt = buildRecommendationPrompt(movieTitle, genres, moods);
+            String rawResponse = batcher != null ? batcher.submit(prompt) : processGeminiRequest(prompt);
+            return extractCleanTitles(rawResponse);
+        });
     }
 
     /**
@@ -56,8 +113,18 @@ public class GeminiService {
      * @return AI-generated answer as string.
      */
     public String processNaturalLanguageQuery(String query) {
-        String prompt = "Act as a movie expert. Answer concisely: " + query;
-        return processGeminiRequest(prompt);
+        String prompt = buildQueryPrompt(query);
+        return cachedCall(GeminiResponseCache.queryKey(query), () -> processGeminiRequest(prompt));
+    }
+
+    /**
+     * Streaming variant of processNaturalLanguageQuery: text is passed to the
+     * consumer chunk by chunk as Gemini generates it.
+     * @param query User's natural language question.
+     * @param onChunk Receives each piece of generated text in order.
+     */
+    public void streamNaturalLanguageQuery(String query, Consumer<String> onChunk) {
+        streamCachedCall(GeminiResponseCache.queryKey(query), buildQueryPrompt(query), onChunk);
     }
 
     /**
@@ -67,15 +134,123 @@ public class GeminiService {
      * @return Comparison text from AI.
      */
     public String compareMovies(String movie1, String movie2) {
-        String prompt = "Compare these two movies in a detailed pros/cons format: " + 
-                      movie1 + " and " + movie2 + ". Focus on plot, themes, and filmmaking style.";
-        return processGeminiRequest(prompt);
+        String prompt = buildComparisonPrompt(movie1, movie2);
+        return cachedCall(GeminiResponseCache.comparisonKey(movie1, movie2), () -> processGeminiRequest(prompt));
+    }
+
+    /**
+     * Streaming variant of compareMovies: text is passed to the consumer
+     * chunk by chunk as Gemini generates it.
+     * @param movie1 First movie title.
+     * @param movie2 Second movie title.
+     * @param onChunk Receives each piece of generated text in order.
+     */
+    public void streamComparison(String movie1, String movie2, Consumer<String> onChunk) {
+        streamCachedCall(GeminiResponseCache.comparisonKey(movie1, movie2),
+            buildComparisonPrompt(movie1, movie2), onChunk);
+    }
+
+    /**
+     * Counters for the in-flight deduplication of Gemini calls.
+     */
+    public SingleFlight.Stats singleFlightStats() {
+        return inFlight.stats();
+    }
+
+    /**
+     * The recommendation batcher, if batching is enabled.
+     */
+    public Optional<GeminiBatcher> batcher() {
+        return Optional.ofNullable(batcher);
+    }
+
+    /**
+     * Same as cachedOrStale, but a failure with no expired answer to fall back
+     * on is returned as its error text (never cached) instead of thrown.
+     */
+    private String cachedCall(String key, Supplier<String> call) {
+        try {
+            return cachedOrStale(key, call);
+        } catch (GeminiException e) {
+            return e.getMessage();
+        }
+    }
+
+    /**
+     * Serves an answer from the response cache, or runs the call once for all
+     * concurrent callers and caches it. If the call fails, an expired answer
+     * for the same key is served when there is one.
+     * @throws GeminiException if the call failed and there is no expired answer
+     */
+    private String cachedOrStale(String key, Supplier<String> call) {
+        String cached = responseCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            return inFlight.execute(key, () -> {
+                String response = call.get();
+                responseCache.put(key, response);
+                return response;
+            });
+        } catch (GeminiException e) {
+            errorMetrics.record("gemini", e);
+            String stale = responseCache.getStale(key);
+            if (stale == null) throw e;
+            return stale;
+        }
+    }
+
+    /**
+     * Streams an answer, serving it whole from the response cache when
+     * possible. If streaming fails or ends before any text was sent, falls back
+     * to the blocking generateContent call. The complete answer is cached.
+     */
+    private void streamCachedCall(String key, String prompt, Consumer<String> onChunk) {
+        String cached = responseCache.get(key);
+        if (cached != null) {
+            onChunk.accept(cached);
+            return;
+        }
+
+        StringBuilder full = new StringBuilder();
+        try {
+            streamGeminiRequest(prompt, chunk -> {
+                full.append(chunk);
+                onChunk.accept(chunk);
+            });
+            if (full.length() == 0) {
+                throw new GeminiException("Stream ended without text");
+            }
+            responseCache.put(key, full.toString());
+        } catch (GeminiException e) {
+            errorMetrics.record("gemini.stream", e);
+            if (full.length() > 0) {
+                throw e; // Part of the answer was already delivered
+            }
+            onChunk.accept(cachedCall(key, () -> processGeminiRequest(prompt)));
+        }
+    }
+
+    /**
+     * Helper to build the prompt for a natural language query.
+     */
+    String buildQueryPrompt(String query) {
+        return "Act as a movie expert. Answer concisely: " + query;
+    }
+
+    /**
+     * Helper to build the prompt comparing two movies.
+     */
+    String buildComparisonPrompt(String movie1, String movie2) {
+        return "Compare these two movies in a detailed pros/cons format: " + 
+               movie1 + " and " + movie2 + ". Focus on plot, themes, and filmmaking style.";
     }
 
     /**
      * Helper to build the recommendation prompt string for Gemini API.
      */
-    private String buildRecommendationPrompt(String title, List<String> genres, List<String> moods) {
+    String buildRecommendationPrompt(String title, List<String> genres, List<String> moods) {
         StringBuilder prompt = new StringBuilder("Suggest exactly 3 movies similar to '")
             .append(title)
             .append("'");
@@ -94,52 +269,76 @@ public class GeminiService {
     /**
      * Extract clean movie titles from raw Gemini API response.
      */
-    private String extractCleanTitles(String rawResponse) {
-        List<String> titles = new ArrayList<>();
-        Pattern pattern = Pattern.compile("^\\d+\\.\\s+(.+)$", Pattern.MULTILINE);
-        Matcher matcher = pattern.matcher(rawResponse);
-        
-        while (matcher.find()) {
-            titles.add(matcher.group(1).trim());
-        }
-        
+    String extractCleanTitles(String rawResponse) {
+        List<String> titles = GeminiCodec.numberedTitles(rawResponse);
         return titles.isEmpty() ? rawResponse : String.join("\n", titles);
     }
 
     /**
      * Send the prompt to Gemini API and get the response text.
+     * @throws GeminiException if the API returns an error or cannot be reached
      */
     private String processGeminiRequest(String promptText) {
         try {
-            // Replace double quotes with single quotes to avoid JSON issues
-            String sanitizedPrompt = promptText.replace("\"", "'");
-            
-            // Prepare JSON request body
-            String jsonBody = String.format(
-                "{ \"contents\": [{ \"parts\": [{ \"text\": \"%s\" }] }] }",
-                sanitizedPrompt
-            );
-
             // Build HTTP POST request with API key as query param
             Request request = new Request.Builder()
-                .url(GEMINI_API_URL + "?key=" + apiKey)
-                .post(RequestBody.create(jsonBody, MediaType.get("application/json")))
+                .url(apiUrl + "?key=" + apiKey)
+                .post(buildRequestBody(promptText))
                 .build();
 
             // Execute the request and handle response
-            try (Response response = client.newCall(request).execute()) {
+            return upstreamClient.execute("gemini", request, response -> {
                 if (!response.isSuccessful()) {
-                    return "API Error: " + response.code();
+                    throw new GeminiException("API Error: " + response.code());
                 }
 
-                // Parse JSON response to extract generated text
-                JsonNode root = objectMapper.readTree(response.body().string());
-                return root.path("candidates").get(0)
-                          .path("content").path("parts").get(0)
-                          .path("text").asText("No response found");
-            }
+                // Pull the generated text straight off the body stream; none (e.g. a
+                // safety-blocked prompt) is a failure, so it is never cached as the answer
+                String text = GeminiCodec.readText(response.body().byteStream());
+                if (text == null) throw new GeminiException("No response found");
+                return text;
+            });
+        } catch (IOException e) {
+            throw new GeminiException("Error: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Send the prompt to the Gemini streaming endpoint and pass each generated
+     * text chunk to the consumer as its server-sent event arrives.
+     * @throws GeminiException if the API returns an error or cannot be reached
+     */
+    private void streamGeminiRequest(String promptText, Consumer<String> onChunk) {
+        try {
+            Request request = new Request.Builder()
+                .url(streamApiUrl + "?alt=sse&key=" + apiKey)
+                .post(buildRequestBody(promptText))
+                .build();
+
+            upstreamClient.execute("gemini", request, response -> {
+                if (!response.isSuccessful()) {
+                    throw new GeminiException("API Error: " + response.code());
+                }
+
+                // Each event is a "data: {json}" line holding the next part of the answer
+                BufferedSource source = response.body().source();
+                String line;
+                while ((line = source.readUtf8Line()) != null) {
+                    if (!line.startsWith("data:")) continue;
+                    String text = GeminiCodec.readText(line.substring(5));
+                    if (text != null && !text.isEmpty()) onChunk.accept(text);
+                }
+                return null;
+            });
         } catch (IOException e) {
-            return "Error: " + e.getMessage();
+            throw new GeminiException("Error: " + e.getMessage(), e);
         }
     }
+
+    /**
+     * Prepare the JSON request body for a prompt.
+     */
+    RequestBody buildRequestBody(String promptText) {
+        return GeminiCodec.requestBody(promptText);
+    }
 }
@@ -0,0 +1,383 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.movieexplorer.cache.LruTtlCache;
+import com.movieexplorer.model.CachedMovie;
+import com.movieexplorer.model.CompactMovie;
+import com.movieexplorer.model.Movie;
+import com.movieexplorer.model.MovieDictionary;
+import com.movieexplorer.model.MovieTitleKey;
+import com.movieexplorer.repository.CachedMovieRepository;
+import com.movieexplorer.repository.MovieTitleKeyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Two-tier cache for OMDb movie lookups.
+ * The first tier is a bounded in-heap LRU cache with a TTL, keyed both by
+ * normalized title and by imdbID. The second tier persists movies through JPA
+ * so lookups survive restarts. Titles that OMDb could not find are cached
+ * negatively in memory for a shorter time. In-heap entries are stored as
+ * CompactMovie and expanded on each hit, so callers always get their own copy.
+ * Persisted movies past their freshness window are still returned by the
+ * findStale* methods, as a fallback for when OMDb cannot be reached.
+ */
+@Component
+public class MovieCache {
+
+    private static final Logger log = LoggerFactory.getLogger(MovieCache.class);
+
+    // Movies by imdbID, held in compact form
+    private final LruTtlCache<String, CompactMovie> moviesById;
+
+    // Normalized title -> imdbID
+    private final LruTtlCache<String, String> idsByTitle;
+
+    // Normalized titles OMDb reported as not found
+    private final LruTtlCache<String, Boolean> missingTitles;
+
+    private final CachedMovieRepository movieRepo;
+    private final MovieTitleKeyRepository titleKeyRepo;
+
+    // Announces newly fetched movies to other components
+    private final ApplicationEventPublisher eventPublisher;
+
+    // How long a persisted movie is trusted before OMDb is asked again
+    private final Duration persistentTtl;
+
+    // How long a fuzzy title match is reused; as short-lived as a negative entry
+    private final Duration guessTtl;
+
+    // Dictionary new in-heap entries are encoded with; replaced once it holds maxDictionaryEntries strings
+    private volatile MovieDictionary dictionary = new MovieDictionary();
+    private final int maxDictionaryEntries;
+
+    // Used to (de)serialize movies for the persistent tier
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final LongAdder persistentHits = new LongAdder();
+    private final LongAdder persistentMisses = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+
+    public MovieCache(
+        CachedMovieRepository movieRepo,
+        MovieTitleKeyRepository titleKeyRepo,
+        ApplicationEventPublisher eventPublisher,
+        @Value("${movie.cache.max-entries:1000}") int maxEntries,
+        @Value("${movie.cache.ttl-minutes:360}") long ttlMinutes,
+        @Value("${movie.cache.negative-ttl-minutes:10}") long negativeTtlMinutes,
+        @Value("${movie.cache.persistent-ttl-hours:168}") long persistentTtlHours,
+        @Value("${movie.cache.dictionary-max-entries:50000}") int maxDictionaryEntries) {
+        this.movieRepo = movieRepo;
+        this.titleKeyRepo = titleKeyRepo;
+        this.eventPublisher = eventPublisher;
+        this.moviesById = new LruTtlCache<>("movies-by-id", maxEntries, Duration.ofMinutes(ttlMinutes));
+        this.idsByTitle = new LruTtlCache<>("ids-by-title", maxEntries * 2, Duration.ofMinutes(ttlMinutes));
+        this.missingTitles = new LruTtlCache<>("missing-titles", maxEntries, Duration.ofMinutes(negativeTtlMinutes));
+        this.persistentTtl = Duration.ofHours(persistentTtlHours);
+        this.guessTtl = Duration.ofMinutes(negativeTtlMinutes);
+        this.maxDictionaryEntries = maxDictionaryEntries;
+    }
+
+    /**
+     * Normalizes a user-entered title into a cache key:
+     * '+' is treated as a space, whitespace is collapsed and case is folded.
+     */
+    public static String normalizeTitle(String title) {
+        if (title == null) return "";
+        StringBuilder key = new StringBuilder(title.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < title.length(); i++) {
+            char c = title.charAt(i);
+            if (c == '+' || Character.isWhitespace(c)) {
+                pendingSpace = key.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                key.append(' ');
+                pendingSpace = false;
+            }
+            key.append(c);
+        }
+        return key.toString().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Looks up a movie by title in memory only; never touches the database,
+     * so it is safe to call from an event-loop thread.
+     */
+    public Optional<Movie> findInMemoryByTitle(String title) {
+        String imdbId = idsByTitle.get(normalizeTitle(title));
+        if (imdbId == null) return Optional.empty();
+        CompactMovie movie = moviesById.get(imdbId);
+        return movie == null ? Optional.empty() : Optional.of(movie.toMovie());
+    }
+
+    /**
+     * Looks up a movie by title in the persistent tier only (blocking JDBC),
+     * promoting it to memory when found. Callers check isKnownMissing first.
+     */
+    public Optional<Movie> findPersistedByTitle(String title) {
+        return loadPersistedByTitle(normalizeTitle(title));
+    }
+
+    /**
+     * Looks up a movie by imdbID in memory, then in the persistent tier.
+     */
+    public Optional<Movie> findByImdbId(String imdbId) {
+        CompactMovie movie = moviesById.get(imdbId);
+        if (movie != null) return Optional.of(movie.toMovie());
+        return loadPersisted(imdbId);
+    }
+
+    /**
+     * Looks up a persisted movie by title however old it is. Only for when
+     * OMDb has just failed; the result is not promoted to memory, so the next
+     * lookup asks OMDb again.
+     */
+    public Optional<Movie> findStaleByTitle(String title) {
+        Optional<String> imdbId = safely(() -> titleKeyRepo.findById(normalizeTitle(title)).map(MovieTitleKey::getImdbId));
+        return imdbId.flatMap(this::findStaleByImdbId);
+    }
+
+    /**
+     * Looks up a persisted movie by imdbID however old it is (see findStaleByTitle).
+     */
+    public Optional<Movie> findStaleByImdbId(String imdbId) {
+        Optional<Movie> movie = safely(() -> movieRepo.findById(imdbId)).flatMap(this::readPayload);
+        movie.ifPresent(m -> staleHits.increment());
+        return movie;
+    }
+
+    /**
+     * True if OMDb recently reported this title as not found.
+     */
+    public boolean isKnownMissing(String title) {
+        boolean missing = missingTitles.get(normalizeTitle(title)) != null;
+        if (missing) negativeHits.increment();
+        return missing;
+    }
+
+    /**
+     * Records a successful lookup under the requested title, the canonical
+     * title and the imdbID, in both tiers.
+     */
+    public void put(String requestedTitle, Movie movie) {
+        String imdbId = movie.getImdbID();
+        String requestedKey = normalizeTitle(requestedTitle);
+        String canonicalKey = normalizeTitle(movie.getTitle());
+
+        moviesById.put(imdbId, compact(movie));
+        idsByTitle.put(requestedKey, imdbId);
+        idsByTitle.put(canonicalKey, imdbId);
+        missingTitles.invalidate(requestedKey);
+
+        try {
+            movieRepo.save(new CachedMovie(imdbId, movie.getTitle(),
+                objectMapper.writeValueAsString(movie), Instant.now()));
+            titleKeyRepo.save(new MovieTitleKey(requestedKey, imdbId));
+            if (!canonicalKey.equals(requestedKey)) {
+                titleKeyRepo.save(new MovieTitleKey(canonicalKey, imdbId));
+            }
+        } catch (Exception e) {
+            // The persistent tier is best-effort; the in-heap tier still serves the entry
+            log.warn("Could not persist cached movie {}: {}", imdbId, e.getMessage());
+        }
+        eventPublisher.publishEvent(new MovieFetchedEvent(movie));
+    }
+
+    /**
+     * Records another title that resolved to an already cached movie, in both tiers.
+     */
+    public void putAlias(String requestedTitle, String imdbId) {
+        String requestedKey = normalizeTitle(requestedTitle);
+        idsByTitle.put(requestedKey, imdbId);
+        missingTitles.invalidate(requestedKey);
+        try {
+            titleKeyRepo.save(new MovieTitleKey(requestedKey, imdbId));
+        } catch (Exception e) {
+            log.warn("Could not persist title key {}: {}", requestedKey, e.getMessage());
+        }
+    }
+
+    /**
+     * Remembers, in memory only and for the negative TTL, which movie a title
+     * OMDb's title query missed was fuzzily matched to, so repeats skip the
+     * known miss. Never persisted, and never a TitleIndex alias.
+     */
+    public void putGuess(String requestedTitle, String imdbId) {
+        idsByTitle.put(normalizeTitle(requestedTitle), imdbId, guessTtl);
+    }
+
+    /**
+     * Records that OMDb has no movie for this title.
+     */
+    public void putMissing(String title) {
+        missingTitles.put(normalizeTitle(title), Boolean.TRUE);
+    }
+
+    /**
+     * Number of stale movies served in place of a failed OMDb call.
+     */
+    public long staleHits() {
+        return staleHits.sum();
+    }
+
+    /**
+     * Live in-memory movies with their remaining time-to-live, for the startup snapshot.
+     */
+    public List<LruTtlCache.Snapshot<String, Movie>> movieSnapshot() {
+        List<LruTtlCache.Snapshot<String, CompactMovie>> compact = moviesById.snapshot();
+        List<LruTtlCache.Snapshot<String, Movie>> movies = new ArrayList<>(compact.size());
+        for (LruTtlCache.Snapshot<String, CompactMovie> s : compact) {
+            movies.add(new LruTtlCache.Snapshot<>(s.key(), s.value().toMovie(), s.remainingTtl()));
+        }
+        return movies;
+    }
+
+    /**
+     * Live title-to-imdbID mappings with their remaining time-to-live.
+     */
+    public List<LruTtlCache.Snapshot<String, String>> titleSnapshot() {
+        return idsByTitle.snapshot();
+    }
+
+    /**
+     * Puts a movie from a snapshot back into memory. Unlike put, nothing is
+     * written to the persistent tier (it already has the movie) and no
+     * MovieFetchedEvent is published.
+     */
+    public void restoreMovie(Movie movie, Duration ttl) {
+        moviesById.put(movie.getImdbID(), compact(movie), ttl);
+    }
+
+    /**
+     * Puts a title mapping from a snapshot back into memory.
+     * @param key Normalized title, as returned by titleSnapshot.
+     */
+    public void restoreTitle(String key, String imdbId, Duration ttl) {
+        idsByTitle.put(key, imdbId, ttl);
+    }
+
+    /**
+     * The in-memory tiers, for exporting their counters as metrics.
+     */
+    public List<LruTtlCache<?, ?>> caches() {
+        return List.of(moviesById, idsByTitle, missingTitles);
+    }
+
+    /**
+     * Number of lookups answered from the persisted tier, and those it could not answer.
+     */
+    public long persistentHits() {
+        return persistentHits.sum();
+    }
+
+    public long persistentMisses() {
+        return persistentMisses.sum();
+    }
+
+    /**
+     * Counters for every tier, keyed by tier name.
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("moviesById", moviesById.stats());
+        stats.put("idsByTitle", idsByTitle.stats());
+        stats.put("missingTitles", missingTitles.stats());
+        stats.put("negativeHits", negativeHits.sum());
+        stats.put("persistentHits", persistentHits.sum());
+        stats.put("persistentMisses", persistentMisses.sum());
+        stats.put("staleHits", staleHits.sum());
+        stats.put("dictionaryEntries", dictionary.size());
+        return stats;
+    }
+
+    /**
+     * Resolves a title key through the persisted title mapping.
+     */
+    private Optional<Movie> loadPersistedByTitle(String key) {
+        Optional<String> imdbId = safely(() -> titleKeyRepo.findById(key).map(MovieTitleKey::getImdbId));
+        if (imdbId.isEmpty()) {
+            persistentMisses.increment();
+            return Optional.empty();
+        }
+        Optional<Movie> movie = loadPersisted(imdbId.get());
+        movie.ifPresent(m -> idsByTitle.put(key, m.getImdbID()));
+        return movie;
+    }
+
+    /**
+     * Reads a movie from the persistent tier and promotes it to memory if still fresh.
+     */
+    private Optional<Movie> loadPersisted(String imdbId) {
+        Optional<CachedMovie> row = safely(() -> movieRepo.findById(imdbId));
+        if (row.isEmpty() || row.get().getFetchedAt().plus(persistentTtl).isBefore(Instant.now())) {
+            persistentMisses.increment();
+            return Optional.empty();
+        }
+        Optional<Movie> movie = readPayload(row.get());
+        if (movie.isEmpty()) {
+            persistentMisses.increment();
+            return Optional.empty();
+        }
+        moviesById.put(imdbId, compact(movie.get()));
+        persistentHits.increment();
+        return movie;
+    }
+
+    /**
+     * Encodes a movie for the in-heap tier. Dictionaries never shrink, so once
+     * the current one is full a new one is started; evicted entries take the
+     * old one with them.
+     */
+    private CompactMovie compact(Movie movie) {
+        MovieDictionary current = dictionary;
+        if (current.size() >= maxDictionaryEntries) {
+            current = new MovieDictionary();
+            dictionary = current;
+        }
+        return CompactMovie.from(movie, current);
+    }
+
+    private Optional<Movie> readPayload(CachedMovie row) {
+        try {
+            return Optional.of(objectMapper.readValue(row.getPayload(), Movie.class));
+        } catch (JsonProcessingException e) {
+            log.warn("Discarding unreadable cached movie {}: {}", row.getImdbId(), e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Runs a repository read, treating database failures as a cache miss.
+     */
+    private <T> Optional<T> safely(Supplier<Optional<T>> read) {
+        try {
+            return read.get();
+        } catch (Exception e) {
+            log.warn("Persistent movie cache unavailable: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+}
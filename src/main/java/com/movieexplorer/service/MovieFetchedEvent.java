@@ -0,0 +1,13 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.service;
+
+import com.movieexplorer.model.Movie;
+
+/**
+ * Application event published whenever a movie is fetched from OMDb,
+ * so other components (e.g. the local catalog) can pick it up.
+ */
+public record MovieFetchedEvent(Movie movie) { }
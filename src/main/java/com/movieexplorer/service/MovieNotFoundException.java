@@ -0,0 +1,17 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.service;
+
+/**
+ * Thrown when OMDb has no movie for a title or imdbID (now, or recently
+ * according to the negative cache). The message is the text shown to the
+ * user, e.g. "Movie not found: Heat".
+ */
+public class MovieNotFoundException extends RuntimeException {
+
+    public MovieNotFoundException(String titleOrId) {
+        super("Movie not found: " + titleOrId);
+    }
+}
@@ -4,14 +4,29 @@
 
 package com.movieexplorer.service;
 
+import com.movieexplorer.cache.SingleFlight;
+import com.movieexplorer.http.UpstreamClient;
 import com.movieexplorer.model.Movie;
+import com.movieexplorer.model.OmdbSearchResult;
+import com.movieexplorer.observability.ErrorMetrics;
+import okhttp3.HttpUrl;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * MovieService interacts with the OMDb API
- * to fetch detailed movie information by title.
+ * to fetch detailed movie information by title,
+ * going through MovieCache to avoid repeated round trips.
+ * Titles the TitleResolver knows exactly (including titles with a year,
+ * like "Inception (2010)") are fetched by imdbID; other titles are queried
+ * by title and year. Only when that misses is the title matched fuzzily,
+ * against known movies and then the entries of an OMDb search.
+ * When OMDb fails (or the resilience layer turns the call away), a stale
+ * copy from the persistent cache is served if there is one.
  */
 @Service
 public class MovieService {
@@ -20,27 +35,215 @@ public class MovieService {
     @Value("${omdb.api.key}")
     private String apiKey;
 
-    // RestTemplate instance to perform HTTP requests
-    private final RestTemplate restTemplate = new RestTemplate();
+    // OMDb base URL (overridable so tests can point at a local stub)
+    @Value("${omdb.api.url:https://www.omdbapi.com/}")
+    private String apiUrl;
+
+    // Shared pooled HTTP client for upstream calls
+    private final UpstreamClient upstreamClient;
+
+    // Two-tier cache in front of OMDb
+    private final MovieCache movieCache;
+
+    // Collapses concurrent lookups of the same title / imdbID into one OMDb call
+    private final SingleFlight<String, Movie> titleLookups = new SingleFlight<>("omdb-title");
+    private final SingleFlight<String, Movie> idLookups = new SingleFlight<>("omdb-id");
+
+    // Counts failed OMDb calls, including those hidden by a stale answer
+    private final ErrorMetrics errorMetrics;
+
+    // Local title -> imdbID resolution (exact, alias and fuzzy)
+    private final TitleResolver titleResolver;
+
+    public MovieService(MovieCache movieCache, UpstreamClient upstreamClient, ErrorMetrics errorMetrics,
+                        TitleResolver titleResolver) {
+        this.movieCache = movieCache;
+        this.upstreamClient = upstreamClient;
+        this.errorMetrics = errorMetrics;
+        this.titleResolver = titleResolver;
+    }
 
     /**
-     * Fetch detailed movie information by its title from OMDb API.
+     * Fetch detailed movie information by its title, from the cache when
+     * possible and otherwise from the OMDb API.
      * @param title The movie title to search for.
      * @return Movie object with detailed info.
-     * @throws RuntimeException if movie is not found or API returns no data.
+     * @throws MovieNotFoundException if OMDb has no such movie.
+     * @throws RuntimeException if OMDb failed and no stale copy is cached.
      */
     public Movie getMovieByTitle(String title) {
-        String url = String.format(
-            "https://www.omdbapi.com/?apikey=%s&t=%s&plot=full",
-            apiKey,
-            title.replace(" ", "+")  // Replace spaces with + for URL encoding
-        );
-        
-        Movie movie = restTemplate.getForObject(url, Movie.class);
-        
+        Optional<Movie> cached = movieCache.findInMemoryByTitle(title);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        return titleLookups.execute(MovieCache.normalizeTitle(title), () -> loadMovieByTitle(title));
+    }
+
+    /**
+     * Fetch a movie by its imdbID, from the cache when possible.
+     * @param imdbId The IMDb identifier (e.g. tt1375666).
+     * @return Movie object with detailed info.
+     * @throws MovieNotFoundException if OMDb has no such movie.
+     * @throws RuntimeException if OMDb failed and no stale copy is cached.
+     */
+    public Movie getMovieByImdbId(String imdbId) {
+        Optional<Movie> cached = movieCache.findByImdbId(imdbId);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        return idLookups.execute(imdbId, () -> loadMovieByImdbId(imdbId));
+    }
+
+    /**
+     * Counters for the in-flight deduplication of OMDb calls.
+     */
+    public List<SingleFlight.Stats> singleFlightStats() {
+        return List.of(titleLookups.stats(), idLookups.stats());
+    }
+
+    /**
+     * Cache-miss path for title lookups, run once per in-flight title.
+     * Titles known to be missing are turned away before the persistent tier is read.
+     */
+    private Movie loadMovieByTitle(String title) {
+        if (movieCache.isKnownMissing(title)) {
+            throw new MovieNotFoundException(title);
+        }
+        Optional<Movie> persisted = movieCache.findPersistedByTitle(title);
+        if (persisted.isPresent()) {
+            return persisted.get();
+        }
+
+        // A title (or spelling) resolved before is fetched by ID, usually from the cache
+        Optional<TitleIndex.Match> known = titleResolver.resolveExact(title);
+        if (known.isPresent()) {
+            Movie movie = getMovieByImdbId(known.get().imdbId());
+            movieCache.putAlias(title, movie.getImdbID());
+            titleResolver.addAlias(title, movie.getImdbID());
+            return movie;
+        }
+
+        Movie movie;
+        try {
+            movie = fetchMovieByTitle(title);
+            if (movie != null) {
+                movieCache.put(title, movie);
+                titleResolver.addAlias(title, movie.getImdbID());
+                return movie;
+            }
+            movie = closestMovie(title);
+        } catch (OmdbUnavailableException e) {
+            errorMetrics.record("omdb", e);
+            return movieCache.findStaleByTitle(title).orElseThrow(() -> e);
+        }
+        if (movie == null) {
+            movieCache.putMissing(title);
+            throw new MovieNotFoundException(title);
+        }
+        return movie;
+    }
+
+    /**
+     * Cache-miss path for imdbID lookups, run once per in-flight ID.
+     */
+    private Movie loadMovieByImdbId(String imdbId) {
+        Movie movie;
+        try {
+            movie = fetch(omdbUrl().addQueryParameter("i", imdbId));
+        } catch (OmdbUnavailableException e) {
+            errorMetrics.record("omdb", e);
+            return movieCache.findStaleByImdbId(imdbId).orElseThrow(() -> e);
+        }
+
         if (movie == null || movie.getImdbID() == null) {
-            throw new RuntimeException("Movie not found: " + title);
+            throw new MovieNotFoundException(imdbId);
         }
+        movieCache.put(movie.getTitle(), movie);
         return movie;
     }
+
+    /**
+     * Query OMDb by title (and year, if the title ends with one), returning
+     * null when OMDb has no such movie.
+     */
+    private Movie fetchMovieByTitle(String title) {
+        TitleIndex.Query query = TitleIndex.Query.parse(title);
+        // Query parameters are percent-encoded by HttpUrl
+        HttpUrl.Builder url = omdbUrl().addQueryParameter("t", query.text());
+        if (query.year() != null) url.addQueryParameter("y", query.year().toString());
+        Movie movie = fetch(url);
+
+        if (movie == null || movie.getImdbID() == null) {
+            return null;
+        }
+        return movie;
+    }
+
+    /**
+     * For a title the title query missed: the known movie it is closest
+     * to, or else the closest entry of an OMDb search (whose entries are
+     * added to the resolver); null if none is close enough. Only an exact
+     * match among the search entries is kept as an alias, so a near miss
+     * never sticks to the requested spelling; a near miss is only remembered
+     * briefly in memory (MovieCache.putGuess).
+     */
+    private Movie closestMovie(String title) {
+        Optional<TitleIndex.Match> match = titleResolver.resolve(title);
+        if (match.isEmpty()) {
+            TitleIndex.Query query = TitleIndex.Query.parse(title);
+            HttpUrl.Builder url = HttpUrl.get(apiUrl).newBuilder()
+                .addQueryParameter("apikey", apiKey)
+                .addQueryParameter("s", query.text());
+            if (query.year() != null) url.addQueryParameter("y", query.year().toString());
+            OmdbSearchResult result;
+            try {
+                result = upstreamClient.getJson("omdb", url.build(), OmdbSearchResult.class);
+            } catch (IOException e) {
+                throw new OmdbUnavailableException(e);
+            }
+            titleResolver.learn(result);
+            match = titleResolver.resolve(title);
+        }
+        if (match.isEmpty()) return null;
+
+        Movie movie = getMovieByImdbId(match.get().imdbId());
+        if (match.get().exact()) {
+            movieCache.putAlias(title, movie.getImdbID());
+            titleResolver.addAlias(title, movie.getImdbID());
+        } else {
+            movieCache.putGuess(title, movie.getImdbID());
+        }
+        return movie;
+    }
+
+    /**
+     * Base OMDb URL with the API key and full plot requested.
+     */
+    private HttpUrl.Builder omdbUrl() {
+        return HttpUrl.get(apiUrl).newBuilder()
+            .addQueryParameter("apikey", apiKey)
+            .addQueryParameter("plot", "full");
+    }
+
+    /**
+     * Calls OMDb, streaming the JSON response straight into a Movie.
+     * @throws OmdbUnavailableException if OMDb could not be reached, failed,
+     *         or the call was turned away by the resilience layer
+     */
+    private Movie fetch(HttpUrl.Builder url) {
+        try {
+            return upstreamClient.getJson("omdb", url.build(), Movie.class);
+        } catch (IOException e) {
+            throw new OmdbUnavailableException(e);
+        }
+    }
+
+    /**
+     * OMDb gave no usable answer; callers fall back to stale cached data.
+     */
+    private static class OmdbUnavailableException extends RuntimeException {
+        OmdbUnavailableException(IOException cause) {
+            super("OMDb request failed: " + cause.getMessage(), cause);
+        }
+    }
 }
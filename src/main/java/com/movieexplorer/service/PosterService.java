@@ -0,0 +1,190 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.service;
+
+import com.movieexplorer.cache.SingleFlight;
+import com.movieexplorer.http.UpstreamClient;
+import com.movieexplorer.http.UpstreamStatusException;
+import com.movieexplorer.model.Movie;
+import com.movieexplorer.observability.ErrorMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.ResponseBody;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Poster images proxied through the application. A movie's poster is
+ * fetched from the image host once, on first request (or, with prefetch
+ * on, as soon as the movie is fetched from OMDb), and then served from the
+ * PosterStore on disk. Only poster URLs OMDb returned are ever fetched,
+ * and only for movies the application has already looked up: a request for
+ * any other imdbID is answered from the movie cache alone and never spends
+ * OMDb quota.
+ */
+@Service
+public class PosterService {
+
+    private static final Logger log = LoggerFactory.getLogger(PosterService.class);
+
+    private final MovieCache movieCache;
+    private final UpstreamClient upstreamClient;
+    private final ErrorMetrics errorMetrics;
+
+    // Runs prefetches off the thread that fetched the movie
+    private final ExecutorService upstreamExecutor;
+
+    private final Path dir;
+    private final long maxBytes;
+    private final int thumbnailWidth;
+
+    // Largest poster accepted from the image host
+    private final long maxPosterBytes;
+
+    // Fetch posters (and make thumbnails) when movies are fetched, before any page asks
+    private final boolean prefetch;
+
+    private PosterStore store;
+
+    // Collapses concurrent fetches of the same poster URL
+    private final SingleFlight<String, Boolean> fetches = new SingleFlight<>("posters");
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public PosterService(MovieCache movieCache, UpstreamClient upstreamClient, ErrorMetrics errorMetrics,
+                         @Qualifier("upstreamExecutor") ExecutorService upstreamExecutor,
+                         @Value("${poster.cache.dir:./data/posters}") String dir,
+                         @Value("${poster.cache.max-bytes:268435456}") long maxBytes,
+                         @Value("${poster.thumbnail.width:160}") int thumbnailWidth,
+                         @Value("${poster.max-poster-bytes:5242880}") long maxPosterBytes,
+                         @Value("${poster.prefetch:false}") boolean prefetch) {
+        this.movieCache = movieCache;
+        this.upstreamClient = upstreamClient;
+        this.errorMetrics = errorMetrics;
+        this.upstreamExecutor = upstreamExecutor;
+        this.dir = Path.of(dir);
+        this.maxBytes = maxBytes;
+        this.thumbnailWidth = thumbnailWidth;
+        this.maxPosterBytes = maxPosterBytes;
+        this.prefetch = prefetch;
+    }
+
+    @PostConstruct
+    void open() throws IOException {
+        store = PosterStore.open(dir, maxBytes, thumbnailWidth);
+    }
+
+    @PreDestroy
+    void close() {
+        try {
+            store.close();
+        } catch (IOException e) {
+            log.warn("Could not write poster index to {}: {}", dir, e.getMessage());
+        }
+    }
+
+    /**
+     * A movie's poster (or its thumbnail), fetched first if it is not stored yet.
+     * @return Empty if the movie has no poster.
+     * @throws MovieNotFoundException if the movie is not in the movie cache.
+     * @throws RuntimeException if the poster could not be fetched.
+     */
+    public Optional<PosterStore.Variant> poster(String imdbId, boolean thumbnail) {
+        Movie movie = movieCache.findByImdbId(imdbId).orElseThrow(() -> new MovieNotFoundException(imdbId));
+        String url = posterUrl(movie);
+        if (url == null) return Optional.empty();
+        Optional<PosterStore.Variant> stored = store.get(url, thumbnail);
+        if (stored.isPresent()) {
+            hits.increment();
+            return stored;
+        }
+        misses.increment();
+        fetches.execute(url, () -> fetch(url));
+        return store.get(url, thumbnail);
+    }
+
+    /**
+     * Fetches the poster of a newly fetched movie in the background, if prefetch is on.
+     */
+    @EventListener
+    public void onMovieFetched(MovieFetchedEvent event) {
+        String url = posterUrl(event.movie());
+        if (!prefetch || url == null || store.get(url, false).isPresent()) return;
+        upstreamExecutor.execute(() -> {
+            try {
+                fetches.execute(url, () -> fetch(url));
+            } catch (RuntimeException e) {
+                errorMetrics.record("poster.prefetch", e);
+            }
+        });
+    }
+
+    /**
+     * Store size and how poster requests were answered.
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>(store.stats());
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("fetches", fetches.stats());
+        return stats;
+    }
+
+    /**
+     * Downloads a poster into the store.
+     */
+    private Boolean fetch(String url) {
+        Request request = new Request.Builder().url(url).get().build();
+        try {
+            return upstreamClient.execute("posters", request, response -> {
+                if (!response.isSuccessful()) {
+                    throw new UpstreamStatusException("posters", response.code());
+                }
+                ResponseBody body = response.body();
+                MediaType type = body.contentType();
+                if (type == null || !"image".equals(type.type())) {
+                    throw new IOException("Poster is not an image: " + type);
+                }
+                byte[] content;
+                try (InputStream in = body.byteStream()) {
+                    content = in.readNBytes((int) Math.min(Integer.MAX_VALUE - 8, maxPosterBytes + 1));
+                }
+                if (content.length > maxPosterBytes) {
+                    throw new IOException("Poster larger than " + maxPosterBytes + " bytes");
+                }
+                store.put(url, content, type.type() + "/" + type.subtype(), false);
+                return Boolean.TRUE;
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Poster fetch failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * The movie's poster URL if it has a usable one.
+     */
+    private static String posterUrl(Movie movie) {
+        String url = movie.getPoster();
+        if (url == null || !(url.startsWith("https://") || url.startsWith("http://"))) return null;
+        return url;
+    }
+}
@@ -0,0 +1,296 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed disk cache of poster images. Each image is stored once
+ * under the SHA-256 of its bytes (dir/ab/abcd...), however many poster URLs
+ * lead to it, next to a downscaled JPEG thumbnail made when it is stored.
+ * The bytes on disk are bounded by maxBytes: the least recently served
+ * images are deleted first. The URL-to-image index is kept in memory and
+ * written to dir/index.json on close; at open, files the index does not
+ * name are deleted.
+ * A file can be deleted by eviction while it is being sent; on POSIX
+ * systems an already open file stays readable, so that only costs a
+ * failed response when eviction runs between a lookup and the open.
+ */
+public final class PosterStore implements AutoCloseable {
+
+    /**
+     * A stored file ready to be served.
+     * @param etag Stable tag of the bytes (content hash, plus "-thumb" for a thumbnail), unquoted.
+     */
+    public record Variant(Path path, String contentType, long size, String etag) { }
+
+    // What is kept about each image; thumbnailSize is 0 when there is no thumbnail
+    private record Entry(String hash, String contentType, long size, long thumbnailSize, Set<String> urls) {
+
+        long diskBytes() {
+            return size + thumbnailSize;
+        }
+    }
+
+    // Persisted form of an Entry
+    private record IndexEntry(String hash, String contentType, long size, long thumbnailSize, List<String> urls) { }
+
+    private static final String INDEX_FILE = "index.json";
+    private static final String THUMBNAIL_SUFFIX = "-thumb";
+
+    private final Path dir;
+    private final long maxBytes;
+
+    // Thumbnail width in pixels; 0 disables thumbnails
+    private final int thumbnailWidth;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // Images by hash, least recently served first
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, String> hashByUrl = new HashMap<>();
+    private long diskBytes;
+    private long evictions;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private PosterStore(Path dir, long maxBytes, int thumbnailWidth) {
+        this.dir = dir;
+        this.maxBytes = maxBytes;
+        this.thumbnailWidth = thumbnailWidth;
+    }
+
+    /**
+     * Opens (or creates) the store in a directory, reading its index.
+     */
+    public static PosterStore open(Path dir, long maxBytes, int thumbnailWidth) throws IOException {
+        PosterStore store = new PosterStore(dir, maxBytes, thumbnailWidth);
+        Files.createDirectories(dir);
+        store.load();
+        return store;
+    }
+
+    /**
+     * The stored poster for a URL, counting as a use for eviction.
+     * @param thumbnail The thumbnail if there is one, otherwise the image itself.
+     */
+    public Optional<Variant> get(String url, boolean thumbnail) {
+        lock.lock();
+        try {
+            String hash = hashByUrl.get(url);
+            Entry entry = hash == null ? null : entries.get(hash);
+            return Optional.ofNullable(entry).map(e -> variant(e, thumbnail));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stores a poster fetched from a URL. Bytes already stored under another
+     * URL are not written again. Older images are evicted if the store has
+     * grown past maxBytes; the new one is always kept.
+     */
+    public Variant put(String url, byte[] content, String contentType, boolean thumbnail) throws IOException {
+        String hash = HexFormat.of().formatHex(sha256().digest(content));
+        lock.lock();
+        try {
+            Entry existing = entries.get(hash);
+            if (existing != null) {
+                existing.urls().add(url);
+                hashByUrl.put(url, hash);
+                return variant(existing, thumbnail);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        // Written outside the lock; the same bytes written twice land in the same files
+        Path file = fileOf(hash, false);
+        Files.createDirectories(file.getParent());
+        writeAtomically(file, content);
+        byte[] thumb = thumbnail(content);
+        if (thumb != null) writeAtomically(fileOf(hash, true), thumb);
+
+        lock.lock();
+        try {
+            Entry entry = entries.get(hash);
+            if (entry == null) {
+                entry = new Entry(hash, contentType, content.length, thumb == null ? 0 : thumb.length, new HashSet<>());
+                entries.put(hash, entry);
+                diskBytes += entry.diskBytes();
+            }
+            entry.urls().add(url);
+            hashByUrl.put(url, hash);
+            evict(hash);
+            return variant(entry, thumbnail);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Images, URLs and bytes stored, and evictions so far.
+     */
+    public Map<String, Object> stats() {
+        lock.lock();
+        try {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("images", entries.size());
+            stats.put("urls", hashByUrl.size());
+            stats.put("diskBytes", diskBytes);
+            stats.put("maxBytes", maxBytes);
+            stats.put("evictions", evictions);
+            return stats;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes the index, so stored posters are found again after a restart.
+     */
+    @Override
+    public void close() throws IOException {
+        List<IndexEntry> index = new ArrayList<>();
+        lock.lock();
+        try {
+            for (Entry entry : entries.values()) {
+                index.add(new IndexEntry(entry.hash(), entry.contentType(), entry.size(), entry.thumbnailSize(),
+                    List.copyOf(entry.urls())));
+            }
+        } finally {
+            lock.unlock();
+        }
+        Path tmp = dir.resolve(INDEX_FILE + ".tmp");
+        objectMapper.writeValue(tmp.toFile(), index);
+        Files.move(tmp, dir.resolve(INDEX_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Variant variant(Entry entry, boolean thumbnail) {
+        if (thumbnail && entry.thumbnailSize() > 0) {
+            return new Variant(fileOf(entry.hash(), true), "image/jpeg", entry.thumbnailSize(),
+                entry.hash() + THUMBNAIL_SUFFIX);
+        }
+        return new Variant(fileOf(entry.hash(), false), entry.contentType(), entry.size(), entry.hash());
+    }
+
+    /**
+     * Deletes least recently served images until the store fits, sparing the one just added.
+     */
+    private void evict(String keep) {
+        Iterator<Entry> oldest = entries.values().iterator();
+        while (diskBytes > maxBytes && oldest.hasNext()) {
+            Entry entry = oldest.next();
+            if (entry.hash().equals(keep)) continue;
+            oldest.remove();
+            diskBytes -= entry.diskBytes();
+            evictions++;
+            for (String url : entry.urls()) hashByUrl.remove(url, entry.hash());
+            try {
+                Files.deleteIfExists(fileOf(entry.hash(), false));
+                Files.deleteIfExists(fileOf(entry.hash(), true));
+            } catch (IOException e) {
+                // Left for the orphan sweep at the next open
+            }
+        }
+    }
+
+    /**
+     * Reads the index, keeping entries whose files exist, and deletes files it does not name.
+     */
+    private void load() throws IOException {
+        Path indexFile = dir.resolve(INDEX_FILE);
+        if (Files.exists(indexFile)) {
+            List<IndexEntry> index = objectMapper.readValue(indexFile.toFile(), new TypeReference<>() { });
+            for (IndexEntry stored : index) {
+                if (!Files.exists(fileOf(stored.hash(), false))) continue;
+                long thumbnailSize = Files.exists(fileOf(stored.hash(), true)) ? stored.thumbnailSize() : 0;
+                Entry entry = new Entry(stored.hash(), stored.contentType(), stored.size(), thumbnailSize,
+                    new HashSet<>(stored.urls()));
+                entries.put(entry.hash(), entry);
+                diskBytes += entry.diskBytes();
+                for (String url : entry.urls()) hashByUrl.put(url, entry.hash());
+            }
+        }
+        try (Stream<Path> files = Files.walk(dir, 2)) {
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                if (file.getParent().equals(dir)) continue; // Index
+                String name = file.getFileName().toString();
+                String hash = name.endsWith(THUMBNAIL_SUFFIX) ? name.substring(0, name.length() - THUMBNAIL_SUFFIX.length()) : name;
+                if (!entries.containsKey(hash)) Files.deleteIfExists(file);
+            }
+        }
+        evict(null);
+    }
+
+    private Path fileOf(String hash, boolean thumbnail) {
+        return dir.resolve(hash.substring(0, 2)).resolve(thumbnail ? hash + THUMBNAIL_SUFFIX : hash);
+    }
+
+    /**
+     * A JPEG thumbnailWidth pixels wide, or null if thumbnails are off, the
+     * image cannot be decoded or it is no wider than that already.
+     */
+    private byte[] thumbnail(byte[] content) throws IOException {
+        if (thumbnailWidth <= 0) return null;
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(content));
+        if (image == null || image.getWidth() <= thumbnailWidth) return null;
+        int height = Math.max(1, Math.round((float) image.getHeight() * thumbnailWidth / image.getWidth()));
+        BufferedImage scaled = new BufferedImage(thumbnailWidth, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            // Area averaging is slow but sharp; it runs once per image
+            graphics.drawImage(image.getScaledInstance(thumbnailWidth, height, Image.SCALE_AREA_AVERAGING), 0, 0, null);
+        } finally {
+            graphics.dispose();
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(scaled, "jpg", out);
+        return out.toByteArray();
+    }
+
+    private static void writeAtomically(Path file, byte[] content) throws IOException {
+        Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            Files.write(tmp, content);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // Every JVM has SHA-256
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.service;
+
+import com.movieexplorer.http.ReactiveUpstreamClient;
+import com.movieexplorer.http.UpstreamStatusException;
+import com.movieexplorer.observability.ErrorMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking counterpart of GeminiService for the reactive API. Prompts,
+ * the wire format and the response cache are shared with GeminiService,
+ * so an answer fetched through either API serves both. Unlike the blocking
+ * service, a failed call with no stale answer to fall back on fails the
+ * Mono with a GeminiException instead of returning the error text.
+ */
+@Service
+public class ReactiveGeminiService {
+
+    @Value("${gemini.api.url:https://generativelanguage.googleapis.com/v1beta/models/gemini-2.0-flash:generateContent}")
+    private String apiUrl;
+
+    @Value("${gemini.api.key}")
+    private String apiKey;
+
+    private final ReactiveUpstreamClient upstreamClient;
+    private final GeminiResponseCache responseCache;
+    private final GeminiService prompts;
+    private final ErrorMetrics errorMetrics;
+
+    // Calls in progress by cache key; later subscribers join the first
+    private final ConcurrentHashMap<String, Mono<String>> inFlight = new ConcurrentHashMap<>();
+
+    public ReactiveGeminiService(ReactiveUpstreamClient upstreamClient, GeminiResponseCache responseCache,
+                                 GeminiService prompts, ErrorMetrics errorMetrics) {
+        this.upstreamClient = upstreamClient;
+        this.responseCache = responseCache;
+        this.prompts = prompts;
+        this.errorMetrics = errorMetrics;
+    }
+
+    /**
+     * Recommended titles, one per line (see GeminiService.getFilteredRecommendations).
+     */
+    public Mono<String> getFilteredRecommendations(String movieTitle, List<String> genres, List<String> moods) {
+        String key = GeminiResponseCache.recommendationKey(movieTitle, genres, moods);
+        return cachedCall(key, () -> generate(prompts.buildRecommendationPrompt(movieTitle, genres, moods))
+            .map(prompts::extractCleanTitles));
+    }
+
+    /**
+     * Answer to a natural language question.
+     */
+    public Mono<String> processNaturalLanguageQuery(String query) {
+        return cachedCall(GeminiResponseCache.queryKey(query), () -> generate(prompts.buildQueryPrompt(query)));
+    }
+
+    /**
+     * Pros/cons comparison of two movies.
+     */
+    public Mono<String> compareMovies(String movie1, String movie2) {
+        return cachedCall(GeminiResponseCache.comparisonKey(movie1, movie2),
+            () -> generate(prompts.buildComparisonPrompt(movie1, movie2)));
+    }
+
+    /**
+     * Serves an answer from the cache, or makes the call once for all
+     * concurrent subscribers and caches the result; falls back to an
+     * expired answer if the call fails.
+     */
+    private Mono<String> cachedCall(String key, Supplier<Mono<String>> call) {
+        String cached = responseCache.get(key);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return Mono.defer(() -> inFlight.computeIfAbsent(key, k -> call.get()
+                .doOnNext(response -> responseCache.put(k, response))
+                .onErrorResume(e -> {
+                    errorMetrics.record("gemini.reactive", e);
+                    String stale = responseCache.getStale(k);
+                    return stale != null ? Mono.just(stale) : Mono.error(e);
+                })
+                .doFinally(signal -> inFlight.remove(k))
+                .cache()));
+    }
+
+    private Mono<String> generate(String prompt) {
+        return upstreamClient.postJson("gemini", URI.create(apiUrl + "?key=" + apiKey),
+                GeminiCodec.requestBytes(prompt), body -> {
+                    String text = GeminiCodec.readText(new ByteArrayInputStream(body));
+                    if (text == null) throw new GeminiException("No response found");
+                    return text;
+                })
+            .onErrorMap(e -> !(e instanceof GeminiException), e -> e instanceof UpstreamStatusException status
+                ? new GeminiException("API Error: " + status.getStatus(), e)
+                : new GeminiException("Error: " + e.getMessage(), e));
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.service;
+
+import com.movieexplorer.http.ReactiveUpstreamClient;
+import com.movieexplorer.model.Movie;
+import com.movieexplorer.model.OmdbSearchResult;
+import com.movieexplorer.observability.ErrorMetrics;
+import okhttp3.HttpUrl;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Non-blocking counterpart of MovieService for the reactive API, sharing
+ * its MovieCache. The in-memory tier is read on the calling thread; the
+ * persistent tier (JDBC) is only touched on the bounded elastic scheduler.
+ * Concurrent lookups of the same title share one OMDb call, and when OMDb
+ * fails a stale copy is served if there is one. Titles are resolved as in
+ * MovieService: exact TitleResolver matches first, then by title and year,
+ * and only then fuzzily against known movies and an OMDb search.
+ */
+@Service
+public class ReactiveMovieService {
+
+    @Value("${omdb.api.key}")
+    private String apiKey;
+
+    @Value("${omdb.api.url:https://www.omdbapi.com/}")
+    private String apiUrl;
+
+    private final MovieCache movieCache;
+    private final ReactiveUpstreamClient upstreamClient;
+    private final ErrorMetrics errorMetrics;
+    private final TitleResolver titleResolver;
+
+    // Lookups in progress by normalized title; later subscribers join the first
+    private final ConcurrentHashMap<String, Mono<Movie>> inFlight = new ConcurrentHashMap<>();
+
+    public ReactiveMovieService(MovieCache movieCache, ReactiveUpstreamClient upstreamClient,
+                                ErrorMetrics errorMetrics, TitleResolver titleResolver) {
+        this.movieCache = movieCache;
+        this.upstreamClient = upstreamClient;
+        this.errorMetrics = errorMetrics;
+        this.titleResolver = titleResolver;
+    }
+
+    /**
+     * Movie by title, from the cache when possible and otherwise from OMDb.
+     * Fails with MovieNotFoundException if OMDb has no such movie.
+     */
+    public Mono<Movie> getMovieByTitle(String title) {
+        Optional<Movie> cached = movieCache.findInMemoryByTitle(title);
+        if (cached.isPresent()) {
+            return Mono.just(cached.get());
+        }
+        String key = MovieCache.normalizeTitle(title);
+        return Mono.defer(() -> inFlight.computeIfAbsent(key, k -> load(title)
+            .doFinally(signal -> inFlight.remove(k))
+            .cache()));
+    }
+
+    /**
+     * Cache-miss path: persistent tier, then OMDb, then a stale copy if OMDb failed.
+     */
+    private Mono<Movie> load(String title) {
+        return blocking(() -> {
+                if (movieCache.isKnownMissing(title)) throw new MovieNotFoundException(title);
+                return movieCache.findPersistedByTitle(title);
+            })
+            .flatMap(persisted -> persisted.map(Mono::just).orElseGet(() -> fetch(title)));
+    }
+
+    private Mono<Movie> fetch(String title) {
+        Optional<TitleIndex.Match> known = titleResolver.resolveExact(title);
+        Mono<Movie> found = known.isPresent()
+            ? fetchById(known.get().imdbId()).flatMap(movie -> alias(title, movie))
+            : get(byTitle(title))
+                .flatMap(movie -> blocking(() -> {
+                    movieCache.put(title, movie);
+                    titleResolver.addAlias(title, movie.getImdbID());
+                    return movie;
+                }))
+                .switchIfEmpty(Mono.defer(() -> closestMovie(title)));
+        return found
+            .switchIfEmpty(blocking(() -> {
+                movieCache.putMissing(title);
+                throw new MovieNotFoundException(title);
+            }))
+            .onErrorResume(e -> !(e instanceof MovieNotFoundException), e -> {
+                errorMetrics.record("omdb.reactive", e);
+                return blocking(() -> movieCache.findStaleByTitle(title))
+                    .flatMap(stale -> stale.map(Mono::just).orElseGet(() ->
+                        Mono.error(new RuntimeException("OMDb request failed: " + e.getMessage(), e))));
+            });
+    }
+
+    /**
+     * Movie by imdbID from the cache, or fetched (and cached) by ID.
+     */
+    private Mono<Movie> fetchById(String imdbId) {
+        return blocking(() -> movieCache.findByImdbId(imdbId))
+            .flatMap(cached -> cached.map(Mono::just).orElseGet(() -> get(omdbUrl().addQueryParameter("i", imdbId))
+                .flatMap(movie -> blocking(() -> {
+                    movieCache.put(movie.getTitle(), movie);
+                    return movie;
+                }))));
+    }
+
+    /**
+     * OMDb title query for a title, with its year if it names one.
+     */
+    private HttpUrl.Builder byTitle(String title) {
+        TitleIndex.Query query = TitleIndex.Query.parse(title);
+        HttpUrl.Builder url = omdbUrl().addQueryParameter("t", query.text());
+        if (query.year() != null) url.addQueryParameter("y", query.year().toString());
+        return url;
+    }
+
+    /**
+     * For a title the title query missed, as in MovieService: the closest
+     * known movie, or else the closest entry of an OMDb search; empty if
+     * none is close enough. Only exact matches are kept as aliases; near
+     * misses are remembered briefly in memory.
+     */
+    private Mono<Movie> closestMovie(String title) {
+        TitleIndex.Query query = TitleIndex.Query.parse(title);
+        HttpUrl.Builder bySearch = HttpUrl.get(apiUrl).newBuilder()
+            .addQueryParameter("apikey", apiKey)
+            .addQueryParameter("s", query.text());
+        if (query.year() != null) bySearch.addQueryParameter("y", query.year().toString());
+        Mono<TitleIndex.Match> match = Mono.justOrEmpty(titleResolver.resolve(title))
+            .switchIfEmpty(Mono.defer(() ->
+                upstreamClient.getJson("omdb", bySearch.build().uri(), OmdbSearchResult.class)
+                    .flatMap(result -> {
+                        titleResolver.learn(result);
+                        return Mono.justOrEmpty(titleResolver.resolve(title));
+                    })));
+        return match.flatMap(m -> fetchById(m.imdbId())
+            .flatMap(movie -> {
+                if (m.exact()) return alias(title, movie);
+                movieCache.putGuess(title, movie.getImdbID());
+                return Mono.just(movie);
+            }));
+    }
+
+    /**
+     * Records the title as another spelling of the movie.
+     */
+    private Mono<Movie> alias(String title, Movie movie) {
+        return blocking(() -> {
+            movieCache.putAlias(title, movie.getImdbID());
+            titleResolver.addAlias(title, movie.getImdbID());
+            return movie;
+        });
+    }
+
+    /**
+     * One OMDb movie request; empty if OMDb has no such movie.
+     */
+    private Mono<Movie> get(HttpUrl.Builder url) {
+        return upstreamClient.getJson("omdb", url.build().uri(), Movie.class)
+            .filter(movie -> movie.getImdbID() != null);
+    }
+
+    private HttpUrl.Builder omdbUrl() {
+        return HttpUrl.get(apiUrl).newBuilder()
+            .addQueryParameter("apikey", apiKey)
+            .addQueryParameter("plot", "full");
+    }
+
+    /**
+     * Runs cache work that may block on JDBC off the event loop.
+     */
+    private static <T> Mono<T> blocking(Callable<T> work) {
+        return Mono.fromCallable(work).subscribeOn(Schedulers.boundedElastic());
+    }
+}
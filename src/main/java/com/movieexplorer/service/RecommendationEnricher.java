@@ -0,0 +1,109 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.service;
+
+import com.movieexplorer.model.Movie;
+import com.movieexplorer.observability.ErrorMetrics;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Resolves recommended titles to full Movie objects (poster, rating, ...)
+ * in one server-side parallel stage. Lookups go through MovieService, so
+ * cached movies cost nothing; at most maxParallel titles are fetched from
+ * OMDb at once, and whatever has resolved when the batch deadline passes
+ * is returned. Lookups past the deadline are abandoned, not interrupted.
+ * Lookups run under the caller's observation, and titles that could not be
+ * resolved are counted as errors.
+ */
+@Service
+public class RecommendationEnricher {
+
+    private final MovieService movieService;
+    private final ExecutorService executor;
+
+    // Maximum OMDb lookups running at the same time for one batch
+    private final int maxParallel;
+
+    // Time budget for the whole batch
+    private final long deadlineMs;
+
+    private final ObservationRegistry observationRegistry;
+    private final ErrorMetrics errorMetrics;
+
+    public RecommendationEnricher(MovieService movieService,
+                                  @Qualifier("upstreamExecutor") ExecutorService executor,
+                                  @Value("${recommend.enrich.max-parallel:4}") int maxParallel,
+                                  @Value("${recommend.enrich.deadline-ms:3000}") long deadlineMs,
+                                  ObservationRegistry observationRegistry,
+                                  ErrorMetrics errorMetrics) {
+        this.movieService = movieService;
+        this.executor = executor;
+        this.maxParallel = maxParallel;
+        this.deadlineMs = deadlineMs;
+        this.observationRegistry = observationRegistry;
+        this.errorMetrics = errorMetrics;
+    }
+
+    /**
+     * Looks up each title concurrently.
+     * @param titles Recommended titles, in display order.
+     * @return Title to Movie, in input order, containing only titles that
+     *         resolved before the deadline.
+     */
+    public Map<String, Movie> enrich(List<String> titles) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+        Semaphore permits = new Semaphore(maxParallel);
+        List<Future<Movie>> lookups = new ArrayList<>(titles.size());
+        Observation parent = observationRegistry.getCurrentObservation();
+        for (String title : titles) {
+            lookups.add(executor.submit(() -> {
+                // A lookup still queued at the deadline is not started at all
+                if (!permits.tryAcquire(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                    return null;
+                }
+                try (Observation.Scope scope = parent == null ? null : parent.openScope()) {
+                    return movieService.getMovieByTitle(title);
+                } finally {
+                    permits.release();
+                }
+            }));
+        }
+
+        Map<String, Movie> movies = new LinkedHashMap<>();
+        for (int i = 0; i < titles.size(); i++) {
+            Future<Movie> lookup = lookups.get(i);
+            try {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                Movie movie = lookup.get(remaining, TimeUnit.NANOSECONDS);
+                if (movie != null) movies.put(titles.get(i), movie);
+            } catch (TimeoutException | ExecutionException e) {
+                // Unresolved or not found: leave it out, the title is still shown
+                errorMetrics.record("recommend.enrich", e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        // Lookups still running are left to finish, not interrupted: each may be the
+        // SingleFlight leader for a title other requests are waiting on
+        lookups.forEach(lookup -> lookup.cancel(false));
+        return movies;
+    }
+}
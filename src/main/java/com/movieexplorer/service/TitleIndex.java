@@ -0,0 +1,327 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory index resolving user-entered titles to imdbIDs without OMDb.
+ * Titles are reduced to keys that ignore case, accents, punctuation, '&'
+ * versus "and" and a leading article, so "Amélie" and "amelie", or "The
+ * Matrix" and "matrix", share a key. Besides each movie's own title, any
+ * spelling that once resolved to it is kept as an alias key. A title in the
+ * form "Inception (2010)" is looked up by its text and must match the year
+ * (give or take one, as release years differ between sources), which also
+ * tells remakes apart.
+ * Titles with no key match are matched fuzzily: the Dice coefficient of
+ * their character trigrams against every movie sharing a trigram, found
+ * through a trigram posting list. A fuzzy match must reach minSimilarity,
+ * be of about the same length and contain the same numbers, so neither
+ * "Heat 2" nor "The Dark Knight Rises" resolves to its predecessor. A
+ * fuzzy match is only a guess ("Aliens" is close to "Alien"), so callers
+ * ask OMDb by title before trusting one.
+ * Reads share a read lock; adding takes the write lock.
+ */
+public final class TitleIndex {
+
+    /**
+     * A title split into its key and the year it named, if any.
+     */
+    public record Query(String text, String key, Integer year) {
+
+        // Trailing "(2010)" or "[2010]"
+        private static final Pattern YEAR_SUFFIX = Pattern.compile("^(.*\\S)\\s*[(\\[]((?:18|19|20)\\d{2})[)\\]]\\s*$");
+
+        public static Query parse(String title) {
+            String text = title == null ? "" : title.trim();
+            Integer year = null;
+            Matcher m = YEAR_SUFFIX.matcher(text);
+            if (m.matches()) {
+                text = m.group(1);
+                year = Integer.parseInt(m.group(2));
+            }
+            return new Query(text, keyOf(text), year);
+        }
+    }
+
+    /**
+     * A resolved title.
+     * @param similarity 1 for a key match, otherwise the trigram similarity.
+     */
+    public record Match(String imdbId, String title, Integer year, double similarity) {
+
+        public boolean exact() {
+            return similarity >= 1.0;
+        }
+    }
+
+    // Shortest key matched fuzzily; shorter keys have too few trigrams to compare
+    private static final int MIN_FUZZY_LENGTH = 4;
+
+    // Largest length difference of a fuzzy match, as a fraction of the longer key
+    private static final double MAX_LENGTH_DIFFERENCE = 0.25;
+
+    private static final Set<String> ARTICLES = Set.of("the", "a", "an");
+
+    // A movie's own title and year; title/year are null for alias-only entries
+    private record Entry(String imdbId, String title, String key, Integer year, int trigramCount) { }
+
+    private final double minSimilarity;
+
+    // Entries by doc id, and doc ids by imdbID
+    private final List<Entry> entries = new ArrayList<>();
+    private final Map<String, Integer> docIdsByImdbId = new HashMap<>();
+
+    // Title and alias keys -> doc ids, in the order they were added
+    private final Map<String, Set<Integer>> docIdsByKey = new HashMap<>();
+
+    // Trigram -> doc ids whose title contains it
+    private final Map<String, List<Integer>> postings = new HashMap<>();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public TitleIndex(double minSimilarity) {
+        this.minSimilarity = minSimilarity;
+    }
+
+    /**
+     * Adds (or completes) a movie under its own title.
+     * @param year OMDb year string, e.g. "2010" or "2008–2013"; may be null.
+     */
+    public void add(String title, String year, String imdbId) {
+        if (title == null || imdbId == null) return;
+        String key = keyOf(title);
+        if (key.isEmpty()) return;
+        lock.writeLock().lock();
+        try {
+            Integer docId = docIdsByImdbId.get(imdbId);
+            if (docId != null && entries.get(docId).title() != null) return;
+            List<String> trigrams = trigrams(key);
+            Entry entry = new Entry(imdbId, title, key, parseYear(year), trigrams.size());
+            if (docId == null) {
+                docId = entries.size();
+                entries.add(entry);
+                docIdsByImdbId.put(imdbId, docId);
+            } else {
+                entries.set(docId, entry);
+            }
+            docIdsByKey.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(docId);
+            for (String trigram : trigrams) {
+                postings.computeIfAbsent(trigram, t -> new ArrayList<>(2)).add(docId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Records another spelling that resolved to a movie. Only exact lookups
+     * use aliases. A year suffix in the alias is ignored.
+     */
+    public void addAlias(String title, String imdbId) {
+        if (title == null || imdbId == null) return;
+        String key = Query.parse(title).key();
+        if (key.isEmpty()) return;
+        lock.writeLock().lock();
+        try {
+            Integer docId = docIdsByImdbId.get(imdbId);
+            if (docId == null) {
+                docId = entries.size();
+                entries.add(new Entry(imdbId, null, null, null, 0));
+                docIdsByImdbId.put(imdbId, docId);
+            }
+            docIdsByKey.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(docId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Resolves a title: by key first, then fuzzily.
+     */
+    public Optional<Match> resolve(String title) {
+        Query query = Query.parse(title);
+        if (query.key().isEmpty()) return Optional.empty();
+        lock.readLock().lock();
+        try {
+            Optional<Match> exact = byKey(query);
+            return exact.isPresent() ? exact : fuzzy(query);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Resolves a title by its key only: its own title or a known alias.
+     */
+    public Optional<Match> resolveExact(String title) {
+        Query query = Query.parse(title);
+        if (query.key().isEmpty()) return Optional.empty();
+        lock.readLock().lock();
+        try {
+            return byKey(query);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int keyCount() {
+        lock.readLock().lock();
+        try {
+            return docIdsByKey.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reduces a title to its lookup key: accents stripped, case folded, '&'
+     * spelled "and", punctuation dropped and a leading article removed.
+     */
+    public static String keyOf(String title) {
+        if (title == null) return "";
+        String folded = Normalizer.normalize(title, Normalizer.Form.NFD)
+            .replaceAll("\\p{M}+", "")
+            .toLowerCase(Locale.ROOT)
+            .replace("&", " and ");
+        List<String> words = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i <= folded.length(); i++) {
+            char c = i < folded.length() ? folded.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                word.append(c);
+            } else if (c == '\'' || c == '’') {
+                // "Schindler's" -> "schindlers"
+            } else if (!word.isEmpty()) {
+                words.add(word.toString());
+                word.setLength(0);
+            }
+        }
+        if (words.size() > 1 && ARTICLES.contains(words.get(0))) words.remove(0);
+        return String.join(" ", words);
+    }
+
+    /**
+     * First year in an OMDb year string ("2010", "2008–2013"), or null.
+     */
+    static Integer parseYear(String year) {
+        if (year == null || year.length() < 4) return null;
+        for (int i = 0; i < 4; i++) {
+            if (!Character.isDigit(year.charAt(i))) return null;
+        }
+        return Integer.parseInt(year.substring(0, 4));
+    }
+
+    private Optional<Match> byKey(Query query) {
+        Set<Integer> docIds = docIdsByKey.get(query.key());
+        if (docIds == null) return Optional.empty();
+        Entry best = null;
+        int bestDistance = Integer.MAX_VALUE;
+        for (int docId : docIds) {
+            Entry entry = entries.get(docId);
+            int distance = yearDistance(query.year(), entry.year());
+            // Keep the first entry added among equally good ones
+            if (distance <= 1 && distance < bestDistance) {
+                best = entry;
+                bestDistance = distance;
+            }
+        }
+        return Optional.ofNullable(best).map(e -> new Match(e.imdbId(), e.title(), e.year(), 1.0));
+    }
+
+    private Optional<Match> fuzzy(Query query) {
+        if (query.key().length() < MIN_FUZZY_LENGTH) return Optional.empty();
+        List<String> trigrams = trigrams(query.key());
+        Map<Integer, Integer> shared = new HashMap<>();
+        for (String trigram : trigrams) {
+            List<Integer> docIds = postings.get(trigram);
+            if (docIds == null) continue;
+            for (int docId : docIds) shared.merge(docId, 1, Integer::sum);
+        }
+        String numbers = numbersOf(query.key());
+        Entry best = null;
+        int bestDocId = Integer.MAX_VALUE;
+        double bestScore = 0;
+        int bestDistance = Integer.MAX_VALUE;
+        for (Map.Entry<Integer, Integer> candidate : shared.entrySet()) {
+            int docId = candidate.getKey();
+            Entry entry = entries.get(docId);
+            double dice = 2.0 * candidate.getValue() / (trigrams.size() + entry.trigramCount());
+            int distance = yearDistance(query.year(), entry.year());
+            if (dice < minSimilarity || distance > 1 || !similarLength(query.key(), entry.key())
+                || !numbers.equals(numbersOf(entry.key()))) continue;
+            // Highest similarity, then closest year, then the first entry added
+            boolean better = dice != bestScore ? dice > bestScore
+                : distance != bestDistance ? distance < bestDistance
+                : docId < bestDocId;
+            if (better) {
+                best = entry;
+                bestDocId = docId;
+                bestScore = dice;
+                bestDistance = distance;
+            }
+        }
+        if (best == null) return Optional.empty();
+        return Optional.of(new Match(best.imdbId(), best.title(), best.year(), Math.min(bestScore, 0.999)));
+    }
+
+    private static boolean similarLength(String a, String b) {
+        return Math.abs(a.length() - b.length()) <= MAX_LENGTH_DIFFERENCE * Math.max(a.length(), b.length());
+    }
+
+    /**
+     * 0 if either year is unknown, otherwise how far apart they are.
+     */
+    private static int yearDistance(Integer wanted, Integer actual) {
+        if (wanted == null || actual == null) return 0;
+        return Math.abs(wanted - actual);
+    }
+
+    /**
+     * Trigrams of a key padded with two leading and one trailing space, so
+     * the start of a title weighs more than the end. Repeats are kept once.
+     */
+    static List<String> trigrams(String key) {
+        String padded = "  " + key + " ";
+        Set<String> trigrams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return new ArrayList<>(trigrams);
+    }
+
+    /**
+     * The numbers in a key, in order ("rocky 2" -> "2").
+     */
+    private static String numbersOf(String key) {
+        StringBuilder numbers = new StringBuilder();
+        for (String word : key.split(" ")) {
+            if (!word.isEmpty() && word.chars().allMatch(Character::isDigit)) {
+                numbers.append(word).append(' ');
+            }
+        }
+        return numbers.toString();
+    }
+}
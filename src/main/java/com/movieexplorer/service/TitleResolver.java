@@ -0,0 +1,169 @@
+/*
+ * Created by Vraj Contractor
+ */
+
+package com.movieexplorer.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.movieexplorer.model.CachedMovie;
+import com.movieexplorer.model.Movie;
+import com.movieexplorer.model.MovieTitleKey;
+import com.movieexplorer.model.OmdbSearchResult;
+import com.movieexplorer.repository.CachedMovieRepository;
+import com.movieexplorer.repository.MovieTitleKeyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Resolves titles to imdbIDs through a TitleIndex, so a title seen before
+ * is fetched by ID or served from the cache instead of costing an OMDb
+ * title query. Spellings that are only close to a known title are tried
+ * after OMDb's title query misses.
+ * The index is built from the persisted movie store and title keys at
+ * startup, grows with every movie fetched, with the spellings that
+ * resolved to one, and with the entries of OMDb searches.
+ */
+@Component
+public class TitleResolver {
+
+    private static final Logger log = LoggerFactory.getLogger(TitleResolver.class);
+
+    private final TitleIndex index;
+    private final CachedMovieRepository movieRepo;
+    private final MovieTitleKeyRepository titleKeyRepo;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // Rows read per query while loading the index
+    private final int loadPageSize;
+
+    private final LongAdder exactHits = new LongAdder();
+    private final LongAdder fuzzyHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder searchEntries = new LongAdder();
+
+    public TitleResolver(CachedMovieRepository movieRepo,
+                         MovieTitleKeyRepository titleKeyRepo,
+                         @Value("${title.index.min-similarity:0.7}") double minSimilarity,
+                         @Value("${catalog.load-page-size:500}") int loadPageSize) {
+        this.movieRepo = movieRepo;
+        this.titleKeyRepo = titleKeyRepo;
+        this.index = new TitleIndex(minSimilarity);
+        this.loadPageSize = loadPageSize;
+    }
+
+    /**
+     * The movie a title names, if the index knows it.
+     */
+    public Optional<TitleIndex.Match> resolve(String title) {
+        Optional<TitleIndex.Match> match = index.resolve(title);
+        if (match.isEmpty()) misses.increment();
+        else if (match.get().exact()) exactHits.increment();
+        else fuzzyHits.increment();
+        return match;
+    }
+
+    /**
+     * The movie a title names by key or alias, without fuzzy matching.
+     */
+    public Optional<TitleIndex.Match> resolveExact(String title) {
+        Optional<TitleIndex.Match> match = index.resolveExact(title);
+        if (match.isPresent()) exactHits.increment();
+        return match;
+    }
+
+    /**
+     * Records a spelling that resolved to a movie. Only exact matches and
+     * OMDb's own answers are recorded; a fuzzy match never is.
+     */
+    public void addAlias(String title, String imdbId) {
+        index.addAlias(title, imdbId);
+    }
+
+    /**
+     * Adds the entries of an OMDb search, so they resolve without another search.
+     */
+    public void learn(OmdbSearchResult result) {
+        if (result == null || result.getSearch() == null) return;
+        for (OmdbSearchResult.Hit hit : result.getSearch()) {
+            index.add(hit.getTitle(), hit.getYear(), hit.getImdbID());
+            searchEntries.increment();
+        }
+    }
+
+    /**
+     * Adds a movie fetched from OMDb under its own title.
+     */
+    @EventListener
+    public void onMovieFetched(MovieFetchedEvent event) {
+        Movie movie = event.movie();
+        index.add(movie.getTitle(), movie.getYear(), movie.getImdbID());
+    }
+
+    /**
+     * Builds the index from the persisted movies and title keys once the application is up.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.nanoTime();
+        try {
+            Page<CachedMovie> movies = movieRepo.findAll(PageRequest.of(0, loadPageSize, Sort.by("imdbId")));
+            while (true) {
+                for (CachedMovie row : movies) {
+                    index.add(row.getTitle(), yearOf(row), row.getImdbId());
+                }
+                if (!movies.hasNext()) break;
+                movies = movieRepo.findAll(movies.nextPageable());
+            }
+            Page<MovieTitleKey> keys = titleKeyRepo.findAll(PageRequest.of(0, loadPageSize, Sort.by("titleKey")));
+            while (true) {
+                for (MovieTitleKey row : keys) {
+                    index.addAlias(row.getTitleKey(), row.getImdbId());
+                }
+                if (!keys.hasNext()) break;
+                keys = titleKeyRepo.findAll(keys.nextPageable());
+            }
+        } catch (Exception e) {
+            // The index still fills up from new fetches
+            log.warn("Could not load title index: {}", e.getMessage());
+        }
+        log.info("Loaded {} movies ({} title keys) into the title index in {} ms",
+            index.size(), index.keyCount(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Index size and how lookups were answered.
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("movies", index.size());
+        stats.put("keys", index.keyCount());
+        stats.put("exactHits", exactHits.sum());
+        stats.put("fuzzyHits", fuzzyHits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("searchEntries", searchEntries.sum());
+        return stats;
+    }
+
+    /**
+     * Year of a persisted movie, read from its payload; null if unreadable.
+     */
+    private String yearOf(CachedMovie row) {
+        try {
+            return objectMapper.readTree(row.getPayload()).path("Year").asText(null);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
@@ -32,4 +32,35 @@ document.addEventListener('DOMContentLoaded', () => {
 
     // Initialize button state
     updateButton();
+
+    // Stream "Ask AI" answers over server-sent events; fall back to a normal form post
+    const askForm = document.getElementById('askForm');
+    const streamBox = document.getElementById('streamResponse');
+    if (askForm && streamBox && window.EventSource) {
+        askForm.addEventListener('submit', event => {
+            const query = askForm.elements['query'].value.trim();
+            if (!query) return;
+            event.preventDefault();
+
+            const output = streamBox.querySelector('pre');
+            output.textContent = '';
+            streamBox.hidden = false;
+
+            let received = false;
+            const source = new EventSource('/ask/stream?query=' + encodeURIComponent(query));
+            source.addEventListener('token', e => {
+                received = true;
+                output.textContent += e.data;
+            });
+            source.addEventListener('done', () => source.close());
+            source.addEventListener('error', e => {
+                source.close();
+                if (e.data) {
+                    output.textContent = e.data;
+                } else if (!received) {
+                    askForm.submit();
+                }
+            });
+        });
+    }
 });
\ No newline at end of file
@@ -0,0 +1,116 @@
+package com.movieexplorer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.movieexplorer.repository.FeedbackRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+	"spring.datasource.url=jdbc:h2:mem:feedback-api",
+	"feedback.bulk.batch-size=7"
+})
+class FeedbackApiTest {
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private FeedbackRepository feedbackRepository;
+
+	private final HttpClient http = HttpClient.newHttpClient();
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	@Test
+	void importsNdjsonInBatchesWithPerItemResults() throws Exception {
+		String ndjson = IntStream.range(0, 20)
+			.mapToObj(i -> i == 3 ? "{\"userName\":\"\",\"userEmail\":\"x@y.z\",\"message\":\"blank name\"}"
+				: i == 5 ? "{\"userName\":[1],\"userEmail\":\"x@y.z\",\"message\":\"bad type\"}"
+				: "{\"userName\":\"user" + i + "\",\"userEmail\":\"u" + i + "@example.com\",\"message\":\"Quote \\\"" + i + "\\\"\"}")
+			.collect(Collectors.joining("\n"));
+		long before = feedbackRepository.count();
+
+		JsonNode result = post(ndjson, "application/x-ndjson");
+
+		assertEquals(20, result.get("received").asInt());
+		assertEquals(18, result.get("created").asInt());
+		assertEquals(2, result.get("rejected").asInt());
+		assertEquals("rejected", result.get("items").get(3).get("status").asText());
+		assertEquals("rejected", result.get("items").get(5).get("status").asText());
+		long id = result.get("items").get(19).get("id").asLong();
+		assertEquals("Quote \"19\"", feedbackRepository.findById(id).orElseThrow().getMessage());
+		assertEquals(before + 18, feedbackRepository.count());
+	}
+
+	@Test
+	void importsJsonArrayAndStopsAtMalformedInput() throws Exception {
+		JsonNode ok = post("[{\"userName\":\"a\",\"userEmail\":\"a@b.c\",\"message\":\"one\"},"
+			+ "{\"userName\":\"b\",\"userEmail\":\"b@b.c\",\"message\":\"two\"}]", "application/json");
+		assertEquals(2, ok.get("created").asInt());
+
+		JsonNode broken = post("{\"userName\":\"c\",\"userEmail\":\"c@b.c\",\"message\":\"three\"}\n{\"userName\":", "application/x-ndjson");
+		assertEquals(1, broken.get("created").asInt());
+		assertEquals("rejected", broken.get("items").get(1).get("status").asText());
+	}
+
+	@Test
+	void pagesFeedbackByCursorAndExportsEverything() throws Exception {
+		post(IntStream.range(0, 12)
+			.mapToObj(i -> "{\"userName\":\"p" + i + "\",\"userEmail\":\"p@b.c\",\"message\":\"page\"}")
+			.collect(Collectors.joining("\n")), "application/x-ndjson");
+		long total = feedbackRepository.count();
+
+		List<Long> ids = new ArrayList<>();
+		String cursor = null;
+		do {
+			HttpResponse<String> page = get("/api/feedback?limit=5" + (cursor == null ? "" : "&before=" + cursor));
+			JsonNode items = mapper.readTree(page.body());
+			assertTrue(items.size() <= 5);
+			items.forEach(item -> ids.add(item.get("id").asLong()));
+			cursor = page.headers().firstValue("X-Next-Cursor").orElse(null);
+		} while (cursor != null);
+		assertEquals(total, ids.size());
+		for (int i = 1; i < ids.size(); i++) {
+			assertTrue(ids.get(i) < ids.get(i - 1), "newest first, no repeats");
+		}
+
+		assertTrue(get("/feedback?before=" + ids.get(2)).body().contains("Newest"));
+
+		HttpResponse<String> array = get("/api/feedback/export");
+		assertEquals(total, mapper.readTree(array.body()).size());
+		HttpResponse<String> ndjson = get("/api/feedback/export?format=ndjson");
+		assertEquals("application/x-ndjson", ndjson.headers().firstValue("Content-Type").orElseThrow().split(";")[0]);
+		assertEquals(total, ndjson.body().lines().count());
+		assertEquals(ids.get(ids.size() - 1), mapper.readTree(ndjson.body().lines().findFirst().orElseThrow()).get("id").asLong());
+	}
+
+	private HttpResponse<String> get(String path) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + path)).GET().build();
+		HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+		assertEquals(200, response.statusCode(), response.body());
+		return response;
+	}
+
+	private JsonNode post(String body, String contentType) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/api/feedback/bulk"))
+			.header("Content-Type", contentType)
+			.POST(HttpRequest.BodyPublishers.ofString(body))
+			.build();
+		HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+		assertEquals(200, response.statusCode(), response.body());
+		return mapper.readTree(response.body());
+	}
+}
@@ -0,0 +1,109 @@
+package com.movieexplorer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.movieexplorer.service.GeminiService;
+import com.movieexplorer.support.StubUpstreamServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Concurrent recommendation prompts against a local Gemini stub that
+ * answers batch prompts section by section (or, when garbling, not at all).
+ */
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:gemini-batching", "resilience.enabled=false",
+	"gemini.batch.enabled=true", "gemini.batch.window-ms=500", "gemini.batch.max-size=4"})
+class GeminiBatchingTest {
+
+	private static final Pattern REQUEST = Pattern.compile("(\\[R\\d+\\] )?Suggest exactly 3 movies similar to '([^']+)'");
+
+	private static volatile boolean garbleBatches;
+
+	private static final StubUpstreamServer gemini = startGemini();
+
+	@Autowired
+	private GeminiService geminiService;
+
+	@DynamicPropertySource
+	static void geminiUrl(DynamicPropertyRegistry registry) {
+		registry.add("gemini.api.url", () -> gemini.url("/gemini"));
+	}
+
+	@AfterAll
+	static void stopGemini() {
+		gemini.close();
+	}
+
+	@Test
+	void fullBatchIsSentAsOneCallAndSplitPerCaller() throws Exception {
+		int before = gemini.requestCount();
+		List<String> answers = recommendConcurrently("Alien", "Heat", "Ronin", "Fargo");
+
+		assertEquals(List.of("Alien Sequel\nAlien Returns", "Heat Sequel\nHeat Returns",
+			"Ronin Sequel\nRonin Returns", "Fargo Sequel\nFargo Returns"), answers);
+		assertEquals(1, gemini.requestCount() - before);
+		assertEquals(4L, geminiService.batcher().orElseThrow().batchedRequests());
+	}
+
+	@Test
+	void unreadableBatchAnswerFallsBackToIndividualCalls() throws Exception {
+		garbleBatches = true;
+		try {
+			int before = gemini.requestCount();
+			List<String> answers = recommendConcurrently("Brazil", "Memento");
+
+			assertEquals(List.of("Brazil Sequel\nBrazil Returns", "Memento Sequel\nMemento Returns"), answers);
+			assertEquals(3, gemini.requestCount() - before);
+		} finally {
+			garbleBatches = false;
+		}
+	}
+
+	private List<String> recommendConcurrently(String... titles) throws Exception {
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			List<Callable<String>> calls = List.of(titles).stream()
+				.<Callable<String>>map(title -> () -> geminiService.getFilteredRecommendations(title, List.of(), List.of()))
+				.toList();
+			List<String> answers = new ArrayList<>();
+			for (Future<String> answer : executor.invokeAll(calls)) answers.add(answer.get());
+			return answers;
+		}
+	}
+
+	private static StubUpstreamServer startGemini() {
+		ObjectMapper json = new ObjectMapper();
+		try {
+			return new StubUpstreamServer().route("/gemini", exchange -> {
+				String prompt = json.readTree(exchange.getRequestBody())
+					.path("contents").path(0).path("parts").path(0).path("text").asText();
+				StringBuilder answer = new StringBuilder();
+				Matcher m = REQUEST.matcher(prompt);
+				while (m.find()) {
+					if (m.group(1) != null) answer.append(m.group(1).trim()).append('\n');
+					answer.append("1. ").append(m.group(2)).append(" Sequel\n2. ").append(m.group(2)).append(" Returns\n");
+				}
+				boolean batch = prompt.contains("[R1]");
+				String text = batch && garbleBatches ? "Here are some great movies you might enjoy!" : answer.toString();
+				StubUpstreamServer.respond(exchange, 200, "application/json",
+					"{\"candidates\":[{\"content\":{\"parts\":[{\"text\":" + StubUpstreamServer.jsonString(text) + "}]}}]}");
+			});
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
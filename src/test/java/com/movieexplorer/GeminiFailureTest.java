@@ -0,0 +1,100 @@
+package com.movieexplorer;
+
+import com.movieexplorer.service.GeminiService;
+import com.movieexplorer.support.StubUpstreamServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Gemini failing in ways that must not turn into answers: error text is
+ * never treated as recommended titles, and nothing is cached for a failure.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+	properties = {"spring.datasource.url=jdbc:h2:mem:gemini-failure", "resilience.enabled=false"})
+class GeminiFailureTest {
+
+	private static final String ANSWER = """
+		{"candidates":[{"content":{"parts":[{"text":"1. Heat\\n2. Ronin\\n3. Fargo"}]}}]}""";
+
+	// Body of every generateContent answer; a blocked prompt has no candidates
+	private static volatile String geminiBody = ANSWER;
+
+	private static final StubUpstreamServer omdb = start().omdb();
+	private static final StubUpstreamServer gemini = start().route("/gemini",
+		exchange -> StubUpstreamServer.respond(exchange, 200, "application/json", geminiBody));
+
+	@LocalServerPort
+	private int port;
+
+	private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+	@DynamicPropertySource
+	static void upstreamUrls(DynamicPropertyRegistry registry) {
+		registry.add("omdb.api.url", () -> omdb.url("/omdb"));
+		registry.add("gemini.api.url", () -> gemini.url("/gemini"));
+	}
+
+	@Autowired
+	private GeminiService geminiService;
+
+	@AfterEach
+	void recover() {
+		gemini.fault(0);
+		geminiBody = ANSWER;
+	}
+
+	@AfterAll
+	static void stopStubs() {
+		omdb.close();
+		gemini.close();
+	}
+
+	@Test
+	void throttledRecommendationsShowTheErrorWithoutOmdbLookups() throws Exception {
+		get("/search?title=Alien");
+		gemini.fault(429);
+		int before = omdb.requestCount();
+
+		String page = get("/recommend?title=Alien");
+
+		assertTrue(page.contains("Recommendation error: API Error: 429"), page);
+		assertEquals(before, omdb.requestCount());
+	}
+
+	@Test
+	void answerWithoutTextIsAnErrorAndNotCached() {
+		geminiBody = """
+			{"candidates":[],"promptFeedback":{"blockReason":"SAFETY"}}""";
+		assertEquals("No response found", geminiService.compareMovies("Heat", "Ronin"));
+
+		geminiBody = ANSWER;
+		assertEquals("1. Heat\n2. Ronin\n3. Fargo", geminiService.compareMovies("Heat", "Ronin"));
+	}
+
+	private String get(String path) throws IOException, InterruptedException {
+		return http.send(HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + path)).GET().build(),
+			HttpResponse.BodyHandlers.ofString()).body();
+	}
+
+	private static StubUpstreamServer start() {
+		try {
+			return new StubUpstreamServer();
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
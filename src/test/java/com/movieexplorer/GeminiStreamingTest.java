@@ -0,0 +1,116 @@
+package com.movieexplorer;
+
+import com.movieexplorer.support.StubUpstreamServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exercises /ask/stream and /compare/stream against a local Gemini stub that
+ * answers over server-sent events, plus the fallback to the blocking endpoint.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+	properties = "spring.datasource.url=jdbc:h2:mem:streaming")
+class GeminiStreamingTest {
+
+	private static volatile boolean streamingAvailable = true;
+
+	// Streams answer 200 but send no text events
+	private static volatile boolean streamingEmpty;
+
+	private static final StubUpstreamServer gemini = startGemini();
+
+	@LocalServerPort
+	private int port;
+
+	@DynamicPropertySource
+	static void geminiUrls(DynamicPropertyRegistry registry) {
+		registry.add("gemini.api.url", () -> gemini.url("/gemini"));
+		registry.add("gemini.api.stream-url", () -> gemini.url("/gemini-stream"));
+	}
+
+	@AfterAll
+	static void stopGemini() {
+		gemini.close();
+	}
+
+	@Test
+	void askStreamDeliversTokensInOrder() throws Exception {
+		streamingAvailable = true;
+		String body = get("/ask/stream?query=" + URLEncoder.encode("best heist movies", StandardCharsets.UTF_8));
+
+		List<String> tokens = body.lines().filter(l -> l.startsWith("data:")).map(l -> l.substring(5)).toList();
+		assertEquals(List.of("Heat ", "is a ", "classic.", ""), tokens);
+		assertTrue(body.contains("event:done"));
+	}
+
+	@Test
+	void compareStreamFallsBackToBlockingCallWhenStreamingFails() throws Exception {
+		streamingAvailable = false;
+		String body = get("/compare/stream?movie1=Heat&movie2=Ronin");
+
+		assertTrue(body.contains("data:Blocking answer"), body);
+		assertTrue(body.contains("event:done"));
+	}
+
+	@Test
+	void emptyStreamFallsBackToBlockingCallAndIsNotCached() throws Exception {
+		streamingAvailable = true;
+		streamingEmpty = true;
+		try {
+			String query = "/ask/stream?query=" + URLEncoder.encode("quiet movies", StandardCharsets.UTF_8);
+			assertTrue(get(query).contains("data:Blocking answer"));
+			assertTrue(get(query).contains("data:Blocking answer"));
+		} finally {
+			streamingEmpty = false;
+		}
+	}
+
+	private String get(String path) throws IOException, InterruptedException {
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + path)).GET().build();
+		HttpResponse<String> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+		assertEquals(200, response.statusCode());
+		assertTrue(response.headers().firstValue("Content-Type").orElse("").startsWith("text/event-stream"));
+		return response.body();
+	}
+
+	private static StubUpstreamServer startGemini() {
+		try {
+			StubUpstreamServer stub = new StubUpstreamServer().gemini("Blocking answer");
+			stub.route("/gemini-stream", exchange -> {
+				if (!streamingAvailable) {
+					StubUpstreamServer.respond(exchange, 503, "text/plain", "unavailable");
+					return;
+				}
+				exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+				exchange.sendResponseHeaders(200, 0);
+				try (OutputStream out = exchange.getResponseBody()) {
+					for (String chunk : streamingEmpty ? List.<String>of() : List.of("Heat ", "is a ", "classic.")) {
+						String event = "data: {\"candidates\":[{\"content\":{\"parts\":[{\"text\":"
+							+ StubUpstreamServer.jsonString(chunk) + "}]}}]}\r\n\r\n";
+						out.write(event.getBytes(StandardCharsets.UTF_8));
+						out.flush();
+					}
+				}
+			});
+			return stub;
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
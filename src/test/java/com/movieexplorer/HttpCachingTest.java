@@ -0,0 +1,110 @@
+package com.movieexplorer;
+
+import com.movieexplorer.support.StubUpstreamServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Conditional GETs of movie pages and feedback, and the hashed, precompressed static assets.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+	properties = {"spring.datasource.url=jdbc:h2:mem:http-caching", "resilience.enabled=false",
+		"static.precompressed-dir=target/precompressed-static"})
+class HttpCachingTest {
+
+	private static final StubUpstreamServer omdb = startOmdb();
+
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	@LocalServerPort
+	private int port;
+
+	@DynamicPropertySource
+	static void omdbUrl(DynamicPropertyRegistry registry) {
+		registry.add("omdb.api.url", () -> omdb.url("/omdb"));
+	}
+
+	@AfterAll
+	static void stopOmdb() {
+		omdb.close();
+	}
+
+	@Test
+	void unchangedSearchPageIsNotModified() throws Exception {
+		HttpResponse<String> first = get("/search?title=Heat", null);
+		String etag = first.headers().firstValue("ETag").orElseThrow();
+		assertEquals(200, first.statusCode());
+		assertTrue(etag.matches("\"tt\\d+-[0-9a-f]{16}\""), etag);
+		assertTrue(first.body().contains("<h2>Heat</h2>"), first.body());
+
+		HttpResponse<String> again = get("/search?title=Heat", etag);
+		assertEquals(304, again.statusCode());
+		assertEquals("", again.body());
+
+		assertEquals(200, get("/search?title=Ronin", etag).statusCode());
+	}
+
+	@Test
+	void feedbackCarriesIdAndVersionEtag() throws Exception {
+		HttpRequest post = HttpRequest.newBuilder(uri("/api/feedback"))
+			.header("Content-Type", "application/json")
+			.POST(HttpRequest.BodyPublishers.ofString("{\"userName\":\"a\",\"userEmail\":\"a@b.c\",\"message\":\"hi\",\"version\":7}"))
+			.build();
+		String id = client.send(post, HttpResponse.BodyHandlers.ofString()).body();
+
+		HttpResponse<String> first = get("/api/feedback/" + id, null);
+		assertEquals("\"" + id + "-0\"", first.headers().firstValue("ETag").orElseThrow());
+		assertEquals(304, get("/api/feedback/" + id, "\"" + id + "-0\"").statusCode());
+	}
+
+	@Test
+	void stylesheetIsServedHashedGzippedAndImmutable() throws Exception {
+		Matcher link = Pattern.compile("href=\"(/css/style-[0-9a-f]{32}\\.css)\"").matcher(get("/", null).body());
+		assertTrue(link.find());
+
+		HttpRequest request = HttpRequest.newBuilder(uri(link.group(1))).header("Accept-Encoding", "gzip").GET().build();
+		HttpResponse<byte[]> css = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+
+		assertEquals(200, css.statusCode());
+		assertEquals("gzip", css.headers().firstValue("Content-Encoding").orElse(""));
+		assertTrue(css.headers().firstValue("Cache-Control").orElse("").contains("immutable"));
+		String text = new String(new GZIPInputStream(new ByteArrayInputStream(css.body())).readAllBytes(), StandardCharsets.UTF_8);
+		assertTrue(text.contains("body"), text);
+	}
+
+	private HttpResponse<String> get(String path, String ifNoneMatch) throws IOException, InterruptedException {
+		HttpRequest.Builder request = HttpRequest.newBuilder(uri(path)).GET();
+		if (ifNoneMatch != null) request.header("If-None-Match", ifNoneMatch);
+		return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+	}
+
+	private URI uri(String path) {
+		return URI.create("http://127.0.0.1:" + port + path);
+	}
+
+	private static StubUpstreamServer startOmdb() {
+		try {
+			return new StubUpstreamServer().omdb();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
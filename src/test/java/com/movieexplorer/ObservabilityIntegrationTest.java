@@ -0,0 +1,121 @@
+package com.movieexplorer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.movieexplorer.support.StubUpstreamServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the scrape endpoint and the in-memory traces: a /compare request
+ * breaks down into two OMDb phases and a Gemini phase (each wrapping its
+ * upstream call) plus the template render, and handled errors are counted.
+ * Metrics export is off in tests by default, hence AutoConfigureObservability.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+	"spring.datasource.url=jdbc:h2:mem:observability",
+	"observability.traces.sample-rate=1.0",
+	"resilience.enabled=false"
+})
+@AutoConfigureObservability(tracing = false)
+class ObservabilityIntegrationTest {
+
+	private static final StubUpstreamServer omdb = start(false);
+	private static final StubUpstreamServer gemini = start(true);
+
+	@LocalServerPort
+	private int port;
+
+	private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+	@DynamicPropertySource
+	static void upstreamUrls(DynamicPropertyRegistry registry) {
+		registry.add("omdb.api.url", () -> omdb.url("/omdb"));
+		registry.add("gemini.api.url", () -> gemini.url("/gemini"));
+	}
+
+	@AfterAll
+	static void stopStubs() {
+		omdb.close();
+		gemini.close();
+	}
+
+	@Test
+	void compareTraceAndScrape() throws Exception {
+		assertTrue(send("/compare?movie1=Heat&movie2=Ronin").contains("Stub Director"));
+
+		JsonNode root = compareTrace();
+		List<String> children = new ArrayList<>();
+		root.get("children").forEach(child -> children.add(child.get("name").asText()));
+		assertEquals(2, children.stream().filter("omdb"::equals).count(), children.toString());
+		assertTrue(children.contains("gemini"), children.toString());
+		assertTrue(children.contains("render index"), children.toString());
+		for (JsonNode phase : root.get("children")) {
+			if (phase.get("name").asText().equals("gemini")) {
+				assertEquals("gemini", phase.at("/children/0/tags/upstream").asText());
+				assertEquals("SUCCESS", phase.at("/children/0/tags/outcome").asText());
+			}
+		}
+
+		// Gemini failing: the page still renders, but the error is counted
+		gemini.fault(500);
+		assertTrue(send("/compare?movie1=Heat&movie2=Alien").contains("Stub Director"));
+
+		String scrape = send("/actuator/prometheus");
+		assertTrue(scrape.contains("upstream_call_seconds_bucket{"), "upstream latency histogram");
+		assertTrue(scrape.contains("request_phase_seconds_count{error=\"none\",phase=\"omdb\"}"), "phase timer");
+		assertTrue(scrape.contains("view_render_seconds_count{error=\"none\",view=\"index\"}"), "render timer");
+		assertTrue(scrape.contains("http_server_requests_seconds_bucket{"), "endpoint latency histogram");
+		assertTrue(scrape.contains("cache_gets_total{cache=\"movies-by-id\""), "cache metrics");
+		assertTrue(scrape.contains("http_client_pool_connections{state=\"idle\"}"), "pool metrics");
+		assertTrue(scrape.contains("app_errors_total{source=\"gemini\",type=\"GeminiException\"} 1.0"), scrape);
+	}
+
+	/**
+	 * Root span of the /compare trace; it is kept once the request observation
+	 * stops, which can be just after the response has been sent.
+	 */
+	private JsonNode compareTrace() throws Exception {
+		for (int attempt = 0; attempt < 50; attempt++) {
+			for (JsonNode trace : new ObjectMapper().readTree(send("/actuator/traces"))) {
+				if ("/compare".equals(trace.at("/root/tags/uri").asText())) {
+					return trace.get("root");
+				}
+			}
+			Thread.sleep(20);
+		}
+		return fail("no /compare trace recorded");
+	}
+
+	private String send(String path) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + path)).GET().build();
+		HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+		assertEquals(200, response.statusCode());
+		return response.body();
+	}
+
+	private static StubUpstreamServer start(boolean gemini) {
+		try {
+			StubUpstreamServer stub = new StubUpstreamServer();
+			return gemini ? stub.gemini("Stub answer") : stub.omdb();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -0,0 +1,131 @@
+package com.movieexplorer;
+
+import com.movieexplorer.support.StubUpstreamServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.imageio.ImageIO;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The poster proxy against local OMDb and image stubs: one fetch per
+ * poster, then ranges, conditional requests and thumbnails from the cache.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+	properties = {"spring.datasource.url=jdbc:h2:mem:poster-proxy", "resilience.enabled=false",
+		"poster.thumbnail.width=160"})
+class PosterProxyTest {
+
+	private static final byte[] POSTER = StubUpstreamServer.jpeg(300, 450);
+
+	private static final StubUpstreamServer images = startStub();
+	private static final StubUpstreamServer omdb = startStub();
+
+	// A fresh store each run, so the first request for a poster always fetches it
+	private static final String cacheDir = "target/poster-proxy-test/" + System.nanoTime();
+
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	@LocalServerPort
+	private int port;
+
+	@DynamicPropertySource
+	static void upstreamUrls(DynamicPropertyRegistry registry) {
+		images.images("/images", POSTER);
+		omdb.omdb(images.url("/images"));
+		registry.add("omdb.api.url", () -> omdb.url("/omdb"));
+		registry.add("poster.cache.dir", () -> cacheDir);
+	}
+
+	@AfterAll
+	static void stopStubs() {
+		images.close();
+		omdb.close();
+	}
+
+	@Test
+	void posterIsFetchedOnceThenServedFromTheCache() throws Exception {
+		String poster = posterLink("Heat");
+		int before = images.requestCount();
+
+		HttpResponse<byte[]> first = get(poster, null, null);
+		HttpResponse<byte[]> second = get(poster, null, null);
+
+		assertEquals(200, first.statusCode());
+		assertEquals("image/jpeg", first.headers().firstValue("Content-Type").orElse(""));
+		assertArrayEquals(POSTER, first.body());
+		assertArrayEquals(POSTER, second.body());
+		assertEquals(1, images.requestCount() - before);
+	}
+
+	@Test
+	void rangeAndConditionalRequestsAreHonoured() throws Exception {
+		String poster = posterLink("Ronin");
+		String etag = get(poster, null, null).headers().firstValue("ETag").orElseThrow();
+
+		HttpResponse<byte[]> range = get(poster, "Range", "bytes=100-199");
+		assertEquals(206, range.statusCode());
+		assertEquals("bytes 100-199/" + POSTER.length, range.headers().firstValue("Content-Range").orElse(""));
+		assertArrayEquals(Arrays.copyOfRange(POSTER, 100, 200), range.body());
+
+		HttpResponse<byte[]> suffix = get(poster, "Range", "bytes=-10");
+		assertArrayEquals(Arrays.copyOfRange(POSTER, POSTER.length - 10, POSTER.length), suffix.body());
+
+		assertEquals(416, get(poster, "Range", "bytes=" + POSTER.length + "-").statusCode());
+		assertEquals(304, get(poster, "If-None-Match", etag).statusCode());
+	}
+
+	@Test
+	void thumbnailIsServedAtTheConfiguredWidth() throws Exception {
+		HttpResponse<byte[]> thumb = get(posterLink("Fargo") + "?size=thumb", null, null);
+
+		assertEquals(200, thumb.statusCode());
+		assertEquals(160, ImageIO.read(new ByteArrayInputStream(thumb.body())).getWidth());
+	}
+
+	@Test
+	void unknownMoviesAreNotLookedUpOnOmdb() throws Exception {
+		int before = omdb.requestCount();
+
+		assertEquals(404, get("/posters/tt0000001", null, null).statusCode());
+		assertEquals(before, omdb.requestCount());
+	}
+
+	/**
+	 * The poster URL the search page links for a title.
+	 */
+	private String posterLink(String title) throws Exception {
+		String page = new String(get("/search?title=" + title, null, null).body());
+		Matcher src = Pattern.compile("src=\"(/posters/tt\\d+)\"").matcher(page);
+		assertTrue(src.find(), page);
+		return src.group(1);
+	}
+
+	private HttpResponse<byte[]> get(String path, String header, String value) throws IOException, InterruptedException {
+		HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + path)).GET();
+		if (header != null) request.header(header, value);
+		return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+	}
+
+	private static StubUpstreamServer startStub() {
+		try {
+			return new StubUpstreamServer();
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,83 @@
+package com.movieexplorer;
+
+import com.movieexplorer.support.StubUpstreamServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exercises the reactive JSON API against local OMDb and Gemini stubs.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+	properties = {"spring.datasource.url=jdbc:h2:mem:reactive-api", "resilience.enabled=false",
+		// The stub movies are near-identical, so the catalog would answer recommendations itself
+		"recommend.local.enabled=false"})
+class ReactiveApiTest {
+
+	private static final StubUpstreamServer omdb = startStub();
+	private static final StubUpstreamServer gemini = startStub();
+
+	@LocalServerPort
+	private int port;
+
+	@DynamicPropertySource
+	static void upstreamUrls(DynamicPropertyRegistry registry) {
+		registry.add("omdb.api.url", () -> omdb.url("/omdb"));
+		registry.add("gemini.api.url", () -> gemini.url("/gemini"));
+	}
+
+	@AfterAll
+	static void stopStubs() {
+		omdb.close();
+		gemini.close();
+	}
+
+	@Test
+	void recommendReturnsMovieAndResolvedRecommendations() throws Exception {
+		HttpResponse<String> response = get("/api/reactive/recommend?title=Inception&genres=action&genres=unknown");
+
+		assertEquals(200, response.statusCode());
+		assertTrue(response.body().contains("\"recommendationList\":[\"Heat\",\"Ronin\"]"), response.body());
+		assertTrue(response.body().contains("\"Title\":\"Ronin\""), response.body());
+		assertTrue(response.body().contains("\"Title\":\"Inception\""), response.body());
+	}
+
+	@Test
+	void geminiFailureWithoutStaleAnswerIsBadGateway() throws Exception {
+		gemini.fault(500);
+		try {
+			HttpResponse<String> response = get("/api/reactive/ask?query=never-asked-before&title=Heat");
+
+			assertEquals(502, response.statusCode());
+			assertTrue(response.body().contains("\"error\":\"API Error: 500\""), response.body());
+		} finally {
+			gemini.fault(0);
+		}
+	}
+
+	private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+		HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+		return http.send(HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + path)).GET().build(),
+			HttpResponse.BodyHandlers.ofString());
+	}
+
+	private static StubUpstreamServer startStub() {
+		try {
+			return new StubUpstreamServer().omdb().gemini("1. Heat\n2. Ronin");
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
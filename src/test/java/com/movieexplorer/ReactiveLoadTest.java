@@ -0,0 +1,107 @@
+package com.movieexplorer;
+
+import com.movieexplorer.support.StubUpstreamServer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives the blocking /search page and the reactive /api/reactive/search
+ * endpoint against a stubbed OMDb that answers slowly, with the web tier on
+ * a small platform thread pool, and compares throughput, peak thread count
+ * and heap use. Timing-dependent and slow, so it only runs with the load
+ * profile (mvn -Pload test).
+ */
+@Tag("load")
+class ReactiveLoadTest {
+
+	private static final long UPSTREAM_LATENCY_MS = 1000;
+	private static final int PLATFORM_THREADS = 10;
+	private static final int BLOCKING_REQUESTS = 50;
+	private static final int REACTIVE_REQUESTS = 400;
+
+	@Test
+	void reactiveEndpointSustainsMoreConcurrencyThanBlockingPage() throws Exception {
+		try (StubUpstreamServer omdb = new StubUpstreamServer().omdb().latency(UPSTREAM_LATENCY_MS)) {
+			Result blocking = measure(omdb, "/search", BLOCKING_REQUESTS, "blocking");
+			Result reactive = measure(omdb, "/api/reactive/search", REACTIVE_REQUESTS, "reactive");
+
+			assertTrue(reactive.throughput > blocking.throughput * 2,
+				"expected the reactive API to at least double throughput, got " + reactive + " vs " + blocking);
+		}
+	}
+
+	private record Result(double throughput, int peakThreads, long heapMb) {}
+
+	private Result measure(StubUpstreamServer omdb, String path, int requests, String run) throws Exception {
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(MovieExplorerApplication.class)
+				.run(
+					"--server.port=0",
+					"--spring.threads.virtual.enabled=false",
+					"--server.tomcat.threads.max=" + PLATFORM_THREADS,
+					"--upstream.platform-threads=" + PLATFORM_THREADS,
+					"--http.client.max-requests-per-host=" + requests,
+					"--resilience.enabled=false",
+					// Measures throughput, not deadlines (the client and server share one machine)
+					"--upstream.omdb.deadline-ms=60000",
+					"--omdb.api.url=" + omdb.url("/omdb"),
+					"--spring.datasource.url=jdbc:h2:mem:reactive-load-" + run,
+					"--spring.jpa.show-sql=false");
+			 ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+
+			int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+			HttpClient http = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.executor(clients)
+				.connectTimeout(Duration.ofSeconds(5))
+				.build();
+
+			// Warm up the dispatcher, the HTTP clients and JPA before measuring
+			List<CompletableFuture<HttpResponse<Void>>> warmup = new ArrayList<>();
+			for (int i = 0; i < PLATFORM_THREADS; i++) {
+				URI uri = URI.create("http://127.0.0.1:" + port + path + "?title=" + run + "-warmup-" + i);
+				warmup.add(http.sendAsync(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.discarding()));
+			}
+			warmup.forEach(CompletableFuture::join);
+
+			System.gc();
+			threads.resetPeakThreadCount();
+			long heapBefore = memory.getHeapMemoryUsage().getUsed();
+			long start = System.nanoTime();
+			List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+			for (int i = 0; i < requests; i++) {
+				// Distinct titles so every request misses the cache and goes upstream
+				URI uri = URI.create("http://127.0.0.1:" + port + path + "?title=" + run + "-movie-" + i);
+				responses.add(http.sendAsync(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.ofString()));
+			}
+			for (int i = 0; i < requests; i++) {
+				HttpResponse<String> response = responses.get(i).join();
+				assertEquals(200, response.statusCode(), "request " + i + ": " + response.body());
+				assertTrue(response.body().contains("Stub Director"), "missing movie in response " + i);
+			}
+			double seconds = (System.nanoTime() - start) / 1e9;
+			long heapMb = Math.max(0, memory.getHeapMemoryUsage().getUsed() - heapBefore) / (1024 * 1024);
+			return new Result(requests / seconds, threads.getPeakThreadCount(), heapMb);
+		}
+	}
+}
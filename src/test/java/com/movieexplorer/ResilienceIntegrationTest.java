@@ -0,0 +1,132 @@
+package com.movieexplorer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.movieexplorer.support.StubUpstreamServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives the resilience layer against stub upstreams that inject latency
+ * and 429s: the bulkhead turns away calls queued behind a slow upstream,
+ * throttling opens the breaker, and stale cached data is served meanwhile.
+ * Cache TTLs are zero so every request goes upstream.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+	"spring.datasource.url=jdbc:h2:mem:resilience",
+	"movie.cache.ttl-minutes=0",
+	"movie.cache.persistent-ttl-hours=0",
+	"gemini.cache.ttl-minutes=0",
+	"resilience.upstreams.omdb.rate-per-second=1000",
+	"resilience.upstreams.omdb.initial-limit=1",
+	"resilience.upstreams.omdb.min-limit=1",
+	"resilience.upstreams.omdb.max-limit=1",
+	"resilience.upstreams.omdb.max-queue-wait=50ms",
+	"resilience.upstreams.omdb.sliding-window=4",
+	"resilience.upstreams.omdb.minimum-calls=4",
+	"resilience.upstreams.omdb.open-duration=1h"
+})
+class ResilienceIntegrationTest {
+
+	private static final StubUpstreamServer omdb = start(false);
+	private static final StubUpstreamServer gemini = start(true);
+
+	@LocalServerPort
+	private int port;
+
+	private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+	@DynamicPropertySource
+	static void upstreamUrls(DynamicPropertyRegistry registry) {
+		registry.add("omdb.api.url", () -> omdb.url("/omdb"));
+		registry.add("gemini.api.url", () -> gemini.url("/gemini"));
+	}
+
+	@AfterAll
+	static void stopStubs() {
+		omdb.close();
+		gemini.close();
+	}
+
+	@Test
+	void bulkheadBreakerAndStaleFallback() throws Exception {
+		// A slow upstream: with one slot, calls queued longer than 50ms are turned away
+		omdb.latency(300);
+		List<CompletableFuture<HttpResponse<String>>> searches = List.of("Alpha", "Beta", "Gamma").stream()
+			.map(title -> http.sendAsync(get("/search?title=" + title), HttpResponse.BodyHandlers.ofString()))
+			.toList();
+		long served = searches.stream().map(CompletableFuture::join).filter(r -> r.body().contains("Stub Director")).count();
+		assertEquals(1, served);
+		assertEquals(1, omdb.requestCount());
+		assertEquals(2, stats().at("/resilience/omdb/bulkhead/rejected").asInt());
+		omdb.latency(0);
+
+		// Throttled: three 429s make 3 of the last 4 calls failures, which opens the breaker;
+		// stale copies are served throughout
+		String title = searches.stream().map(CompletableFuture::join)
+			.filter(r -> r.body().contains("Stub Director")).findFirst().orElseThrow()
+			.request().uri().getQuery().substring("title=".length());
+		omdb.fault(429);
+		for (int i = 0; i < 6; i++) {
+			assertTrue(send(get("/search?title=" + title)).contains("Stub Director"), "stale movie served");
+		}
+		assertEquals(4, omdb.requestCount(), "no calls while the breaker is open");
+		JsonNode stats = stats();
+		assertEquals("OPEN", stats.at("/resilience/omdb/circuitBreaker/state").asText());
+		assertEquals(3, stats.at("/resilience/omdb/bulkhead/drops").asInt());
+		assertEquals(6, stats.at("/staleFallbacks/movies").asInt());
+
+		// Gemini: an expired answer stands in for a throttled call
+		assertTrue(send(post("/ask", "query=heist+movies")).contains("Stub answer"));
+		gemini.fault(429);
+		String answer = send(post("/ask", "query=heist+movies"));
+		assertTrue(answer.contains("Stub answer"), answer);
+		assertFalse(answer.contains("API Error"));
+		assertEquals(1, stats().at("/staleFallbacks/geminiAnswers").asInt());
+	}
+
+	private HttpRequest get(String path) {
+		return HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + path)).GET().build();
+	}
+
+	private HttpRequest post(String path, String form) {
+		return HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + path))
+			.header("Content-Type", "application/x-www-form-urlencoded")
+			.POST(HttpRequest.BodyPublishers.ofString(form))
+			.build();
+	}
+
+	private String send(HttpRequest request) throws Exception {
+		HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+		assertEquals(200, response.statusCode());
+		return response.body();
+	}
+
+	private JsonNode stats() throws Exception {
+		return new ObjectMapper().readTree(send(get("/api/stats")));
+	}
+
+	private static StubUpstreamServer start(boolean gemini) {
+		try {
+			StubUpstreamServer stub = new StubUpstreamServer();
+			return gemini ? stub.gemini("Stub answer") : stub.omdb();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -0,0 +1,119 @@
+package com.movieexplorer;
+
+import com.movieexplorer.model.Movie;
+import com.movieexplorer.service.MovieService;
+import com.movieexplorer.support.StubUpstreamServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Resolves titles against an OMDb stub whose title query only knows Alien
+ * and Aliens, so other movies can only be found through a search and then
+ * fetched by imdbID.
+ */
+@SpringBootTest(properties = {"spring.datasource.url=jdbc:h2:mem:title-resolution", "resilience.enabled=false"})
+class TitleResolutionTest {
+
+	// The only titles the title query finds
+	private static final Map<String, String> TITLES = Map.of("Alien", "tt0078748", "Aliens", "tt0090605");
+
+	private static final List<String> calls = new CopyOnWriteArrayList<>();
+
+	private static final StubUpstreamServer omdb = startOmdb();
+
+	@Autowired
+	private MovieService movieService;
+
+	@DynamicPropertySource
+	static void omdbUrl(DynamicPropertyRegistry registry) {
+		registry.add("omdb.api.url", () -> omdb.url("/omdb"));
+	}
+
+	@AfterAll
+	static void stopOmdb() {
+		omdb.close();
+	}
+
+	@Test
+	void searchFeedsTheIndexSoLaterLookupsSkipTitleQueries() {
+		calls.clear();
+		Movie movie = movieService.getMovieByTitle("Inception (2010)");
+		assertEquals("tt1375666", movie.getImdbID());
+		assertEquals(List.of("t=Inception y=2010", "s=Inception y=2010", "i=tt1375666"), calls);
+
+		// Misspelled: the title query misses, then it resolves locally and is served from the cache
+		calls.clear();
+		assertEquals("tt1375666", movieService.getMovieByTitle("Incepton").getImdbID());
+		assertEquals(List.of("t=Incepton y=null"), calls);
+
+		// The same misspelling again: the miss is remembered, so OMDb is not asked
+		calls.clear();
+		assertEquals("tt1375666", movieService.getMovieByTitle("incepton").getImdbID());
+		assertEquals(List.of(), calls);
+
+		// Another entry of the same search: fetched by ID straight away
+		calls.clear();
+		assertEquals("tt5295894", movieService.getMovieByTitle("Inception: The Cobol Job").getImdbID());
+		assertEquals(List.of("i=tt5295894"), calls);
+	}
+
+	@Test
+	void sequelCloseToAKnownTitleIsAskedForByTitle() {
+		calls.clear();
+		assertEquals("tt0078748", movieService.getMovieByTitle("Alien").getImdbID());
+
+		// "Aliens" is a fuzzy match for "Alien", but OMDb knows it by title
+		calls.clear();
+		assertEquals("tt0090605", movieService.getMovieByTitle("Aliens").getImdbID());
+		assertEquals(List.of("t=Aliens y=null"), calls);
+
+		calls.clear();
+		assertEquals("tt0090605", movieService.getMovieByTitle("Aliens").getImdbID());
+		assertEquals("tt0078748", movieService.getMovieByTitle("Alien").getImdbID());
+		assertEquals(List.of(), calls);
+	}
+
+	private static StubUpstreamServer startOmdb() {
+		try {
+			return new StubUpstreamServer().route("/omdb", exchange -> {
+				Map<String, String> query = StubUpstreamServer.query(exchange);
+				if (query.containsKey("t")) {
+					calls.add("t=" + query.get("t") + " y=" + query.get("y"));
+					String id = TITLES.get(query.get("t"));
+					StubUpstreamServer.respond(exchange, 200, "application/json", id == null
+						? "{\"Response\":\"False\",\"Error\":\"Movie not found!\"}"
+						: """
+							{"Title":"%s","Year":"1986","Genre":"Sci-Fi","imdbRating":"8.4",
+							 "imdbID":"%s","Response":"True"}""".formatted(query.get("t"), id));
+				} else if (query.containsKey("s")) {
+					calls.add("s=" + query.get("s") + " y=" + query.get("y"));
+					StubUpstreamServer.respond(exchange, 200, "application/json", """
+						{"Search":[{"Title":"Inception","Year":"2010","imdbID":"tt1375666","Type":"movie"},
+						 {"Title":"Inception: The Cobol Job","Year":"2010","imdbID":"tt5295894","Type":"movie"}],
+						 "totalResults":"2","Response":"True"}""");
+				} else {
+					String id = query.get("i");
+					calls.add("i=" + id);
+					String title = id.equals("tt1375666") ? "Inception" : "Inception: The Cobol Job";
+					StubUpstreamServer.respond(exchange, 200, "application/json", """
+						{"Title":"%s","Year":"2010","Genre":"Sci-Fi","Director":"Christopher Nolan",
+						 "imdbRating":"8.8","imdbID":"%s","Response":"True"}""".formatted(title, id));
+				}
+			});
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
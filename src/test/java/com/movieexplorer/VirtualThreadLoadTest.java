@@ -0,0 +1,88 @@
+package com.movieexplorer;
+
+import com.movieexplorer.support.StubUpstreamServer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives /search with many concurrent clients against a stubbed OMDb that
+ * answers slowly, once with the web tier on platform threads and once on
+ * virtual threads, and compares throughput. Timing-dependent, so it only
+ * runs with the load profile (mvn -Pload test).
+ */
+@Tag("load")
+class VirtualThreadLoadTest {
+
+	private static final int CONCURRENT_REQUESTS = 100;
+	private static final long UPSTREAM_LATENCY_MS = 1000;
+	private static final int PLATFORM_THREADS = 10;
+
+	@Test
+	void virtualThreadsSustainMoreConcurrencyThanPlatformThreads() throws Exception {
+		try (StubUpstreamServer omdb = new StubUpstreamServer().omdb().latency(UPSTREAM_LATENCY_MS)) {
+			double platform = measureThroughput(omdb, false, "platform");
+			double virtual = measureThroughput(omdb, true, "virtual");
+
+			assertTrue(virtual > platform * 2,
+				"expected virtual threads to at least double throughput, got " + virtual + " vs " + platform);
+		}
+	}
+
+	private double measureThroughput(StubUpstreamServer omdb, boolean virtualThreads, String run) throws Exception {
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(MovieExplorerApplication.class)
+				.run(
+					"--server.port=0",
+					"--spring.threads.virtual.enabled=" + virtualThreads,
+					"--server.tomcat.threads.max=" + PLATFORM_THREADS,
+					"--upstream.platform-threads=" + PLATFORM_THREADS,
+					"--http.client.max-requests-per-host=" + CONCURRENT_REQUESTS,
+					"--resilience.enabled=false",
+					"--omdb.api.url=" + omdb.url("/omdb"),
+					"--spring.datasource.url=jdbc:h2:mem:load-" + run,
+					"--spring.jpa.show-sql=false");
+			 ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+
+			int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+			HttpClient http = HttpClient.newBuilder().executor(clients).connectTimeout(Duration.ofSeconds(5)).build();
+
+			// Warm up the dispatcher, template engine and JPA before measuring
+			List<CompletableFuture<HttpResponse<Void>>> warmup = new ArrayList<>();
+			for (int i = 0; i < PLATFORM_THREADS; i++) {
+				URI uri = URI.create("http://127.0.0.1:" + port + "/search?title=" + run + "-warmup-" + i);
+				warmup.add(http.sendAsync(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.discarding()));
+			}
+			warmup.forEach(CompletableFuture::join);
+
+			long start = System.nanoTime();
+			List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+			for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+				// Distinct titles so every request misses the cache and goes upstream
+				URI uri = URI.create("http://127.0.0.1:" + port + "/search?title=" + run + "-movie-" + i);
+				responses.add(http.sendAsync(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.ofString()));
+			}
+			for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+				HttpResponse<String> response = responses.get(i).join();
+				assertEquals(200, response.statusCode());
+				assertTrue(response.body().contains("Stub Director"), "missing movie in response " + i);
+			}
+			double seconds = (System.nanoTime() - start) / 1e9;
+			return CONCURRENT_REQUESTS / seconds;
+		}
+	}
+}
@@ -0,0 +1,93 @@
+package com.movieexplorer.bench;
+
+import com.movieexplorer.model.CompactMovie;
+import com.movieexplorer.model.Movie;
+import com.movieexplorer.model.MovieDictionary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Movie (all-String Jackson DTO) versus CompactMovie: throughput of a
+ * typical catalog filter (year range, minimum rating, genre) over the whole
+ * collection, and conversion cost. Retained size per entry is checked by
+ * CompactMovieTest.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompactMovieBenchmark {
+
+	@Param("10000")
+	public int size;
+
+	private List<Movie> movies;
+	private MovieDictionary dictionary;
+	private CompactMovie[] compact;
+	private int dramaId;
+
+	@Setup
+	public void setUp() {
+		movies = MovieFixtures.movies(size, 42);
+		dictionary = new MovieDictionary();
+		compact = movies.stream().map(m -> CompactMovie.from(m, dictionary)).toArray(CompactMovie[]::new);
+		dramaId = dictionary.genreId("Drama");
+	}
+
+	/**
+	 * Filter as the String-based code has to do it: parse on every visit.
+	 */
+	@Benchmark
+	public int filterMovie() {
+		int matches = 0;
+		for (Movie movie : movies) {
+			int year = Integer.parseInt(movie.getYear().substring(0, 4));
+			double rating = "N/A".equals(movie.getImdbRating()) ? 0 : Double.parseDouble(movie.getImdbRating());
+			if (year >= 1990 && year <= 2015 && rating >= 7.0 && movie.getGenre().contains("Drama")) matches++;
+		}
+		return matches;
+	}
+
+	@Benchmark
+	public int filterCompact() {
+		int matches = 0;
+		long dramaBit = 1L << dramaId;
+		for (CompactMovie movie : compact) {
+			int year = movie.year();
+			if (year >= 1990 && year <= 2015 && movie.ratingTenths() >= 70 && (movie.genreMask() & dramaBit) != 0) {
+				matches++;
+			}
+		}
+		return matches;
+	}
+
+	@Benchmark
+	public CompactMovie encode() {
+		return CompactMovie.from(movies.get(size / 2), dictionary);
+	}
+
+	@Benchmark
+	public Movie decode() {
+		return compact[size / 2].toMovie();
+	}
+
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder().include(CompactMovieBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,103 @@
+package com.movieexplorer.bench;
+
+import com.movieexplorer.MovieExplorerApplication;
+import com.movieexplorer.support.StubUpstreamServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Full request path (Tomcat, controller, services, Thymeleaf) against
+ * in-process OMDb and Gemini stubs with no added latency, so the numbers
+ * (and -prof gc allocation rates) are the application's own cost.
+ * "Cached" variants repeat one request, so upstream answers come from the
+ * caches; searchUncached asks for a new title every time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ControllerEndToEndBenchmark {
+
+	private StubUpstreamServer omdb;
+	private StubUpstreamServer gemini;
+	private ConfigurableApplicationContext context;
+	private HttpClient http;
+	private String base;
+	private final AtomicLong uncached = new AtomicLong();
+
+	@Setup(Level.Trial)
+	public void start() throws IOException {
+		omdb = new StubUpstreamServer().omdb();
+		gemini = new StubUpstreamServer().gemini("1. The Prestige\n2. Shutter Island\n3. Memento");
+		context = new SpringApplicationBuilder(MovieExplorerApplication.class).run(
+			"--server.port=0",
+			"--omdb.api.url=" + omdb.url("/omdb"),
+			"--gemini.api.url=" + gemini.url("/gemini"),
+			"--spring.datasource.url=jdbc:h2:mem:bench",
+			"--spring.jpa.show-sql=false",
+			"--resilience.enabled=false",
+			"--logging.level.root=WARN");
+		int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+		base = "http://127.0.0.1:" + port;
+		http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+	}
+
+	@TearDown(Level.Trial)
+	public void stop() {
+		context.close();
+		omdb.close();
+		gemini.close();
+	}
+
+	@Benchmark
+	public int searchCached() throws Exception {
+		return get("/search?title=Inception");
+	}
+
+	@Benchmark
+	public int searchUncached() throws Exception {
+		return get("/search?title=bench-movie-" + uncached.incrementAndGet());
+	}
+
+	@Benchmark
+	public int recommendCached() throws Exception {
+		return get("/recommend?title=Inception&genres=sci-fi&moods=dark");
+	}
+
+	@Benchmark
+	public int compareCached() throws Exception {
+		return get("/compare?movie1=Inception&movie2=Memento");
+	}
+
+	private int get(String path) throws Exception {
+		HttpResponse<byte[]> response = http.send(HttpRequest.newBuilder(URI.create(base + path)).GET().build(),
+			HttpResponse.BodyHandlers.ofByteArray());
+		if (response.statusCode() != 200) {
+			throw new IllegalStateException(path + " answered " + response.statusCode());
+		}
+		return response.body().length;
+	}
+}
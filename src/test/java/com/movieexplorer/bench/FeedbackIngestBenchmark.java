@@ -0,0 +1,92 @@
+package com.movieexplorer.bench;
+
+import com.movieexplorer.MovieExplorerApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feedback rows stored per second: one POST /api/feedback per row versus
+ * POST /api/feedback/bulk with BULK_ROWS rows of NDJSON per request.
+ * Both scores are rows/s (the bulk score is per row, not per request).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FeedbackIngestBenchmark {
+
+	private static final int BULK_ROWS = 1000;
+
+	private static final String ROW = "{\"userName\":\"Bench User\",\"userEmail\":\"bench@example.com\","
+		+ "\"message\":\"Loved the recommendations, the compare page could show runtimes too.\"}";
+
+	private ConfigurableApplicationContext context;
+	private HttpClient http;
+	private URI single;
+	private URI bulk;
+	private String bulkBody;
+
+	@Setup(Level.Trial)
+	public void start() {
+		context = new SpringApplicationBuilder(MovieExplorerApplication.class).run(
+			"--server.port=0",
+			"--spring.datasource.url=jdbc:h2:mem:feedback-bench",
+			"--spring.jpa.show-sql=false",
+			"--logging.level.root=WARN");
+		int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+		single = URI.create("http://127.0.0.1:" + port + "/api/feedback");
+		bulk = URI.create("http://127.0.0.1:" + port + "/api/feedback/bulk");
+		bulkBody = (ROW + "\n").repeat(BULK_ROWS);
+		http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+	}
+
+	@TearDown(Level.Trial)
+	public void stop() {
+		context.close();
+	}
+
+	@Benchmark
+	public int singleItem() throws Exception {
+		return post(single, "application/json", ROW);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(BULK_ROWS)
+	public int bulkNdjson() throws Exception {
+		return post(bulk, "application/x-ndjson", bulkBody);
+	}
+
+	private int post(URI uri, String contentType, String body) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(uri)
+			.header("Content-Type", contentType)
+			.POST(HttpRequest.BodyPublishers.ofString(body))
+			.build();
+		HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+		if (response.statusCode() != 200) {
+			throw new IllegalStateException(uri + " answered " + response.statusCode());
+		}
+		return response.statusCode();
+	}
+}
@@ -0,0 +1,97 @@
+package com.movieexplorer.bench;
+
+import com.movieexplorer.model.Movie;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic, OMDb-shaped synthetic movies for benchmarks: genres,
+ * languages and people repeat across movies the way real catalog data does.
+ */
+public final class MovieFixtures {
+
+	private static final String[] GENRES = {"Action", "Adventure", "Animation", "Biography", "Comedy", "Crime",
+		"Documentary", "Drama", "Family", "Fantasy", "History", "Horror", "Music", "Mystery", "Romance",
+		"Sci-Fi", "Sport", "Thriller", "War", "Western"};
+	private static final String[] LANGUAGES = {"English", "English, Spanish", "French", "English, French",
+		"Japanese", "Korean", "German", "Hindi", "English, Italian", "Spanish"};
+	private static final String[] COUNTRIES = {"United States", "United Kingdom", "United States, United Kingdom",
+		"France", "Japan", "South Korea", "Germany", "India", "Canada", "Italy"};
+	private static final String[] RATED = {"G", "PG", "PG-13", "R", "Not Rated", "N/A"};
+	private static final String[] FIRST = {"Anna", "Ben", "Chris", "Diane", "Emma", "Frank", "Grace", "Henry",
+		"Isabel", "Jack", "Kate", "Leo", "Maria", "Noah", "Olivia", "Paul", "Quinn", "Rosa", "Sam", "Tom"};
+	private static final String[] LAST = {"Anderson", "Brown", "Clark", "Davis", "Evans", "Fisher", "Garcia",
+		"Harris", "Ito", "Johnson", "Kim", "Lopez", "Martin", "Nolan", "Owens", "Patel", "Reed", "Smith",
+		"Turner", "Walker", "Young", "Zhang", "Moreau", "Rossi", "Schmidt"};
+	private static final String[] MONTHS = {"Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct",
+		"Nov", "Dec"};
+	private static final String[] WORDS = {"A", "young", "detective", "family", "secret", "city", "war", "love",
+		"must", "discover", "the", "truth", "about", "her", "his", "past", "before", "it", "is", "too", "late",
+		"journey", "across", "world", "team", "unlikely", "heroes", "stop", "an", "ancient", "evil"};
+
+	private MovieFixtures() {
+	}
+
+	/**
+	 * Generates count movies; the same seed always gives the same movies.
+	 */
+	public static List<Movie> movies(int count, long seed) {
+		SplittableRandom random = new SplittableRandom(seed);
+		List<Movie> movies = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			movies.add(movie(i, random));
+		}
+		return movies;
+	}
+
+	private static Movie movie(int i, SplittableRandom random) {
+		int year = 1950 + random.nextInt(75);
+		Movie movie = new Movie();
+		movie.setImdbID(String.format("tt%07d", 1_000_000 + i));
+		movie.setTitle(pick(WORDS, random) + " " + pick(WORDS, random) + " " + (i + 1));
+		movie.setYear(Integer.toString(year));
+		movie.setRated(pick(RATED, random));
+		movie.setReleased(String.format("%02d %s %d", 1 + random.nextInt(28), pick(MONTHS, random), year));
+		movie.setRuntime((80 + random.nextInt(100)) + " min");
+		movie.setGenre(genres(random));
+		movie.setDirector(person(random));
+		movie.setWriter(person(random) + ", " + person(random));
+		movie.setActors(person(random) + ", " + person(random) + ", " + person(random));
+		movie.setPlot(sentence(random, 20 + random.nextInt(20)));
+		movie.setLanguage(pick(LANGUAGES, random));
+		movie.setCountry(pick(COUNTRIES, random));
+		movie.setAwards(random.nextInt(4) == 0 ? random.nextInt(10) + " wins & " + random.nextInt(20) + " nominations" : "N/A");
+		movie.setPoster("https://m.media-amazon.com/images/M/" + Long.toHexString(random.nextLong()) + "._V1_SX300.jpg");
+		movie.setImdbRating((1 + random.nextInt(9)) + "." + random.nextInt(10));
+		return movie;
+	}
+
+	private static String genres(SplittableRandom random) {
+		int first = random.nextInt(GENRES.length - 2);
+		int count = 1 + random.nextInt(3);
+		StringBuilder genres = new StringBuilder(GENRES[first]);
+		for (int g = 1; g < count; g++) {
+			genres.append(", ").append(GENRES[first + g]);
+		}
+		return genres.toString();
+	}
+
+	private static String person(SplittableRandom random) {
+		return pick(FIRST, random) + " " + pick(LAST, random);
+	}
+
+	private static String sentence(SplittableRandom random, int words) {
+		StringBuilder text = new StringBuilder();
+		for (int w = 0; w < words; w++) {
+			if (w > 0) text.append(' ');
+			text.append(pick(WORDS, random));
+		}
+		return text.append('.').toString();
+	}
+
+	private static String pick(String[] values, SplittableRandom random) {
+		return values[random.nextInt(values.length)];
+	}
+}
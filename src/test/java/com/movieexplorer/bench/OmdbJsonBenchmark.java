@@ -0,0 +1,63 @@
+package com.movieexplorer.bench;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.movieexplorer.model.Movie;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson binding of an OMDb movie payload: from a stream as UpstreamClient
+ * does for live responses, and from a String as the persistent cache tier does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OmdbJsonBenchmark {
+
+	// Configured like Spring Boot's ObjectMapper, which UpstreamClient uses
+	private final ObjectMapper mapper = new ObjectMapper()
+		.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+	private final ObjectReader reader = mapper.readerFor(Movie.class);
+
+	private byte[] payloadBytes;
+	private String payload;
+
+	@Setup
+	public void setUp() throws IOException {
+		Movie movie = MovieFixtures.movies(1, 42).get(0);
+		// OMDb also sends fields Movie does not map
+		String json = mapper.writeValueAsString(movie);
+		payload = json.substring(0, json.length() - 1)
+			+ ",\"Ratings\":[{\"Source\":\"Internet Movie Database\",\"Value\":\"8.8/10\"}],"
+			+ "\"Metascore\":\"74\",\"imdbVotes\":\"2,612,017\",\"Type\":\"movie\",\"Response\":\"True\"}";
+		payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Benchmark
+	public Movie readFromStream() throws IOException {
+		return reader.readValue(new ByteArrayInputStream(payloadBytes));
+	}
+
+	@Benchmark
+	public Movie readFromString() throws IOException {
+		return reader.readValue(payload);
+	}
+}
@@ -0,0 +1,105 @@
+package com.movieexplorer.bench;
+
+import com.movieexplorer.MovieExplorerApplication;
+import com.movieexplorer.support.StubUpstreamServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Requests per second for posters already in the disk cache, through
+ * Tomcat and PosterController, with sendfile on and off (the
+ * FileChannel.transferTo copy). The stub poster is a large JPEG, so the
+ * cost of moving its bytes shows; the thumbnail is the small-file case.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class PosterServingBenchmark {
+
+	@Param({"true", "false"})
+	public boolean sendfile;
+
+	private StubUpstreamServer images;
+	private StubUpstreamServer omdb;
+	private ConfigurableApplicationContext context;
+	private HttpClient http;
+	private String poster;
+
+	@Setup(Level.Trial)
+	public void start() throws Exception {
+		images = new StubUpstreamServer().images("/images", StubUpstreamServer.jpeg(1200, 1800));
+		omdb = new StubUpstreamServer().omdb(images.url("/images"));
+		Path cacheDir = Files.createTempDirectory("poster-bench");
+		context = new SpringApplicationBuilder(MovieExplorerApplication.class).run(
+			"--server.port=0",
+			"--omdb.api.url=" + omdb.url("/omdb"),
+			"--spring.datasource.url=jdbc:h2:mem:bench",
+			"--spring.jpa.show-sql=false",
+			"--resilience.enabled=false",
+			"--poster.cache.dir=" + cacheDir,
+			"--poster.sendfile=" + sendfile,
+			"--logging.level.root=WARN");
+		int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+		http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+		String base = "http://127.0.0.1:" + port;
+		poster = base + "/posters/tt" + Math.abs("inception".hashCode());
+		// Posters are only served for movies already looked up
+		http.send(HttpRequest.newBuilder(URI.create(base + "/search?title=inception")).GET().build(),
+			HttpResponse.BodyHandlers.discarding());
+		get(""); // Fetches the poster and makes its thumbnail
+	}
+
+	@TearDown(Level.Trial)
+	public void stop() {
+		context.close();
+		omdb.close();
+		images.close();
+	}
+
+	@Benchmark
+	public long cachedPoster() throws Exception {
+		return get("");
+	}
+
+	@Benchmark
+	public long cachedThumbnail() throws Exception {
+		return get("?size=thumb");
+	}
+
+	private long get(String query) throws IOException, InterruptedException {
+		HttpResponse<Void> response = http.send(HttpRequest.newBuilder(URI.create(poster + query)).GET().build(),
+			HttpResponse.BodyHandlers.discarding());
+		if (response.statusCode() != 200) {
+			throw new IllegalStateException(poster + query + " answered " + response.statusCode());
+		}
+		return response.headers().firstValueAsLong("Content-Length").orElse(-1);
+	}
+}
@@ -0,0 +1,78 @@
+package com.movieexplorer.bench;
+
+import com.movieexplorer.catalog.SimilarityIndex;
+import com.movieexplorer.model.Movie;
+import com.movieexplorer.model.MovieDictionary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local recommendation engine: latency of a "3 movies like X" query, with
+ * and without genre/mood filters, and the time to build the index from
+ * scratch (as at startup) over the synthetic catalog.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimilarityIndexBenchmark {
+
+	@Param({"1000", "10000"})
+	public int size;
+
+	private List<Movie> movies;
+	private SimilarityIndex index;
+	private int next;
+
+	@Setup
+	public void setUp() {
+		movies = MovieFixtures.movies(size, 42);
+		index = build();
+	}
+
+	@Benchmark
+	public List<SimilarityIndex.Neighbour> similar() {
+		return index.similar(nextId(), List.of(), List.of(), 3);
+	}
+
+	@Benchmark
+	public List<SimilarityIndex.Neighbour> similarFiltered() {
+		return index.similar(nextId(), List.of("drama", "thriller"), List.of("dark"), 3);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	@Warmup(iterations = 3)
+	@Measurement(iterations = 5)
+	public SimilarityIndex buildIndex() {
+		return build();
+	}
+
+	private SimilarityIndex build() {
+		SimilarityIndex built = new SimilarityIndex(new MovieDictionary());
+		for (Movie movie : movies) {
+			built.add(movie);
+		}
+		return built;
+	}
+
+	private String nextId() {
+		next = (next + 7919) % size;
+		return movies.get(next).getImdbID();
+	}
+}
@@ -0,0 +1,118 @@
+package com.movieexplorer.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LruTtlCacheTest {
+
+	// Time source the tests move forward by hand
+	private final AtomicLong now = new AtomicLong();
+
+	@Test
+	void evictsTheLeastRecentlyUsedEntryFirst() {
+		LruTtlCache<String, String> cache = new LruTtlCache<>("test", 3, Duration.ofHours(1),
+			(k, v) -> 1, Long.MAX_VALUE, now::get);
+		cache.put("a", "A");
+		cache.put("b", "B");
+		cache.put("c", "C");
+		assertEquals("A", cache.get("a"));
+
+		cache.put("d", "D");
+
+		assertNull(cache.get("b"));
+		assertEquals("A", cache.get("a"));
+		assertEquals("C", cache.get("c"));
+		assertEquals("D", cache.get("d"));
+		assertEquals(3, cache.size());
+		assertEquals(1, cache.stats().evictions());
+	}
+
+	@Test
+	void evictsUntilTheTotalWeightFits() {
+		LruTtlCache<String, String> cache = new LruTtlCache<>("test", 100, Duration.ofHours(1),
+			(k, v) -> v.length(), 10, now::get);
+		cache.put("a", "12345");
+		cache.put("b", "1234");
+		cache.put("c", "123");
+
+		assertNull(cache.get("a"));
+		assertEquals(7, cache.stats().weight());
+
+		// Replacing a value swaps its weight rather than adding to it
+		cache.put("b", "12");
+		assertEquals(5, cache.stats().weight());
+		assertEquals(2, cache.size());
+
+		// A value heavier than the whole bound is not kept at all
+		cache.put("huge", "12345678901");
+		assertEquals(0, cache.size());
+		assertEquals(0, cache.stats().weight());
+	}
+
+	@Test
+	void entriesExpireAfterTheirTtl() {
+		LruTtlCache<String, String> cache = new LruTtlCache<>("test", 10, Duration.ofSeconds(10),
+			(k, v) -> 1, Long.MAX_VALUE, now::get);
+		cache.put("default", "D");
+		cache.put("short", "S", Duration.ofSeconds(2));
+
+		advance(2);
+		assertNull(cache.get("short"));
+		assertEquals("D", cache.get("default"));
+
+		advance(7);
+		assertEquals("D", cache.get("default"));
+		advance(1);
+		assertNull(cache.get("default"));
+		assertNull(cache.getStale("default"));
+
+		CacheStats stats = cache.stats();
+		assertEquals(0, stats.size());
+		assertEquals(2, stats.expirations());
+		assertEquals(2, stats.hits());
+		assertEquals(2, stats.misses());
+	}
+
+	@Test
+	void expiredEntriesStayReadableAsStaleForTheGracePeriod() {
+		LruTtlCache<String, String> cache = new LruTtlCache<>("test", 10, Duration.ofSeconds(10),
+			(k, v) -> 1, Long.MAX_VALUE, Duration.ofSeconds(5), now::get);
+		cache.put("a", "A");
+
+		advance(12);
+		assertNull(cache.get("a"));
+		assertEquals("A", cache.getStale("a"));
+		assertEquals(1, cache.size());
+
+		advance(3);
+		assertNull(cache.getStale("a"));
+		assertNull(cache.get("a"));
+		assertEquals(0, cache.size());
+		assertEquals(1, cache.stats().expirations());
+	}
+
+	@Test
+	void snapshotHoldsLiveEntriesWithTheirRemainingTtl() {
+		LruTtlCache<String, String> cache = new LruTtlCache<>("test", 10, Duration.ofSeconds(10),
+			(k, v) -> 1, Long.MAX_VALUE, now::get);
+		cache.put("a", "A");
+		cache.put("b", "B", Duration.ofSeconds(3));
+		cache.put("c", "C", Duration.ofSeconds(30));
+
+		advance(4);
+
+		assertEquals(List.of(
+			new LruTtlCache.Snapshot<>("a", "A", Duration.ofSeconds(6)),
+			new LruTtlCache.Snapshot<>("c", "C", Duration.ofSeconds(26))), cache.snapshot());
+	}
+
+	private void advance(long seconds) {
+		now.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+	}
+}
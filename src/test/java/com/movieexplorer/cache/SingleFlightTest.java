@@ -0,0 +1,80 @@
+package com.movieexplorer.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+	@Test
+	void concurrentCallersShareOneExecution() throws Exception {
+		SingleFlight<String, String> flight = new SingleFlight<>("test");
+		AtomicInteger upstreamCalls = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		int callers = 50;
+
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			List<Future<String>> results = new ArrayList<>();
+			for (int i = 0; i < callers; i++) {
+				results.add(executor.submit(() -> flight.execute("inception", () -> {
+					upstreamCalls.incrementAndGet();
+					await(release);
+					return "Inception";
+				})));
+			}
+			while (flight.stats().executions() + flight.stats().collapsed() < callers) {
+				Thread.sleep(5);
+			}
+			release.countDown();
+			for (Future<String> result : results) {
+				assertEquals("Inception", result.get());
+			}
+		}
+
+		assertEquals(1, upstreamCalls.get());
+		assertEquals(callers - 1, flight.stats().collapsed());
+		assertEquals(0, flight.inFlight());
+	}
+
+	@Test
+	void failuresReachEveryWaiterAndAreNotCached() throws Exception {
+		SingleFlight<String, String> flight = new SingleFlight<>("test");
+		CountDownLatch release = new CountDownLatch(1);
+
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			List<Future<String>> results = new ArrayList<>();
+			for (int i = 0; i < 10; i++) {
+				results.add(executor.submit(() -> flight.execute("missing", () -> {
+					await(release);
+					throw new RuntimeException("Movie not found: missing");
+				})));
+			}
+			while (flight.stats().executions() + flight.stats().collapsed() < 10) {
+				Thread.sleep(5);
+			}
+			release.countDown();
+			for (Future<String> result : results) {
+				Exception e = assertThrows(Exception.class, result::get);
+				assertEquals("Movie not found: missing", e.getCause().getMessage());
+			}
+		}
+
+		assertEquals("found", flight.execute("missing", () -> "found"));
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,88 @@
+package com.movieexplorer.catalog;
+
+import com.movieexplorer.model.Movie;
+import com.movieexplorer.model.MovieDictionary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogIndexTest {
+
+	private CatalogIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new CatalogIndex(new MovieDictionary());
+		index.add(movie("tt1375666", "Inception", "2010", "8.8", "Action, Adventure, Sci-Fi", "Christopher Nolan",
+			"Leonardo DiCaprio, Joseph Gordon-Levitt", "A thief who steals corporate secrets through dream-sharing."));
+		index.add(movie("tt0816692", "Interstellar", "2014", "8.7", "Adventure, Drama, Sci-Fi", "Christopher Nolan",
+			"Matthew McConaughey, Anne Hathaway", "Explorers travel through a wormhole in space."));
+		index.add(movie("tt0211915", "Amélie", "2001", "8.3", "Comedy, Romance", "Jean-Pierre Jeunet",
+			"Audrey Tautou, Mathieu Kassovitz", "A shy waitress decides to change the lives of those around her."));
+	}
+
+	@Test
+	void matchesExactPrefixAndTypo() {
+		assertEquals(List.of("tt1375666"), ids(index.search(query("inception"))));
+		assertEquals(List.of("tt0816692"), ids(index.search(query("interst"))));
+		assertEquals(List.of("tt1375666"), ids(index.search(query("inceptoin"))));
+		assertEquals(List.of("tt1375666"), ids(index.search(query("incpetion dicaprio"))));
+		assertEquals(List.of("tt0211915"), ids(index.search(query("amelie"))));
+	}
+
+	@Test
+	void ranksTitleMatchesAboveOtherFields() {
+		index.add(movie("tt9999999", "Dreams", "1990", "7.0", "Drama", "Akira Kurosawa", "Akira Terao", "Vignettes."));
+
+		assertEquals(List.of("tt9999999", "tt1375666"), ids(index.search(query("dream"))));
+	}
+
+	@Test
+	void appliesFacetFiltersAndCountsGenres() {
+		CatalogResult result = index.search(new CatalogQuery("nolan", "sci-fi", 2012, null, 8.0, 10));
+
+		assertEquals(List.of("tt0816692"), ids(result));
+		assertEquals(1, result.total());
+		assertEquals(1, result.genres().get("Drama"));
+
+		CatalogResult all = index.search(new CatalogQuery("", null, null, null, null, 2));
+		assertEquals(3, all.total());
+		assertEquals(2, all.hits().size());
+	}
+
+	@Test
+	void reindexingAMovieReplacesItsTerms() {
+		index.add(movie("tt1375666", "Inception (Director's Cut)", "2010", "8.8", "Action", "Christopher Nolan",
+			"Leonardo DiCaprio", "Same thief, longer dream."));
+
+		assertEquals(3, index.size());
+		assertTrue(index.search(query("corporate")).hits().isEmpty());
+		assertEquals(List.of("tt1375666"), ids(index.search(query("directors cut"))));
+	}
+
+	private static CatalogQuery query(String text) {
+		return new CatalogQuery(text, null, null, null, null, 10);
+	}
+
+	private static List<String> ids(CatalogResult result) {
+		return result.hits().stream().map(h -> h.movie().getImdbID()).toList();
+	}
+
+	private static Movie movie(String id, String title, String year, String rating, String genre,
+							   String director, String actors, String plot) {
+		Movie movie = new Movie();
+		movie.setImdbID(id);
+		movie.setTitle(title);
+		movie.setYear(year);
+		movie.setImdbRating(rating);
+		movie.setGenre(genre);
+		movie.setDirector(director);
+		movie.setActors(actors);
+		movie.setPlot(plot);
+		movie.setLanguage("English");
+		return movie;
+	}
+}
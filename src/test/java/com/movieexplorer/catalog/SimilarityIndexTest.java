@@ -0,0 +1,90 @@
+package com.movieexplorer.catalog;
+
+import com.movieexplorer.model.Movie;
+import com.movieexplorer.model.MovieDictionary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimilarityIndexTest {
+
+	private SimilarityIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new SimilarityIndex(new MovieDictionary());
+		index.add(movie("tt1375666", "Inception", "2010", "8.8", "Action, Sci-Fi, Thriller", "Christopher Nolan",
+			"Leonardo DiCaprio, Tom Hardy", "A thief who steals corporate secrets through dream-sharing technology."));
+		index.add(movie("tt0816692", "Interstellar", "2014", "8.7", "Adventure, Drama, Sci-Fi", "Christopher Nolan",
+			"Matthew McConaughey, Anne Hathaway", "Explorers travel through a wormhole in space to save humanity."));
+		index.add(movie("tt0482571", "The Prestige", "2006", "8.5", "Drama, Mystery, Sci-Fi", "Christopher Nolan",
+			"Christian Bale, Hugh Jackman", "Two stage magicians engage in a battle of secrets and obsession."));
+		index.add(movie("tt0133093", "The Matrix", "1999", "8.7", "Action, Sci-Fi", "Lana Wachowski",
+			"Keanu Reeves, Laurence Fishburne", "A hacker learns the world is a simulated dream run by machines."));
+		index.add(movie("tt0109830", "Forrest Gump", "1994", "8.8", "Drama, Romance", "Robert Zemeckis",
+			"Tom Hanks, Robin Wright", "A slow-witted but kind man witnesses decades of American history."));
+		index.add(movie("tt0107048", "Groundhog Day", "1993", "8.0", "Comedy, Fantasy, Romance", "Harold Ramis",
+			"Bill Murray, Andie MacDowell", "A weatherman relives the same day again and again."));
+	}
+
+	@Test
+	void ranksSharedPeopleGenresAndPlotFirst() {
+		List<String> titles = titles(index.similar("tt1375666", List.of(), List.of(), 3));
+
+		assertEquals(3, titles.size());
+		assertEquals("The Matrix", titles.get(0));
+		assertTrue(titles.containsAll(List.of("Interstellar", "The Prestige")), titles.toString());
+	}
+
+	@Test
+	void scoresAreBetweenZeroAndOneAndDescending() {
+		List<SimilarityIndex.Neighbour> neighbours = index.similar("tt0816692", List.of(), List.of(), 5);
+
+		for (int i = 0; i < neighbours.size(); i++) {
+			assertTrue(neighbours.get(i).score() > 0 && neighbours.get(i).score() <= 1);
+			if (i > 0) assertTrue(neighbours.get(i - 1).score() >= neighbours.get(i).score());
+		}
+		assertFalse(titles(neighbours).contains("Interstellar"));
+	}
+
+	@Test
+	void genreFilterUsesFormSpellingAndMoodsReorder() {
+		assertEquals(List.of("Groundhog Day"), titles(index.similar("tt0109830", List.of("romantic"), List.of(), 3)));
+		assertEquals(List.of(), index.similar("tt0109830", List.of("western"), List.of(), 3));
+
+		assertEquals(List.of("Groundhog Day"), titles(index.similar("tt0109830", List.of(), List.of("funny"), 1)));
+		assertEquals(List.of("The Prestige"), titles(index.similar("tt0109830", List.of(), List.of("dark"), 1)));
+	}
+
+	@Test
+	void replacingAMovieKeepsOneCopy() {
+		index.add(movie("tt0133093", "The Matrix", "1999", "8.7", "Action, Sci-Fi", "Lana Wachowski",
+			"Keanu Reeves", "A hacker discovers reality is a simulation."));
+
+		assertEquals(6, index.size());
+		List<String> titles = titles(index.similar("tt1375666", List.of(), List.of(), 10));
+		assertEquals(1, titles.stream().filter("The Matrix"::equals).count());
+		assertEquals(List.of(), index.similar("tt9999999", List.of(), List.of(), 3));
+	}
+
+	private static List<String> titles(List<SimilarityIndex.Neighbour> neighbours) {
+		return neighbours.stream().map(n -> n.movie().getTitle()).toList();
+	}
+
+	private static Movie movie(String id, String title, String year, String rating, String genre,
+							   String director, String actors, String plot) {
+		Movie movie = new Movie();
+		movie.setImdbID(id);
+		movie.setTitle(title);
+		movie.setYear(year);
+		movie.setImdbRating(rating);
+		movie.setGenre(genre);
+		movie.setDirector(director);
+		movie.setActors(actors);
+		movie.setPlot(plot);
+		return movie;
+	}
+}
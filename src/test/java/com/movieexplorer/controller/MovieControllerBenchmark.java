@@ -0,0 +1,43 @@
+package com.movieexplorer.controller;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request helpers of the recommendation page: filter validation and
+ * cleanup of Gemini's numbered list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MovieControllerBenchmark {
+
+	private static final String RECOMMENDATIONS = "1. The Prestige\n2) Shutter Island\n\n3. Memento\n";
+
+	private final List<String> genres = List.of("Sci-Fi", "Thriller", "western", "Drama");
+	private final List<String> moods = List.of("Dark", "thought-provoking", "sleepy");
+
+	@Benchmark
+	public List<String> cleanRecommendations() {
+		return MovieController.cleanRecommendations(RECOMMENDATIONS);
+	}
+
+	@Benchmark
+	public List<String> validateFilters() {
+		MovieController.validateFilters(moods, MovieController.VALID_MOODS);
+		return MovieController.validateFilters(genres, MovieController.VALID_GENRES);
+	}
+}
@@ -0,0 +1,78 @@
+package com.movieexplorer.http;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.movieexplorer.config.HttpClientProperties;
+import com.movieexplorer.config.ResilienceProperties;
+import com.movieexplorer.resilience.UpstreamGuard;
+import com.movieexplorer.resilience.UpstreamResilience;
+import com.movieexplorer.support.StubUpstreamServer;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.ReactorResourceFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReactiveUpstreamClientTest {
+
+	private StubUpstreamServer omdb;
+	private ReactorResourceFactory resources;
+	private UpstreamResilience resilience;
+	private ReactiveUpstreamClient client;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		omdb = new StubUpstreamServer().omdb();
+		resources = new ReactorResourceFactory();
+		resources.setUseGlobalResources(false);
+		resources.setShutdownQuietPeriod(Duration.ZERO);
+		resources.afterPropertiesSet();
+		resilience = new UpstreamResilience(new ResilienceProperties(true, Map.of("omdb",
+			new ResilienceProperties.Upstream(1_000_000, 1_000_000, Duration.ofSeconds(1), 1, 1, 1,
+				Duration.ofSeconds(1), 0.5, 20, 10, Duration.ofSeconds(30), 3))));
+		HttpClientProperties properties = new HttpClientProperties(Duration.ofSeconds(3), Duration.ofSeconds(10),
+			Duration.ofSeconds(30), 32, 20, Duration.ofMinutes(5), false, null);
+		client = new ReactiveUpstreamClient(WebClient.builder(), resources, properties, new UpstreamMetricsRegistry(),
+			resilience, ObservationRegistry.NOOP, new ObjectMapper());
+	}
+
+	@AfterEach
+	void tearDown() {
+		resources.destroy();
+		omdb.close();
+	}
+
+	@Test
+	void cancellingDuringAdmissionGivesTheBulkheadSlotBack() throws Exception {
+		URI uri = URI.create(omdb.url("/omdb") + "?apikey=test&t=Heat");
+		UpstreamGuard guard = resilience.forUpstream("omdb");
+		UpstreamGuard.Permit held = guard.acquire("test");
+
+		// Admission runs where the cancellation's interrupt cannot reach it, so it
+		// completes with a permit after the subscriber has gone
+		Schedulers.onScheduleHook("uninterrupted", task -> () -> Thread.ofVirtual().start(task));
+		try {
+			Disposable call = client.getJson("omdb", uri, Map.class).subscribe();
+			Thread.sleep(200);
+			call.dispose();
+		} finally {
+			Schedulers.resetOnScheduleHook("uninterrupted");
+		}
+		held.release(UpstreamGuard.Outcome.SUCCESS, 1_000_000);
+
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (guard.inFlight() > 0 && System.nanoTime() < deadline) Thread.sleep(10);
+		assertEquals(0, guard.inFlight());
+		assertEquals("Heat", client.getJson("omdb", uri, Map.class).block(Duration.ofSeconds(5)).get("Title"));
+	}
+}
@@ -0,0 +1,116 @@
+package com.movieexplorer.http;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.movieexplorer.config.HttpClientProperties;
+import com.movieexplorer.config.ResilienceProperties;
+import com.movieexplorer.resilience.UpstreamGuard;
+import com.movieexplorer.resilience.UpstreamRejectedException;
+import com.movieexplorer.resilience.UpstreamResilience;
+import com.movieexplorer.support.StubUpstreamServer;
+import io.micrometer.observation.ObservationRegistry;
+import okhttp3.ConnectionPool;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UpstreamClientTest {
+
+	private StubUpstreamServer omdb;
+	private UpstreamResilience resilience;
+	private UpstreamClient client;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		omdb = new StubUpstreamServer().omdb();
+		resilience = new UpstreamResilience(new ResilienceProperties(true, Map.of("omdb",
+			new ResilienceProperties.Upstream(1_000_000, 1_000_000, Duration.ofSeconds(1), 2, 2, 2,
+				Duration.ofSeconds(1), 0.5, 20, 10, Duration.ofSeconds(30), 3))));
+		HttpClientProperties properties = new HttpClientProperties(Duration.ofSeconds(3), Duration.ofSeconds(10),
+			Duration.ofSeconds(30), 1, 20, Duration.ofMinutes(5), false, null);
+		ConnectionPool pool = new ConnectionPool(20, 5, TimeUnit.MINUTES);
+		client = new UpstreamClient(new OkHttpClient.Builder().connectionPool(pool).build(), pool, properties,
+			new UpstreamMetricsRegistry(), new ObjectMapper(), resilience, ObservationRegistry.NOOP);
+	}
+
+	@AfterEach
+	void tearDown() {
+		omdb.close();
+	}
+
+	@Test
+	void waitingForAConnectionSlotHoldsNoBulkheadPermit() throws Exception {
+		HttpUrl url = HttpUrl.get(omdb.url("/omdb") + "?apikey=test&t=Heat");
+		UpstreamGuard guard = resilience.forUpstream("omdb");
+		omdb.latency(500);
+
+		AtomicReference<Object> first = new AtomicReference<>();
+		AtomicReference<Object> second = new AtomicReference<>();
+		Thread a = Thread.ofPlatform().start(() -> first.set(title(url)));
+		Thread.sleep(100);
+		Thread b = Thread.ofPlatform().start(() -> second.set(title(url)));
+		Thread.sleep(200);
+
+		// The second call queues for the single connection slot without taking a bulkhead slot
+		assertEquals(1, guard.inFlight());
+
+		a.join(5000);
+		b.join(5000);
+		assertEquals("Heat", first.get());
+		assertEquals("Heat", second.get());
+		assertEquals(0, guard.inFlight());
+	}
+
+	@Test
+	void openBreakerRejectsWithoutWaitingForASlot() throws Exception {
+		HttpUrl url = HttpUrl.get(omdb.url("/omdb") + "?apikey=test&t=Heat");
+		UpstreamGuard guard = resilience.forUpstream("omdb");
+		omdb.latency(1000);
+		Thread slow = Thread.ofPlatform().start(() -> title(url));
+		Thread.sleep(100);
+		for (int i = 0; i < 10; i++) guard.acquire("other").release(UpstreamGuard.Outcome.FAILED, 0);
+
+		long start = System.nanoTime();
+		Object rejected = title(url);
+		long waitedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+		assertEquals(UpstreamRejectedException.Reason.CIRCUIT_OPEN,
+			assertInstanceOf(UpstreamRejectedException.class, rejected).getReason());
+		assertTrue(waitedMs < 300, "waited " + waitedMs + " ms");
+		slow.join(5000);
+	}
+
+	@Test
+	void callsQueuedPastMaxQueueWaitAreRejected() throws Exception {
+		HttpUrl url = HttpUrl.get(omdb.url("/omdb") + "?apikey=test&t=Heat");
+		omdb.latency(2000);
+		Thread slow = Thread.ofPlatform().start(() -> title(url));
+		Thread.sleep(100);
+
+		long start = System.nanoTime();
+		Object rejected = title(url);
+		long waitedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+		assertEquals(UpstreamRejectedException.Reason.BULKHEAD_FULL,
+			assertInstanceOf(UpstreamRejectedException.class, rejected).getReason());
+		assertTrue(waitedMs < 1500, "waited " + waitedMs + " ms");
+		slow.join(5000);
+	}
+
+	private Object title(HttpUrl url) {
+		try {
+			return client.getJson("omdb", url, Map.class).get("Title");
+		} catch (IOException e) {
+			return e;
+		}
+	}
+}
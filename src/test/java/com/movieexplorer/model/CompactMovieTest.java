@@ -0,0 +1,67 @@
+package com.movieexplorer.model;
+
+import com.movieexplorer.bench.MovieFixtures;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactMovieTest {
+
+	@Test
+	void roundTripsOmdbShapedMovies() {
+		MovieDictionary dictionary = new MovieDictionary();
+		for (Movie movie : MovieFixtures.movies(500, 7)) {
+			assertEquals(movie, CompactMovie.from(movie, dictionary).toMovie());
+		}
+	}
+
+	@Test
+	void parsesNumbersOnceAndKeepsOddTextVerbatim() {
+		MovieDictionary dictionary = new MovieDictionary();
+		Movie series = new Movie();
+		series.setImdbID("tt0903747");
+		series.setTitle("Breaking Bad");
+		series.setYear("2008–2013");
+		series.setRuntime("49 min");
+		series.setImdbRating("9.5");
+		series.setReleased("20 Jan 2008");
+		series.setGenre("Crime, Drama, Thriller");
+
+		CompactMovie compact = CompactMovie.from(series, dictionary);
+		assertEquals(2008, compact.year());
+		assertEquals(49, compact.runtimeMinutes());
+		assertEquals(95, compact.ratingTenths());
+		assertTrue(compact.hasGenre(dictionary.genreId("Drama")));
+		assertFalse(compact.hasGenre(dictionary.genreId("Comedy")));
+		assertEquals(series, compact.toMovie());
+
+		Movie odd = new Movie();
+		odd.setImdbID("tt0000001");
+		odd.setYear("N/A");
+		odd.setRuntime("1h 30m");
+		odd.setImdbRating("N/A");
+		odd.setReleased("sometime in 1999");
+		odd.setActors("N/A");
+
+		CompactMovie oddCompact = CompactMovie.from(odd, dictionary);
+		assertEquals(CompactMovie.NA, oddCompact.year());
+		assertEquals(CompactMovie.OTHER, oddCompact.runtimeMinutes());
+		assertEquals(odd, oddCompact.toMovie());
+	}
+
+	@Test
+	void retainsLessMemoryThanMovie() {
+		List<Movie> movies = MovieFixtures.movies(5_000, 42);
+		MovieDictionary dictionary = new MovieDictionary();
+		CompactMovie[] compact = movies.stream().map(m -> CompactMovie.from(m, dictionary)).toArray(CompactMovie[]::new);
+
+		long movieBytes = GraphLayout.parseInstance(movies.toArray()).totalSize();
+		// Includes the dictionary, amortized over the entries
+		long compactBytes = GraphLayout.parseInstance(compact, dictionary).totalSize();
+		assertTrue(compactBytes * 4 < movieBytes * 3, "CompactMovie " + compactBytes / movies.size()
+			+ " bytes/entry vs Movie " + movieBytes / movies.size());
+	}
+}
@@ -0,0 +1,58 @@
+package com.movieexplorer.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveLimiterTest {
+
+	private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+	@Test
+	void growsWhileLatencyStaysAtBaselineAndShrinksWhenItQueues() throws Exception {
+		AdaptiveLimiter limiter = new AdaptiveLimiter(10, 2, 40);
+		for (int i = 0; i < 10; i++) {
+			fill(limiter);
+			drain(limiter, 20 * MS);
+		}
+		int grown = limiter.limit();
+		assertTrue(grown > 10, "limit grew to " + grown);
+
+		// Latency five times the baseline: calls are queueing upstream
+		for (int i = 0; i < 5; i++) {
+			fill(limiter);
+			drain(limiter, 100 * MS);
+		}
+		assertTrue(limiter.limit() < grown, "limit shrank to " + limiter.limit());
+		assertEquals(20.0, limiter.minRttMs());
+	}
+
+	@Test
+	void throttledCallsCutTheLimitAndFullBulkheadRejects() throws Exception {
+		AdaptiveLimiter limiter = new AdaptiveLimiter(10, 2, 40);
+		assertTrue(limiter.tryAcquire(Duration.ZERO));
+		limiter.onDropped();
+		assertEquals(7, limiter.limit());
+		for (int i = 0; i < 5; i++) {
+			assertTrue(limiter.tryAcquire(Duration.ZERO));
+			limiter.onDropped();
+		}
+		assertEquals(2, limiter.limit(), "never below the minimum");
+
+		assertTrue(limiter.tryAcquire(Duration.ZERO));
+		assertTrue(limiter.tryAcquire(Duration.ZERO));
+		assertFalse(limiter.tryAcquire(Duration.ofMillis(20)));
+		assertEquals(1, limiter.rejected());
+	}
+
+	private static void fill(AdaptiveLimiter limiter) throws InterruptedException {
+		while (limiter.tryAcquire(Duration.ZERO)) { }
+	}
+
+	private static void drain(AdaptiveLimiter limiter, long rttNanos) {
+		while (limiter.inFlight() > 0) limiter.onSuccess(rttNanos);
+	}
+}
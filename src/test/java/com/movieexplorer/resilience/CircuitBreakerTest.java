@@ -0,0 +1,73 @@
+package com.movieexplorer.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+	private final AtomicLong clock = new AtomicLong();
+	private final CircuitBreaker breaker = new CircuitBreaker(0.5, 4, 4, Duration.ofSeconds(10), 2, clock::get);
+
+	@Test
+	void opensAtFailureRateThenProbesBeforeClosing() {
+		record(false);
+		record(true);
+		record(false);
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.state(), "below minimum calls");
+		record(true);
+		assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+		assertEquals(CircuitBreaker.Call.REJECTED, breaker.tryAcquire());
+
+		clock.addAndGet(Duration.ofSeconds(10).toNanos());
+		CircuitBreaker.Call first = breaker.tryAcquire();
+		CircuitBreaker.Call second = breaker.tryAcquire();
+		assertEquals(CircuitBreaker.Call.TRIAL, first);
+		assertEquals(CircuitBreaker.Call.REJECTED, breaker.tryAcquire(), "only two trial calls");
+		breaker.onResult(first, false);
+		breaker.onResult(second, false);
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+		assertEquals(0.0, breaker.failureRate());
+	}
+
+	@Test
+	void rejectsNowOnlyWhileOpenAndTakesNoTrial() {
+		assertFalse(breaker.rejectsNow());
+		for (int i = 0; i < 4; i++) record(true);
+		assertTrue(breaker.rejectsNow());
+
+		clock.addAndGet(Duration.ofSeconds(10).toNanos());
+		assertFalse(breaker.rejectsNow(), "open duration over");
+		assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+		assertEquals(CircuitBreaker.Call.TRIAL, breaker.tryAcquire());
+	}
+
+	@Test
+	void failedTrialReopens() {
+		for (int i = 0; i < 4; i++) record(true);
+		clock.addAndGet(Duration.ofSeconds(11).toNanos());
+		CircuitBreaker.Call trial = breaker.tryAcquire();
+		breaker.onResult(trial, true);
+		assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+		assertEquals(2, breaker.timesOpened());
+	}
+
+	@Test
+	void oldOutcomesLeaveTheWindow() {
+		record(true);
+		for (int i = 0; i < 4; i++) record(false);
+		assertEquals(0.0, breaker.failureRate());
+		record(true);
+		assertEquals(0.25, breaker.failureRate());
+		assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+	}
+
+	private void record(boolean failed) {
+		CircuitBreaker.Call call = breaker.tryAcquire();
+		assertEquals(CircuitBreaker.Call.NORMAL, call);
+		breaker.onResult(call, failed);
+	}
+}
@@ -0,0 +1,37 @@
+package com.movieexplorer.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+	private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+	@Test
+	void allowsBurstThenRefillsAtRate() throws Exception {
+		AtomicLong clock = new AtomicLong();
+		TokenBucket bucket = new TokenBucket(2, 3, clock::get);
+		for (int i = 0; i < 3; i++) assertTrue(bucket.tryAcquire(Duration.ZERO));
+		assertFalse(bucket.tryAcquire(Duration.ZERO));
+		assertFalse(bucket.tryAcquire(Duration.ofMillis(400)), "next token is 500ms away");
+
+		clock.addAndGet(500 * MS);
+		assertTrue(bucket.tryAcquire(Duration.ZERO));
+		assertEquals(2, bucket.rejected());
+	}
+
+	@Test
+	void waitsForTheNextTokenWhenWithinMaxWait() throws Exception {
+		TokenBucket bucket = new TokenBucket(20, 1);
+		assertTrue(bucket.tryAcquire(Duration.ZERO));
+		long start = System.nanoTime();
+		assertTrue(bucket.tryAcquire(Duration.ofMillis(200)));
+		assertTrue(System.nanoTime() - start >= 40 * MS, "slept until the token arrived");
+		assertEquals(1, bucket.delayed());
+	}
+}
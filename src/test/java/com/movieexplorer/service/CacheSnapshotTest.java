@@ -0,0 +1,56 @@
+package com.movieexplorer.service;
+
+import com.movieexplorer.model.Movie;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheSnapshotTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void roundTripsLiveEntriesAndDropsExpiredOnes() throws Exception {
+		Movie movie = new Movie();
+		movie.setTitle("Amélie");
+		movie.setImdbID("tt0211915");
+		movie.setPlot("Une fille « timide »");
+		Movie expired = new Movie();
+		expired.setImdbID("tt0000001");
+
+		Path file = dir.resolve("snapshot.bin");
+		CacheSnapshot.write(file, new CacheSnapshot.Contents(
+			List.of(new CacheSnapshot.Timed<>(movie, 2_000), new CacheSnapshot.Timed<>(expired, 1_000)),
+			List.of(new CacheSnapshot.Timed<>(new String[] {"amelie", "tt0211915"}, 2_000)),
+			List.of(new CacheSnapshot.Timed<>(new String[] {"query:x", "answer"}, 500))), 100);
+
+		CacheSnapshot.Contents read = CacheSnapshot.read(file, 1_000);
+		assertEquals(1, read.movies().size());
+		Movie restored = read.movies().get(0).value();
+		assertEquals("Amélie", restored.getTitle());
+		assertEquals("Une fille « timide »", restored.getPlot());
+		assertNull(restored.getDirector());
+		assertEquals(2_000, read.movies().get(0).expiresAtMillis());
+		assertArrayEquals(new String[] {"amelie", "tt0211915"}, read.titles().get(0).value());
+		assertTrue(read.answers().isEmpty());
+	}
+
+	@Test
+	void rejectsCorruptFile() throws Exception {
+		Path file = dir.resolve("snapshot.bin");
+		CacheSnapshot.write(file, new CacheSnapshot.Contents(List.of(),
+			List.of(new CacheSnapshot.Timed<>(new String[] {"heat", "tt0113277"}, 2_000)), List.of()), 100);
+		byte[] bytes = Files.readAllBytes(file);
+		bytes[bytes.length - 10] ^= 1;
+		Files.write(file, bytes);
+
+		assertThrows(IOException.class, () -> CacheSnapshot.read(file, 1_000));
+	}
+}
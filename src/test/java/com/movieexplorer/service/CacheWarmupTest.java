@@ -0,0 +1,114 @@
+package com.movieexplorer.service;
+
+import com.movieexplorer.model.Movie;
+import com.movieexplorer.support.StubUpstreamServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+	"spring.datasource.url=jdbc:h2:mem:cache-warmup",
+	"warmup.hot-titles=Hot One, Hot Two",
+	"warmup.prefetch-parallel=1",
+	"warmup.snapshot-interval-minutes=0",
+	"resilience.enabled=false"
+})
+class CacheWarmupTest {
+
+	@TempDir
+	static Path dir;
+
+	private static final StubUpstreamServer omdb = start();
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private CacheWarmup warmup;
+
+	private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+	/**
+	 * Leaves a snapshot behind as a previous run would: one movie and one Gemini answer.
+	 */
+	@DynamicPropertySource
+	static void snapshot(DynamicPropertyRegistry registry) throws Exception {
+		Movie movie = new Movie();
+		movie.setTitle("Snapshot Movie");
+		movie.setDirector("Snapshot Director");
+		movie.setGenre("Drama");
+		movie.setImdbID("tt0000042");
+		long expires = System.currentTimeMillis() + 3_600_000;
+		Path file = dir.resolve("cache-snapshot.bin");
+		CacheSnapshot.write(file, new CacheSnapshot.Contents(
+			List.of(new CacheSnapshot.Timed<>(movie, expires)),
+			List.of(new CacheSnapshot.Timed<>(new String[] {"snapshot movie", "tt0000042"}, expires)),
+			List.of(new CacheSnapshot.Timed<>(new String[] {GeminiResponseCache.queryKey("cached question"), "Snapshot answer"}, expires))),
+			System.currentTimeMillis());
+		registry.add("warmup.snapshot-file", file::toString);
+		registry.add("omdb.api.url", () -> omdb.url("/omdb"));
+		registry.add("gemini.api.url", () -> omdb.url("/unreachable"));
+	}
+
+	@AfterAll
+	static void stopStub() {
+		omdb.close();
+	}
+
+	@Test
+	void restoresSnapshotAndReportsReadyAfterPrefetch() throws Exception {
+		// Hot titles take 2 x 1.5 s one at a time; readiness waits for them
+		assertEquals(503, get("/actuator/health/readiness").statusCode());
+
+		assertTrue(get("/search?title=Snapshot+Movie").body().contains("Snapshot Director"));
+		HttpResponse<String> answer = http.send(HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/ask"))
+			.header("Content-Type", "application/x-www-form-urlencoded")
+			.POST(HttpRequest.BodyPublishers.ofString("query=cached+question"))
+			.build(), HttpResponse.BodyHandlers.ofString());
+		assertTrue(answer.body().contains("Snapshot answer"), answer.body());
+
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (get("/actuator/health/readiness").statusCode() != 200 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(100);
+		}
+		assertEquals(200, get("/actuator/health/readiness").statusCode());
+		assertEquals(2, omdb.requestCount(), "only the hot titles went to OMDb");
+		assertEquals(2, warmup.stats().get("prefetched"));
+
+		// The next snapshot has the restored and the prefetched movies
+		warmup.saveSnapshot();
+		CacheSnapshot.Contents written = CacheSnapshot.read(dir.resolve("cache-snapshot.bin"), System.currentTimeMillis());
+		assertEquals(List.of("Hot One", "Hot Two", "Snapshot Movie"),
+			written.movies().stream().map(m -> m.value().getTitle()).sorted().toList());
+		assertEquals(1, written.answers().size());
+	}
+
+	private HttpResponse<String> get(String path) throws Exception {
+		return http.send(HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + path)).GET().build(),
+			HttpResponse.BodyHandlers.ofString());
+	}
+
+	private static StubUpstreamServer start() {
+		try {
+			return new StubUpstreamServer().omdb().latency(1500);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
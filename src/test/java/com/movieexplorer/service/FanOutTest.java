@@ -0,0 +1,111 @@
+package com.movieexplorer.service;
+
+import com.movieexplorer.cache.SingleFlight;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FanOutTest {
+
+	private static final Duration LONG = Duration.ofSeconds(10);
+
+	private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+	private final FanOut fanOut = new FanOut(executor, ObservationRegistry.NOOP);
+
+	@AfterEach
+	void shutDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void joinReturnsOnceEveryCallHasCompleted() {
+		try (FanOut.Scope scope = fanOut.open()) {
+			FanOut.Subtask<String> first = scope.fork(() -> "Heat", LONG);
+			FanOut.Subtask<Integer> second = scope.fork("omdb", () -> 1995, LONG);
+			scope.join();
+
+			assertEquals("Heat", first.get());
+			assertEquals(1995, second.get());
+		}
+	}
+
+	@Test
+	void missedDeadlineFailsTheJoin() {
+		CountDownLatch never = new CountDownLatch(1);
+		try (FanOut.Scope scope = fanOut.open()) {
+			scope.fork(() -> never.await(10, TimeUnit.SECONDS), Duration.ofMillis(50));
+			long start = System.nanoTime();
+
+			RuntimeException e = assertThrows(RuntimeException.class, scope::join);
+			assertTrue(e.getMessage().contains("timed out after 50 ms"), e.getMessage());
+			assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+		}
+	}
+
+	@Test
+	void failuresPropagateRuntimeExceptionsAsIsAndWrapChecked() {
+		try (FanOut.Scope scope = fanOut.open()) {
+			scope.fork(() -> {
+				throw new MovieNotFoundException("Nothing");
+			}, LONG);
+			assertThrows(MovieNotFoundException.class, scope::join);
+		}
+		try (FanOut.Scope scope = fanOut.open()) {
+			scope.fork(() -> {
+				throw new IOException("reset");
+			}, LONG);
+			RuntimeException e = assertThrows(RuntimeException.class, scope::join);
+			assertInstanceOf(IOException.class, e.getCause());
+		}
+	}
+
+	@Test
+	void firstFailureStopsTheWaitWithoutInterruptingASharedCall() throws Exception {
+		SingleFlight<String, String> lookups = new SingleFlight<>("test");
+		CountDownLatch leading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicBoolean interrupted = new AtomicBoolean();
+		Future<String> otherRequest;
+
+		try (FanOut.Scope scope = fanOut.open()) {
+			// Leads the lookup of B, as the second movie of "/compare A vs B"
+			FanOut.Subtask<String> b = scope.fork(() -> lookups.execute("b", () -> {
+				leading.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					interrupted.set(true);
+					throw new IllegalStateException("interrupted");
+				}
+				return "B";
+			}), LONG);
+			assertTrue(leading.await(5, TimeUnit.SECONDS));
+
+			// An unrelated request for B joins the in-flight lookup
+			otherRequest = executor.submit(() -> lookups.execute("b", () -> "second call"));
+			while (lookups.stats().collapsed() == 0) Thread.sleep(5);
+
+			// A is not found: the join fails at once, before B is done
+			scope.fork(() -> {
+				throw new MovieNotFoundException("A");
+			}, LONG);
+			assertThrows(MovieNotFoundException.class, scope::join);
+			assertThrows(IllegalStateException.class, b::get);
+		}
+
+		release.countDown();
+		assertEquals("B", otherRequest.get(5, TimeUnit.SECONDS));
+		assertFalse(interrupted.get());
+	}
+}
@@ -0,0 +1,63 @@
+package com.movieexplorer.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeedbackJournalTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void recoversIntactRecordsAndDropsTornTail() throws Exception {
+		Path file = dir.resolve("journal.log");
+		try (FeedbackJournal journal = FeedbackJournal.open(file, 10, new ArrayList<>())) {
+			assertEquals(11, journal.append(bytes("one")));
+			assertEquals(12, journal.append(bytes("two")));
+			journal.sync(12);
+		}
+		long intact = Files.size(file);
+		// A crash in the middle of the third record
+		Files.write(file, new byte[] {0, 0, 0, 5, 0, 0, 0, 0, 0, 0, 0, 13, 't', 'h'}, StandardOpenOption.APPEND);
+
+		List<FeedbackJournal.Record> recovered = new ArrayList<>();
+		try (FeedbackJournal journal = FeedbackJournal.open(file, 0, recovered)) {
+			assertEquals(List.of("one", "two"), recovered.stream().map(r -> new String(r.payload(), StandardCharsets.UTF_8)).toList());
+			assertEquals(intact, Files.size(file));
+			assertEquals(13, journal.append(bytes("three")));
+		}
+	}
+
+	@Test
+	void rejectsCorruptedRecordAndKeepsCountingAfterTruncate() throws Exception {
+		Path file = dir.resolve("journal.log");
+		try (FeedbackJournal journal = FeedbackJournal.open(file, 0, new ArrayList<>())) {
+			journal.append(bytes("kept"));
+			journal.append(bytes("flipped"));
+		}
+		byte[] raw = Files.readAllBytes(file);
+		raw[raw.length - 6] ^= 1;
+		Files.write(file, raw);
+
+		List<FeedbackJournal.Record> recovered = new ArrayList<>();
+		try (FeedbackJournal journal = FeedbackJournal.open(file, 0, recovered)) {
+			assertEquals(1, recovered.size());
+			journal.truncate();
+			assertEquals(0, journal.sizeBytes());
+			assertEquals(2, journal.append(bytes("next")));
+		}
+	}
+
+	private static byte[] bytes(String text) {
+		return text.getBytes(StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,95 @@
+package com.movieexplorer.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.movieexplorer.model.Feedback;
+import com.movieexplorer.repository.FeedbackRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+	"spring.datasource.url=jdbc:h2:mem:feedback-write-behind",
+	"feedback.write-behind.enabled=true",
+	"feedback.write-behind.max-batch=8",
+	"feedback.write-behind.compact-bytes=0"
+})
+class FeedbackWriteBehindTest {
+
+	@TempDir
+	static Path dir;
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private FeedbackRepository feedbackRepository;
+
+	@Autowired
+	private FeedbackWriteBehind writeBehind;
+
+	private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+	/**
+	 * Leaves a journal behind as a crashed run would: two submissions that never reached the database.
+	 */
+	@DynamicPropertySource
+	static void journal(DynamicPropertyRegistry registry) throws Exception {
+		Path file = dir.resolve("feedback-journal.log");
+		ObjectMapper mapper = new ObjectMapper();
+		try (FeedbackJournal journal = FeedbackJournal.open(file, 0, new ArrayList<>())) {
+			journal.append(mapper.writeValueAsBytes(new Feedback(null, "crashed", "c@b.c", "before crash 1", null)));
+			journal.append(mapper.writeValueAsBytes(new Feedback(null, "crashed", "c@b.c", "before crash 2", null)));
+		}
+		registry.add("feedback.write-behind.journal-file", file::toString);
+	}
+
+	@Test
+	void replaysJournalThenWritesFormSubmissionsInBatches() throws Exception {
+		assertEquals(2, feedbackRepository.findAll().stream().filter(f -> f.getUserName().equals("crashed")).count());
+
+		List<CompletableFuture<HttpResponse<String>>> posts = new ArrayList<>();
+		for (int i = 0; i < 40; i++) {
+			String form = "userName=u" + i + "&userEmail=u%40b.c&message=" + URLEncoder.encode("queued " + i, StandardCharsets.UTF_8);
+			posts.add(http.sendAsync(HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/feedback"))
+				.header("Content-Type", "application/x-www-form-urlencoded")
+				.POST(HttpRequest.BodyPublishers.ofString(form))
+				.build(), HttpResponse.BodyHandlers.ofString()));
+		}
+		for (CompletableFuture<HttpResponse<String>> post : posts) {
+			assertTrue(post.get().body().contains("Thank you for your feedback!"));
+			assertFalse(post.get().body().contains("class=\"feedback-list\""), "no list query on a queued submission");
+		}
+
+		long deadline = System.currentTimeMillis() + 10_000;
+		while ((!writeBehind.stats().get("written").equals(42L) || !writeBehind.stats().get("journalBytes").equals(0L))
+			&& System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+		}
+		assertEquals(42, feedbackRepository.count());
+
+		Map<String, Object> stats = writeBehind.stats();
+		assertEquals(40L, stats.get("accepted"));
+		assertEquals(42L, stats.get("written"));
+		assertTrue((long) stats.get("maxBatchSize") <= 8);
+		assertEquals(42L, stats.get("checkpointSeq"));
+		assertEquals(0L, stats.get("journalBytes"));
+	}
+}
@@ -0,0 +1,114 @@
+package com.movieexplorer.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeminiBatcherTest {
+
+	@Test
+	void splitsAnswerByMarker() {
+		String answer = """
+			Sure! Here you go.
+			**[R2]**
+			1. Ronin
+			2. Heat
+
+			[R1] 1. Aliens
+			[R3]
+			[R2]
+			1. Duplicate
+			""";
+
+		String[] sections = GeminiBatcher.sections(answer, 3);
+
+		assertEquals("1. Aliens", sections[0]);
+		assertEquals("1. Ronin\n2. Heat", sections[1]);
+		assertNull(sections[2]);
+	}
+
+	@Test
+	void lonePromptIsSentAsIsAfterTheWindow() {
+		GeminiBatcher batcher = new GeminiBatcher(4, 1, 5000, prompt -> "answer to " + prompt, answer -> true);
+
+		assertEquals("answer to one", batcher.submit("one"));
+		assertEquals(1, batcher.singleCalls());
+		assertEquals(0, batcher.batchCalls());
+	}
+
+	@Test
+	void interruptedOpenerStillSendsTheBatchOthersJoined() throws Exception {
+		GeminiBatcher batcher = new GeminiBatcher(4, 60_000, 5000, prompt -> "answer to " + prompt, answer -> true);
+		AtomicReference<Throwable> openerFailure = new AtomicReference<>();
+		AtomicReference<String> joinerAnswer = new AtomicReference<>();
+
+		Thread opener = Thread.ofPlatform().start(() -> {
+			try {
+				batcher.submit("one");
+			} catch (GeminiException e) {
+				openerFailure.set(e);
+			}
+		});
+		awaitState(opener, Thread.State.TIMED_WAITING);
+		Thread joiner = Thread.ofPlatform().start(() -> joinerAnswer.set(batcher.submit("two")));
+		awaitState(joiner, Thread.State.TIMED_WAITING);
+
+		opener.interrupt();
+		opener.join(5000);
+		joiner.join(5000);
+
+		assertInstanceOf(GeminiException.class, openerFailure.get());
+		assertEquals("answer to two", joinerAnswer.get());
+		assertEquals(1, batcher.singleCalls());
+	}
+
+	@Test
+	void callersWaitForTheirBatchOnlyUpToMaxWait() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		GeminiBatcher batcher = new GeminiBatcher(2, 60_000, 100, prompt -> {
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return "[R1] a\n[R2] b";
+		}, answer -> true);
+		AtomicReference<Throwable> openerFailure = new AtomicReference<>();
+
+		Thread opener = Thread.ofPlatform().start(() -> {
+			try {
+				batcher.submit("one");
+			} catch (GeminiException e) {
+				openerFailure.set(e);
+			}
+		});
+		awaitState(opener, Thread.State.TIMED_WAITING);
+		// Fills the batch and sends it; its call hangs
+		Thread sender = Thread.ofPlatform().start(() -> batcher.submit("two"));
+		opener.join(5000);
+
+		assertFalse(opener.isAlive());
+		assertTrue(openerFailure.get().getMessage().contains("within 100 ms"), openerFailure.get().getMessage());
+		release.countDown();
+		sender.join(5000);
+	}
+
+	@Test
+	void batchPromptNumbersEachRequest() {
+		String prompt = GeminiBatcher.batchPrompt(List.of("first", "second"));
+
+		assertTrue(prompt.contains("\n[R1] first\n"));
+		assertTrue(prompt.contains("\n[R2] second\n"));
+	}
+
+	private static void awaitState(Thread thread, Thread.State state) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (thread.getState() != state && System.nanoTime() < deadline) Thread.sleep(5);
+		assertEquals(state, thread.getState());
+	}
+}
@@ -0,0 +1,48 @@
+package com.movieexplorer.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okio.Buffer;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeminiCodecTest {
+
+	@Test
+	void requestBodyEscapesPromptInsteadOfRewritingQuotes() throws Exception {
+		String prompt = "Compare \"Alien\" and 'Aliens'\n\\ back\tslash é";
+		Buffer sink = new Buffer();
+		GeminiCodec.requestBody(prompt).writeTo(sink);
+
+		String sent = new ObjectMapper().readTree(sink.readUtf8())
+			.path("contents").path(0).path("parts").path(0).path("text").asText();
+		assertEquals(prompt, sent);
+	}
+
+	@Test
+	void readsOnlyTheFirstCandidateText() throws Exception {
+		String response = """
+			{"promptFeedback":{"blockReason":null},
+			 "candidates":[{"finishReason":"STOP","safetyRatings":[{"category":"x","probability":"LOW"}],
+			   "content":{"role":"model","parts":[{"text":"1. Heat\\n2. \\"Ronin\\""},{"text":"ignored"}]}},
+			  {"content":{"parts":[{"text":"second candidate"}]}}],
+			 "usageMetadata":{"totalTokenCount":12}}""";
+
+		assertEquals("1. Heat\n2. \"Ronin\"",
+			GeminiCodec.readText(new ByteArrayInputStream(response.getBytes(StandardCharsets.UTF_8))));
+		assertNull(GeminiCodec.readText("{\"candidates\":[]}"));
+		assertNull(GeminiCodec.readText("{\"error\":{\"code\":400}}"));
+	}
+
+	@Test
+	void extractsNumberedTitles() {
+		String raw = "Sure! Here you go:\n1. The Prestige\r\n2.\tShutter Island \n3.Memento\n10. Tenet\n";
+
+		assertEquals(List.of("The Prestige", "Shutter Island", "Tenet"), GeminiCodec.numberedTitles(raw));
+		assertTrue(GeminiCodec.numberedTitles("No list here").isEmpty());
+	}
+}
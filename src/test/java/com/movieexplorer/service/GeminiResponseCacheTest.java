@@ -0,0 +1,35 @@
+package com.movieexplorer.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.movieexplorer.service.GeminiResponseCache.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeminiResponseCacheTest {
+
+	@Test
+	void recommendationKeyIgnoresListOrderAndCase() {
+		assertEquals(
+			recommendationKey("The Matrix", List.of("Sci-Fi", "Action"), List.of("dark", "tense")),
+			recommendationKey("  the  matrix ", List.of("action", " sci-fi"), List.of("Tense", "Dark")));
+		assertNotEquals(
+			recommendationKey("The Matrix", List.of("Action"), List.of("Dark")),
+			recommendationKey("The Matrix", List.of("Dark"), List.of("Action")));
+	}
+
+	@Test
+	void comparisonKeyIsTheSameEitherWayRound() {
+		assertEquals(comparisonKey("Heat", "Alien"), comparisonKey("Alien", "Heat"));
+		assertEquals(comparisonKey("Heat", "Alien"), comparisonKey("ALIEN ", " heat"));
+		assertNotEquals(comparisonKey("Heat", "Alien"), comparisonKey("Heat", "Aliens"));
+	}
+
+	@Test
+	void queryKeyFoldsCaseAndWhitespaceButKeepsPlus() {
+		assertEquals(queryKey("Best heist movies?"), queryKey("  best   HEIST\tmovies? "));
+		assertNotEquals(queryKey("Movies about C++"), queryKey("Movies about C"));
+		assertNotEquals(queryKey("1+1 movies"), queryKey("1 1 movies"));
+	}
+}
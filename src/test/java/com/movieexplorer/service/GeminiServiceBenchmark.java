@@ -0,0 +1,115 @@
+package com.movieexplorer.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Gemini request/response hot paths that run on every recommendation:
+ * prompt building, request JSON encoding, response parsing and title
+ * extraction. The legacy* methods keep the previous String.format /
+ * readTree / per-call regex implementations as a baseline for -prof gc.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeminiServiceBenchmark {
+
+	private static final String RAW_RESPONSE = """
+		Here are three movies you might enjoy:
+		1. The Prestige
+		2. Shutter Island
+		3. Memento
+		""";
+
+	private static final String PROMPT = "Suggest exactly 3 movies similar to 'Inception' in genres: sci-fi, thriller "
+		+ "with moods: dark, \"thought-provoking\". Respond ONLY with a numbered list of movie titles (1. Title) "
+		+ "without any explanations, descriptions, formatting, or additional text.";
+
+	private static final byte[] RESPONSE = ("{\"candidates\":[{\"content\":{\"parts\":[{\"text\":"
+		+ "\"1. The Prestige\\n2. Shutter Island\\n3. Memento\"}],\"role\":\"model\"},\"finishReason\":\"STOP\","
+		+ "\"safetyRatings\":[{\"category\":\"HARM_CATEGORY_HARASSMENT\",\"probability\":\"NEGLIGIBLE\"}]}],"
+		+ "\"usageMetadata\":{\"promptTokenCount\":54,\"candidatesTokenCount\":14,\"totalTokenCount\":68},"
+		+ "\"modelVersion\":\"gemini-2.0-flash\"}").getBytes(StandardCharsets.UTF_8);
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	// Reused and cleared so okio segment allocation does not swamp the encoder's own cost
+	private final Buffer sink = new Buffer();
+	private final GeminiService service = new GeminiService(null, null, null);
+	private final List<String> genres = List.of("sci-fi", "thriller");
+	private final List<String> moods = List.of("dark", "thought-provoking");
+
+	@Benchmark
+	public String extractCleanTitles() {
+		return service.extractCleanTitles(RAW_RESPONSE);
+	}
+
+	@Benchmark
+	public String buildRecommendationPrompt() {
+		return service.buildRecommendationPrompt("Inception", genres, moods);
+	}
+
+	/**
+	 * Builds the request body and serializes it, as OkHttp does when sending.
+	 */
+	@Benchmark
+	public long buildRequestBody() throws IOException {
+		service.buildRequestBody(PROMPT).writeTo(sink);
+		long size = sink.size();
+		sink.clear();
+		return size;
+	}
+
+	@Benchmark
+	public String parseResponse() throws IOException {
+		return GeminiCodec.readText(new ByteArrayInputStream(RESPONSE));
+	}
+
+	@Benchmark
+	public String legacyExtractCleanTitles() {
+		List<String> titles = new ArrayList<>();
+		Matcher matcher = Pattern.compile("^\\d+\\.\\s+(.+)$", Pattern.MULTILINE).matcher(RAW_RESPONSE);
+		while (matcher.find()) {
+			titles.add(matcher.group(1).trim());
+		}
+		return titles.isEmpty() ? RAW_RESPONSE : String.join("\n", titles);
+	}
+
+	@Benchmark
+	public long legacyBuildRequestBody() throws IOException {
+		String json = String.format("{ \"contents\": [{ \"parts\": [{ \"text\": \"%s\" }] }] }", PROMPT.replace("\"", "'"));
+		RequestBody.create(json, MediaType.get("application/json")).writeTo(sink);
+		long size = sink.size();
+		sink.clear();
+		return size;
+	}
+
+	@Benchmark
+	public String legacyParseResponse() throws IOException {
+		return objectMapper.readTree(new ByteArrayInputStream(RESPONSE)).path("candidates").get(0)
+			.path("content").path("parts").get(0).path("text").asText("No response found");
+	}
+}
@@ -0,0 +1,79 @@
+package com.movieexplorer.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.movieexplorer.bench.MovieFixtures;
+import com.movieexplorer.model.CachedMovie;
+import com.movieexplorer.model.Movie;
+import com.movieexplorer.model.MovieTitleKey;
+import com.movieexplorer.repository.CachedMovieRepository;
+import com.movieexplorer.repository.MovieTitleKeyRepository;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MovieCacheTest {
+
+	@Test
+	void startsAFreshDictionaryOnceTheCurrentOneIsFull() {
+		MovieCache cache = new MovieCache(null, null, null, 1000, 360, 10, 168, 200);
+		List<Movie> movies = MovieFixtures.movies(500, 7);
+		for (Movie movie : movies) cache.restoreMovie(movie, Duration.ofHours(1));
+
+		// A full dictionary is only replaced when the next movie is encoded, so it may overshoot by one movie
+		assertTrue((int) cache.stats().get("dictionaryEntries") < 250);
+		for (Movie movie : movies) {
+			assertEquals(movie, cache.findByImdbId(movie.getImdbID()).orElseThrow());
+		}
+	}
+
+	@Test
+	void persistedMoviesAreOnlyServedWhileFresh() throws Exception {
+		List<Movie> movies = MovieFixtures.movies(2, 11);
+		Movie fresh = movies.get(0);
+		Movie expired = movies.get(1);
+		ObjectMapper mapper = new ObjectMapper();
+		Map<String, Object> movieRows = new HashMap<>();
+		movieRows.put(fresh.getImdbID(), new CachedMovie(fresh.getImdbID(), fresh.getTitle(),
+			mapper.writeValueAsString(fresh), Instant.now().minus(Duration.ofHours(167))));
+		movieRows.put(expired.getImdbID(), new CachedMovie(expired.getImdbID(), expired.getTitle(),
+			mapper.writeValueAsString(expired), Instant.now().minus(Duration.ofHours(169))));
+		Map<String, Object> titleRows = Map.of("fresh one", new MovieTitleKey("fresh one", fresh.getImdbID()));
+		AtomicInteger movieReads = new AtomicInteger();
+		MovieCache cache = new MovieCache(
+			repository(CachedMovieRepository.class, movieRows, movieReads),
+			repository(MovieTitleKeyRepository.class, titleRows, new AtomicInteger()),
+			null, 1000, 360, 10, 168, 200);
+
+		assertEquals(fresh, cache.findPersistedByTitle("Fresh  One").orElseThrow());
+		assertEquals(fresh, cache.findInMemoryByTitle("fresh one").orElseThrow());
+		assertEquals(fresh, cache.findByImdbId(fresh.getImdbID()).orElseThrow());
+		assertEquals(1, movieReads.get());
+
+		// Past its freshness window a persisted movie is a miss, kept only as a stale fallback
+		assertTrue(cache.findByImdbId(expired.getImdbID()).isEmpty());
+		assertEquals(expired, cache.findStaleByImdbId(expired.getImdbID()).orElseThrow());
+		assertTrue(cache.findByImdbId(expired.getImdbID()).isEmpty());
+		assertEquals(1, cache.persistentHits());
+		assertEquals(2, cache.persistentMisses());
+		assertEquals(1, cache.staleHits());
+	}
+
+	// Repository backed by a map; the reads under test only call findById
+	@SuppressWarnings("unchecked")
+	private static <R> R repository(Class<R> type, Map<String, Object> rows, AtomicInteger reads) {
+		return (R) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+			if (!method.getName().equals("findById")) throw new UnsupportedOperationException(method.getName());
+			reads.incrementAndGet();
+			return Optional.ofNullable(rows.get(args[0]));
+		});
+	}
+}
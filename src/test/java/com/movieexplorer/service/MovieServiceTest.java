@@ -0,0 +1,30 @@
+package com.movieexplorer.service;
+
+import com.movieexplorer.model.Movie;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MovieServiceTest {
+
+	@Test
+	void knownMissingTitlesNeverReachThePersistentTier() {
+		List<String> persistedLookups = new ArrayList<>();
+		MovieCache cache = new MovieCache(null, null, null, 1000, 360, 10, 168, 50_000) {
+			@Override
+			public Optional<Movie> findPersistedByTitle(String title) {
+				persistedLookups.add(title);
+				return Optional.empty();
+			}
+		};
+		cache.putMissing("No Such Movie");
+		MovieService service = new MovieService(cache, null, null, null);
+
+		assertThrows(MovieNotFoundException.class, () -> service.getMovieByTitle("no  such movie"));
+		assertEquals(List.of(), persistedLookups);
+	}
+}
@@ -0,0 +1,71 @@
+package com.movieexplorer.service;
+
+import com.movieexplorer.support.StubUpstreamServer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PosterStoreTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void storesEachImageOnceWithAThumbnail() throws IOException {
+		byte[] jpeg = StubUpstreamServer.jpeg(300, 450);
+		try (PosterStore store = PosterStore.open(dir, 10_000_000, 100)) {
+			PosterStore.Variant first = store.put("http://a/1.jpg", jpeg, "image/jpeg", false);
+			PosterStore.Variant second = store.put("http://b/same.jpg", jpeg, "image/jpeg", false);
+
+			assertEquals(first.path(), second.path());
+			assertArrayEquals(jpeg, Files.readAllBytes(first.path()));
+			PosterStore.Variant thumb = store.get("http://b/same.jpg", true).orElseThrow();
+			assertEquals(100, ImageIO.read(thumb.path().toFile()).getWidth());
+			assertEquals(150, ImageIO.read(thumb.path().toFile()).getHeight());
+			assertEquals(1, store.stats().get("images"));
+		}
+	}
+
+	@Test
+	void evictsLeastRecentlyServedImagesPastTheByteBound() throws IOException {
+		try (PosterStore store = PosterStore.open(dir, 2500, 0)) {
+			store.put("a", bytes(1000, 1), "image/png", false);
+			store.put("b", bytes(1000, 2), "image/png", false);
+			store.get("a", false); // b is now the least recently served
+			PosterStore.Variant c = store.put("c", bytes(1000, 3), "image/png", false);
+
+			assertTrue(store.get("a", false).isPresent());
+			assertTrue(store.get("b", false).isEmpty());
+			assertTrue(Files.exists(c.path()));
+			assertEquals(2000L, store.stats().get("diskBytes"));
+		}
+	}
+
+	@Test
+	void reopenedStoreFindsPostersAndDropsUnindexedFiles() throws IOException {
+		Path stored;
+		try (PosterStore store = PosterStore.open(dir, 10_000, 0)) {
+			stored = store.put("a", bytes(100, 1), "image/png", false).path();
+		}
+		Path orphan = Files.writeString(stored.resolveSibling("orphan"), "x");
+
+		try (PosterStore store = PosterStore.open(dir, 10_000, 0)) {
+			assertEquals(stored, store.get("a", false).orElseThrow().path());
+			assertEquals("image/png", store.get("a", false).orElseThrow().contentType());
+		}
+		assertFalse(Files.exists(orphan));
+	}
+
+	private static byte[] bytes(int length, int value) {
+		byte[] bytes = new byte[length];
+		Arrays.fill(bytes, (byte) value);
+		return bytes;
+	}
+}
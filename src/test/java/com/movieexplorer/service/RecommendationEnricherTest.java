@@ -0,0 +1,93 @@
+package com.movieexplorer.service;
+
+import com.movieexplorer.model.Movie;
+import com.movieexplorer.observability.ErrorMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecommendationEnricherTest {
+
+	private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+	@AfterEach
+	void shutDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void returnsWhatResolvedByTheDeadlineWithoutInterruptingTheRest() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch finished = new CountDownLatch(1);
+		AtomicBoolean interrupted = new AtomicBoolean();
+		RecommendationEnricher enricher = enricher(4, 200, title -> {
+			if (title.equals("Slow")) {
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					interrupted.set(true);
+				}
+				finished.countDown();
+			}
+			if (title.equals("Missing")) throw new MovieNotFoundException(title);
+			return movie(title);
+		});
+
+		Map<String, Movie> movies = enricher.enrich(List.of("Heat", "Slow", "Missing", "Ronin"));
+
+		assertEquals(List.of("Heat", "Ronin"), List.copyOf(movies.keySet()));
+		release.countDown();
+		assertTrue(finished.await(5, TimeUnit.SECONDS));
+		assertFalse(interrupted.get());
+	}
+
+	@Test
+	void runsAtMostMaxParallelLookupsAtOnce() {
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger peak = new AtomicInteger();
+		RecommendationEnricher enricher = enricher(2, 5000, title -> {
+			peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+			try {
+				Thread.sleep(30);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			running.decrementAndGet();
+			return movie(title);
+		});
+
+		List<String> titles = List.of("A", "B", "C", "D", "E", "F");
+		assertEquals(titles, List.copyOf(enricher.enrich(titles).keySet()));
+		assertEquals(2, peak.get());
+	}
+
+	private RecommendationEnricher enricher(int maxParallel, long deadlineMs, Function<String, Movie> lookup) {
+		MovieService movieService = new MovieService(null, null, null, null) {
+			@Override
+			public Movie getMovieByTitle(String title) {
+				return lookup.apply(title);
+			}
+		};
+		return new RecommendationEnricher(movieService, executor, maxParallel, deadlineMs,
+			ObservationRegistry.NOOP, new ErrorMetrics(new SimpleMeterRegistry()));
+	}
+
+	private static Movie movie(String title) {
+		Movie movie = new Movie();
+		movie.setTitle(title);
+		return movie;
+	}
+}
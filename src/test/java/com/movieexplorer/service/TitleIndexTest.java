@@ -0,0 +1,90 @@
+package com.movieexplorer.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TitleIndexTest {
+
+	private TitleIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new TitleIndex(0.7);
+		index.add("Inception", "2010", "tt1375666");
+		index.add("Amélie", "2001", "tt0211915");
+		index.add("The Dark Knight", "2008", "tt0468569");
+		index.add("Fast & Furious", "2009", "tt1013752");
+		index.add("Heat", "1995", "tt0113277");
+		index.add("Dune", "1984", "tt0087182");
+		index.add("Dune", "2021", "tt1160419");
+	}
+
+	@Test
+	void normalizesKeys() {
+		assertEquals("amelie", TitleIndex.keyOf("AMÉLIE!"));
+		assertEquals("dark knight", TitleIndex.keyOf("The  Dark-Knight"));
+		assertEquals("fast and furious", TitleIndex.keyOf("Fast & Furious"));
+		assertEquals("schindlers list", TitleIndex.keyOf("Schindler's List"));
+		assertEquals("the", TitleIndex.keyOf("The"));
+	}
+
+	@Test
+	void resolvesByKeyIgnoringYearSuffix() {
+		assertEquals("tt0211915", id("amelie"));
+		assertEquals("tt0468569", id("Dark Knight"));
+		assertEquals("tt1013752", id("fast and furious"));
+		assertEquals("tt1375666", id("Inception (2010)"));
+		assertTrue(index.resolve("Inception").get().exact());
+	}
+
+	@Test
+	void yearTellsRemakesApartAndRejectsWrongYears() {
+		assertEquals("tt0087182", id("Dune"));
+		assertEquals("tt1160419", id("Dune (2021)"));
+		assertEquals("tt0087182", id("Dune [1985]"));
+		assertTrue(index.resolve("Inception (1999)").isEmpty());
+	}
+
+	@Test
+	void resolvesMisspellingsFuzzily() {
+		Optional<TitleIndex.Match> match = index.resolve("Incepton");
+		assertEquals("tt1375666", match.map(TitleIndex.Match::imdbId).orElse(null));
+		assertFalse(match.get().exact());
+		assertEquals("tt0468569", id("the dark knigth"));
+	}
+
+	@Test
+	void fuzzyMatchesNeedSameNumbersAndSimilarLength() {
+		index.add("Heat 2", "2026", "tt9000002");
+
+		assertEquals("tt9000002", id("Heat 2"));
+		assertTrue(index.resolve("Heat 3").isEmpty());
+		assertTrue(index.resolve("The Dark Knight Rises").isEmpty());
+		assertTrue(index.resolve("Interstellar").isEmpty());
+	}
+
+	@Test
+	void exactResolutionNeverGuesses() {
+		index.add("Alien", "1979", "tt0078748");
+
+		assertEquals("tt0078748", id("Aliens"));
+		assertTrue(index.resolveExact("Aliens").isEmpty());
+		assertTrue(index.resolveExact("Incepton").isEmpty());
+		assertEquals("tt0078748", index.resolveExact("alien (1979)").get().imdbId());
+	}
+
+	@Test
+	void aliasesResolveExactly() {
+		index.addAlias("Le Fabuleux Destin d'Amélie Poulain (2001)", "tt0211915");
+
+		assertEquals("tt0211915", id("le fabuleux destin damelie poulain"));
+	}
+
+	private String id(String title) {
+		return index.resolve(title).map(TitleIndex.Match::imdbId).orElse(null);
+	}
+}
@@ -0,0 +1,178 @@
+package com.movieexplorer.support;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for OMDb / Gemini used by tests and benchmarks.
+ * Runs on virtual threads so the stub itself is never the bottleneck.
+ */
+public class StubUpstreamServer implements AutoCloseable {
+
+	private final HttpServer server;
+	private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+	private final AtomicInteger requests = new AtomicInteger();
+	private volatile long latencyMs;
+	private volatile int faultStatus;
+
+	public StubUpstreamServer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+		server.setExecutor(executor);
+		server.start();
+	}
+
+	/**
+	 * Registers a handler; the configured latency is applied before it runs,
+	 * and an injected fault status replaces its answer.
+	 */
+	public StubUpstreamServer route(String path, HttpHandler handler) {
+		server.createContext(path, exchange -> {
+			requests.incrementAndGet();
+			try {
+				if (latencyMs > 0) Thread.sleep(latencyMs);
+				int fault = faultStatus;
+				if (fault > 0) respond(exchange, fault, "application/json", "{\"error\":" + fault + "}");
+				else handler.handle(exchange);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} finally {
+				exchange.close();
+			}
+		});
+		return this;
+	}
+
+	/**
+	 * Serves OMDb-shaped movie JSON for any t= or i= query; an i= lookup
+	 * answers with the ID it asked for.
+	 */
+	public StubUpstreamServer omdb() {
+		return omdb(null);
+	}
+
+	/**
+	 * Same as omdb(), with each movie's Poster at posterBase + "/" + imdbID + ".jpg".
+	 */
+	public StubUpstreamServer omdb(String posterBase) {
+		return route("/omdb", exchange -> {
+			Map<String, String> query = query(exchange);
+			String title = query.getOrDefault("t", query.getOrDefault("i", "Unknown"));
+			String id = query.containsKey("i") ? query.get("i") : "tt" + Math.abs(title.toLowerCase().hashCode());
+			String poster = posterBase == null ? "" : "\"Poster\":\"" + posterBase + "/" + id + ".jpg\",";
+			respond(exchange, 200, "application/json", """
+				{"Title":"%s","Year":"2010","Genre":"Action, Sci-Fi","Director":"Stub Director",
+				 "Actors":"Actor One, Actor Two","Plot":"A stub plot.","Language":"English",%s
+				 "imdbRating":"8.0","imdbID":"%s","Response":"True"}""".formatted(title, poster, id));
+		});
+	}
+
+	/**
+	 * Serves the same JPEG for every path under the prefix.
+	 */
+	public StubUpstreamServer images(String prefix, byte[] jpeg) {
+		return route(prefix, exchange -> {
+			exchange.getResponseHeaders().set("Content-Type", "image/jpeg");
+			exchange.sendResponseHeaders(200, jpeg.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(jpeg);
+			}
+		});
+	}
+
+	/**
+	 * A JPEG of the given size with a gradient, so it does not compress to nothing.
+	 */
+	public static byte[] jpeg(int width, int height) {
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				image.setRGB(x, y, (x * 255 / width) << 16 | (y * 255 / height) << 8 | ((x ^ y) & 0xff));
+			}
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try {
+			ImageIO.write(image, "jpg", out);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return out.toByteArray();
+	}
+
+	/**
+	 * Serves a fixed Gemini generateContent answer.
+	 */
+	public StubUpstreamServer gemini(String answer) {
+		return route("/gemini", exchange -> respond(exchange, 200, "application/json", """
+			{"candidates":[{"content":{"parts":[{"text":%s}]}}]}""".formatted(jsonString(answer))));
+	}
+
+	public StubUpstreamServer latency(long millis) {
+		this.latencyMs = millis;
+		return this;
+	}
+
+	/**
+	 * Answers every request with this status (e.g. 429) until set back to 0.
+	 */
+	public StubUpstreamServer fault(int status) {
+		this.faultStatus = status;
+		return this;
+	}
+
+	public String url(String path) {
+		return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+	}
+
+	public int requestCount() {
+		return requests.get();
+	}
+
+	public static Map<String, String> query(HttpExchange exchange) {
+		Map<String, String> params = new LinkedHashMap<>();
+		String raw = exchange.getRequestURI().getRawQuery();
+		if (raw == null) return params;
+		for (String pair : raw.split("&")) {
+			int eq = pair.indexOf('=');
+			if (eq > 0) {
+				params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+					URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+			}
+		}
+		return params;
+	}
+
+	public static void respond(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", contentType);
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+	public static String jsonString(String value) {
+		return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n") + "\"";
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.close();
+	}
+}